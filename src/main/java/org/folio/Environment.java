@@ -17,6 +17,108 @@ public class Environment {
     return getVariable("SCHEDULED_ANONYMIZATION_NUMBER_OF_LOANS_TO_CHECK", 50000);
   }
 
+  public static String getCirculationRulesEngine() {
+    return getVariable("CIRCULATION_RULES_ENGINE", "drools");
+  }
+
+  public static int getCirculationRulesMatchCacheSize() {
+    return getVariable("CIRCULATION_RULES_MATCH_CACHE_SIZE", 10000);
+  }
+
+  public static int getCirculationRulesMaxAgeSeconds() {
+    return getVariable("CIRCULATION_RULES_MAX_AGE_SECONDS", 5);
+  }
+
+  public static int getCirculationRulesCompilerThreads() {
+    return getVariable("CIRCULATION_RULES_COMPILER_THREADS", 2);
+  }
+
+  public static int getLocationCacheTimeToLiveSeconds() {
+    return getVariable("LOCATION_CACHE_TTL_SECONDS", 60);
+  }
+
+  public static int getLocationCacheMaximumEntries() {
+    return getVariable("LOCATION_CACHE_MAX_ENTRIES", 5000);
+  }
+
+  public static String getCirculationRulesCacheDirectory() {
+    return getVariable("CIRCULATION_RULES_CACHE_DIR", null);
+  }
+
+  public static String getCirculationRulesCacheKey() {
+    return getVariable("CIRCULATION_RULES_CACHE_KEY", null);
+  }
+
+  public static int getReferenceDataCacheTimeToLiveSeconds() {
+    return getVariable("REFERENCE_DATA_CACHE_TTL_SECONDS", 60);
+  }
+
+  public static int getReferenceDataCacheStaleSeconds() {
+    return getVariable("REFERENCE_DATA_CACHE_STALE_SECONDS", 60);
+  }
+
+  public static int getReferenceDataCacheMaximumEntries() {
+    return getVariable("REFERENCE_DATA_CACHE_MAX_ENTRIES", 5000);
+  }
+
+  public static String getReferenceDataCacheTypes() {
+    return getVariable("REFERENCE_DATA_CACHE_TYPES", null);
+  }
+
+  public static boolean getHttpClientGetDeduplicationEnabled() {
+    return Boolean.parseBoolean(getVariable("HTTP_CLIENT_GET_DEDUPLICATION", "true"));
+  }
+
+  public static boolean getBatchedRecordLookupsEnabled() {
+    return Boolean.parseBoolean(getVariable("BATCHED_RECORD_LOOKUPS", "true"));
+  }
+
+  public static int getCqlIndexValuesFinderMaximumConcurrentQueries() {
+    return getVariable("CQL_FINDER_MAX_CONCURRENT_QUERIES", 5);
+  }
+
+  public static String getOutboxDirectory() {
+    return getVariable("CIRCULATION_OUTBOX_DIR", null);
+  }
+
+  public static int getOutboxMaximumAttempts() {
+    return getVariable("CIRCULATION_OUTBOX_MAX_ATTEMPTS", 10);
+  }
+
+  public static int getOutboxMaximumInFlight() {
+    return getVariable("CIRCULATION_OUTBOX_MAX_IN_FLIGHT", 20);
+  }
+
+  public static int getScheduledNoticesMaximumConcurrent() {
+    return getVariable("SCHEDULED_NOTICES_MAX_CONCURRENT", 10);
+  }
+
+  public static int getPatronActionSessionsMaximumConcurrentPatrons() {
+    return getVariable("PATRON_ACTION_SESSIONS_MAX_CONCURRENT_PATRONS", 10);
+  }
+
+  public static int getPatronActionSessionsMaximumConcurrentDeletions() {
+    return getVariable("PATRON_ACTION_SESSIONS_MAX_CONCURRENT_DELETIONS", 10);
+  }
+
+  public static int getLostItemFeeRefundsMaximumConcurrent() {
+    return getVariable("LOST_ITEM_FEE_REFUNDS_MAX_CONCURRENT", 5);
+  }
+
+  public static int getAgedToLostMaximumConcurrentLoans() {
+    return getVariable("AGED_TO_LOST_MAX_CONCURRENT_LOANS", 10);
+  }
+
+  public static int getAgedToLostFeeChargingMaximumConcurrentLoans() {
+    return getVariable("AGED_TO_LOST_FEE_CHARGING_MAX_CONCURRENT_LOANS", 5);
+  }
+
+  private static String getVariable(String key, String defaultValue) {
+    final var variable = System.getenv().get(key);
+
+    return isBlank(variable) ? defaultValue : variable;
+  }
+
   private static int getVariable(String key, int defaultValue) {
     final var variable = System.getenv().get(key);
 
@@ -4,10 +4,13 @@ import java.lang.invoke.MethodHandles;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.circulation.resources.BulkCheckInByBarcodeResource;
 import org.folio.circulation.resources.ChangeDueDateResource;
 import org.folio.circulation.resources.CheckInByBarcodeResource;
 import org.folio.circulation.resources.CheckOutByBarcodeResource;
+import org.folio.circulation.resources.CirculationMetricsResource;
 import org.folio.circulation.resources.CirculationRulesResource;
+import org.folio.circulation.resources.CirculationRulesWarmUpResource;
 import org.folio.circulation.resources.ClaimItemReturnedResource;
 import org.folio.circulation.resources.DeclareClaimedReturnedItemAsMissingResource;
 import org.folio.circulation.resources.DeclareLostResource;
@@ -22,6 +25,7 @@ import org.folio.circulation.resources.LoanCollectionResource;
 import org.folio.circulation.resources.LoanScheduledNoticeProcessingResource;
 import org.folio.circulation.resources.LostItemCirculationRulesEngineResource;
 import org.folio.circulation.resources.NoticeCirculationRulesEngineResource;
+import org.folio.circulation.resources.OutboxProcessingResource;
 import org.folio.circulation.resources.OverdueFineCirculationRulesEngineResource;
 import org.folio.circulation.resources.PickSlipsResource;
 import org.folio.circulation.resources.RequestByInstanceIdResource;
@@ -37,6 +41,7 @@ import org.folio.circulation.resources.agedtolost.ScheduledAgeToLostResource;
 import org.folio.circulation.resources.handlers.LoanRelatedFeeFineClosedHandlerResource;
 import org.folio.circulation.resources.renewal.RenewByBarcodeResource;
 import org.folio.circulation.resources.renewal.RenewByIdResource;
+import org.folio.circulation.services.outbox.Outbox;
 import org.folio.circulation.support.logging.LogHelper;
 import org.folio.circulation.support.logging.Logging;
 
@@ -67,10 +72,11 @@ public class CirculationVerticle extends AbstractVerticle {
 
     router.route().handler(rc -> LogHelper.logRequest(rc, log));
 
-    new TenantActivationResource().register(router);
+    new TenantActivationResource(client).register(router);
 
     new CheckOutByBarcodeResource("/circulation/check-out-by-barcode", client).register(router);
     new CheckInByBarcodeResource(client).register(router);
+    new BulkCheckInByBarcodeResource(client).register(router);
 
     new RenewByBarcodeResource(client).register(router);
     new RenewByIdResource(client).register(router);
@@ -92,23 +98,28 @@ public class CirculationVerticle extends AbstractVerticle {
       .register(router);
     new LoanCirculationRulesEngineResource(
       "/circulation/rules/loan-policy",
-      "/circulation/rules/loan-policy-all", client)
+      "/circulation/rules/loan-policy-all",
+      "/circulation/rules/loan-policy-batch", client)
       .register(router);
     new OverdueFineCirculationRulesEngineResource(
       "/circulation/rules/overdue-fine-policy",
-      "/circulation/rules/overdue-fine-policy-all", client)
+      "/circulation/rules/overdue-fine-policy-all",
+      "/circulation/rules/overdue-fine-policy-batch", client)
       .register(router);
     new LostItemCirculationRulesEngineResource(
       "/circulation/rules/lost-item-policy",
-      "/circulation/rules/lost-item-policy-all", client)
+      "/circulation/rules/lost-item-policy-all",
+      "/circulation/rules/lost-item-policy-batch", client)
       .register(router);
     new RequestCirculationRulesEngineResource(
       "/circulation/rules/request-policy",
-      "/circulation/rules/request-policy-all", client)
+      "/circulation/rules/request-policy-all",
+      "/circulation/rules/request-policy-batch", client)
       .register(router);
     new NoticeCirculationRulesEngineResource(
       "/circulation/rules/notice-policy",
-      "/circulation/rules/notice-policy-all", client)
+      "/circulation/rules/notice-policy-all",
+      "/circulation/rules/notice-policy-batch", client)
       .register(router);
 
     new LoanScheduledNoticeProcessingResource(client).register(router);
@@ -125,10 +136,15 @@ public class CirculationVerticle extends AbstractVerticle {
     new DeclareClaimedReturnedItemAsMissingResource(client).register(router);
     new ScheduledAgeToLostResource(client).register(router);
     new ScheduledAgeToLostFeeChargingResource(client).register(router);
+    new CirculationMetricsResource(client).register(router);
+    new CirculationRulesWarmUpResource(client).register(router);
+    new OutboxProcessingResource(client).register(router);
 
     // Handlers
     new LoanRelatedFeeFineClosedHandlerResource(client).register(router);
 
+    Outbox.getInstance().start(vertx, client);
+
     server.requestHandler(router)
       .listen(config().getInteger("port"), result -> {
         if (result.succeeded()) {
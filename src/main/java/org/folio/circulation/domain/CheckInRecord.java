@@ -101,6 +101,10 @@ public class CheckInRecord {
     return new Builder();
   }
 
+  public String getItemId() {
+    return itemId;
+  }
+
   public JsonObject toJson() {
     JsonObject json = new JsonObject()
       .put(OCCURRED_DATE_TIME, formatDateTime(occurredDateTime))
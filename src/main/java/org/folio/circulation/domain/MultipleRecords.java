@@ -3,6 +3,7 @@ package org.folio.circulation.domain;
 import static java.util.function.Function.identity;
 import static java.util.stream.Stream.concat;
 import static org.folio.circulation.support.json.JsonObjectArrayPropertyFetcher.mapToList;
+import static org.folio.circulation.support.json.JsonRecordsDecoder.decode;
 import static org.folio.circulation.support.results.Result.succeeded;
 
 import java.util.ArrayList;
@@ -38,13 +39,18 @@ public class MultipleRecords<T> {
     return new MultipleRecords<>(new ArrayList<>(), 0);
   }
 
+  /**
+   * Records are mapped as they are decoded from the body of the response,
+   * without building the JSON of the whole collection
+   */
   public static <T> Result<MultipleRecords<T>> from(
     Response response,
     Function<JsonObject, T> mapper,
     String recordsPropertyName) {
 
     return new ResponseInterpreter<MultipleRecords<T>>()
-      .flatMapOn(200, r -> from(r.getJson(), mapper, recordsPropertyName))
+      .flatMapOn(200, r -> succeeded(decode(r.getBodyAsBuffer(),
+        recordsPropertyName, mapper)))
       .apply(response);
   }
 
@@ -37,7 +37,9 @@ public class OverduePeriodCalculatorService {
 
     if (preconditionsAreMet(loan, systemTime, shouldCountClosedPeriods)) {
       return completedFuture(loan)
-        .thenComposeAsync(loanPolicyRepository::lookupPolicy)
+        .thenComposeAsync(l -> loanPolicyRepository.lookupPolicyMatches(
+          l.getItem(), l.getUser()))
+        .thenCompose(r -> r.after(loanPolicyRepository::lookupPolicy))
         .thenApply(r -> r.map(loan::withLoanPolicy))
         .thenCompose(r -> r.after(l -> getOverdueMinutes(l, systemTime, shouldCountClosedPeriods)
             .thenApply(flatMapResult(om -> adjustOverdueWithGracePeriod(l, om)))));
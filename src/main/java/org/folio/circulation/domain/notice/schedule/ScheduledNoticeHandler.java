@@ -15,6 +15,7 @@ import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.Environment;
 import org.folio.circulation.domain.Account;
 import org.folio.circulation.domain.FeeFineAction;
 import org.folio.circulation.domain.Loan;
@@ -43,6 +44,10 @@ import lombok.With;
 
 public abstract class ScheduledNoticeHandler {
   protected static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+  // A page of notices is handled by a scheduled job, which should leave
+  // connections for other requests
+  private static final int MAX_CONCURRENT_NOTICES =
+    Math.max(1, Environment.getScheduledNoticesMaximumConcurrent());
 
   protected final ScheduledNoticesRepository scheduledNoticesRepository;
   protected final LoanRepository loanRepository;
@@ -65,7 +70,7 @@ public abstract class ScheduledNoticeHandler {
   public CompletableFuture<Result<List<ScheduledNotice>>> handleNotices(
     Collection<ScheduledNotice> scheduledNotices) {
 
-    return allOf(scheduledNotices, this::handleNotice);
+    return allOf(scheduledNotices, MAX_CONCURRENT_NOTICES, this::handleNotice);
   }
 
   private CompletableFuture<Result<ScheduledNotice>> handleNotice(ScheduledNotice notice) {
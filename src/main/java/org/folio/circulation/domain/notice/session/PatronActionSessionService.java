@@ -22,6 +22,7 @@ import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.Environment;
 import org.folio.circulation.domain.CheckInContext;
 import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.LoanAndRelatedRecords;
@@ -44,6 +45,10 @@ import lombok.AllArgsConstructor;
 public class PatronActionSessionService {
   private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
   private static final PageLimit DEFAULT_SESSION_SIZE_PAGE_LIMIT = limit(200);
+  private static final int MAX_CONCURRENT_PATRONS =
+    Math.max(1, Environment.getPatronActionSessionsMaximumConcurrentPatrons());
+  private static final int MAX_CONCURRENT_SESSION_DELETIONS =
+    Math.max(1, Environment.getPatronActionSessionsMaximumConcurrentDeletions());
   private static final EnumMap<PatronActionType, NoticeEventType> actionToEventMap;
 
   static {
@@ -170,7 +175,7 @@ public class PatronActionSessionService {
       .collect(groupingBy(PatronSessionRecord::getPatronId))
       .values();
 
-    return allOf(groupedSessions, this::processSessions)
+    return allOf(groupedSessions, MAX_CONCURRENT_PATRONS, this::processSessions)
       .thenApply(mapResult(v -> null));
   }
 
@@ -204,7 +209,8 @@ public class PatronActionSessionService {
 
     return sessions == null || sessions.isEmpty()
       ? ofAsync(() -> sessions)
-      : allOf(sessions, patronActionSessionRepository::delete);
+      : allOf(sessions, MAX_CONCURRENT_SESSION_DELETIONS,
+        patronActionSessionRepository::delete);
   }
 
   private Result<Void> handleResult(Result<?> result) {
@@ -0,0 +1,82 @@
+package org.folio.circulation.domain.representations;
+
+import static java.util.stream.Collectors.toList;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+import static org.folio.circulation.support.json.JsonPropertyFetcher.getDateTimeProperty;
+import static org.folio.circulation.support.json.JsonPropertyFetcher.getUUIDProperty;
+import static org.folio.circulation.support.json.JsonStringArrayPropertyFetcher.toStream;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.json.JsonObject;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Check in of many items at the same service point, each item is checked
+ * in as if by a check in by barcode request with the other properties
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BulkCheckInByBarcodeRequest {
+  public static final int MAXIMUM_ITEM_BARCODES = 1000;
+
+  private static final String ITEM_BARCODES = "itemBarcodes";
+  private static final String ITEM_BARCODE = "itemBarcode";
+  private static final String CHECK_IN_DATE = "checkInDate";
+  private static final String SERVICE_POINT_ID = "servicePointId";
+
+  private final List<String> itemBarcodes;
+  private final UUID servicePointId;
+  @Getter(AccessLevel.NONE)
+  private final JsonObject checkInRepresentation;
+
+  public static Result<BulkCheckInByBarcodeRequest> from(JsonObject json) {
+    final List<String> itemBarcodes = toStream(json, ITEM_BARCODES).collect(toList());
+
+    if (itemBarcodes.isEmpty()) {
+      return failedValidation("Bulk checkin request must have item barcodes",
+        ITEM_BARCODES, null);
+    }
+
+    if (itemBarcodes.size() > MAXIMUM_ITEM_BARCODES) {
+      return failedValidation(String.format(
+        "Bulk checkin request must have no more than %d item barcodes",
+        MAXIMUM_ITEM_BARCODES), ITEM_BARCODES, String.valueOf(itemBarcodes.size()));
+    }
+
+    final UUID servicePointId = getUUIDProperty(json, SERVICE_POINT_ID);
+
+    if (servicePointId == null) {
+      return failedValidation("Bulk checkin request must have a service point id",
+        SERVICE_POINT_ID, null);
+    }
+
+    if (getDateTimeProperty(json, CHECK_IN_DATE) == null) {
+      return failedValidation("Bulk checkin request must have a check in date",
+        CHECK_IN_DATE, null);
+    }
+
+    final JsonObject checkInRepresentation = json.copy();
+
+    checkInRepresentation.remove(ITEM_BARCODES);
+
+    return succeeded(new BulkCheckInByBarcodeRequest(itemBarcodes, servicePointId,
+      checkInRepresentation));
+  }
+
+  /**
+   * @return a check in request for each barcode, in the same order
+   */
+  public List<Result<CheckInByBarcodeRequest>> checkInRequests() {
+    return itemBarcodes.stream()
+      .map(barcode -> checkInRepresentation.copy().put(ITEM_BARCODE, barcode))
+      .map(CheckInByBarcodeRequest::from)
+      .collect(toList());
+  }
+}
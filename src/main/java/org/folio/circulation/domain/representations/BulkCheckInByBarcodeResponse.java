@@ -0,0 +1,66 @@
+package org.folio.circulation.domain.representations;
+
+import static org.folio.circulation.domain.representations.BulkResponseErrors.errorsFor;
+import static org.folio.circulation.support.http.server.JsonHttpResponse.ok;
+import static org.folio.circulation.support.json.JsonPropertyWriter.write;
+
+import java.util.List;
+
+import org.folio.circulation.domain.CheckInContext;
+import org.folio.circulation.support.http.server.HttpResponse;
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The outcome of checking in each item of a bulk check in, in the order of the
+ * barcodes in the request. An item that was checked in has the same
+ * representation as the response to a check in by barcode request, an item
+ * that could not be checked in has the errors that request would have failed with
+ */
+public class BulkCheckInByBarcodeResponse {
+  private final List<String> itemBarcodes;
+  private final List<Result<CheckInContext>> checkIns;
+
+  public BulkCheckInByBarcodeResponse(List<String> itemBarcodes,
+    List<Result<CheckInContext>> checkIns) {
+
+    this.itemBarcodes = itemBarcodes;
+    this.checkIns = checkIns;
+  }
+
+  public HttpResponse toHttpResponse() {
+    return ok(toJson());
+  }
+
+  private JsonObject toJson() {
+    final JsonArray checkInsJson = new JsonArray();
+
+    for (int index = 0; index < checkIns.size(); index++) {
+      checkInsJson.add(toJson(itemBarcodes.get(index), checkIns.get(index)));
+    }
+
+    final JsonObject json = new JsonObject();
+
+    write(json, "checkIns", checkInsJson);
+    write(json, "totalRecords", checkIns.size());
+
+    return json;
+  }
+
+  private static JsonObject toJson(String itemBarcode, Result<CheckInContext> checkIn) {
+    final JsonObject json = new JsonObject();
+
+    write(json, "itemBarcode", itemBarcode);
+
+    if (checkIn.succeeded()) {
+      write(json, "checkIn", CheckInByBarcodeResponse.fromRecords(checkIn.value()).toJson());
+    }
+    else {
+      write(json, "errors", errorsFor(checkIn.cause()));
+    }
+
+    return json;
+  }
+}
@@ -0,0 +1,79 @@
+package org.folio.circulation.domain.representations;
+
+import static java.util.stream.Collectors.toList;
+import static org.folio.circulation.domain.representations.CheckOutByBarcodeRequest.ITEM_BARCODE;
+import static org.folio.circulation.domain.representations.CheckOutByBarcodeRequest.LOAN_DATE;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+import static org.folio.circulation.support.json.JsonStringArrayPropertyFetcher.toStream;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.util.List;
+
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.json.JsonObject;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Check out of many items to the same patron, each item is checked out as if
+ * by a check out by barcode request with the other properties
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BulkCheckOutByBarcodeRequest {
+  /**
+   * A patron checks out at most a pile of items at a self check kiosk
+   */
+  public static final int MAXIMUM_ITEM_BARCODES = 100;
+
+  private static final String ITEM_BARCODES = "itemBarcodes";
+
+  private final List<String> itemBarcodes;
+  /**
+   * Check out request for the patron without an item, for the checks that
+   * are the same for every item
+   */
+  private final CheckOutByBarcodeRequest patronRequest;
+  @Getter(AccessLevel.NONE)
+  private final JsonObject checkOutRepresentation;
+
+  public static Result<BulkCheckOutByBarcodeRequest> from(JsonObject json) {
+    final List<String> itemBarcodes = toStream(json, ITEM_BARCODES).collect(toList());
+
+    if (itemBarcodes.isEmpty()) {
+      return failedValidation("Bulk check out request must have item barcodes",
+        ITEM_BARCODES, null);
+    }
+
+    if (itemBarcodes.size() > MAXIMUM_ITEM_BARCODES) {
+      return failedValidation(String.format(
+        "Bulk check out request must have no more than %d item barcodes",
+        MAXIMUM_ITEM_BARCODES), ITEM_BARCODES, String.valueOf(itemBarcodes.size()));
+    }
+
+    final JsonObject checkOutRepresentation = json.copy();
+
+    checkOutRepresentation.remove(ITEM_BARCODES);
+
+    final CheckOutByBarcodeRequest patronRequest = CheckOutByBarcodeRequest.fromJson(
+      checkOutRepresentation);
+
+    // Every loan begins at the same time, even when none is given
+    checkOutRepresentation.put(LOAN_DATE, patronRequest.getLoanDate());
+
+    return succeeded(new BulkCheckOutByBarcodeRequest(itemBarcodes, patronRequest,
+      checkOutRepresentation));
+  }
+
+  /**
+   * @return a check out request for each barcode, in the same order
+   */
+  public List<CheckOutByBarcodeRequest> checkOutRequests() {
+    return itemBarcodes.stream()
+      .map(barcode -> checkOutRepresentation.copy().put(ITEM_BARCODE, barcode))
+      .map(CheckOutByBarcodeRequest::fromJson)
+      .collect(toList());
+  }
+}
@@ -0,0 +1,65 @@
+package org.folio.circulation.domain.representations;
+
+import static org.folio.circulation.domain.representations.BulkResponseErrors.errorsFor;
+import static org.folio.circulation.support.http.server.JsonHttpResponse.ok;
+import static org.folio.circulation.support.json.JsonPropertyWriter.write;
+
+import java.util.List;
+
+import org.folio.circulation.support.http.server.HttpResponse;
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The outcome of checking out each item of a bulk check out, in the order of
+ * the barcodes in the request. An item that was checked out has the loan
+ * created, as in the response to a check out by barcode request, an item that
+ * could not be checked out has the errors that request would have failed with
+ */
+public class BulkCheckOutByBarcodeResponse {
+  private final List<String> itemBarcodes;
+  private final List<Result<JsonObject>> loans;
+
+  public BulkCheckOutByBarcodeResponse(List<String> itemBarcodes,
+    List<Result<JsonObject>> loans) {
+
+    this.itemBarcodes = itemBarcodes;
+    this.loans = loans;
+  }
+
+  public HttpResponse toHttpResponse() {
+    return ok(toJson());
+  }
+
+  private JsonObject toJson() {
+    final JsonArray checkOutsJson = new JsonArray();
+
+    for (int index = 0; index < loans.size(); index++) {
+      checkOutsJson.add(toJson(itemBarcodes.get(index), loans.get(index)));
+    }
+
+    final JsonObject json = new JsonObject();
+
+    write(json, "checkOuts", checkOutsJson);
+    write(json, "totalRecords", loans.size());
+
+    return json;
+  }
+
+  private static JsonObject toJson(String itemBarcode, Result<JsonObject> loan) {
+    final JsonObject json = new JsonObject();
+
+    write(json, "itemBarcode", itemBarcode);
+
+    if (loan.succeeded()) {
+      write(json, "loan", loan.value());
+    }
+    else {
+      write(json, "errors", errorsFor(loan.cause()));
+    }
+
+    return json;
+  }
+}
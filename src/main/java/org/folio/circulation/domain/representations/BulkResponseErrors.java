@@ -0,0 +1,42 @@
+package org.folio.circulation.domain.representations;
+
+import java.util.stream.Collectors;
+
+import org.folio.circulation.support.BadRequestFailure;
+import org.folio.circulation.support.HttpFailure;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.ValidationErrorFailure;
+import org.folio.circulation.support.http.server.ValidationError;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Errors for an item in a response to a bulk request, the same errors a
+ * request for that item alone would have failed with
+ */
+final class BulkResponseErrors {
+  private BulkResponseErrors() { }
+
+  static JsonArray errorsFor(HttpFailure failure) {
+    if (failure instanceof ValidationErrorFailure) {
+      return new JsonArray(((ValidationErrorFailure) failure).getErrors().stream()
+        .map(ValidationError::toJson)
+        .collect(Collectors.toList()));
+    }
+
+    return new JsonArray().add(new JsonObject().put("message", reasonFor(failure)));
+  }
+
+  private static String reasonFor(HttpFailure failure) {
+    if (failure instanceof ServerErrorFailure) {
+      return ((ServerErrorFailure) failure).getReason();
+    }
+    else if (failure instanceof BadRequestFailure) {
+      return ((BadRequestFailure) failure).getReason();
+    }
+    else {
+      return failure.toString();
+    }
+  }
+}
@@ -24,6 +24,7 @@ import static org.folio.circulation.resources.handlers.error.CirculationErrorTyp
 import static org.folio.circulation.resources.handlers.error.CirculationErrorType.USER_IS_BLOCKED_MANUALLY;
 import static org.folio.circulation.resources.handlers.error.CirculationErrorType.USER_IS_INACTIVE;
 import static org.folio.circulation.support.ValidationErrorFailure.singleValidationError;
+import static org.folio.circulation.support.results.Result.succeeded;
 import static org.folio.circulation.support.ErrorCode.ITEM_HAS_OPEN_LOAN;
 
 import java.util.Optional;
@@ -65,6 +66,14 @@ public class CheckOutValidators {
     CirculationErrorHandler errorHandler, OkapiPermissions permissions,
     LoanRepository loanRepository) {
 
+    this(request, clients, errorHandler, permissions, loanRepository,
+      new ItemLimitValidator(request, loanRepository));
+  }
+
+  public CheckOutValidators(CheckOutByBarcodeRequest request, Clients clients,
+    CirculationErrorHandler errorHandler, OkapiPermissions permissions,
+    LoanRepository loanRepository, ItemLimitValidator limitValidator) {
+
     this.errorHandler = errorHandler;
 
     final AutomatedPatronBlocksRepository automatedPatronBlocksRepository =
@@ -98,7 +107,7 @@ public class CheckOutValidators {
         ITEM_HAS_OPEN_LOAN));
 
     itemLimitValidator = createItemLimitValidator(request, permissions,
-      loanRepository);
+      limitValidator);
 
     automatedPatronBlocksValidator = createAutomatedPatronBlocksValidator(request, permissions,
       automatedPatronBlocksRepository);
@@ -139,25 +148,53 @@ public class CheckOutValidators {
         USER_IS_INACTIVE, result));
   }
 
+  /**
+   * Starts checking for automated patron blocks whilst other records are
+   * fetched, the outcome is applied by
+   * {@link #refuseWhenCheckOutActionIsBlockedAutomaticallyForPatron}
+   *
+   * @param recordsWithUser records once the user has been found
+   */
+  public CompletableFuture<Result<LoanAndRelatedRecords>> startAutomatedPatronBlocksCheck(
+    CompletableFuture<Result<LoanAndRelatedRecords>> recordsWithUser) {
+
+    return startBlockCheck(automatedPatronBlocksValidator, recordsWithUser);
+  }
+
   public CompletableFuture<Result<LoanAndRelatedRecords>>
-  refuseWhenCheckOutActionIsBlockedAutomaticallyForPatron(Result<LoanAndRelatedRecords> result) {
+  refuseWhenCheckOutActionIsBlockedAutomaticallyForPatron(Result<LoanAndRelatedRecords> result,
+    CompletableFuture<Result<LoanAndRelatedRecords>> automatedBlocksCheck) {
 
     if (errorHandler.hasAny(FAILED_TO_FETCH_USER)) {
       return completedFuture(result);
     }
 
-    return result.after(l -> automatedPatronBlocksValidator.validate(l)
+    return result.after(l -> blockCheckOutcome(automatedPatronBlocksValidator, automatedBlocksCheck, l)
       .thenApply(r -> errorHandler.handleValidationResult(r, automatedPatronBlocksValidator.getErrorType(), result)));
   }
 
+  /**
+   * Starts checking for manual patron blocks whilst other records are
+   * fetched, the outcome is applied by
+   * {@link #refuseWhenCheckOutActionIsBlockedManuallyForPatron}
+   *
+   * @param recordsWithUser records once the user has been found
+   */
+  public CompletableFuture<Result<LoanAndRelatedRecords>> startManualPatronBlocksCheck(
+    CompletableFuture<Result<LoanAndRelatedRecords>> recordsWithUser) {
+
+    return startBlockCheck(manualPatronBlocksValidator, recordsWithUser);
+  }
+
   public CompletableFuture<Result<LoanAndRelatedRecords>>
-  refuseWhenCheckOutActionIsBlockedManuallyForPatron(Result<LoanAndRelatedRecords> result) {
+  refuseWhenCheckOutActionIsBlockedManuallyForPatron(Result<LoanAndRelatedRecords> result,
+    CompletableFuture<Result<LoanAndRelatedRecords>> manualBlocksCheck) {
 
     if (errorHandler.hasAny(FAILED_TO_FETCH_USER)) {
       return completedFuture(result);
     }
 
-    return result.after(l -> manualPatronBlocksValidator.validate(l)
+    return result.after(l -> blockCheckOutcome(manualPatronBlocksValidator, manualBlocksCheck, l)
       .thenApply(r -> errorHandler.handleValidationResult(
         r, manualPatronBlocksValidator.getErrorType(), result)));
   }
@@ -174,14 +211,27 @@ public class CheckOutValidators {
         PROXY_USER_IS_INACTIVE, result));
   }
 
+  /**
+   * Starts checking the proxy relationship whilst other records are fetched,
+   * the outcome is applied by {@link #refuseWhenInvalidProxyRelationship}
+   *
+   * @param recordsWithUsers records once the user and proxy user have been found
+   */
+  public CompletableFuture<Result<LoanAndRelatedRecords>> startProxyRelationshipCheck(
+    CompletableFuture<Result<LoanAndRelatedRecords>> recordsWithUsers) {
+
+    return recordsWithUsers.thenCompose(r -> r.after(proxyRelationshipValidator::refuseWhenInvalid));
+  }
+
   public CompletableFuture<Result<LoanAndRelatedRecords>> refuseWhenInvalidProxyRelationship(
-    Result<LoanAndRelatedRecords> result) {
+    Result<LoanAndRelatedRecords> result,
+    CompletableFuture<Result<LoanAndRelatedRecords>> proxyRelationshipCheck) {
 
     if (errorHandler.hasAny(FAILED_TO_FETCH_USER, FAILED_TO_FETCH_PROXY_USER)) {
       return completedFuture(result);
     }
 
-    return result.after(l -> proxyRelationshipValidator.refuseWhenInvalid(l)
+    return result.after(l -> checkOutcome(proxyRelationshipCheck, l)
       .thenApply(r -> errorHandler.handleValidationResult(r, INVALID_PROXY_RELATIONSHIP, l)));
   }
 
@@ -221,14 +271,29 @@ public class CheckOutValidators {
         ITEM_IS_NOT_ALLOWED_FOR_CHECK_OUT, result));
   }
 
+  /**
+   * Starts checking for open loans for the item whilst other records are
+   * fetched, the outcome is applied by {@link #refuseWhenItemHasOpenLoans}
+   *
+   * @param recordsWithItem records once the item has been fetched
+   */
+  public CompletableFuture<Result<LoanAndRelatedRecords>> startOpenLoansCheck(
+    CompletableFuture<Result<LoanAndRelatedRecords>> recordsWithItem) {
+
+    return recordsWithItem.thenCompose(r -> r.after(records -> records.getItem().isFound()
+      ? openLoanValidator.refuseWhenHasOpenLoan(records)
+      : completedFuture(succeeded(records))));
+  }
+
   public CompletableFuture<Result<LoanAndRelatedRecords>> refuseWhenItemHasOpenLoans(
-    Result<LoanAndRelatedRecords> result) {
+    Result<LoanAndRelatedRecords> result,
+    CompletableFuture<Result<LoanAndRelatedRecords>> openLoansCheck) {
 
     if (errorHandler.hasAny(FAILED_TO_FETCH_ITEM)) {
       return completedFuture(result);
     }
 
-    return result.after(l -> openLoanValidator.refuseWhenHasOpenLoan(l)
+    return result.after(l -> checkOutcome(openLoansCheck, l)
       .thenApply(r -> errorHandler.handleValidationResult(r, ITEM_HAS_OPEN_LOANS, l)));
   }
 
@@ -273,12 +338,12 @@ public class CheckOutValidators {
   }
 
   private BlockValidator<LoanAndRelatedRecords> createItemLimitValidator(CheckOutByBarcodeRequest request,
-    OkapiPermissions permissions, LoanRepository loanRepository) {
+    OkapiPermissions permissions, ItemLimitValidator limitValidator) {
 
     return request.getBlockOverrides().getItemLimitBlockOverride().isRequested()
       ? new OverridingLoanValidator(ITEM_LIMIT_BLOCK, request.getBlockOverrides(), permissions)
       : new BlockValidator<>(ITEM_LIMIT_IS_REACHED,
-      new ItemLimitValidator(request, loanRepository)::refuseWhenItemLimitIsReached);
+      limitValidator::refuseWhenItemLimitIsReached);
   }
 
   private BlockValidator<LoanAndRelatedRecords> createLoanPolicyValidator(CheckOutByBarcodeRequest request,
@@ -299,6 +364,42 @@ public class CheckOutValidators {
       new UserManualBlocksValidator(clients)::refuseWhenUserIsBlocked);
   }
 
+  private CompletableFuture<Result<LoanAndRelatedRecords>> startBlockCheck(
+    BlockValidator<LoanAndRelatedRecords> validator,
+    CompletableFuture<Result<LoanAndRelatedRecords>> records) {
+
+    // Overriding a block fetches nothing, it is applied when its outcome is needed
+    if (validator instanceof OverridingLoanValidator) {
+      return completedFuture(succeeded(null));
+    }
+
+    return records.thenCompose(r -> r.after(validator::validate));
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> blockCheckOutcome(
+    BlockValidator<LoanAndRelatedRecords> validator,
+    CompletableFuture<Result<LoanAndRelatedRecords>> startedCheck,
+    LoanAndRelatedRecords records) {
+
+    // Overriding a block changes the loan being checked out
+    if (validator instanceof OverridingLoanValidator) {
+      return validator.validate(records);
+    }
+
+    return checkOutcome(startedCheck, records);
+  }
+
+  /**
+   * Checks that are started early only use some of the records, when they
+   * succeed the records as they are now are carried forward
+   */
+  private CompletableFuture<Result<LoanAndRelatedRecords>> checkOutcome(
+    CompletableFuture<Result<LoanAndRelatedRecords>> startedCheck,
+    LoanAndRelatedRecords records) {
+
+    return startedCheck.thenApply(r -> r.map(checkedRecords -> records));
+  }
+
   private boolean isLoanPolicyNotInitialized(Result<LoanAndRelatedRecords> result) {
     return Optional.ofNullable(result.value())
       .map(LoanAndRelatedRecords::getLoan)
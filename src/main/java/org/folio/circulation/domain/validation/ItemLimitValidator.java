@@ -23,6 +23,7 @@ import org.apache.logging.log4j.Logger;
 import org.folio.circulation.domain.Item;
 import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.LoanAndRelatedRecords;
+import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.representations.CheckOutByBarcodeRequest;
 import org.folio.circulation.infrastructure.storage.loans.LoanRepository;
 import org.folio.circulation.rules.AppliedRuleConditions;
@@ -32,22 +33,34 @@ import org.folio.circulation.support.results.Result;
 
 public class ItemLimitValidator {
   private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
-  private static final PageLimit LOANS_PAGE_LIMIT = limit(10000);
+  public static final PageLimit LOANS_PAGE_LIMIT = limit(10000);
   private final Function<ItemLimitValidationErrorCause, ValidationErrorFailure>
     itemLimitErrorFunction;
-  private final LoanRepository loanRepository;
+  private final Function<LoanAndRelatedRecords, CompletableFuture<Result<MultipleRecords<Loan>>>>
+    openLoansFinder;
 
   private ItemLimitValidator(
     Function<ItemLimitValidationErrorCause, ValidationErrorFailure> itemLimitErrorFunction,
-    LoanRepository loanRepository) {
+    Function<LoanAndRelatedRecords, CompletableFuture<Result<MultipleRecords<Loan>>>> openLoansFinder) {
 
     this.itemLimitErrorFunction = itemLimitErrorFunction;
-    this.loanRepository = loanRepository;
+    this.openLoansFinder = openLoansFinder;
   }
 
   public ItemLimitValidator(CheckOutByBarcodeRequest request, LoanRepository loanRepository) {
+    this(request, records -> loanRepository.findOpenLoansByUserIdWithItem(
+      LOANS_PAGE_LIMIT, records));
+  }
+
+  /**
+   * @param openLoansFinder finds the open loans (with their items) of the
+   * patron the item is being checked out to
+   */
+  public ItemLimitValidator(CheckOutByBarcodeRequest request,
+    Function<LoanAndRelatedRecords, CompletableFuture<Result<MultipleRecords<Loan>>>> openLoansFinder) {
+
     this(cause -> singleValidationError(cause.formatMessage(), ITEM_BARCODE,
-      request.getItemBarcode(), cause.getErrorCode()), loanRepository);
+      request.getItemBarcode(), cause.getErrorCode()), openLoansFinder);
   }
 
   public CompletableFuture<Result<LoanAndRelatedRecords>> refuseWhenItemLimitIsReached(
@@ -90,7 +103,7 @@ public class ItemLimitValidator {
     Integer itemLimit = records.getLoan().getLoanPolicy().getItemLimit();
     AppliedRuleConditions ruleConditions = records.getLoan().getLoanPolicy().getRuleConditions();
 
-    return loanRepository.findOpenLoansByUserIdWithItem(LOANS_PAGE_LIMIT, records)
+    return openLoansFinder.apply(records)
       .thenApply(r -> r.map(loanRecords -> loanRecords.getRecords().stream()
         .filter(loanRecord -> !loanRecord.getItem().isClaimedReturned())
         .filter(loanRecord -> isMaterialTypeMatchInRetrievedLoan(
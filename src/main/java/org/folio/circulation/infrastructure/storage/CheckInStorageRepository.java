@@ -5,6 +5,7 @@ import static org.folio.circulation.support.http.ResponseMapping.forwardOnFailur
 import java.util.concurrent.CompletableFuture;
 
 import org.folio.circulation.domain.CheckInRecord;
+import org.folio.circulation.services.outbox.OutboxWriter;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.results.Result;
@@ -12,14 +13,21 @@ import org.folio.circulation.support.http.client.ResponseInterpreter;
 
 public class CheckInStorageRepository {
   private final CollectionResourceClient checkInStorageClient;
+  private final OutboxWriter outbox;
 
   public CheckInStorageRepository(Clients clients) {
     checkInStorageClient = clients.checkInStorageClient();
+    outbox = clients.outboxWriter();
   }
 
   public CompletableFuture<Result<Void>> createCheckInLogRecord(
     CheckInRecord checkInRecord) {
 
+    if (outbox.isEnabled()) {
+      return outbox.createRecord(checkInRecord.getItemId(),
+        checkInStorageClient.getCollectionRoot(), checkInRecord.toJson());
+    }
+
     final ResponseInterpreter<Void> interpreter =
       new ResponseInterpreter<Void>()
         .on(201, Result.succeeded(null))
@@ -1,8 +1,11 @@
 package org.folio.circulation.infrastructure.storage;
 
+import static java.lang.String.format;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.folio.circulation.rules.RulesExecutionParameters.forItem;
 import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+import static org.folio.circulation.support.results.Result.succeeded;
 
 import java.lang.invoke.MethodHandles;
 import java.util.concurrent.CompletableFuture;
@@ -15,6 +18,7 @@ import org.folio.circulation.domain.notice.PatronNoticeEvent;
 import org.folio.circulation.rules.AppliedRuleConditions;
 import org.folio.circulation.rules.RulesExecutionParameters;
 import org.folio.circulation.rules.CirculationRuleMatch;
+import org.folio.circulation.rules.CirculationRuleMatches;
 import org.folio.circulation.rules.CirculationRulesProcessor;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
@@ -83,49 +87,81 @@ public abstract class CirculationPolicyRepository<T> {
     return lookupPolicyId(noticeEvent.getItem(), noticeEvent.getUser());
   }
 
+  /**
+   * The policy of this repository's type, taken from the single evaluation of the rules
+   * for all policy types, so other policy lookups for the same item and user reuse it
+   */
   public CompletableFuture<Result<CirculationRuleMatch>> lookupPolicyId(Item item, User user) {
+    return lookupPolicyMatches(item, user)
+      .thenApply(r -> r.map(this::getPolicyMatch));
+  }
+
+  /**
+   * Determine the policies of all policy types with a single evaluation of the rules,
+   * the policy of each type can then be fetched using {@link #lookupPolicy(CirculationRuleMatches)}
+   */
+  public CompletableFuture<Result<CirculationRuleMatches>> lookupPolicyMatches(
+    Item item, User user) {
+
+    return completedFuture(rulesExecutionParameters(item, user))
+      .thenCompose(r -> r.after(parameters ->
+        circulationRulesProcessor.getPoliciesAndMatches(parameters)));
+  }
+
+  public CompletableFuture<Result<T>> lookupPolicy(CirculationRuleMatches matches) {
+    final CirculationRuleMatch match = getPolicyMatch(matches);
+
+    if (match == null || isBlank(match.getPolicyId())) {
+      return completedFuture(failedDueToServerError(format(
+        "Circulation rule on line %d did not determine a policy",
+        matches.getCirculationRuleLine())));
+    }
+
+    return lookupPolicy(match.getPolicyId(), match.getAppliedRuleConditions());
+  }
+
+  private Result<RulesExecutionParameters> rulesExecutionParameters(Item item, User user) {
     if (item == null){
-      return completedFuture(failedDueToServerError(
-        "Unable to apply circulation rules for item that is null"));
+      return failedDueToServerError(
+        "Unable to apply circulation rules for item that is null");
     }
 
     if (user == null){
-      return completedFuture(failedDueToServerError(
-        "Unable to apply circulation rules for item with user that is null"));
+      return failedDueToServerError(
+        "Unable to apply circulation rules for item with user that is null");
     }
 
     if (item.isNotFound()) {
-      return completedFuture(failedDueToServerError(
-        "Unable to apply circulation rules for unknown item"));
+      return failedDueToServerError(
+        "Unable to apply circulation rules for unknown item");
     }
 
     if (user.getPatronGroupId() == null) {
       log.error("PatronGroupId is null for user {}", user.getId());
-      return completedFuture(failedDueToServerError("Unable to apply circulation rules to a user with null value as patronGroupId"));
+      return failedDueToServerError("Unable to apply circulation rules to a user with null value as patronGroupId");
     }
 
     if (item.getEffectiveLocationId() == null) {
       log.error("LocationId is null for item {}", item.getItemId());
-      return completedFuture(failedDueToServerError("Unable to apply circulation rules to an item with null value as locationId"));
+      return failedDueToServerError("Unable to apply circulation rules to an item with null value as locationId");
     }
 
     if (item.getLoanTypeId() == null) {
       log.error("LoanTypeId is null for item {}", item.getItemId());
-      return completedFuture(failedDueToServerError("Unable to apply circulation rules to an item which loan type can not be determined"));
+      return failedDueToServerError("Unable to apply circulation rules to an item which loan type can not be determined");
     }
 
     if (item.getMaterialTypeId() == null) {
       log.error("MaterialTypeId is null for item {}", item.getItemId());
-      return completedFuture(failedDueToServerError("Unable to apply circulation rules to an item with null value as materialTypeId"));
+      return failedDueToServerError("Unable to apply circulation rules to an item with null value as materialTypeId");
     }
 
-    return getPolicyAndMatch(forItem(item, user));
+    return succeeded(forItem(item, user));
   }
 
   protected abstract String getPolicyNotFoundErrorMessage(String policyId);
 
   protected abstract Result<T> toPolicy(JsonObject representation, AppliedRuleConditions ruleConditionsEntity);
 
-  protected abstract CompletableFuture<Result<CirculationRuleMatch>> getPolicyAndMatch(
-    RulesExecutionParameters rulesExecutionParameters);
+  protected abstract CirculationRuleMatch getPolicyMatch(CirculationRuleMatches matches);
 }
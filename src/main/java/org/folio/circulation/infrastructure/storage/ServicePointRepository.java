@@ -1,6 +1,10 @@
 package org.folio.circulation.infrastructure.storage;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.function.Function.identity;
+import static org.folio.circulation.support.cache.ReferenceDataType.SERVICE_POINTS;
+import static org.folio.circulation.support.fetching.RecordFetching.batchingRecordLoader;
+import static org.folio.circulation.support.results.ResultBinding.mapResult;
 import static org.folio.circulation.support.results.Result.ofAsync;
 import static org.folio.circulation.support.results.Result.succeeded;
 import static org.folio.circulation.support.fetching.RecordFetching.findWithMultipleCqlIndexValues;
@@ -24,17 +28,24 @@ import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
+import org.folio.circulation.support.cache.ReferenceDataCache;
+import org.folio.circulation.support.fetching.BatchingRecordLoader;
 import org.folio.circulation.support.results.Result;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import io.vertx.core.json.JsonObject;
+
 public class ServicePointRepository {
   private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
 
   private final CollectionResourceClient servicePointsStorageClient;
+  private final BatchingRecordLoader servicePointLoader;
 
   public ServicePointRepository(Clients clients) {
     servicePointsStorageClient = clients.servicePointsStorage();
+    servicePointLoader = batchingRecordLoader("service point",
+      servicePointsStorageClient, "servicepoints", this::fetchServicePoint);
   }
 
   public CompletableFuture<Result<ServicePoint>> getServicePointById(UUID id) {
@@ -52,9 +63,20 @@ public class ServicePointRepository {
 
     final var mapper = new ServicePointMapper();
 
-    return FetchSingleRecord.<ServicePoint>forRecord("service point")
+    // Single service points are usually cached for the tenant, batching them
+    // would make requests that are less likely to be in the cache
+    final var servicePoint = ReferenceDataCache.getInstance().isEnabled(SERVICE_POINTS)
+      ? fetchServicePoint(id)
+      : servicePointLoader.load(id);
+
+    return servicePoint
+      .thenApply(mapResult(json -> json == null ? null : mapper.toDomain(json)));
+  }
+
+  private CompletableFuture<Result<JsonObject>> fetchServicePoint(String id) {
+    return FetchSingleRecord.<JsonObject>forRecord("service point")
         .using(servicePointsStorageClient)
-        .mapTo(mapper::toDomain)
+        .mapTo(identity())
         .whenNotFound(succeeded(null))
         .fetch(id);
   }
@@ -1,12 +1,16 @@
 package org.folio.circulation.infrastructure.storage.inventory;
 
+import static java.util.stream.Collectors.toList;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allResultsOf;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
 import static org.folio.circulation.support.http.client.PageLimit.limit;
 import static org.folio.circulation.support.http.client.Offset.offset;
+import static org.folio.circulation.support.results.Result.succeeded;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
 
 import org.folio.circulation.domain.Item;
 import org.folio.circulation.domain.ItemsReportFetcher;
@@ -21,55 +25,51 @@ public class ItemReportRepository {
   private final GetManyRecordsClient itemsClient;
 
   private static final int PAGE_LIMIT = 1000;
+  private static final int MAX_PAGES_IN_FLIGHT = 4;
 
   public ItemReportRepository(Clients clients) {
     itemsClient = clients.itemsStorage();
   }
 
+  /**
+   * Fetches the first page of items, then the remaining pages (as indicated
+   * by the total records of the first page) a few at a time
+   */
   public CompletableFuture<Result<ItemsReportFetcher>> getAllItemsByField(String fieldName, String fieldValue) {
-    CompletableFuture<Result<ItemsReportFetcher>> future = new CompletableFuture<>();
-    ItemsReportFetcher itemsReportFetcher = new ItemsReportFetcher(0, new ArrayList<>());
-    fetchNextPage(itemsReportFetcher, future, fieldName, fieldValue);
-    return future;
-  }
+    final Result<CqlQuery> itemsQuery = exactMatch(fieldName, fieldValue);
 
-  private ItemsReportFetcher fillResultItemContext(ItemsReportFetcher itemsReportFetcher,
-                                                   Result<MultipleRecords<Item>> itemRecords) {
-    List<Result<MultipleRecords<Item>>> resultListOfItems = itemsReportFetcher.getResultListOfItems();
-    resultListOfItems.add(itemRecords);
-    int newPageNumber = itemsReportFetcher.getCurrPageNumber() + 1;
-    return new ItemsReportFetcher(newPageNumber, resultListOfItems);
-  }
+    return getItemsPage(itemsQuery, 0)
+      .thenCompose(firstPage -> allResultsOf(remainingPageNumbers(firstPage),
+          MAX_PAGES_IN_FLIGHT, pageNumber -> getItemsPage(itemsQuery, pageNumber))
+        .thenApply(remainingPages -> {
+          final List<Result<MultipleRecords<Item>>> pages = new ArrayList<>();
+
+          pages.add(firstPage);
+          pages.addAll(remainingPages);
 
-  private void fetchNextPage(ItemsReportFetcher itemsReportFetcher,
-                             CompletableFuture<Result<ItemsReportFetcher>> future,
-                             String fieldName, String fieldValue) {
-    getItemsByField(itemsReportFetcher, fieldName, fieldValue)
-      .thenApply(itemRecords -> {
-          ItemsReportFetcher reportFetcher = fillResultItemContext(itemsReportFetcher, itemRecords);
-          int totalRecords = itemRecords.value().getTotalRecords();
-
-          if (totalRecords > reportFetcher.getPageOffset(PAGE_LIMIT)) {
-            fetchNextPage(reportFetcher, future, fieldName, fieldValue);
-          } else {
-            future.complete(Result.of(() -> reportFetcher));
-          }
-          return itemRecords;
-        }
-      );
+          return succeeded(new ItemsReportFetcher(pages.size(), pages));
+        }));
   }
 
-  private CompletableFuture<Result<MultipleRecords<Item>>> getItemsByField(
-    ItemsReportFetcher itemsReportFetcher, String fieldName, String fieldValue) {
+  private List<Integer> remainingPageNumbers(Result<MultipleRecords<Item>> firstPage) {
+    if (firstPage.failed() || firstPage.value().getTotalRecords() == null) {
+      return List.of();
+    }
+
+    final int totalRecords = firstPage.value().getTotalRecords();
+    final int numberOfPages = (totalRecords + PAGE_LIMIT - 1) / PAGE_LIMIT;
+
+    return IntStream.range(1, numberOfPages).boxed().collect(toList());
+  }
 
-    final Result<CqlQuery> itemStatusQuery = exactMatch(fieldName, fieldValue);
-    int pageOffset = itemsReportFetcher.getCurrPageNumber() * PAGE_LIMIT;
+  private CompletableFuture<Result<MultipleRecords<Item>>> getItemsPage(
+    Result<CqlQuery> itemsQuery, int pageNumber) {
 
     final var mapper = new ItemMapper();
 
-    return itemStatusQuery
+    return itemsQuery
       .after(query -> itemsClient.getMany(query, limit(PAGE_LIMIT),
-        offset(pageOffset)))
+        offset(pageNumber * PAGE_LIMIT)))
       .thenApply(result -> result
         .next(response -> MultipleRecords.from(response, mapper::toDomain, "items")));
   }
@@ -2,11 +2,13 @@ package org.folio.circulation.infrastructure.storage.inventory;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
 import static org.folio.circulation.domain.ItemStatus.AVAILABLE;
 import static org.folio.circulation.domain.MultipleRecords.CombinationMatchers.matchRecordsById;
 import static org.folio.circulation.domain.representations.ItemProperties.LAST_CHECK_IN;
 import static org.folio.circulation.domain.representations.ItemProperties.STATUS_PROPERTY;
 import static org.folio.circulation.support.fetching.MultipleCqlIndexValuesCriteria.byIndex;
+import static org.folio.circulation.support.fetching.RecordFetching.batchingRecordLoader;
 import static org.folio.circulation.support.http.CommonResponseInterpreters.noContentRecordInterpreter;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
 import static org.folio.circulation.support.http.client.PageLimit.one;
@@ -21,6 +23,8 @@ import static org.folio.circulation.support.results.ResultBinding.mapResult;
 import java.lang.invoke.MethodHandles;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -42,15 +46,14 @@ import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.ServerErrorFailure;
 import org.folio.circulation.support.SingleRecordFetcher;
+import org.folio.circulation.support.fetching.BatchingRecordLoader;
 import org.folio.circulation.support.fetching.CqlIndexValuesFinder;
 import org.folio.circulation.support.fetching.CqlQueryFinder;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.results.Result;
 
 import io.vertx.core.json.JsonObject;
-import lombok.AllArgsConstructor;
 
-@AllArgsConstructor
 public class ItemRepository {
   private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
 
@@ -62,6 +65,7 @@ public class ItemRepository {
   private final LoanTypeRepository loanTypeRepository;
   private final IdentityMap identityMap = new IdentityMap(
     item -> getProperty(item, "id"));
+  private final BatchingRecordLoader itemLoader;
 
   public ItemRepository(Clients clients) {
     this(clients.itemsStorage(), LocationRepository.using(clients,
@@ -71,6 +75,22 @@ public class ItemRepository {
       new LoanTypeRepository(clients.loanTypesStorage()));
   }
 
+  public ItemRepository(CollectionResourceClient itemsClient,
+    LocationRepository locationRepository,
+    MaterialTypeRepository materialTypeRepository,
+    InstanceRepository instanceRepository, HoldingsRepository holdingsRepository,
+    LoanTypeRepository loanTypeRepository) {
+
+    this.itemsClient = itemsClient;
+    this.locationRepository = locationRepository;
+    this.materialTypeRepository = materialTypeRepository;
+    this.instanceRepository = instanceRepository;
+    this.holdingsRepository = holdingsRepository;
+    this.loanTypeRepository = loanTypeRepository;
+    this.itemLoader = batchingRecordLoader("item", itemsClient, "items",
+      this::fetchSingleItem);
+  }
+
   public CompletableFuture<Result<Item>> fetchFor(ItemRelatedRecord itemRelatedRecord) {
     if (itemRelatedRecord.getItemId() == null) {
       return completedFuture(succeeded(Item.from(null)));
@@ -136,6 +156,30 @@ public class ItemRepository {
       .thenComposeAsync(this::fetchItemRelatedRecords);
   }
 
+  /**
+   * Fetches the items with any of the barcodes, with their holdings but
+   * without their other related records
+   *
+   * @return the items found, by barcode, the barcodes are compared ignoring
+   * case, as they are by the barcode query
+   */
+  public CompletableFuture<Result<Map<String, Item>>> findByBarcodes(
+    Collection<String> barcodes) {
+
+    final var finder = new CqlIndexValuesFinder<>(createItemFinder(),
+      itemsClient.getQuerySlots());
+    final var mapper = new ItemMapper();
+
+    return finder.find(byIndex("barcode", barcodes))
+      .thenApply(mapResult(identityMap::add))
+      .thenApply(mapResult(m -> m.mapRecords(mapper::toDomain)))
+      .thenComposeAsync(this::fetchHoldingsRecords)
+      .thenApply(mapResult(items -> items.getRecords().stream()
+        .filter(item -> item.getBarcode() != null)
+        .collect(toMap(Item::getBarcode, identity(), (first, second) -> first,
+          () -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER)))));
+  }
+
   public CompletableFuture<Result<Item>> fetchById(String itemId) {
     return fetchItem(itemId)
       .thenComposeAsync(this::fetchItemRelatedRecords);
@@ -216,7 +260,8 @@ public class ItemRepository {
   }
 
   private CompletableFuture<Result<MultipleRecords<Item>>> fetchItems(Collection<String> itemIds) {
-    final var finder = new CqlIndexValuesFinder<>(createItemFinder());
+    final var finder = new CqlIndexValuesFinder<>(createItemFinder(),
+      itemsClient.getQuerySlots());
     final var mapper = new ItemMapper();
 
     return finder.findByIds(itemIds)
@@ -232,11 +277,15 @@ public class ItemRepository {
   }
 
   public CompletableFuture<Result<JsonObject>> fetchItemAsJson(String itemId) {
-    return SingleRecordFetcher.jsonOrNull(itemsClient, "item")
-      .fetch(itemId)
+    return itemLoader.load(itemId)
       .thenApply(mapResult(identityMap::add));
   }
 
+  private CompletableFuture<Result<JsonObject>> fetchSingleItem(String itemId) {
+    return SingleRecordFetcher.jsonOrNull(itemsClient, "item")
+      .fetch(itemId);
+  }
+
   private CompletableFuture<Result<Item>> fetchItemByBarcode(String barcode) {
     log.info("Fetching item with barcode: {}", barcode);
 
@@ -274,7 +323,8 @@ public class ItemRepository {
   }
 
   public CompletableFuture<Result<Collection<Item>>> findBy(String indexName, Collection<String> ids) {
-    final var finder = new CqlIndexValuesFinder<>(createItemFinder());
+    final var finder = new CqlIndexValuesFinder<>(createItemFinder(),
+      itemsClient.getQuerySlots());
     final var mapper = new ItemMapper();
 
     return finder.find(byIndex(indexName, ids))
@@ -293,7 +343,8 @@ public class ItemRepository {
   public CompletableFuture<Result<MultipleRecords<Item>>> findByIndexNameAndQuery(
     Collection<String> ids, String indexName, Result<CqlQuery> query) {
 
-    final var finder = new CqlIndexValuesFinder<>(createItemFinder());
+    final var finder = new CqlIndexValuesFinder<>(createItemFinder(),
+      itemsClient.getQuerySlots());
     final var mapper = new ItemMapper();
 
     return finder.find(byIndex(indexName, ids).withQuery(query))
@@ -0,0 +1,212 @@
+package org.folio.circulation.infrastructure.storage.inventory;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toSet;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.folio.Environment;
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.support.results.Result;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Locations from locations storage for each tenant, including the ids of their
+ * institution, campus and library, so that applying the circulation rules or fetching
+ * an item's location doesn't need a request to storage each time.
+ * <p>
+ * Locations are kept for a limited time, locations that are not found and failed
+ * fetches are not kept. The least recently used locations are evicted when a tenant
+ * has too many. The locations of a tenant can be invalidated explicitly.
+ */
+public final class LocationCache {
+  private static final LocationCache instance = new LocationCache(
+    Math.max(0, Environment.getLocationCacheTimeToLiveSeconds()) * 1000L,
+    Environment.getLocationCacheMaximumEntries(),
+    System::currentTimeMillis);
+
+  private final Map<String, TenantLocations> locationsByTenant =
+    new ConcurrentHashMap<>();
+  private final long timeToLiveInMilliseconds;
+  private final int maximumEntriesPerTenant;
+  private final LongSupplier currentTimeMillis;
+
+  public static LocationCache getInstance() {
+    return instance;
+  }
+
+  LocationCache(long timeToLiveInMilliseconds, int maximumEntriesPerTenant,
+    LongSupplier currentTimeMillis) {
+
+    this.timeToLiveInMilliseconds = timeToLiveInMilliseconds;
+    this.maximumEntriesPerTenant = maximumEntriesPerTenant;
+    this.currentTimeMillis = currentTimeMillis;
+  }
+
+  /**
+   * Get the location from the cache or fetch it.
+   * @param tenantId id of the tenant, the cache is not used if null
+   * @param id id of the location
+   * @param fetcher fetches the location from storage, the result is null if not found
+   * @return the location, null if not found
+   */
+  public CompletableFuture<Result<Location>> getLocation(String tenantId, String id,
+    Function<String, CompletableFuture<Result<Location>>> fetcher) {
+
+    if (!isEnabled(tenantId)) {
+      return fetcher.apply(id);
+    }
+
+    final Location cached = getCached(tenantId, id);
+
+    if (cached != null) {
+      return completedFuture(succeeded(cached));
+    }
+
+    return fetcher.apply(id)
+      .thenApply(r -> r.map(location -> {
+        put(tenantId, location);
+        return location;
+      }));
+  }
+
+  /**
+   * Get the locations from the cache, the locations that are not cached are fetched
+   * with a single call of the fetcher.
+   * @param tenantId id of the tenant, the cache is not used if null
+   * @param ids ids of the locations
+   * @param fetcher fetches the locations with the given ids from storage
+   * @return the locations found
+   */
+  public CompletableFuture<Result<Collection<Location>>> getLocations(String tenantId,
+    Set<String> ids,
+    Function<Set<String>, CompletableFuture<Result<Collection<Location>>>> fetcher) {
+
+    if (!isEnabled(tenantId)) {
+      return fetcher.apply(ids);
+    }
+
+    final List<Location> locations = new ArrayList<>();
+
+    final Set<String> missingIds = ids.stream()
+      .filter(id -> {
+        final Location cached = getCached(tenantId, id);
+
+        if (cached != null) {
+          locations.add(cached);
+        }
+
+        return cached == null;
+      })
+      .collect(toSet());
+
+    if (missingIds.isEmpty()) {
+      return completedFuture(succeeded(locations));
+    }
+
+    return fetcher.apply(missingIds)
+      .thenApply(r -> r.map(fetched -> {
+        fetched.forEach(location -> put(tenantId, location));
+        locations.addAll(fetched);
+        return locations;
+      }));
+  }
+
+  /**
+   * Forget the locations of the tenant, they get fetched again when used next time.
+   * @param tenantId id of the tenant
+   */
+  public void invalidate(String tenantId) {
+    if (tenantId != null) {
+      locationsByTenant.remove(tenantId);
+    }
+  }
+
+  /**
+   * Forget the locations of all tenants.
+   */
+  public void dropCache() {
+    locationsByTenant.clear();
+  }
+
+  private boolean isEnabled(String tenantId) {
+    return tenantId != null && timeToLiveInMilliseconds > 0
+      && maximumEntriesPerTenant > 0;
+  }
+
+  private Location getCached(String tenantId, String id) {
+    final TenantLocations locations = locationsByTenant.get(tenantId);
+
+    if (locations == null || id == null) {
+      return null;
+    }
+
+    return locations.get(id, currentTimeMillis.getAsLong());
+  }
+
+  private void put(String tenantId, Location location) {
+    if (location == null || location.getId() == null) {
+      return;
+    }
+
+    locationsByTenant.computeIfAbsent(tenantId, key -> new TenantLocations())
+      .put(location.getId(), new CachedLocation(location,
+        currentTimeMillis.getAsLong() + timeToLiveInMilliseconds));
+  }
+
+  int size(String tenantId) {
+    final TenantLocations locations = locationsByTenant.get(tenantId);
+
+    return locations == null ? 0 : locations.size();
+  }
+
+  @AllArgsConstructor
+  private static class CachedLocation {
+    private final Location location;
+    private final long expiresAt;
+  }
+
+  private class TenantLocations {
+    private final Map<String, CachedLocation> locations =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedLocation> eldest) {
+          return size() > maximumEntriesPerTenant;
+        }
+      };
+
+    synchronized Location get(String id, long now) {
+      final CachedLocation cached = locations.get(id);
+
+      if (cached == null) {
+        return null;
+      }
+
+      if (cached.expiresAt <= now) {
+        locations.remove(id);
+        return null;
+      }
+
+      return cached.location;
+    }
+
+    synchronized void put(String id, CachedLocation location) {
+      locations.put(id, location);
+    }
+
+    synchronized int size() {
+      return locations.size();
+    }
+  }
+}
@@ -42,18 +42,20 @@ import org.folio.circulation.support.results.Result;
 
 public class LocationRepository {
   private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+  private final String tenantId;
   private final CollectionResourceClient locationsStorageClient;
   private final CollectionResourceClient institutionsStorageClient;
   private final CollectionResourceClient campusesStorageClient;
   private final CollectionResourceClient librariesStorageClient;
   private final ServicePointRepository servicePointRepository;
 
-  private LocationRepository(CollectionResourceClient locationsStorageClient,
+  private LocationRepository(String tenantId, CollectionResourceClient locationsStorageClient,
     CollectionResourceClient institutionsStorageClient,
     CollectionResourceClient campusesStorageClient,
     CollectionResourceClient librariesStorageClient,
     ServicePointRepository servicePointRepository) {
 
+    this.tenantId = tenantId;
     this.locationsStorageClient = locationsStorageClient;
     this.institutionsStorageClient = institutionsStorageClient;
     this.campusesStorageClient = campusesStorageClient;
@@ -64,13 +66,13 @@ public class LocationRepository {
   public static LocationRepository using(Clients clients,
     ServicePointRepository servicePointRepository) {
 
-    return new LocationRepository(clients.locationsStorage(),
+    return new LocationRepository(clients.getTenantId(), clients.locationsStorage(),
       clients.institutionsStorage(), clients.campusesStorage(),
       clients.librariesStorage(), servicePointRepository);
   }
 
   public static LocationRepository using(Clients clients) {
-    return new LocationRepository(clients.locationsStorage(),
+    return new LocationRepository(clients.getTenantId(), clients.locationsStorage(),
       clients.institutionsStorage(), clients.campusesStorage(),
       clients.librariesStorage(), new ServicePointRepository(clients));
   }
@@ -103,6 +105,11 @@ public class LocationRepository {
       return ofAsync(() -> Location.unknown(null));
     }
 
+    return LocationCache.getInstance().getLocation(tenantId, id,
+      this::fetchLocationFromStorage);
+  }
+
+  private CompletableFuture<Result<Location>> fetchLocationFromStorage(String id) {
     return SingleRecordFetcher.json(locationsStorageClient, "location",
       response -> succeeded(null))
       .fetch(id)
@@ -122,12 +129,21 @@ public class LocationRepository {
   public CompletableFuture<Result<MultipleRecords<Location>>> fetchLocations(
     Set<String> locationIds) {
 
+    return LocationCache.getInstance()
+      .getLocations(tenantId, locationIds, this::fetchLocationsFromStorage)
+      .thenApply(mapResult(locations -> new MultipleRecords<>(locations, locations.size())))
+      .thenCompose(this::loadLibrariesForLocations);
+  }
+
+  private CompletableFuture<Result<Collection<Location>>> fetchLocationsFromStorage(
+    Set<String> locationIds) {
+
     final FindWithMultipleCqlIndexValues<Location> fetcher
       = findWithMultipleCqlIndexValues(locationsStorageClient, "locations",
       new LocationMapper()::toDomain);
 
     return fetcher.findByIds(locationIds)
-      .thenCompose(this::loadLibrariesForLocations);
+      .thenApply(mapResult(MultipleRecords::getRecords));
   }
 
   private CompletableFuture<Result<Location>> loadLibrary(Location location) {
@@ -22,10 +22,9 @@ import org.folio.circulation.domain.policy.FixedDueDateSchedules;
 import org.folio.circulation.domain.policy.LoanPolicy;
 import org.folio.circulation.domain.policy.NoFixedDueDateSchedules;
 import org.folio.circulation.infrastructure.storage.CirculationPolicyRepository;
-import org.folio.circulation.resources.context.RenewalContext;
 import org.folio.circulation.rules.AppliedRuleConditions;
 import org.folio.circulation.rules.CirculationRuleMatch;
-import org.folio.circulation.rules.RulesExecutionParameters;
+import org.folio.circulation.rules.CirculationRuleMatches;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
@@ -52,14 +51,6 @@ public class LoanPolicyRepository extends CirculationPolicyRepository<LoanPolicy
       .thenApply(mapResult(relatedRecords::withLoan));
   }
 
-  public CompletableFuture<Result<RenewalContext>> lookupLoanPolicy(
-    RenewalContext renewalContext) {
-
-    return Result.of(renewalContext::getLoan)
-      .combineAfter(this::lookupPolicy, Loan::withLoanPolicy)
-      .thenApply(mapResult(renewalContext::withLoan));
-  }
-
   public CompletableFuture<Result<Loan>> findPolicyForLoan(Result<Loan> loanResult) {
     return loanResult.after(loan ->
       getLoanPolicyById(loan.getLoanPolicyId())
@@ -116,6 +107,12 @@ public class LoanPolicyRepository extends CirculationPolicyRepository<LoanPolicy
       .thenComposeAsync(r -> r.after(this::lookupSchedules));
   }
 
+  @Override
+  public CompletableFuture<Result<LoanPolicy>> lookupPolicy(CirculationRuleMatches matches) {
+    return super.lookupPolicy(matches)
+      .thenComposeAsync(r -> r.after(this::lookupSchedules));
+  }
+
   private CompletableFuture<Result<LoanPolicy>> lookupSchedules(LoanPolicy loanPolicy) {
     List<String> scheduleIds = new ArrayList<>();
 
@@ -171,9 +168,7 @@ public class LoanPolicyRepository extends CirculationPolicyRepository<LoanPolicy
   }
 
   @Override
-  protected CompletableFuture<Result<CirculationRuleMatch>> getPolicyAndMatch(
-    RulesExecutionParameters rulesExecutionParameters) {
-
-    return circulationRulesProcessor.getLoanPolicyAndMatch(rulesExecutionParameters);
+  protected CirculationRuleMatch getPolicyMatch(CirculationRuleMatches matches) {
+    return matches.getLoanPolicyMatch();
   }
 }
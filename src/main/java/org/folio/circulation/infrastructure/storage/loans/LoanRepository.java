@@ -22,6 +22,7 @@ import static org.folio.circulation.support.http.ResponseMapping.mapUsingJson;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatchAny;
 import static org.folio.circulation.support.http.client.CqlQuery.notIn;
+import static org.folio.circulation.support.http.client.PageLimit.limit;
 import static org.folio.circulation.support.http.client.PageLimit.one;
 import static org.folio.circulation.support.json.JsonPropertyWriter.write;
 import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
@@ -58,6 +59,7 @@ import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
 import org.folio.circulation.support.RecordNotFoundFailure;
 import org.folio.circulation.support.SingleRecordFetcher;
 import org.folio.circulation.support.fetching.GetManyRecordsRepository;
+import org.folio.circulation.support.fetching.PageableFetcher;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.http.client.Offset;
 import org.folio.circulation.support.http.client.PageLimit;
@@ -80,6 +82,7 @@ public class LoanRepository implements GetManyRecordsRepository<Loan> {
 
   private static final String ID = "id";
   private static final String USER_ID = "userId";
+  private static final int MAXIMUM_LOANS_PER_PAGE = 1000;
 
   public LoanRepository(Clients clients, ItemRepository itemRepository,
     UserRepository userRepository) {
@@ -198,7 +201,7 @@ public class LoanRepository implements GetManyRecordsRepository<Loan> {
     Result<CqlQuery> cqlQuery = getStatusCQLQuery("Closed")
       .combine(CqlQuery.hasValue(USER_ID), CqlQuery::and);
 
-    return queryLoanStorage(cqlQuery, pageLimit);
+    return findLoansInPages(cqlQuery, pageLimit);
   }
 
   private CompletableFuture<Result<MultipleRecords<Loan>>> queryLoanStorage(
@@ -209,13 +212,28 @@ public class LoanRepository implements GetManyRecordsRepository<Loan> {
         .thenApply(result -> result.next(this::mapResponseToLoans));
   }
 
+  /**
+   * Fetches up to the maximum number of loans in pages, using keyset pagination
+   * so that large numbers of loans do not need a single large response
+   */
+  private CompletableFuture<Result<MultipleRecords<Loan>>> findLoansInPages(
+    Result<CqlQuery> query, PageLimit maximumLoans) {
+
+    final PageLimit pageSize = limit(Math.min(maximumLoans.getLimit(),
+      MAXIMUM_LOANS_PER_PAGE));
+
+    return query.after(q -> new PageableFetcher<>(this, pageSize, maximumLoans.getLimit())
+      .withKeysetPagination(Loan::getId)
+      .fetchRecords(q, maximumLoans.getLimit()));
+  }
+
   public CompletableFuture<Result<MultipleRecords<Loan>>> findClosedLoans(
     String userId, PageLimit pageLimit) {
 
     Result<CqlQuery> query = exactMatch(USER_ID, userId);
     final Result<CqlQuery> statusQuery = getStatusCQLQuery("Closed");
 
-   return queryLoanStorage(statusQuery.combine(query, CqlQuery::and), pageLimit);
+    return findLoansInPages(statusQuery.combine(query, CqlQuery::and), pageLimit);
   }
 
   public CompletableFuture<Result<MultipleRecords<Loan>>> findBy(String query) {
@@ -320,6 +338,18 @@ public class LoanRepository implements GetManyRecordsRepository<Loan> {
     return queryLoanStorage(statusQuery.combine(itemIdQuery, CqlQuery::and), one());
   }
 
+  /**
+   * Finds the open loans for many items at once, without their items or users
+   */
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findOpenLoansForItems(
+    Collection<String> itemIds) {
+
+    final FindWithMultipleCqlIndexValues<Loan> fetcher =
+      findWithMultipleCqlIndexValues(loansStorageClient, RECORDS_PROPERTY_NAME, Loan::from);
+
+    return fetcher.findByIdIndexAndQuery(itemIds, ITEM_ID, getStatusCQLQuery("Open"));
+  }
+
   public CompletableFuture<Result<MultipleRecords<Request>>> findOpenLoansFor(
     MultipleRecords<Request> multipleRequests) {
 
@@ -18,8 +18,8 @@ import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.policy.OverdueFinePolicy;
 import org.folio.circulation.infrastructure.storage.CirculationPolicyRepository;
 import org.folio.circulation.rules.AppliedRuleConditions;
-import org.folio.circulation.rules.RulesExecutionParameters;
 import org.folio.circulation.rules.CirculationRuleMatch;
+import org.folio.circulation.rules.CirculationRuleMatches;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
@@ -106,9 +106,7 @@ public class OverdueFinePolicyRepository extends CirculationPolicyRepository<Ove
   }
 
   @Override
-  protected CompletableFuture<Result<CirculationRuleMatch>> getPolicyAndMatch(
-    RulesExecutionParameters rulesExecutionParameters) {
-
-    return circulationRulesProcessor.getOverduePolicyAndMatch(rulesExecutionParameters);
+  protected CirculationRuleMatch getPolicyMatch(CirculationRuleMatches matches) {
+    return matches.getOverduePolicyMatch();
   }
 }
@@ -1,13 +1,12 @@
 package org.folio.circulation.infrastructure.storage.notices;
 
-import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import org.folio.circulation.domain.notice.PatronNoticePolicy;
 import org.folio.circulation.infrastructure.storage.CirculationPolicyRepository;
 import org.folio.circulation.rules.AppliedRuleConditions;
-import org.folio.circulation.rules.RulesExecutionParameters;
 import org.folio.circulation.rules.CirculationRuleMatch;
+import org.folio.circulation.rules.CirculationRuleMatches;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.results.Result;
 
@@ -40,9 +39,7 @@ public class PatronNoticePolicyRepository extends CirculationPolicyRepository<Pa
   }
 
   @Override
-  protected CompletableFuture<Result<CirculationRuleMatch>> getPolicyAndMatch(
-    RulesExecutionParameters rulesExecutionParameters) {
-
-    return circulationRulesProcessor.getNoticePolicyAndMatch(rulesExecutionParameters);
+  protected CirculationRuleMatch getPolicyMatch(CirculationRuleMatches matches) {
+    return matches.getNoticePolicyMatch();
   }
 }
@@ -1,6 +1,10 @@
 package org.folio.circulation.infrastructure.storage.requests;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static org.folio.circulation.domain.RequestLevel.ITEM;
 import static org.folio.circulation.domain.RequestLevel.TITLE;
 import static org.folio.circulation.support.CqlSortBy.ascending;
@@ -12,7 +16,11 @@ import static org.folio.circulation.support.results.ResultBinding.mapResult;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -88,6 +96,55 @@ public class RequestQueueRepository {
       .thenApply(r -> r.map(RequestQueue::new));
   }
 
+  /**
+   * Fetches the request queues for many items at once, in the same way as
+   * {@link #getQueue(TlrSettingsConfiguration, String, String)} does for one item
+   *
+   * @return the request queues, by instance ID when title level requests are
+   * enabled, otherwise by item ID
+   */
+  public CompletableFuture<Result<Map<String, RequestQueue>>> getQueues(
+    TlrSettingsConfiguration tlrSettings, Collection<Item> items) {
+
+    final boolean byInstance = tlrSettings != null
+      && tlrSettings.isTitleLevelRequestsFeatureEnabled();
+
+    final Function<Item, String> itemQueueId = byInstance
+      ? Item::getInstanceId
+      : Item::getItemId;
+
+    final Function<Request, String> requestQueueId = byInstance
+      ? Request::getInstanceId
+      : Request::getItemId;
+
+    final List<String> requestLevels = byInstance
+      ? List.of(ITEM.getValue(), TITLE.getValue())
+      : List.of(ITEM.getValue());
+
+    final Set<String> queueIds = items.stream()
+      .map(itemQueueId)
+      .filter(Objects::nonNull)
+      .collect(toSet());
+
+    final Result<CqlQuery> statusQuery = exactMatchAny("status", RequestStatus.openStates());
+    final Result<CqlQuery> requestLevelQuery = exactMatchAny("requestLevel", requestLevels);
+
+    return requestRepository.findBy(byInstance ? "instanceId" : "itemId", queueIds,
+        statusQuery.combine(requestLevelQuery, CqlQuery::and))
+      .thenApply(mapResult(requests -> toQueues(queueIds, requests, requestQueueId)));
+  }
+
+  private static Map<String, RequestQueue> toQueues(Set<String> queueIds,
+    MultipleRecords<Request> requests, Function<Request, String> requestQueueId) {
+
+    final Map<String, List<Request>> requestsByQueue = requests.getRecords().stream()
+      .collect(groupingBy(requestQueueId));
+
+    return queueIds.stream()
+      .collect(toMap(identity(), queueId -> new RequestQueue(
+        requestsByQueue.getOrDefault(queueId, List.of()))));
+  }
+
   public CompletableFuture<Result<RequestQueue>> getRequestQueueWithoutItemLookup(String itemId) {
     final Result<CqlQuery> itemIdQuery = exactMatch("itemId", itemId);
     final Result<CqlQuery> statusQuery = exactMatchAny("status", RequestStatus.openStates());
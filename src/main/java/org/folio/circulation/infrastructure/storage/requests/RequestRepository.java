@@ -108,6 +108,14 @@ public class RequestRepository {
       .thenCompose(r -> r.after(this::fetchAdditionalFields));
   }
 
+  CompletableFuture<Result<MultipleRecords<Request>>> findBy(String indexName,
+    Collection<String> values, Result<CqlQuery> andQuery) {
+
+    return findWithMultipleCqlIndexValues(requestsStorageClient, "requests", Request::from)
+      .findByIdIndexAndQuery(values, indexName, andQuery)
+      .thenCompose(r -> r.after(this::fetchAdditionalFields));
+  }
+
   private CompletableFuture<Result<MultipleRecords<Request>>> fetchAdditionalFields(
     MultipleRecords<Request> requestRecords) {
 
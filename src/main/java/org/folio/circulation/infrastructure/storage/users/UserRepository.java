@@ -3,6 +3,8 @@ package org.folio.circulation.infrastructure.storage.users;
 import static java.util.Objects.isNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+import static java.util.function.Function.identity;
+import static org.folio.circulation.support.fetching.RecordFetching.batchingRecordLoader;
 import static org.folio.circulation.support.fetching.RecordFetching.findWithMultipleCqlIndexValues;
 import static org.folio.circulation.support.ErrorCode.USER_BARCODE_NOT_FOUND;
 import static org.folio.circulation.support.results.Result.of;
@@ -31,19 +33,25 @@ import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
+import org.folio.circulation.support.fetching.BatchingRecordLoader;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.http.client.PageLimit;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.results.Result;
 
+import io.vertx.core.json.JsonObject;
+
 public class UserRepository {
   private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
   private static final String USERS_RECORD_PROPERTY = "users";
 
   private final CollectionResourceClient usersStorageClient;
+  private final BatchingRecordLoader userLoader;
 
   public UserRepository(Clients clients) {
     usersStorageClient = clients.usersStorage();
+    userLoader = batchingRecordLoader("user", usersStorageClient,
+      USERS_RECORD_PROPERTY, this::fetchUser);
   }
 
   public CompletableFuture<Result<User>> getUser(UserRelatedRecord userRelatedRecord) {
@@ -63,9 +71,14 @@ public class UserRepository {
       return ofAsync(() -> null);
     }
 
-    return FetchSingleRecord.<User>forRecord("user")
+    return userLoader.load(userId)
+      .thenApply(mapResult(user -> user == null ? null : new User(user)));
+  }
+
+  private CompletableFuture<Result<JsonObject>> fetchUser(String userId) {
+    return FetchSingleRecord.<JsonObject>forRecord("user")
       .using(usersStorageClient)
-      .mapTo(User::new)
+      .mapTo(identity())
       .whenNotFound(succeeded(null))
       .fetch(userId);
   }
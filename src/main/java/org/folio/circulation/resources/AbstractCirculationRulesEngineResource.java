@@ -4,6 +4,8 @@ import static org.folio.circulation.rules.RulesExecutionParameters.forRequest;
 import static org.folio.circulation.support.results.Result.succeeded;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -12,8 +14,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.circulation.rules.CirculationRuleMatch;
 import org.folio.circulation.rules.CirculationRulesProcessor;
+import org.folio.circulation.rules.ExecutableRules;
 import org.folio.circulation.rules.RulesExecutionParameters;
 import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.RouteRegistration;
 import org.folio.circulation.support.http.server.ClientErrorResponse;
 import org.folio.circulation.support.http.server.JsonHttpResponse;
 import org.folio.circulation.support.http.server.WebContext;
@@ -21,6 +25,7 @@ import org.folio.circulation.support.results.Result;
 
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
@@ -38,27 +43,38 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
   public static final String PATRON_TYPE_ID_NAME = "patron_type_id";
   public static final String LOCATION_ID_NAME = "location_id";
   public static final String LOAN_TYPE_ID_NAME = "loan_type_id";
+  /** maximum number of lookups in a single batch request */
+  public static final int MAXIMUM_BATCH_SIZE = 1000;
+  private static final String UUID_REGEX =
+    "^[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[1-5][a-fA-F0-9]{3}-[89abAB][a-fA-F0-9]{3}-[a-fA-F0-9]{12}$";
 
   private final String applyPath;
   private final String applyAllPath;
+  private final String applyBatchPath;
 
   private final GetSinglePolicy singlePolicyGetter;
   private final GetAllPolicies allPoliciesGetter;
+  private final DetermineSinglePolicy singlePolicyDeterminer;
 
   /**
-   * Create a circulation rules engine that listens at applyPath and applyAllPath.
+   * Create a circulation rules engine that listens at applyPath, applyAllPath and applyBatchPath.
    * @param applyPath  URL path for circulation rules triggering that returns the first match
    * @param applyAllPath  URL path for circulation rules triggering that returns all matches
+   * @param applyBatchPath  URL path for circulation rules triggering that returns the first
+   * match for each of several sets of parameters
    * @param client  the HttpClient to use for requests via Okapi
    */
-  AbstractCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client,
-    GetSinglePolicy getSinglePolicy, GetAllPolicies getAllPolicies) {
+  AbstractCirculationRulesEngineResource(String applyPath, String applyAllPath,
+    String applyBatchPath, HttpClient client, GetSinglePolicy getSinglePolicy,
+    GetAllPolicies getAllPolicies, DetermineSinglePolicy determineSinglePolicy) {
 
     super(client);
     this.applyPath = applyPath;
     this.applyAllPath = applyAllPath;
+    this.applyBatchPath = applyBatchPath;
     this.allPoliciesGetter = getAllPolicies;
     this.singlePolicyGetter = getSinglePolicy;
+    this.singlePolicyDeterminer = determineSinglePolicy;
   }
 
   /**
@@ -69,18 +85,18 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
   public void register(Router router) {
     router.get(applyPath   ).handler(this::apply);
     router.get(applyAllPath).handler(this::applyAll);
+    new RouteRegistration(applyBatchPath, router).create(this::applyBatch);
   }
 
   private boolean invalidUuid(HttpServerRequest request, String paramName) {
-    final String regex = "^[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[1-5][a-fA-F0-9]{3}-[89abAB][a-fA-F0-9]{3}-[a-fA-F0-9]{12}$";
     String uuid = request.getParam(paramName);
     if (uuid == null) {
       ClientErrorResponse.badRequest(request.response(), "required query parameter missing: " + paramName);
       return true;
     }
-    if (! uuid.matches(regex)) {
+    if (! uuid.matches(UUID_REGEX)) {
       ClientErrorResponse.badRequest(request.response(), "invalid uuid format of " + paramName +
-          ", expecting " + regex + " but it is " + uuid);
+          ", expecting " + UUID_REGEX + " but it is " + uuid);
       return true;
     }
     return false;
@@ -91,15 +107,18 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
   }
 
   private CompletableFuture<Result<JsonObject>> buildJsonResult(CirculationRuleMatch entity) {
+    return CompletableFuture.completedFuture(succeeded(toJson(entity)));
+  }
+
+  private JsonObject toJson(CirculationRuleMatch entity) {
     JsonObject appliedRuleConditions = new JsonObject()
       .put("materialTypeMatch", entity.getAppliedRuleConditions().isItemTypePresent())
       .put("loanTypeMatch", entity.getAppliedRuleConditions().isLoanTypePresent())
       .put("patronGroupMatch", entity.getAppliedRuleConditions().isPatronGroupPresent());
 
-    return CompletableFuture.completedFuture(succeeded(new JsonObject()
+    return new JsonObject()
       .put(getPolicyIdKey(), entity.getPolicyId())
-      .put("appliedRuleConditions", appliedRuleConditions)
-    ));
+      .put("appliedRuleConditions", appliedRuleConditions);
   }
 
   private void applyAll(RoutingContext routingContext) {
@@ -111,6 +130,97 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
       matches)));
   }
 
+  /**
+   * Determine the policy for each entry of the "parameters" array of the request body
+   * using the same version of the circulation rules. The response contains a result
+   * for each entry in the same order.
+   */
+  private void applyBatch(RoutingContext routingContext) {
+    final JsonArray parameters;
+
+    try {
+      final JsonObject body = routingContext.getBodyAsJson();
+      parameters = body == null ? null : body.getJsonArray("parameters");
+    } catch (DecodeException | ClassCastException e) {
+      ClientErrorResponse.badRequest(routingContext.response(),
+        "body must be a JSON object with a parameters array: " + e.getMessage());
+      return;
+    }
+
+    if (parameters == null) {
+      ClientErrorResponse.badRequest(routingContext.response(),
+        "required property missing: parameters");
+      return;
+    }
+
+    if (parameters.size() > MAXIMUM_BATCH_SIZE) {
+      ClientErrorResponse.badRequest(routingContext.response(),
+        "too many parameters: " + parameters.size() + ", maximum is " + MAXIMUM_BATCH_SIZE);
+      return;
+    }
+
+    final List<RulesExecutionParameters> rulesParameters = new ArrayList<>();
+
+    for (int index = 0; index < parameters.size(); index++) {
+      final Object entry = parameters.getValue(index);
+      final String invalid = invalidBatchParameters(entry);
+
+      if (invalid != null) {
+        ClientErrorResponse.badRequest(routingContext.response(),
+          "parameters[" + index + "]: " + invalid);
+        return;
+      }
+
+      final JsonObject json = (JsonObject) entry;
+
+      rulesParameters.add(new RulesExecutionParameters(json.getString(LOAN_TYPE_ID_NAME),
+        json.getString(LOCATION_ID_NAME), json.getString(ITEM_TYPE_ID_NAME),
+        json.getString(PATRON_TYPE_ID_NAME), null));
+    }
+
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    clients.circulationRulesProcessor()
+      .executeRulesForAll(rulesParameters, singlePolicyDeterminer::determinePolicy)
+      .thenApply(r -> r.map(matches -> buildJsonResult(parameters, matches)))
+      .thenApply(r -> r.map(JsonHttpResponse::ok))
+      .thenAccept(context::writeResultToHttpResponse);
+  }
+
+  private JsonObject buildJsonResult(JsonArray parameters, List<CirculationRuleMatch> matches) {
+    final JsonArray results = new JsonArray();
+
+    for (int index = 0; index < matches.size(); index++) {
+      results.add(toJson(matches.get(index))
+        .put("parameters", parameters.getJsonObject(index)));
+    }
+
+    return new JsonObject().put("results", results);
+  }
+
+  private String invalidBatchParameters(Object entry) {
+    if (!(entry instanceof JsonObject)) {
+      return "must be an object";
+    }
+
+    for (String paramName : List.of(ITEM_TYPE_ID_NAME, LOAN_TYPE_ID_NAME,
+      PATRON_TYPE_ID_NAME, LOCATION_ID_NAME)) {
+
+      final Object uuid = ((JsonObject) entry).getValue(paramName);
+
+      if (uuid == null) {
+        return "required parameter missing: " + paramName;
+      }
+      if (!(uuid instanceof String) || !((String) uuid).matches(UUID_REGEX)) {
+        return "invalid uuid format of " + paramName + ", expecting " + UUID_REGEX +
+          " but it is " + uuid;
+      }
+    }
+
+    return null;
+  }
+
   private <T> void applyRules(RoutingContext routingContext,
     BiFunction<CirculationRulesProcessor, RulesExecutionParameters, CompletableFuture<Result<T>>> triggerFunction,
     Function<T, CompletableFuture<Result<JsonObject>>> mapToJson) {
@@ -151,4 +261,10 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
     CompletableFuture<Result<JsonArray>> getPolicies(
       CirculationRulesProcessor rulesProcessor, RulesExecutionParameters rulesExecutionParameters);
   }
+
+  @FunctionalInterface
+  protected interface DetermineSinglePolicy {
+    Result<CirculationRuleMatch> determinePolicy(ExecutableRules rules,
+      RulesExecutionParameters rulesExecutionParameters);
+  }
 }
@@ -0,0 +1,176 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.domain.validation.UserNotFoundValidator.refuseWhenLoggedInUserNotPresent;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allResultsOf;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.folio.circulation.domain.CheckInContext;
+import org.folio.circulation.domain.representations.BulkCheckInByBarcodeRequest;
+import org.folio.circulation.domain.representations.BulkCheckInByBarcodeResponse;
+import org.folio.circulation.domain.representations.CheckInByBarcodeRequest;
+import org.folio.circulation.infrastructure.storage.ConfigurationRepository;
+import org.folio.circulation.infrastructure.storage.ServicePointRepository;
+import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
+import org.folio.circulation.infrastructure.storage.loans.LoanRepository;
+import org.folio.circulation.infrastructure.storage.requests.RequestQueueRepository;
+import org.folio.circulation.infrastructure.storage.requests.RequestRepository;
+import org.folio.circulation.infrastructure.storage.users.UserRepository;
+import org.folio.circulation.services.EventPublisher;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Checks in many items at the same service point, e.g. for items returned
+ * via a book drop or an automated sorter.
+ * <p>
+ * The items, their open loans and their request queues are fetched for all
+ * items at once. Each item is then checked in the same way as by a check in by
+ * barcode request, with a limited number of check ins at the same time. Check
+ * ins of items in the same request queue (or of the same barcode) are made one
+ * after the other, in the order of the barcodes in the request.
+ */
+public class BulkCheckInByBarcodeResource extends Resource {
+  private static final int MAX_CONCURRENT_CHECK_INS = 5;
+
+  public BulkCheckInByBarcodeResource(HttpClient client) {
+    super(client);
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(
+      "/circulation/bulk-check-in-by-barcode", router);
+
+    routeRegistration.create(this::checkIn);
+  }
+
+  private void checkIn(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+
+    final Clients clients = Clients.create(context, client);
+
+    final var userRepository = new UserRepository(clients);
+    final var itemRepository = new ItemRepository(clients);
+    final var loanRepository = new LoanRepository(clients, itemRepository, userRepository);
+    final var requestRepository = RequestRepository.using(clients,
+      itemRepository, userRepository, loanRepository);
+    final var requestQueueRepository = new RequestQueueRepository(requestRepository);
+
+    final Result<BulkCheckInByBarcodeRequest> bulkRequestResult
+      = BulkCheckInByBarcodeRequest.from(routingContext.getBodyAsJson());
+
+    final CheckInProcess checkInProcess = new CheckInProcess(context, clients,
+      new EventPublisher(routingContext), userRepository, itemRepository,
+      loanRepository, requestRepository, requestQueueRepository);
+
+    refuseWhenLoggedInUserNotPresent(context)
+      .next(notUsed -> bulkRequestResult)
+      .after(bulkRequest -> PrefetchedCheckInLookups.prefetch(
+          bulkRequest.getItemBarcodes(), bulkRequest.getServicePointId(),
+          checkInProcess.lookups(), new ConfigurationRepository(clients),
+          new ServicePointRepository(clients), itemRepository, loanRepository,
+          userRepository, requestQueueRepository)
+        .thenCompose(r -> r.after(lookups ->
+          checkInAll(bulkRequest, checkInProcess, lookups))))
+      .thenApply(r -> r.map(BulkCheckInByBarcodeResponse::toHttpResponse))
+      .thenAccept(context::writeResultToHttpResponse);
+  }
+
+  private CompletableFuture<Result<BulkCheckInByBarcodeResponse>> checkInAll(
+    BulkCheckInByBarcodeRequest bulkRequest, CheckInProcess checkInProcess,
+    PrefetchedCheckInLookups lookups) {
+
+    final List<Result<CheckInByBarcodeRequest>> checkInRequests
+      = bulkRequest.checkInRequests();
+
+    final var checkIns = new AtomicReferenceArray<Result<CheckInContext>>(
+      checkInRequests.size());
+
+    return allResultsOf(checkInsInTurn(checkInRequests, lookups), MAX_CONCURRENT_CHECK_INS,
+        indexes -> checkInInTurn(indexes, checkInRequests, checkIns, checkInProcess, lookups))
+      .thenApply(notUsed -> succeeded(new BulkCheckInByBarcodeResponse(
+        bulkRequest.getItemBarcodes(), toList(checkIns))));
+  }
+
+  /**
+   * Groups the check ins that need to be made one after the other, those of
+   * items in the same request queue, or for the same barcode when no item was found
+   *
+   * @return the indexes of the check ins in each group, in the order of the request
+   */
+  private static Collection<List<Integer>> checkInsInTurn(
+    List<Result<CheckInByBarcodeRequest>> checkInRequests, PrefetchedCheckInLookups lookups) {
+
+    final Map<String, List<Integer>> groups = new LinkedHashMap<>();
+
+    for (int index = 0; index < checkInRequests.size(); index++) {
+      final Result<CheckInByBarcodeRequest> checkInRequest = checkInRequests.get(index);
+
+      final String group;
+
+      if (checkInRequest.failed()) {
+        group = "request " + index;
+      }
+      else {
+        final String barcode = checkInRequest.value().getItemBarcode();
+        final String requestQueueId = lookups.requestQueueIdFor(barcode);
+
+        group = requestQueueId == null
+          ? "barcode " + barcode
+          : "request queue " + requestQueueId;
+      }
+
+      groups.computeIfAbsent(group, key -> new ArrayList<>()).add(index);
+    }
+
+    return groups.values();
+  }
+
+  private static CompletableFuture<Result<Void>> checkInInTurn(List<Integer> indexes,
+    List<Result<CheckInByBarcodeRequest>> checkInRequests,
+    AtomicReferenceArray<Result<CheckInContext>> checkIns,
+    CheckInProcess checkInProcess, PrefetchedCheckInLookups lookups) {
+
+    CompletableFuture<Result<Void>> inTurn = completedFuture(succeeded(null));
+
+    for (Integer index : indexes) {
+      inTurn = inTurn.thenCompose(notUsed -> checkInRequests.get(index)
+        .after(checkInRequest -> checkInProcess.checkIn(checkInRequest, lookups))
+        .exceptionally(CommonFailures::failedDueToServerError)
+        .thenApply(checkIn -> {
+          checkIns.set(index, checkIn);
+          return succeeded(null);
+        }));
+    }
+
+    return inTurn;
+  }
+
+  private static List<Result<CheckInContext>> toList(
+    AtomicReferenceArray<Result<CheckInContext>> checkIns) {
+
+    final List<Result<CheckInContext>> list = new ArrayList<>(checkIns.length());
+
+    for (int index = 0; index < checkIns.length(); index++) {
+      list.add(checkIns.get(index));
+    }
+
+    return list;
+  }
+}
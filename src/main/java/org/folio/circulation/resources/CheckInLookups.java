@@ -0,0 +1,27 @@
+package org.folio.circulation.resources;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.domain.CheckInContext;
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.ServicePoint;
+import org.folio.circulation.domain.configuration.TlrSettingsConfiguration;
+import org.folio.circulation.support.results.Result;
+
+/**
+ * Lookups made during check in that do not change anything in storage,
+ * which can be made for each check in or from records fetched beforehand
+ */
+interface CheckInLookups {
+  CompletableFuture<Result<Item>> findItem(CheckInContext context);
+
+  CompletableFuture<Result<Loan>> findSingleOpenLoan(CheckInContext context);
+
+  CompletableFuture<Result<RequestQueue>> getRequestQueue(CheckInContext context);
+
+  CompletableFuture<Result<ServicePoint>> getCheckInServicePoint(CheckInContext context);
+
+  CompletableFuture<Result<TlrSettingsConfiguration>> lookupTlrSettings(CheckInContext context);
+}
@@ -0,0 +1,198 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.domain.representations.CheckOutByBarcodeRequest.ITEM_BARCODE;
+import static org.folio.circulation.support.ValidationErrorFailure.singleValidationError;
+import static org.folio.circulation.support.results.Result.ofAsync;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BinaryOperator;
+
+import org.folio.circulation.domain.CheckInContext;
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Request;
+import org.folio.circulation.domain.notice.schedule.RequestScheduledNoticeService;
+import org.folio.circulation.domain.notice.session.PatronActionSessionService;
+import org.folio.circulation.domain.representations.CheckInByBarcodeRequest;
+import org.folio.circulation.domain.validation.CheckInValidators;
+import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
+import org.folio.circulation.infrastructure.storage.loans.LoanRepository;
+import org.folio.circulation.infrastructure.storage.requests.RequestQueueRepository;
+import org.folio.circulation.infrastructure.storage.requests.RequestRepository;
+import org.folio.circulation.infrastructure.storage.sessions.PatronActionSessionRepository;
+import org.folio.circulation.infrastructure.storage.users.UserRepository;
+import org.folio.circulation.services.EventPublisher;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.StageGraph;
+import org.folio.circulation.support.ValidationErrorFailure;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.Result;
+
+/**
+ * Checks in a single item, used both when checking in one item and when
+ * checking in a batch of items
+ */
+class CheckInProcess {
+  private final WebContext context;
+  private final UserRepository userRepository;
+  private final CheckInProcessAdapter processAdapter;
+  private final CheckInValidators checkInValidators;
+  private final EventPublisher eventPublisher;
+  private final RequestScheduledNoticeService requestScheduledNoticeService;
+  private final PatronActionSessionService patronActionSessionService;
+  private final RequestNoticeSender requestNoticeSender;
+
+  @SuppressWarnings("squid:S00107")
+  CheckInProcess(WebContext context, Clients clients, EventPublisher eventPublisher,
+    UserRepository userRepository, ItemRepository itemRepository,
+    LoanRepository loanRepository, RequestRepository requestRepository,
+    RequestQueueRepository requestQueueRepository) {
+
+    this.context = context;
+    this.userRepository = userRepository;
+    this.eventPublisher = eventPublisher;
+
+    this.checkInValidators = new CheckInValidators(this::errorWhenInIncorrectStatus);
+    this.processAdapter = CheckInProcessAdapter.newInstance(clients,
+      itemRepository, userRepository, loanRepository, requestRepository,
+      requestQueueRepository);
+
+    this.requestScheduledNoticeService = RequestScheduledNoticeService.using(clients);
+
+    this.patronActionSessionService = PatronActionSessionService.using(clients,
+      PatronActionSessionRepository.using(clients, loanRepository, userRepository));
+
+    this.requestNoticeSender = RequestNoticeSender.using(clients);
+  }
+
+  /**
+   * @return the lookups made for each check in, for lookups served from
+   * records fetched beforehand to fall back upon
+   */
+  CheckInLookups lookups() {
+    return processAdapter;
+  }
+
+  CompletableFuture<Result<CheckInContext>> checkIn(CheckInByBarcodeRequest request) {
+    return checkIn(request, processAdapter);
+  }
+
+  CompletableFuture<Result<CheckInContext>> checkIn(CheckInByBarcodeRequest request,
+    CheckInLookups lookups) {
+
+    final CheckInContext initialRecords = new CheckInContext(request)
+      .withLoggedInUserId(context.getUserId());
+
+    return checkInStages(lookups).run(initialRecords)
+      .thenComposeAsync(updateItemResult -> updateItemResult.after(
+        patronActionSessionService::saveCheckInSessionRecord))
+      .thenComposeAsync(r -> r.after(processAdapter::refundLostItemFees))
+      .thenComposeAsync(r -> r.after(
+        records -> processAdapter.createOverdueFineIfNecessary(records, context)))
+      .thenComposeAsync(r -> r.after(v -> eventPublisher.publishItemCheckedInEvents(v, userRepository)))
+      .thenApply(r -> r.next(requestScheduledNoticeService::rescheduleRequestNotices));
+  }
+
+  /**
+   * Stages of check in up to updating the loan, lookups run as soon as what
+   * they need is known, changes to storage are made in the same order as
+   * before and only after all lookups preceding them
+   */
+  private StageGraph<CheckInContext> checkInStages(CheckInLookups lookups) {
+    final var graph = new StageGraph<CheckInContext>();
+
+    final var findItem = graph.stage("find item", List.of(),
+      lookups::findItem, (records, item) -> records
+        .withItem(item)
+        .withItemStatusBeforeCheckIn(item.getStatus()));
+
+    final var itemCanBeCheckedIn = graph.check("item can be checked in", List.of(findItem),
+      records -> checkInValidators.refuseWhenClaimedReturnedIsNotResolved(
+        checkInValidators.refuseWhenItemIsNotAllowedForCheckIn(succeeded(records))));
+
+    final var tlrSettings = graph.stage("look up TLR settings", List.of(),
+      lookups::lookupTlrSettings, CheckInContext::withTlrSettings);
+
+    final var checkInServicePoint = graph.stage("get check in service point", List.of(),
+      lookups::getCheckInServicePoint, CheckInContext::withCheckInServicePoint);
+
+    final var requestQueue = graph.stage("get request queue",
+      List.of(itemCanBeCheckedIn, tlrSettings),
+      lookups::getRequestQueue, CheckInContext::withRequestQueue);
+
+    final var inHouseUse = graph.stage("determine in house use", List.of(requestQueue),
+      records -> ofAsync(() -> processAdapter.setInHouseUse(records).isInHouseUse()),
+      CheckInContext::withInHouseUse);
+
+    final var logCheckIn = graph.stage("log check in", List.of(inHouseUse),
+      processAdapter::logCheckInOperation, (records, notUsed) -> records);
+
+    // the check in is logged before the loan is looked up, as before, so that
+    // failing to find a single open loan always leaves the check in logged
+    final var findLoan = graph.stage("find open loan", List.of(logCheckIn),
+      lookups::findSingleOpenLoan, CheckInContext::withLoan);
+
+    final var checkInLoan = graph.stage("check in loan", List.of(findLoan),
+      processAdapter::checkInLoan, CheckInContext::withLoan);
+
+    final var updateRequestQueue = graph.stage("update request queue",
+      List.of(logCheckIn, checkInLoan),
+      processAdapter::updateRequestQueue, CheckInContext::withRequestQueue);
+
+    final var updateItem = graph.stage("update item", List.of(updateRequestQueue),
+      processAdapter::updateItem, CheckInContext::withItem);
+
+    final var awaitingPickupNotice = graph.check("send request awaiting pickup notice",
+      List.of(updateItem), requestNoticeSender::sendNoticeOnRequestAwaitingPickup);
+
+    final var destinationServicePoint = graph.stage("get destination service point",
+      List.of(awaitingPickupNotice),
+      processAdapter::getDestinationServicePoint, CheckInContext::withItem);
+
+    final var pickupServicePoint = graph.stage("get pickup service point",
+      List.of(updateRequestQueue), processAdapter::getPickupServicePoint,
+      (records, request) -> withFulfillableRequest(records, request,
+        (current, found) -> current.withPickupServicePoint(found.getPickupServicePoint())));
+
+    final var requester = graph.stage("get requester",
+      List.of(updateRequestQueue), processAdapter::getRequester,
+      (records, request) -> withFulfillableRequest(records, request,
+        (current, found) -> current.withRequester(found.getRequester())));
+
+    final var addressType = graph.stage("get address type",
+      List.of(updateRequestQueue), processAdapter::getAddressType,
+      (records, request) -> withFulfillableRequest(records, request,
+        (current, found) -> current.withAddressType(found.getAddressType())));
+
+    graph.stage("update loan", List.of(updateItem, destinationServicePoint,
+        checkInServicePoint, pickupServicePoint, requester, addressType),
+      processAdapter::updateLoan, CheckInContext::withLoan);
+
+    return graph;
+  }
+
+  /**
+   * The pickup service point, requester and address type of the request are
+   * fetched at the same time, each is combined with the request as it is by then
+   */
+  private static CheckInContext withFulfillableRequest(CheckInContext records,
+    Request found, BinaryOperator<Request> combiner) {
+
+    final Request current = records.getHighestPriorityFulfillableRequest();
+
+    return records.withHighestPriorityFulfillableRequest(
+      current == null || found == null ? found : combiner.apply(current, found));
+  }
+
+  private ValidationErrorFailure errorWhenInIncorrectStatus(Item item) {
+    String message =
+      String.format("%s (%s) (Barcode: %s) has the item status %s and cannot be checked in",
+        item.getTitle(),
+        item.getMaterialTypeName(),
+        item.getBarcode(),
+        item.getStatusName());
+
+    return singleValidationError(message, ITEM_BARCODE, item.getBarcode());
+  }
+}
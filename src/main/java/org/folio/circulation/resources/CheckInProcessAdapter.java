@@ -20,8 +20,10 @@ import org.folio.circulation.domain.RequestQueue;
 import org.folio.circulation.domain.ServicePoint;
 import org.folio.circulation.domain.UpdateItem;
 import org.folio.circulation.domain.UpdateRequestQueue;
+import org.folio.circulation.domain.configuration.TlrSettingsConfiguration;
 import org.folio.circulation.domain.notice.schedule.FeeFineScheduledNoticeService;
 import org.folio.circulation.infrastructure.storage.CalendarRepository;
+import org.folio.circulation.infrastructure.storage.ConfigurationRepository;
 import org.folio.circulation.infrastructure.storage.ServicePointRepository;
 import org.folio.circulation.infrastructure.storage.feesandfines.FeeFineOwnerRepository;
 import org.folio.circulation.infrastructure.storage.feesandfines.FeeFineRepository;
@@ -44,7 +46,7 @@ import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.http.server.WebContext;
 import org.folio.circulation.support.results.Result;
 
-class CheckInProcessAdapter {
+class CheckInProcessAdapter implements CheckInLookups {
   private final ItemByBarcodeInStorageFinder itemFinder;
   private final SingleOpenLoanForItemInStorageFinder singleOpenLoanFinder;
   private final LoanCheckInService loanCheckInService;
@@ -59,6 +61,7 @@ class CheckInProcessAdapter {
   private final OverdueFineService overdueFineService;
   private final FeeFineScheduledNoticeService feeFineScheduledNoticeService;
   private final LostItemFeeRefundService lostItemFeeRefundService;
+  private final ConfigurationRepository configurationRepository;
   protected final EventPublisher eventPublisher;
 
   @SuppressWarnings("squid:S00107")
@@ -75,6 +78,7 @@ class CheckInProcessAdapter {
     OverdueFineService overdueFineService,
     FeeFineScheduledNoticeService feeFineScheduledNoticeService,
     LostItemFeeRefundService lostItemFeeRefundService,
+    ConfigurationRepository configurationRepository,
     EventPublisher eventPublisher) {
 
     this.itemFinder = itemFinder;
@@ -91,6 +95,7 @@ class CheckInProcessAdapter {
     this.overdueFineService = overdueFineService;
     this.feeFineScheduledNoticeService = feeFineScheduledNoticeService;
     this.lostItemFeeRefundService = lostItemFeeRefundService;
+    this.configurationRepository = configurationRepository;
     this.eventPublisher = eventPublisher;
   }
 
@@ -129,14 +134,17 @@ class CheckInProcessAdapter {
       FeeFineScheduledNoticeService.using(clients),
       new LostItemFeeRefundService(clients, itemRepository,
         userRepository, loanRepository),
+      new ConfigurationRepository(clients),
       new EventPublisher(clients.pubSubPublishingService()));
   }
 
-  CompletableFuture<Result<Item>> findItem(CheckInContext context) {
+  @Override
+  public CompletableFuture<Result<Item>> findItem(CheckInContext context) {
     return itemFinder.findItemByBarcode(context.getCheckInRequestBarcode());
   }
 
-  CompletableFuture<Result<Loan>> findSingleOpenLoan(
+  @Override
+  public CompletableFuture<Result<Loan>> findSingleOpenLoan(
     CheckInContext context) {
 
     return singleOpenLoanFinder.findSingleOpenLoan(context.getItem());
@@ -148,7 +156,8 @@ class CheckInProcessAdapter {
         context.getCheckInRequest()));
   }
 
-  CompletableFuture<Result<RequestQueue>> getRequestQueue(CheckInContext context) {
+  @Override
+  public CompletableFuture<Result<RequestQueue>> getRequestQueue(CheckInContext context) {
     boolean tlrEnabled = context.getTlrSettings().isTitleLevelRequestsFeatureEnabled();
 
     if (!tlrEnabled) {
@@ -195,10 +204,18 @@ class CheckInProcessAdapter {
     return completedFuture(succeeded(item));
   }
 
-  CompletableFuture<Result<ServicePoint>> getCheckInServicePoint(CheckInContext context) {
+  @Override
+  public CompletableFuture<Result<ServicePoint>> getCheckInServicePoint(CheckInContext context) {
     return servicePointRepository.getServicePointById(context.getCheckInServicePointId());
   }
 
+  @Override
+  public CompletableFuture<Result<TlrSettingsConfiguration>> lookupTlrSettings(
+    CheckInContext context) {
+
+    return configurationRepository.lookupTlrSettings();
+  }
+
   CompletableFuture<Result<Request>> getPickupServicePoint(CheckInContext context) {
     Request firstRequest = context.getHighestPriorityFulfillableRequest();
     if (firstRequest == null) {
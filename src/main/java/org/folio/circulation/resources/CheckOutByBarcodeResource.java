@@ -1,46 +1,26 @@
 package org.folio.circulation.resources;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
-import static org.folio.circulation.domain.ItemStatus.CHECKED_OUT;
-import static org.folio.circulation.domain.LoanAction.CHECKED_OUT_THROUGH_OVERRIDE;
-import static org.folio.circulation.resources.handlers.error.CirculationErrorType.FAILED_TO_FETCH_ITEM;
-import static org.folio.circulation.resources.handlers.error.CirculationErrorType.FAILED_TO_FETCH_PROXY_USER;
-import static org.folio.circulation.resources.handlers.error.CirculationErrorType.FAILED_TO_FETCH_USER;
 import static org.folio.circulation.resources.handlers.error.CirculationErrorType.FAILED_TO_PUBLISH_CHECKOUT_EVENT;
 import static org.folio.circulation.resources.handlers.error.CirculationErrorType.FAILED_TO_SAVE_SESSION_RECORD;
 import static org.folio.circulation.support.http.server.JsonHttpResponse.created;
 import static org.folio.circulation.support.http.server.JsonHttpResponse.ok;
-import static org.folio.circulation.support.results.Result.ofAsync;
-import static org.folio.circulation.support.results.Result.succeeded;
 
-import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
-import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.LoanAndRelatedRecords;
 import org.folio.circulation.domain.LoanRepresentation;
-import org.folio.circulation.domain.LoanService;
-import org.folio.circulation.domain.RequestQueue;
-import org.folio.circulation.domain.UpdateRequestQueue;
-import org.folio.circulation.domain.notice.schedule.LoanScheduledNoticeService;
-import org.folio.circulation.domain.notice.schedule.RequestScheduledNoticeService;
-import org.folio.circulation.domain.notice.session.PatronActionSessionService;
-import org.folio.circulation.domain.policy.LoanPolicy;
-import org.folio.circulation.domain.policy.library.ClosedLibraryStrategyService;
+import org.folio.circulation.domain.representations.BulkCheckOutByBarcodeRequest;
+import org.folio.circulation.domain.representations.BulkCheckOutByBarcodeResponse;
 import org.folio.circulation.domain.representations.CheckOutByBarcodeRequest;
 import org.folio.circulation.domain.validation.CheckOutValidators;
-import org.folio.circulation.infrastructure.storage.ConfigurationRepository;
+import org.folio.circulation.domain.validation.ItemLimitValidator;
 import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
-import org.folio.circulation.infrastructure.storage.loans.LoanPolicyRepository;
 import org.folio.circulation.infrastructure.storage.loans.LoanRepository;
-import org.folio.circulation.infrastructure.storage.loans.LostItemPolicyRepository;
-import org.folio.circulation.infrastructure.storage.loans.OverdueFinePolicyRepository;
-import org.folio.circulation.infrastructure.storage.notices.PatronNoticePolicyRepository;
-import org.folio.circulation.infrastructure.storage.notices.ScheduledNoticesRepository;
 import org.folio.circulation.infrastructure.storage.requests.RequestQueueRepository;
 import org.folio.circulation.infrastructure.storage.requests.RequestRepository;
-import org.folio.circulation.infrastructure.storage.sessions.PatronActionSessionRepository;
-import org.folio.circulation.infrastructure.storage.users.PatronGroupRepository;
 import org.folio.circulation.infrastructure.storage.users.UserRepository;
 import org.folio.circulation.resources.handlers.error.CirculationErrorHandler;
 import org.folio.circulation.resources.handlers.error.CirculationErrorType;
@@ -51,6 +31,7 @@ import org.folio.circulation.support.RouteRegistration;
 import org.folio.circulation.support.http.OkapiPermissions;
 import org.folio.circulation.support.http.server.HttpResponse;
 import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
 import org.folio.circulation.support.results.Result;
 
 import io.vertx.core.http.HttpClient;
@@ -59,6 +40,7 @@ import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 
 public class CheckOutByBarcodeResource extends Resource {
+  private static final String BULK_CHECK_OUT_PATH = "/circulation/bulk-check-out-by-barcode";
 
   private final String rootPath;
   private static final CirculationErrorType[] PARTIAL_SUCCESS_ERRORS = {
@@ -75,6 +57,8 @@ public class CheckOutByBarcodeResource extends Resource {
       rootPath, router);
 
     routeRegistration.create(this::checkOut);
+
+    new RouteRegistration(BULK_CHECK_OUT_PATH, router).create(this::bulkCheckOut);
   }
 
   private void checkOut(RoutingContext routingContext) {
@@ -90,123 +74,140 @@ public class CheckOutByBarcodeResource extends Resource {
     final var loanRepository = new LoanRepository(clients, itemRepository, userRepository);
     final var requestRepository = RequestRepository.using(clients, itemRepository,
       userRepository, loanRepository);
-    final var requestQueueRepository = new RequestQueueRepository(requestRepository);
-    final LoanService loanService = new LoanService(clients);
-    final LoanPolicyRepository loanPolicyRepository = new LoanPolicyRepository(clients);
-    final OverdueFinePolicyRepository overdueFinePolicyRepository = new OverdueFinePolicyRepository(clients);
-    final LostItemPolicyRepository lostItemPolicyRepository = new LostItemPolicyRepository(clients);
-    final PatronNoticePolicyRepository patronNoticePolicyRepository = new PatronNoticePolicyRepository(clients);
-    final PatronGroupRepository patronGroupRepository = new PatronGroupRepository(clients);
-    final ConfigurationRepository configurationRepository = new ConfigurationRepository(clients);
-    final ScheduledNoticesRepository scheduledNoticesRepository = ScheduledNoticesRepository.using(clients);
-    final LoanScheduledNoticeService scheduledNoticeService =
-      new LoanScheduledNoticeService(scheduledNoticesRepository, patronNoticePolicyRepository);
+
+    final CheckOutProcess checkOutProcess = new CheckOutProcess(context, clients,
+      new EventPublisher(routingContext), userRepository, itemRepository,
+      loanRepository, requestRepository, new RequestQueueRepository(requestRepository));
 
     OkapiPermissions permissions = OkapiPermissions.from(new WebContext(routingContext).getHeaders());
     CirculationErrorHandler errorHandler = new OverridingErrorHandler(permissions);
     CheckOutValidators validators = new CheckOutValidators(request, clients, errorHandler,
       permissions, loanRepository);
 
-    final var requestQueueUpdate = UpdateRequestQueue.using(clients,
-      requestRepository, requestQueueRepository);
-
     final LoanRepresentation loanRepresentation = new LoanRepresentation();
 
-    final EventPublisher eventPublisher = new EventPublisher(routingContext);
-
-    final PatronActionSessionService patronActionSessionService =
-      PatronActionSessionService.using(clients,
-        PatronActionSessionRepository.using(clients, loanRepository,
-          userRepository));
-
-    final var requestScheduledNoticeService = RequestScheduledNoticeService.using(clients);
-
-    ofAsync(() -> new LoanAndRelatedRecords(request.toLoan()))
-      .thenApply(validators::refuseCheckOutWhenServicePointIsNotPresent)
-      .thenComposeAsync(r -> lookupUser(request.getUserBarcode(), userRepository, r, errorHandler))
-      .thenComposeAsync(validators::refuseWhenCheckOutActionIsBlockedManuallyForPatron)
-      .thenComposeAsync(validators::refuseWhenCheckOutActionIsBlockedAutomaticallyForPatron)
-      .thenComposeAsync(r -> lookupProxyUser(request.getProxyUserBarcode(), userRepository, r, errorHandler))
-      .thenApply(validators::refuseWhenUserIsInactive)
-      .thenApply(validators::refuseWhenProxyUserIsInactive)
-      .thenComposeAsync(validators::refuseWhenInvalidProxyRelationship)
-      .thenComposeAsync(r -> lookupItem(request.getItemBarcode(), itemRepository, r))
-      .thenApply(validators::refuseWhenItemNotFound)
-      .thenApply(validators::refuseWhenItemIsAlreadyCheckedOut)
-      .thenApply(validators::refuseWhenItemIsNotAllowedForCheckOut)
-      .thenComposeAsync(validators::refuseWhenItemHasOpenLoans)
-      .thenComposeAsync(r -> r.combineAfter(configurationRepository::lookupTlrSettings,
-        LoanAndRelatedRecords::withTlrSettings))
-      .thenComposeAsync(r -> r.after(requestQueueRepository::get))
-      .thenApply(validators::refuseWhenRequestedByAnotherPatron)
-      .thenComposeAsync(r -> r.after(l -> lookupLoanPolicy(l, loanPolicyRepository, errorHandler)))
-      .thenComposeAsync(validators::refuseWhenItemLimitIsReached)
-      .thenCompose(validators::refuseWhenItemIsNotLoanable)
-      .thenApply(r -> r.next(errorHandler::failWithValidationErrors))
-      .thenCompose(r -> r.combineAfter(configurationRepository::findTimeZoneConfiguration,
-        LoanAndRelatedRecords::withTimeZone))
-      .thenComposeAsync(r -> r.after(overdueFinePolicyRepository::lookupOverdueFinePolicy))
-      .thenComposeAsync(r -> r.after(lostItemPolicyRepository::lookupLostItemPolicy))
-      .thenApply(r -> r.next(this::setItemLocationIdAtCheckout))
-      .thenComposeAsync(r -> r.after(relatedRecords -> checkOut(relatedRecords,
-        routingContext.getBodyAsJson(), clients)))
-      .thenApply(r -> r.map(this::checkOutItem))
-      .thenComposeAsync(r -> r.after(requestQueueUpdate::onCheckOut))
-      .thenComposeAsync(r -> r.after(requestScheduledNoticeService::rescheduleRequestNotices))
-      .thenComposeAsync(r -> r.after(loanService::truncateLoanWhenItemRecalled))
-      .thenComposeAsync(r -> r.after(patronGroupRepository::findPatronGroupForLoanAndRelatedRecords))
-      .thenComposeAsync(r -> r.after(l -> updateItem(l, itemRepository)))
-      .thenComposeAsync(r -> r.after(loanRepository::createLoan))
-      .thenComposeAsync(r -> r.after(l -> saveCheckOutSessionRecord(l, patronActionSessionService,
-        errorHandler)))
-      .thenApplyAsync(r -> r.map(records -> records.withLoggedInUserId(context.getUserId())))
-      .thenComposeAsync(r -> r.after(l -> publishItemCheckedOutEvent(l, eventPublisher,
-        userRepository, errorHandler)))
-      .thenApply(r -> r.next(scheduledNoticeService::scheduleNoticesForLoanDueDate))
+    final LoanAndRelatedRecords initialRecords = new LoanAndRelatedRecords(request.toLoan());
+
+    final CheckOutLookups lookups = checkOutProcess.startLookups(request,
+      initialRecords, validators);
+
+    checkOutProcess.checkOut(initialRecords, validators, errorHandler, lookups)
       .thenApply(r -> r.map(LoanAndRelatedRecords::getLoan))
       .thenApply(r -> r.map(loanRepresentation::extendedLoan))
       .thenApply(r -> createdLoanFrom(r, errorHandler))
       .thenAccept(context::writeResultToHttpResponse);
   }
 
-  private CompletableFuture<Result<LoanAndRelatedRecords>> saveCheckOutSessionRecord(
-    LoanAndRelatedRecords records, PatronActionSessionService patronActionSessionService,
-    CirculationErrorHandler errorHandler) {
+  /**
+   * Checks out many items to the same patron, e.g. at a self check kiosk.
+   * <p>
+   * The patron is checked once and the items and their request queues are
+   * fetched for all items at once. Each item is then checked out the same way
+   * as by a check out by barcode request, one after the other in the order of
+   * the barcodes, so that item limits include the items checked out before it
+   */
+  private void bulkCheckOut(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
 
-    return patronActionSessionService.saveCheckOutSessionRecord(records)
-      .thenApply(r -> errorHandler.handleAnyResult(r, FAILED_TO_SAVE_SESSION_RECORD,
-        succeeded(records)));
-  }
+    final Clients clients = Clients.create(context, client);
 
-  private CompletableFuture<Result<LoanAndRelatedRecords>> publishItemCheckedOutEvent(
-    LoanAndRelatedRecords records, EventPublisher eventPublisher,
-    UserRepository userRepository, CirculationErrorHandler errorHandler) {
+    final var userRepository = new UserRepository(clients);
+    final var itemRepository = new ItemRepository(clients);
+    final var loanRepository = new LoanRepository(clients, itemRepository, userRepository);
+    final var requestRepository = RequestRepository.using(clients, itemRepository,
+      userRepository, loanRepository);
+    final var requestQueueRepository = new RequestQueueRepository(requestRepository);
+
+    final CheckOutProcess checkOutProcess = new CheckOutProcess(context, clients,
+      new EventPublisher(routingContext), userRepository, itemRepository,
+      loanRepository, requestRepository, requestQueueRepository);
 
-    return eventPublisher.publishItemCheckedOutEvent(records, userRepository)
-      .thenApply(r -> errorHandler.handleAnyResult(r, FAILED_TO_PUBLISH_CHECKOUT_EVENT,
-        succeeded(records)));
+    final OkapiPermissions permissions = OkapiPermissions.from(context.getHeaders());
+
+    BulkCheckOutByBarcodeRequest.from(routingContext.getBodyAsJson())
+      .after(bulkRequest -> checkOutAll(bulkRequest, checkOutProcess, clients,
+        permissions, itemRepository, loanRepository, requestQueueRepository))
+      .thenApply(r -> r.map(BulkCheckOutByBarcodeResponse::toHttpResponse))
+      .thenAccept(context::writeResultToHttpResponse);
   }
 
-  private CompletableFuture<Result<LoanAndRelatedRecords>> lookupLoanPolicy(
-    LoanAndRelatedRecords loanAndRelatedRecords, LoanPolicyRepository loanPolicyRepository,
-    CirculationErrorHandler errorHandler) {
+  /**
+   * Refuses the whole request when the patron cannot check out items,
+   * otherwise responds with the outcome of checking out each item
+   */
+  private CompletableFuture<Result<BulkCheckOutByBarcodeResponse>> checkOutAll(
+    BulkCheckOutByBarcodeRequest bulkRequest, CheckOutProcess checkOutProcess,
+    Clients clients, OkapiPermissions permissions, ItemRepository itemRepository,
+    LoanRepository loanRepository, RequestQueueRepository requestQueueRepository) {
 
-    if (errorHandler.hasAny(FAILED_TO_FETCH_ITEM)) {
-      return completedFuture(succeeded(loanAndRelatedRecords));
+    final CheckOutByBarcodeRequest patronRequest = bulkRequest.getPatronRequest();
+    final CirculationErrorHandler errorHandler = new OverridingErrorHandler(permissions);
+    final CheckOutValidators validators = new CheckOutValidators(patronRequest,
+      clients, errorHandler, permissions, loanRepository);
+    final LoanAndRelatedRecords initialRecords = new LoanAndRelatedRecords(
+      patronRequest.toLoan());
+
+    final CheckOutLookups patronLookups = checkOutProcess.startPatronLookups(
+      patronRequest, initialRecords, validators);
+
+    final var prefetchedLookup = PrefetchedCheckOutLookups.prefetch(
+      bulkRequest.getItemBarcodes(), patronLookups.getTlrSettingsLookup(),
+      itemRepository, loanRepository, requestQueueRepository);
+
+    return checkOutProcess.checkPatron(initialRecords, validators, errorHandler, patronLookups)
+      .thenApply(r -> r.next(errorHandler::failWithValidationErrors))
+      .thenCompose(r -> r.combineAfter(() -> prefetchedLookup,
+        (notUsed, prefetched) -> prefetched))
+      .thenCompose(r -> r.after(prefetched -> checkOutInTurn(
+        bulkRequest.checkOutRequests(), checkOutProcess, patronLookups,
+        prefetched, clients, permissions, loanRepository)))
+      .thenApply(r -> r.map(loans -> new BulkCheckOutByBarcodeResponse(
+        bulkRequest.getItemBarcodes(), loans)));
+  }
+
+  @SuppressWarnings("squid:S00107")
+  private CompletableFuture<Result<List<Result<JsonObject>>>> checkOutInTurn(
+    List<CheckOutByBarcodeRequest> requests, CheckOutProcess checkOutProcess,
+    CheckOutLookups patronLookups, PrefetchedCheckOutLookups prefetched,
+    Clients clients, OkapiPermissions permissions, LoanRepository loanRepository) {
+
+    CompletableFuture<List<Result<JsonObject>>> inTurn = completedFuture(new ArrayList<>());
+
+    for (CheckOutByBarcodeRequest request : requests) {
+      inTurn = inTurn.thenCompose(loans -> checkOut(request, checkOutProcess,
+          patronLookups, prefetched, clients, permissions, loanRepository)
+        .exceptionally(CommonFailures::failedDueToServerError)
+        .thenApply(loan -> {
+          loans.add(loan);
+          return loans;
+        }));
     }
 
-    return loanPolicyRepository.lookupLoanPolicy(loanAndRelatedRecords);
+    return inTurn.thenApply(Result::succeeded);
   }
 
-  private CompletableFuture<Result<LoanAndRelatedRecords>> updateItem(
-    LoanAndRelatedRecords loanAndRelatedRecords, ItemRepository itemRepository) {
+  @SuppressWarnings("squid:S00107")
+  private CompletableFuture<Result<JsonObject>> checkOut(CheckOutByBarcodeRequest request,
+    CheckOutProcess checkOutProcess, CheckOutLookups patronLookups,
+    PrefetchedCheckOutLookups prefetched, Clients clients, OkapiPermissions permissions,
+    LoanRepository loanRepository) {
 
-    return itemRepository.updateItem(loanAndRelatedRecords.getItem())
-      .thenApply(r -> r.map(loanAndRelatedRecords::withItem));
-  }
+    final CirculationErrorHandler errorHandler = new OverridingErrorHandler(permissions);
+    final CheckOutValidators validators = new CheckOutValidators(request, clients,
+      errorHandler, permissions, loanRepository,
+      new ItemLimitValidator(request, prefetched::findOpenLoansForPatron));
+
+    final LoanAndRelatedRecords initialRecords = new LoanAndRelatedRecords(request.toLoan());
 
-  private LoanAndRelatedRecords checkOutItem(LoanAndRelatedRecords loanAndRelatedRecords) {
-    return loanAndRelatedRecords.changeItemStatus(CHECKED_OUT);
+    final var itemLookup = prefetched.findItem(request.getItemBarcode());
+    final var requestQueueLookup = itemLookup.thenCompose(r -> r.after(
+      prefetched::getRequestQueue));
+
+    return checkOutProcess.checkOut(initialRecords, validators, errorHandler,
+        patronLookups.forItem(itemLookup, requestQueueLookup))
+      .thenApply(r -> r.map(prefetched::checkedOut))
+      .thenApply(r -> r.map(LoanAndRelatedRecords::getLoan))
+      .thenApply(r -> r.map(new LoanRepresentation()::extendedLoan));
   }
 
   private Result<HttpResponse> createdLoanFrom(Result<JsonObject> result,
@@ -224,65 +225,4 @@ public class CheckOutByBarcodeResource extends Resource {
   private String urlForLoan(String id) {
     return String.format("/circulation/loans/%s", id);
   }
-
-  private CompletableFuture<Result<LoanAndRelatedRecords>> lookupUser(String barcode,
-    UserRepository userRepository, Result<LoanAndRelatedRecords> loanResult,
-    CirculationErrorHandler errorHandler) {
-
-    return userRepository.getUserByBarcode(barcode)
-      .thenApply(userResult -> loanResult.combine(userResult, LoanAndRelatedRecords::withRequestingUser))
-      .thenApply(r -> errorHandler.handleValidationResult(r, FAILED_TO_FETCH_USER, loanResult));
-  }
-
-  private CompletableFuture<Result<LoanAndRelatedRecords>> lookupProxyUser(String barcode,
-    UserRepository userRepository, Result<LoanAndRelatedRecords> loanResult,
-    CirculationErrorHandler errorHandler) {
-
-    return userRepository.getProxyUserByBarcode(barcode)
-      .thenApply(userResult -> loanResult.combine(userResult, LoanAndRelatedRecords::withProxyingUser))
-      .thenApply(r -> errorHandler.handleValidationResult(r, FAILED_TO_FETCH_PROXY_USER, loanResult));
-  }
-
-  private CompletableFuture<Result<LoanAndRelatedRecords>> lookupItem(
-    String barcode, ItemRepository itemRepository, Result<LoanAndRelatedRecords> loanResult) {
-
-    return itemRepository.fetchByBarcode(barcode)
-      .thenApply(itemResult -> loanResult.combine(itemResult, LoanAndRelatedRecords::withItem));
-  }
-
-  private Result<LoanAndRelatedRecords> setItemLocationIdAtCheckout(
-    LoanAndRelatedRecords relatedRecords) {
-
-    return succeeded(relatedRecords.withItemEffectiveLocationIdAtCheckOut());
-  }
-
-  private CompletableFuture<Result<LoanAndRelatedRecords>> checkOut(
-    LoanAndRelatedRecords relatedRecords, JsonObject request, Clients clients) {
-
-    ZonedDateTime loanDate = relatedRecords.getLoan().getLoanDate();
-    final ClosedLibraryStrategyService strategyService =
-      ClosedLibraryStrategyService.using(clients, loanDate, false);
-
-    if (CHECKED_OUT_THROUGH_OVERRIDE.getValue().equals(relatedRecords.getLoan().getAction())
-      && relatedRecords.getLoan().hasDueDateChanged()) {
-
-      return completedFuture(succeeded(relatedRecords));
-    }
-
-    return completedFuture(succeeded(relatedRecords))
-      .thenApply(r -> r.next(this::calculateDefaultInitialDueDate))
-      .thenCompose(r -> r.after(strategyService::applyClosedLibraryDueDateManagement));
-  }
-
-  private Result<LoanAndRelatedRecords> calculateDefaultInitialDueDate(
-    LoanAndRelatedRecords loanAndRelatedRecords) {
-
-    Loan loan = loanAndRelatedRecords.getLoan();
-    LoanPolicy loanPolicy = loan.getLoanPolicy();
-    RequestQueue requestQueue = loanAndRelatedRecords.getRequestQueue();
-
-    return loanPolicy.calculateInitialDueDate(loan, requestQueue)
-      .map(loan::changeDueDate)
-      .map(loanAndRelatedRecords::withLoan);
-  }
 }
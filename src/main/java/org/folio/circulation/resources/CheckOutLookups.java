@@ -0,0 +1,57 @@
+package org.folio.circulation.resources;
+
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.LoanAndRelatedRecords;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.User;
+import org.folio.circulation.domain.configuration.TlrSettingsConfiguration;
+import org.folio.circulation.support.results.Result;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Lookups (and checks using them) for a check out that are started before
+ * they are needed. Those for the patron are the same for every item checked
+ * out to them, those for the item are different for each item
+ */
+@Getter(AccessLevel.PACKAGE)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+class CheckOutLookups {
+  private final CompletableFuture<Result<User>> userLookup;
+  private final CompletableFuture<Result<User>> proxyUserLookup;
+  private final CompletableFuture<Result<LoanAndRelatedRecords>> manualBlocksCheck;
+  private final CompletableFuture<Result<LoanAndRelatedRecords>> automatedBlocksCheck;
+  private final CompletableFuture<Result<LoanAndRelatedRecords>> proxyRelationshipCheck;
+  private final CompletableFuture<Result<TlrSettingsConfiguration>> tlrSettingsLookup;
+  private final CompletableFuture<Result<ZoneId>> timeZoneLookup;
+  private final CompletableFuture<Result<Item>> itemLookup;
+  private final CompletableFuture<Result<RequestQueue>> requestQueueLookup;
+
+  CheckOutLookups(CompletableFuture<Result<User>> userLookup,
+    CompletableFuture<Result<User>> proxyUserLookup,
+    CompletableFuture<Result<LoanAndRelatedRecords>> manualBlocksCheck,
+    CompletableFuture<Result<LoanAndRelatedRecords>> automatedBlocksCheck,
+    CompletableFuture<Result<LoanAndRelatedRecords>> proxyRelationshipCheck,
+    CompletableFuture<Result<TlrSettingsConfiguration>> tlrSettingsLookup,
+    CompletableFuture<Result<ZoneId>> timeZoneLookup) {
+
+    this(userLookup, proxyUserLookup, manualBlocksCheck, automatedBlocksCheck,
+      proxyRelationshipCheck, tlrSettingsLookup, timeZoneLookup, null, null);
+  }
+
+  /**
+   * @return the same lookups for the patron, with the lookups for the item
+   */
+  CheckOutLookups forItem(CompletableFuture<Result<Item>> itemLookup,
+    CompletableFuture<Result<RequestQueue>> requestQueueLookup) {
+
+    return new CheckOutLookups(userLookup, proxyUserLookup, manualBlocksCheck,
+      automatedBlocksCheck, proxyRelationshipCheck, tlrSettingsLookup,
+      timeZoneLookup, itemLookup, requestQueueLookup);
+  }
+}
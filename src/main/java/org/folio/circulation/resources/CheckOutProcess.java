@@ -0,0 +1,356 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.function.Function.identity;
+import static org.folio.circulation.domain.ItemStatus.CHECKED_OUT;
+import static org.folio.circulation.domain.LoanAction.CHECKED_OUT_THROUGH_OVERRIDE;
+import static org.folio.circulation.resources.handlers.error.CirculationErrorType.FAILED_TO_FETCH_ITEM;
+import static org.folio.circulation.resources.handlers.error.CirculationErrorType.FAILED_TO_FETCH_PROXY_USER;
+import static org.folio.circulation.resources.handlers.error.CirculationErrorType.FAILED_TO_FETCH_USER;
+import static org.folio.circulation.resources.handlers.error.CirculationErrorType.FAILED_TO_PUBLISH_CHECKOUT_EVENT;
+import static org.folio.circulation.resources.handlers.error.CirculationErrorType.FAILED_TO_SAVE_SESSION_RECORD;
+import static org.folio.circulation.support.results.Result.ofAsync;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.folio.circulation.support.results.ResultBinding.mapResult;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanAndRelatedRecords;
+import org.folio.circulation.domain.LoanService;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.UpdateRequestQueue;
+import org.folio.circulation.domain.User;
+import org.folio.circulation.domain.notice.schedule.LoanScheduledNoticeService;
+import org.folio.circulation.domain.notice.schedule.RequestScheduledNoticeService;
+import org.folio.circulation.domain.notice.session.PatronActionSessionService;
+import org.folio.circulation.domain.policy.LoanPolicy;
+import org.folio.circulation.domain.policy.library.ClosedLibraryStrategyService;
+import org.folio.circulation.domain.representations.CheckOutByBarcodeRequest;
+import org.folio.circulation.domain.validation.CheckOutValidators;
+import org.folio.circulation.infrastructure.storage.CirculationPolicyRepository;
+import org.folio.circulation.infrastructure.storage.ConfigurationRepository;
+import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
+import org.folio.circulation.infrastructure.storage.loans.LoanPolicyRepository;
+import org.folio.circulation.infrastructure.storage.loans.LoanRepository;
+import org.folio.circulation.infrastructure.storage.loans.LostItemPolicyRepository;
+import org.folio.circulation.infrastructure.storage.loans.OverdueFinePolicyRepository;
+import org.folio.circulation.infrastructure.storage.notices.PatronNoticePolicyRepository;
+import org.folio.circulation.infrastructure.storage.notices.ScheduledNoticesRepository;
+import org.folio.circulation.infrastructure.storage.requests.RequestQueueRepository;
+import org.folio.circulation.infrastructure.storage.requests.RequestRepository;
+import org.folio.circulation.infrastructure.storage.sessions.PatronActionSessionRepository;
+import org.folio.circulation.infrastructure.storage.users.PatronGroupRepository;
+import org.folio.circulation.infrastructure.storage.users.UserRepository;
+import org.folio.circulation.resources.handlers.error.CirculationErrorHandler;
+import org.folio.circulation.rules.CirculationRuleMatches;
+import org.folio.circulation.services.EventPublisher;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.Result;
+
+/**
+ * Checks out a single item, used both when checking out one item and when
+ * checking out many items to the same patron
+ */
+class CheckOutProcess {
+  private final WebContext context;
+  private final Clients clients;
+  private final UserRepository userRepository;
+  private final ItemRepository itemRepository;
+  private final LoanRepository loanRepository;
+  private final RequestQueueRepository requestQueueRepository;
+  private final ConfigurationRepository configurationRepository;
+  private final LoanService loanService;
+  private final LoanPolicyRepository loanPolicyRepository;
+  private final OverdueFinePolicyRepository overdueFinePolicyRepository;
+  private final LostItemPolicyRepository lostItemPolicyRepository;
+  private final PatronGroupRepository patronGroupRepository;
+  private final LoanScheduledNoticeService scheduledNoticeService;
+  private final UpdateRequestQueue requestQueueUpdate;
+  private final EventPublisher eventPublisher;
+  private final PatronActionSessionService patronActionSessionService;
+  private final RequestScheduledNoticeService requestScheduledNoticeService;
+
+  @SuppressWarnings("squid:S00107")
+  CheckOutProcess(WebContext context, Clients clients, EventPublisher eventPublisher,
+    UserRepository userRepository, ItemRepository itemRepository,
+    LoanRepository loanRepository, RequestRepository requestRepository,
+    RequestQueueRepository requestQueueRepository) {
+
+    this.context = context;
+    this.clients = clients;
+    this.eventPublisher = eventPublisher;
+    this.userRepository = userRepository;
+    this.itemRepository = itemRepository;
+    this.loanRepository = loanRepository;
+    this.requestQueueRepository = requestQueueRepository;
+
+    this.configurationRepository = new ConfigurationRepository(clients);
+    this.loanService = new LoanService(clients);
+    this.loanPolicyRepository = new LoanPolicyRepository(clients);
+    this.overdueFinePolicyRepository = new OverdueFinePolicyRepository(clients);
+    this.lostItemPolicyRepository = new LostItemPolicyRepository(clients);
+    this.patronGroupRepository = new PatronGroupRepository(clients);
+
+    this.scheduledNoticeService = new LoanScheduledNoticeService(
+      ScheduledNoticesRepository.using(clients), new PatronNoticePolicyRepository(clients));
+
+    this.requestQueueUpdate = UpdateRequestQueue.using(clients,
+      requestRepository, requestQueueRepository);
+
+    this.patronActionSessionService = PatronActionSessionService.using(clients,
+      PatronActionSessionRepository.using(clients, loanRepository, userRepository));
+
+    this.requestScheduledNoticeService = RequestScheduledNoticeService.using(clients);
+  }
+
+  /**
+   * Starts the lookups for the patron and the item of the request
+   */
+  CheckOutLookups startLookups(CheckOutByBarcodeRequest request,
+    LoanAndRelatedRecords initialRecords, CheckOutValidators validators) {
+
+    final CheckOutLookups patronLookups = startPatronLookups(request,
+      initialRecords, validators);
+
+    final var itemLookup = itemRepository.fetchByBarcode(request.getItemBarcode());
+
+    final var requestQueueLookup = itemLookup.thenCombine(patronLookups.getTlrSettingsLookup(),
+      (item, tlrSettings) -> item.combine(tlrSettings, (i, settings) ->
+        requestQueueRepository.getQueue(settings, i.getInstanceId(), i.getItemId())))
+      .thenCompose(r -> r.after(identity()));
+
+    return patronLookups.forItem(itemLookup, requestQueueLookup);
+  }
+
+  /**
+   * Starts the lookups (and checks using them) that are the same for every
+   * item checked out to the patron of the request
+   */
+  CheckOutLookups startPatronLookups(CheckOutByBarcodeRequest request,
+    LoanAndRelatedRecords initialRecords, CheckOutValidators validators) {
+
+    // Lookups (and checks using them) that do not depend upon each other are
+    // started straight away, or as soon as the records they need are found.
+    // Their outcomes are applied in the same order as before, so that
+    // validation errors are reported in the same order
+    final var userLookup = userRepository.getUserByBarcode(request.getUserBarcode());
+    final var proxyUserLookup = userRepository.getProxyUserByBarcode(
+      request.getProxyUserBarcode());
+
+    final var recordsWithUser = userLookup
+      .thenApply(mapResult(initialRecords::withRequestingUser));
+
+    return new CheckOutLookups(userLookup, proxyUserLookup,
+      validators.startManualPatronBlocksCheck(recordsWithUser),
+      validators.startAutomatedPatronBlocksCheck(recordsWithUser),
+      validators.startProxyRelationshipCheck(recordsWithUser.thenCombine(proxyUserLookup,
+        (records, proxyUser) -> records.combine(proxyUser, LoanAndRelatedRecords::withProxyingUser))),
+      configurationRepository.lookupTlrSettings(),
+      configurationRepository.findTimeZoneConfiguration());
+  }
+
+  /**
+   * Applies the checks that only depend upon the patron (and the service point)
+   */
+  CompletableFuture<Result<LoanAndRelatedRecords>> checkPatron(
+    LoanAndRelatedRecords initialRecords, CheckOutValidators validators,
+    CirculationErrorHandler errorHandler, CheckOutLookups lookups) {
+
+    return ofAsync(() -> initialRecords)
+      .thenApply(validators::refuseCheckOutWhenServicePointIsNotPresent)
+      .thenComposeAsync(r -> lookupUser(lookups.getUserLookup(), r, errorHandler))
+      .thenComposeAsync(r -> validators.refuseWhenCheckOutActionIsBlockedManuallyForPatron(r,
+        lookups.getManualBlocksCheck()))
+      .thenComposeAsync(r -> validators.refuseWhenCheckOutActionIsBlockedAutomaticallyForPatron(r,
+        lookups.getAutomatedBlocksCheck()))
+      .thenComposeAsync(r -> lookupProxyUser(lookups.getProxyUserLookup(), r, errorHandler))
+      .thenApply(validators::refuseWhenUserIsInactive)
+      .thenApply(validators::refuseWhenProxyUserIsInactive)
+      .thenComposeAsync(r -> validators.refuseWhenInvalidProxyRelationship(r,
+        lookups.getProxyRelationshipCheck()));
+  }
+
+  CompletableFuture<Result<LoanAndRelatedRecords>> checkOut(
+    LoanAndRelatedRecords initialRecords, CheckOutValidators validators,
+    CirculationErrorHandler errorHandler, CheckOutLookups lookups) {
+
+    final var userLookup = lookups.getUserLookup();
+    final var itemLookup = lookups.getItemLookup();
+
+    final var openLoansCheck = validators.startOpenLoansCheck(
+      itemLookup.thenApply(mapResult(initialRecords::withItem)));
+
+    final var policyMatchesLookup = lookupPolicyMatches(userLookup, itemLookup);
+
+    final var loanPolicyLookup = lookupPolicy(loanPolicyRepository, policyMatchesLookup);
+    final var overdueFinePolicyLookup = lookupPolicy(overdueFinePolicyRepository,
+      policyMatchesLookup);
+    final var lostItemPolicyLookup = lookupPolicy(lostItemPolicyRepository,
+      policyMatchesLookup);
+
+    return checkPatron(initialRecords, validators, errorHandler, lookups)
+      .thenComposeAsync(r -> lookupItem(itemLookup, r))
+      .thenApply(validators::refuseWhenItemNotFound)
+      .thenApply(validators::refuseWhenItemIsAlreadyCheckedOut)
+      .thenApply(validators::refuseWhenItemIsNotAllowedForCheckOut)
+      .thenComposeAsync(r -> validators.refuseWhenItemHasOpenLoans(r, openLoansCheck))
+      .thenComposeAsync(r -> r.combineAfter(lookups::getTlrSettingsLookup,
+        LoanAndRelatedRecords::withTlrSettings))
+      .thenComposeAsync(r -> r.combineAfter(lookups::getRequestQueueLookup,
+        LoanAndRelatedRecords::withRequestQueue))
+      .thenApply(validators::refuseWhenRequestedByAnotherPatron)
+      .thenComposeAsync(r -> r.after(l -> applyLoanPolicy(l, loanPolicyLookup, errorHandler)))
+      .thenComposeAsync(validators::refuseWhenItemLimitIsReached)
+      .thenCompose(validators::refuseWhenItemIsNotLoanable)
+      .thenApply(r -> r.next(errorHandler::failWithValidationErrors))
+      .thenCompose(r -> r.combineAfter(lookups::getTimeZoneLookup,
+        LoanAndRelatedRecords::withTimeZone))
+      .thenComposeAsync(r -> r.combineAfter(() -> overdueFinePolicyLookup,
+        (records, policy) -> records.withLoan(records.getLoan().withOverdueFinePolicy(policy))))
+      .thenComposeAsync(r -> r.combineAfter(() -> lostItemPolicyLookup,
+        (records, policy) -> records.withLoan(records.getLoan().withLostItemPolicy(policy))))
+      .thenApply(r -> r.next(this::setItemLocationIdAtCheckout))
+      .thenComposeAsync(r -> r.after(this::calculateDueDate))
+      .thenApply(r -> r.map(this::checkOutItem))
+      .thenComposeAsync(r -> r.after(requestQueueUpdate::onCheckOut))
+      .thenComposeAsync(r -> r.after(requestScheduledNoticeService::rescheduleRequestNotices))
+      .thenComposeAsync(r -> r.after(loanService::truncateLoanWhenItemRecalled))
+      .thenComposeAsync(r -> r.after(patronGroupRepository::findPatronGroupForLoanAndRelatedRecords))
+      .thenComposeAsync(r -> r.after(this::updateItem))
+      .thenComposeAsync(r -> r.after(loanRepository::createLoan))
+      .thenComposeAsync(r -> r.after(l -> saveCheckOutSessionRecord(l, errorHandler)))
+      .thenApplyAsync(r -> r.map(records -> records.withLoggedInUserId(context.getUserId())))
+      .thenComposeAsync(r -> r.after(l -> publishItemCheckedOutEvent(l, errorHandler)))
+      .thenApply(r -> r.next(scheduledNoticeService::scheduleNoticesForLoanDueDate));
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> saveCheckOutSessionRecord(
+    LoanAndRelatedRecords records, CirculationErrorHandler errorHandler) {
+
+    return patronActionSessionService.saveCheckOutSessionRecord(records)
+      .thenApply(r -> errorHandler.handleAnyResult(r, FAILED_TO_SAVE_SESSION_RECORD,
+        succeeded(records)));
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> publishItemCheckedOutEvent(
+    LoanAndRelatedRecords records, CirculationErrorHandler errorHandler) {
+
+    return eventPublisher.publishItemCheckedOutEvent(records, userRepository)
+      .thenApply(r -> errorHandler.handleAnyResult(r, FAILED_TO_PUBLISH_CHECKOUT_EVENT,
+        succeeded(records)));
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> applyLoanPolicy(
+    LoanAndRelatedRecords loanAndRelatedRecords,
+    CompletableFuture<Result<LoanPolicy>> loanPolicyLookup,
+    CirculationErrorHandler errorHandler) {
+
+    if (errorHandler.hasAny(FAILED_TO_FETCH_ITEM)
+      || loanAndRelatedRecords.getLoan().getUser() == null) {
+
+      return completedFuture(succeeded(loanAndRelatedRecords));
+    }
+
+    return loanPolicyLookup.thenApply(mapResult(policy -> loanAndRelatedRecords.withLoan(
+      loanAndRelatedRecords.getLoan().withLoanPolicy(policy))));
+  }
+
+  /**
+   * Applies the circulation rules once the user and item have been found, the loan,
+   * overdue fine and lost item policies all come from this single evaluation
+   */
+  private CompletableFuture<Result<CirculationRuleMatches>> lookupPolicyMatches(
+    CompletableFuture<Result<User>> userLookup, CompletableFuture<Result<Item>> itemLookup) {
+
+    return userLookup.thenCombine(itemLookup, (user, item) -> user.combine(item,
+        (u, i) -> loanPolicyRepository.lookupPolicyMatches(i, u)))
+      .thenCompose(r -> r.after(identity()));
+  }
+
+  /**
+   * Looks up the policy determined by the circulation rules,
+   * a failed lookup is only used when the policy is needed
+   */
+  private <T> CompletableFuture<Result<T>> lookupPolicy(
+    CirculationPolicyRepository<T> policyRepository,
+    CompletableFuture<Result<CirculationRuleMatches>> policyMatchesLookup) {
+
+    return policyMatchesLookup.thenCompose(r -> r.after(policyRepository::lookupPolicy));
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> updateItem(
+    LoanAndRelatedRecords loanAndRelatedRecords) {
+
+    return itemRepository.updateItem(loanAndRelatedRecords.getItem())
+      .thenApply(r -> r.map(loanAndRelatedRecords::withItem));
+  }
+
+  private LoanAndRelatedRecords checkOutItem(LoanAndRelatedRecords loanAndRelatedRecords) {
+    return loanAndRelatedRecords.changeItemStatus(CHECKED_OUT);
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> lookupUser(
+    CompletableFuture<Result<User>> userLookup, Result<LoanAndRelatedRecords> loanResult,
+    CirculationErrorHandler errorHandler) {
+
+    return userLookup
+      .thenApply(userResult -> loanResult.combine(userResult, LoanAndRelatedRecords::withRequestingUser))
+      .thenApply(r -> errorHandler.handleValidationResult(r, FAILED_TO_FETCH_USER, loanResult));
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> lookupProxyUser(
+    CompletableFuture<Result<User>> proxyUserLookup, Result<LoanAndRelatedRecords> loanResult,
+    CirculationErrorHandler errorHandler) {
+
+    return proxyUserLookup
+      .thenApply(userResult -> loanResult.combine(userResult, LoanAndRelatedRecords::withProxyingUser))
+      .thenApply(r -> errorHandler.handleValidationResult(r, FAILED_TO_FETCH_PROXY_USER, loanResult));
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> lookupItem(
+    CompletableFuture<Result<Item>> itemLookup, Result<LoanAndRelatedRecords> loanResult) {
+
+    return itemLookup
+      .thenApply(itemResult -> loanResult.combine(itemResult, LoanAndRelatedRecords::withItem));
+  }
+
+  private Result<LoanAndRelatedRecords> setItemLocationIdAtCheckout(
+    LoanAndRelatedRecords relatedRecords) {
+
+    return succeeded(relatedRecords.withItemEffectiveLocationIdAtCheckOut());
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> calculateDueDate(
+    LoanAndRelatedRecords relatedRecords) {
+
+    ZonedDateTime loanDate = relatedRecords.getLoan().getLoanDate();
+    final ClosedLibraryStrategyService strategyService =
+      ClosedLibraryStrategyService.using(clients, loanDate, false);
+
+    if (CHECKED_OUT_THROUGH_OVERRIDE.getValue().equals(relatedRecords.getLoan().getAction())
+      && relatedRecords.getLoan().hasDueDateChanged()) {
+
+      return completedFuture(succeeded(relatedRecords));
+    }
+
+    return completedFuture(succeeded(relatedRecords))
+      .thenApply(r -> r.next(this::calculateDefaultInitialDueDate))
+      .thenCompose(r -> r.after(strategyService::applyClosedLibraryDueDateManagement));
+  }
+
+  private Result<LoanAndRelatedRecords> calculateDefaultInitialDueDate(
+    LoanAndRelatedRecords loanAndRelatedRecords) {
+
+    Loan loan = loanAndRelatedRecords.getLoan();
+    LoanPolicy loanPolicy = loan.getLoanPolicy();
+    RequestQueue requestQueue = loanAndRelatedRecords.getRequestQueue();
+
+    return loanPolicy.calculateInitialDueDate(loan, requestQueue)
+      .map(loan::changeDueDate)
+      .map(loanAndRelatedRecords::withLoan);
+  }
+}
@@ -0,0 +1,105 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.support.http.server.JsonHttpResponse.ok;
+
+import org.folio.circulation.rules.RuleMatchCache;
+import org.folio.circulation.rules.cache.CirculationRulesCache;
+import org.folio.circulation.rules.cache.RulesCompilationMetrics;
+import org.folio.circulation.services.outbox.Outbox;
+import org.folio.circulation.services.outbox.OutboxMetrics;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.fetching.CqlIndexValuesFinder;
+import org.folio.circulation.support.fetching.CqlIndexValuesFinderMetrics;
+import org.folio.circulation.support.http.server.WebContext;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Counters and timings kept by this instance of the module, those of the
+ * circulation rules are for the tenant of the request.
+ */
+public class CirculationMetricsResource extends Resource {
+  public CirculationMetricsResource(HttpClient client) {
+    super(client);
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(
+      "/circulation/metrics", router);
+
+    routeRegistration.getMany(this::getMetrics);
+  }
+
+  private void getMetrics(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+
+    final JsonObject metrics = new JsonObject()
+      .put("circulationRules", circulationRulesMetrics(context.getTenantId()))
+      .put("findByManyValues", findByManyValuesMetrics())
+      .put("outbox", outboxMetrics());
+
+    ok(metrics).writeTo(routingContext.response());
+  }
+
+  private static JsonObject circulationRulesMetrics(String tenantId) {
+    final JsonObject metrics = new JsonObject();
+
+    if (tenantId == null) {
+      return metrics;
+    }
+
+    final CirculationRulesCache rulesCache = CirculationRulesCache.getInstance();
+    final RuleMatchCache matchCache = rulesCache.getMatchCache(tenantId);
+    final RulesCompilationMetrics compilation = rulesCache.getCompilationMetrics(tenantId);
+
+    if (matchCache != null) {
+      metrics.put("matchCache", new JsonObject()
+        .put("hits", matchCache.getHits())
+        .put("misses", matchCache.getMisses())
+        .put("entries", matchCache.size())
+        .put("savedMilliseconds", matchCache.getSavedMillis()));
+    }
+
+    if (compilation != null) {
+      metrics.put("compilation", new JsonObject()
+        .put("compilations", compilation.getCompilations())
+        .put("lastCompileMilliseconds", compilation.getLastCompileMillis())
+        .put("totalCompileMilliseconds", compilation.getTotalCompileMillis())
+        .put("lastStaleMilliseconds", compilation.getLastStaleMillis())
+        .put("maximumStaleMilliseconds", compilation.getMaxStaleMillis()));
+    }
+
+    return metrics;
+  }
+
+  private static JsonObject findByManyValuesMetrics() {
+    final CqlIndexValuesFinderMetrics metrics = CqlIndexValuesFinder.getMetrics();
+
+    return new JsonObject()
+      .put("lookups", metrics.getLookups())
+      .put("queries", metrics.getPartitions())
+      .put("maximumQueriesPerLookup", metrics.getMaxPartitions())
+      .put("totalSlotWaitMilliseconds", metrics.getTotalSlotWaitMillis())
+      .put("maximumSlotWaitMilliseconds", metrics.getMaxSlotWaitMillis());
+  }
+
+  private static JsonObject outboxMetrics() {
+    final Outbox outbox = Outbox.getInstance();
+    final OutboxMetrics metrics = outbox.getMetrics();
+
+    return new JsonObject()
+      .put("enabled", outbox.isEnabled())
+      .put("depth", metrics.getDepth())
+      .put("added", metrics.getAdded())
+      .put("writes", metrics.getWrites())
+      .put("sent", metrics.getSent())
+      .put("failedAttempts", metrics.getFailedAttempts())
+      .put("discarded", metrics.getDiscarded())
+      .put("lastDrainLagMilliseconds", metrics.getLastDrainLagMillis())
+      .put("maximumDrainLagMilliseconds", metrics.getMaxDrainLagMillis());
+  }
+}
@@ -5,6 +5,11 @@ import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
+import static org.folio.circulation.support.cache.ReferenceDataType.LOAN_POLICIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.LOST_ITEM_POLICIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.OVERDUE_FINE_POLICIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.PATRON_NOTICE_POLICIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.REQUEST_POLICIES;
 import static org.folio.circulation.support.http.server.JsonHttpResponse.ok;
 import static org.folio.circulation.support.http.server.JsonHttpResponse.unprocessableEntity;
 import static org.folio.circulation.support.http.server.NoContentResponse.noContent;
@@ -19,6 +24,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.antlr.v4.runtime.Token;
 import org.apache.commons.collections4.MapUtils;
@@ -32,6 +38,7 @@ import org.folio.circulation.rules.cache.CirculationRulesCache;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.ForwardOnFailure;
+import org.folio.circulation.support.cache.ReferenceDataCache;
 import org.folio.circulation.support.http.client.PageLimit;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.http.server.ForwardResponse;
@@ -120,10 +127,21 @@ public class CirculationRulesResource extends Resource {
       return;
     }
 
+    // the rules are validated against the policies in storage, not the cached ones
+    invalidateCachedPolicies(clients.getTenantId());
+
     getPolicyIdsByType(clients)
       .thenAccept(result -> proceedWithUpdate(result.value(), routingContext, clients));
   }
 
+  private static void invalidateCachedPolicies(String tenantId) {
+    final var cache = ReferenceDataCache.getInstance();
+
+    Stream.of(LOAN_POLICIES, REQUEST_POLICIES, PATRON_NOTICE_POLICIES,
+        OVERDUE_FINE_POLICIES, LOST_ITEM_POLICIES)
+      .forEach(type -> cache.invalidate(tenantId, type));
+  }
+
   private void proceedWithUpdate(Map<String, Set<String>> existingPoliciesIds,
     RoutingContext routingContext, Clients clients) {
 
@@ -149,10 +167,12 @@ public class CirculationRulesResource extends Resource {
 
     clients.circulationRulesStorage().put(rulesInput.copy())
       .thenApply(this::failWhenResponseOtherThanNoContent)
-      .thenApply(result -> result.map(response -> noContent()))
+      .thenApply(result -> result.map(response -> {
+        // clear only after storing, a reload started earlier may have fetched the previous rules
+        CirculationRulesCache.getInstance().clearCache(webContext.getTenantId());
+        return noContent();
+      }))
       .thenAccept(webContext::writeResultToHttpResponse);
-
-    CirculationRulesCache.getInstance().clearCache(webContext.getTenantId());
   }
 
   private Result<Response> failWhenResponseOtherThanNoContent(Result<Response> result) {
@@ -0,0 +1,41 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.support.http.server.NoContentResponse.noContent;
+
+import org.folio.circulation.rules.cache.CirculationRulesCache;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Called periodically for each tenant the module is enabled for, so that after
+ * the module has been started the rules of these tenants are loaded before the
+ * first policy lookup, not only those of tenants enabled since it started.
+ */
+public class CirculationRulesWarmUpResource extends Resource {
+  public CirculationRulesWarmUpResource(HttpClient client) {
+    super(client);
+  }
+
+  @Override
+  public void register(Router router) {
+    new RouteRegistration("/circulation/rules-warm-up", router)
+      .create(this::warmUp);
+  }
+
+  private void warmUp(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final CirculationRulesCache cache = CirculationRulesCache.getInstance();
+
+    if (!cache.isLoaded(context.getTenantId())) {
+      cache.warmUp(context.getTenantId(),
+        Clients.create(context, client).circulationRulesStorage());
+    }
+
+    noContent().writeTo(routingContext.response());
+  }
+}
@@ -1,6 +1,7 @@
 package org.folio.circulation.resources;
 
 import org.folio.circulation.rules.CirculationRulesProcessor;
+import org.folio.circulation.rules.ExecutableRules;
 
 import io.vertx.core.http.HttpClient;
 
@@ -10,10 +11,13 @@ import io.vertx.core.http.HttpClient;
  */
 public class LoanCirculationRulesEngineResource extends AbstractCirculationRulesEngineResource {
 
-  public LoanCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client) {
-    super(applyPath, applyAllPath, client,
+  public LoanCirculationRulesEngineResource(String applyPath, String applyAllPath,
+    String applyBatchPath, HttpClient client) {
+
+    super(applyPath, applyAllPath, applyBatchPath, client,
       CirculationRulesProcessor::getLoanPolicyAndMatch,
-      CirculationRulesProcessor::getLoanPolicies);
+      CirculationRulesProcessor::getLoanPolicies,
+      ExecutableRules::determineLoanPolicy);
   }
 
   @Override
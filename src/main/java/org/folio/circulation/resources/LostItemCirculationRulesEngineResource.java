@@ -1,15 +1,19 @@
 package org.folio.circulation.resources;
 
 import org.folio.circulation.rules.CirculationRulesProcessor;
+import org.folio.circulation.rules.ExecutableRules;
 
 import io.vertx.core.http.HttpClient;
 
 public class LostItemCirculationRulesEngineResource extends AbstractCirculationRulesEngineResource {
 
-  public LostItemCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client) {
-    super(applyPath, applyAllPath, client,
+  public LostItemCirculationRulesEngineResource(String applyPath, String applyAllPath,
+    String applyBatchPath, HttpClient client) {
+
+    super(applyPath, applyAllPath, applyBatchPath, client,
       CirculationRulesProcessor::getLostItemPolicyAndMatch,
-      CirculationRulesProcessor::getLostItemPolicies);
+      CirculationRulesProcessor::getLostItemPolicies,
+      ExecutableRules::determineLostItemPolicy);
   }
 
   @Override
@@ -1,6 +1,7 @@
 package org.folio.circulation.resources;
 
 import org.folio.circulation.rules.CirculationRulesProcessor;
+import org.folio.circulation.rules.ExecutableRules;
 
 import io.vertx.core.http.HttpClient;
 
@@ -10,10 +11,13 @@ import io.vertx.core.http.HttpClient;
  */
 public class NoticeCirculationRulesEngineResource extends AbstractCirculationRulesEngineResource {
 
-  public NoticeCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client) {
-    super(applyPath, applyAllPath, client,
+  public NoticeCirculationRulesEngineResource(String applyPath, String applyAllPath,
+    String applyBatchPath, HttpClient client) {
+
+    super(applyPath, applyAllPath, applyBatchPath, client,
       CirculationRulesProcessor::getNoticePolicyAndMatch,
-      CirculationRulesProcessor::getNoticePolicies);
+      CirculationRulesProcessor::getNoticePolicies,
+      ExecutableRules::determineNoticePolicy);
   }
 
   @Override
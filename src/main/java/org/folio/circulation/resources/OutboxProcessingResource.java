@@ -0,0 +1,37 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.support.http.server.NoContentResponse.noContent;
+
+import org.folio.circulation.services.outbox.Outbox;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Called periodically for each tenant the module is enabled for, provides the
+ * outbox with a token (with the module permissions of the timer) to send the
+ * tenant's messages that have no token of their own with, e.g. those stored
+ * before the module was restarted.
+ */
+public class OutboxProcessingResource extends Resource {
+  public OutboxProcessingResource(HttpClient client) {
+    super(client);
+  }
+
+  @Override
+  public void register(Router router) {
+    new RouteRegistration("/circulation/outbox-processing", router)
+      .create(this::process);
+  }
+
+  private void process(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+
+    Outbox.getInstance().provideToken(context.getTenantId(), context.getOkapiToken());
+
+    noContent().writeTo(routingContext.response());
+  }
+}
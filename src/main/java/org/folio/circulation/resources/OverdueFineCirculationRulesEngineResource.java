@@ -1,16 +1,20 @@
 package org.folio.circulation.resources;
 
 import org.folio.circulation.rules.CirculationRulesProcessor;
+import org.folio.circulation.rules.ExecutableRules;
 
 import io.vertx.core.http.HttpClient;
 
 
 public class OverdueFineCirculationRulesEngineResource extends AbstractCirculationRulesEngineResource {
 
-  public OverdueFineCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client) {
-    super(applyPath, applyAllPath, client,
+  public OverdueFineCirculationRulesEngineResource(String applyPath, String applyAllPath,
+    String applyBatchPath, HttpClient client) {
+
+    super(applyPath, applyAllPath, applyBatchPath, client,
       CirculationRulesProcessor::getOverduePolicyAndMatch,
-      CirculationRulesProcessor::getOverduePolicies);
+      CirculationRulesProcessor::getOverduePolicies,
+      ExecutableRules::determineOverduePolicy);
   }
 
   @Override
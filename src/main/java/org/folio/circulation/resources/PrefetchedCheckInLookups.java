@@ -0,0 +1,192 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.folio.circulation.domain.CheckInContext;
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.ServicePoint;
+import org.folio.circulation.domain.configuration.TlrSettingsConfiguration;
+import org.folio.circulation.infrastructure.storage.ConfigurationRepository;
+import org.folio.circulation.infrastructure.storage.ServicePointRepository;
+import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
+import org.folio.circulation.infrastructure.storage.loans.LoanRepository;
+import org.folio.circulation.infrastructure.storage.requests.RequestQueueRepository;
+import org.folio.circulation.infrastructure.storage.users.UserRepository;
+import org.folio.circulation.storage.ItemByBarcodeInStorageFinder;
+import org.folio.circulation.storage.SingleOpenLoanForItemInStorageFinder;
+import org.folio.circulation.support.results.Result;
+
+/**
+ * Check in lookups for a batch of items, served from records fetched for the
+ * whole batch at once.
+ * <p>
+ * The TLR settings and the check in service point are used for every check in.
+ * Each item, its open loans and its request queue are only used for the first
+ * check in that needs them, as that check in might change them. Later check
+ * ins (e.g. of the same barcode again) look them up again, so check ins of
+ * items that share a request queue must be made one after the other.
+ */
+class PrefetchedCheckInLookups implements CheckInLookups {
+  private final CheckInLookups lookups;
+  private final ItemByBarcodeInStorageFinder itemFinder;
+  private final SingleOpenLoanForItemInStorageFinder singleOpenLoanFinder;
+  private final TlrSettingsConfiguration tlrSettings;
+  private final ServicePoint checkInServicePoint;
+  private final Map<String, Item> itemsByBarcode;
+  private final Map<String, List<Loan>> openLoansByItemId;
+  private final Map<String, RequestQueue> requestQueues;
+  private final Set<String> unusedItems = ConcurrentHashMap.newKeySet();
+  private final Set<String> unusedOpenLoans = ConcurrentHashMap.newKeySet();
+  private final Set<String> unusedRequestQueues = ConcurrentHashMap.newKeySet();
+
+  @SuppressWarnings("squid:S00107")
+  private PrefetchedCheckInLookups(CheckInLookups lookups,
+    ItemByBarcodeInStorageFinder itemFinder,
+    SingleOpenLoanForItemInStorageFinder singleOpenLoanFinder,
+    TlrSettingsConfiguration tlrSettings, ServicePoint checkInServicePoint,
+    Map<String, Item> itemsByBarcode, MultipleRecords<Loan> openLoans, Map<String, RequestQueue> requestQueues) {
+
+    this.lookups = lookups;
+    this.itemFinder = itemFinder;
+    this.singleOpenLoanFinder = singleOpenLoanFinder;
+    this.tlrSettings = tlrSettings;
+    this.checkInServicePoint = checkInServicePoint;
+    this.itemsByBarcode = itemsByBarcode;
+    this.openLoansByItemId = openLoans.getRecords().stream()
+      .collect(groupingBy(Loan::getItemId));
+    this.requestQueues = requestQueues;
+
+    itemsByBarcode.values().forEach(item -> unusedItems.add(item.getItemId()));
+    unusedOpenLoans.addAll(unusedItems);
+    unusedRequestQueues.addAll(requestQueues.keySet());
+  }
+
+  /**
+   * Fetches the records for checking in the items with the barcodes, any lookup
+   * not served from them is made using the lookups given
+   */
+  @SuppressWarnings("squid:S00107")
+  static CompletableFuture<Result<PrefetchedCheckInLookups>> prefetch(
+    Collection<String> barcodes, UUID checkInServicePointId, CheckInLookups lookups,
+    ConfigurationRepository configurationRepository,
+    ServicePointRepository servicePointRepository, ItemRepository itemRepository,
+    LoanRepository loanRepository, UserRepository userRepository,
+    RequestQueueRepository requestQueueRepository) {
+
+    final var itemFinder = new ItemByBarcodeInStorageFinder(itemRepository);
+    final var singleOpenLoanFinder = new SingleOpenLoanForItemInStorageFinder(
+      loanRepository, userRepository, true);
+
+    final var tlrSettingsLookup = configurationRepository.lookupTlrSettings();
+    final var servicePointLookup = servicePointRepository
+      .getServicePointById(checkInServicePointId);
+
+    final var itemsLookup = itemRepository.findByBarcodes(barcodes);
+
+    final var openLoansLookup = itemsLookup.thenCompose(r -> r.after(items ->
+      loanRepository.findOpenLoansForItems(items.values().stream()
+        .map(Item::getItemId)
+        .collect(toList()))));
+
+    final var requestQueuesLookup = tlrSettingsLookup
+      .thenCombine(itemsLookup, (tlrSettingsResult, itemsResult) -> tlrSettingsResult
+        .combine(itemsResult, (tlrSettings, items) ->
+          requestQueueRepository.getQueues(tlrSettings, items.values())))
+      .thenCompose(r -> r.after(identity()));
+
+    return allOf(tlrSettingsLookup, servicePointLookup, itemsLookup, openLoansLookup,
+      requestQueuesLookup)
+      .thenApply(notUsed -> tlrSettingsLookup.join().next(tlrSettings ->
+        servicePointLookup.join().next(servicePoint ->
+        itemsLookup.join().next(items ->
+        openLoansLookup.join().next(openLoans ->
+        requestQueuesLookup.join().map(requestQueues ->
+          new PrefetchedCheckInLookups(lookups, itemFinder, singleOpenLoanFinder,
+            tlrSettings, servicePoint, items, openLoans, requestQueues)))))));
+  }
+
+  /**
+   * @return the ID of the request queue the item with the barcode is in,
+   * null when no item was found
+   */
+  String requestQueueIdFor(String barcode) {
+    final Item item = itemsByBarcode.get(barcode);
+
+    return item == null ? null : requestQueueId(item);
+  }
+
+  @Override
+  public CompletableFuture<Result<Item>> findItem(CheckInContext context) {
+    final String barcode = context.getCheckInRequestBarcode();
+
+    final Item item = itemsByBarcode.get(barcode);
+
+    if (item != null && unusedItems.remove(item.getItemId())) {
+      return itemFinder.findItemByBarcode(barcode, item);
+    }
+
+    return lookups.findItem(context);
+  }
+
+  @Override
+  public CompletableFuture<Result<Loan>> findSingleOpenLoan(CheckInContext context) {
+    final Item item = context.getItem();
+
+    if (unusedOpenLoans.remove(item.getItemId())) {
+      final List<Loan> openLoans = openLoansByItemId.getOrDefault(item.getItemId(), List.of());
+
+      return singleOpenLoanFinder.findSingleOpenLoan(item,
+        new MultipleRecords<>(openLoans, openLoans.size()));
+    }
+
+    return lookups.findSingleOpenLoan(context);
+  }
+
+  @Override
+  public CompletableFuture<Result<RequestQueue>> getRequestQueue(CheckInContext context) {
+    final String requestQueueId = requestQueueId(context.getItem());
+
+    if (unusedRequestQueues.remove(requestQueueId)) {
+      return completedFuture(succeeded(requestQueues.get(requestQueueId)));
+    }
+
+    return lookups.getRequestQueue(context);
+  }
+
+  @Override
+  public CompletableFuture<Result<ServicePoint>> getCheckInServicePoint(CheckInContext context) {
+    return completedFuture(succeeded(checkInServicePoint));
+  }
+
+  @Override
+  public CompletableFuture<Result<TlrSettingsConfiguration>> lookupTlrSettings(
+    CheckInContext context) {
+
+    return completedFuture(succeeded(tlrSettings));
+  }
+
+  private String requestQueueId(Item item) {
+    final boolean byInstance = tlrSettings != null
+      && tlrSettings.isTitleLevelRequestsFeatureEnabled();
+
+    return byInstance && item.getInstanceId() != null
+      ? item.getInstanceId()
+      : item.getItemId();
+  }
+}
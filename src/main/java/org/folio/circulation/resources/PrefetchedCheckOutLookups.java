@@ -0,0 +1,152 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.function.Function.identity;
+import static org.folio.circulation.domain.validation.ItemLimitValidator.LOANS_PAGE_LIMIT;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.folio.circulation.support.results.ResultBinding.mapResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanAndRelatedRecords;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.configuration.TlrSettingsConfiguration;
+import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
+import org.folio.circulation.infrastructure.storage.loans.LoanRepository;
+import org.folio.circulation.infrastructure.storage.requests.RequestQueueRepository;
+import org.folio.circulation.support.results.Result;
+
+/**
+ * Check out lookups for many items checked out to the same patron, served
+ * from records fetched for all of the items at once.
+ * <p>
+ * Each item and its request queue are only used for the first check out that
+ * needs them, as that check out might change them. Later check outs (e.g. of
+ * the same barcode again) look them up again.
+ * <p>
+ * The open loans of the patron are fetched once, when an item limit is first
+ * checked. Loans created by later check outs are added to them, so the items
+ * must be checked out one after the other.
+ */
+class PrefetchedCheckOutLookups {
+  private final ItemRepository itemRepository;
+  private final LoanRepository loanRepository;
+  private final RequestQueueRepository requestQueueRepository;
+  private final TlrSettingsConfiguration tlrSettings;
+  private final Map<String, Item> itemsByBarcode;
+  private final Map<String, RequestQueue> requestQueues;
+  private final Set<String> unusedItems = ConcurrentHashMap.newKeySet();
+  private final Set<String> unusedRequestQueues = ConcurrentHashMap.newKeySet();
+  private final List<Loan> loansCheckedOut = new ArrayList<>();
+  private CompletableFuture<Result<MultipleRecords<Loan>>> patronOpenLoansLookup;
+
+  @SuppressWarnings("squid:S00107")
+  private PrefetchedCheckOutLookups(ItemRepository itemRepository,
+    LoanRepository loanRepository, RequestQueueRepository requestQueueRepository,
+    TlrSettingsConfiguration tlrSettings, Map<String, Item> itemsByBarcode, Map<String, RequestQueue> requestQueues) {
+
+    this.itemRepository = itemRepository;
+    this.loanRepository = loanRepository;
+    this.requestQueueRepository = requestQueueRepository;
+    this.tlrSettings = tlrSettings;
+    this.itemsByBarcode = itemsByBarcode;
+    this.requestQueues = requestQueues;
+
+    itemsByBarcode.values().forEach(item -> unusedItems.add(item.getItemId()));
+    unusedRequestQueues.addAll(requestQueues.keySet());
+  }
+
+  /**
+   * Fetches the items with the barcodes and their request queues
+   */
+  static CompletableFuture<Result<PrefetchedCheckOutLookups>> prefetch(
+    Collection<String> barcodes,
+    CompletableFuture<Result<TlrSettingsConfiguration>> tlrSettingsLookup,
+    ItemRepository itemRepository, LoanRepository loanRepository,
+    RequestQueueRepository requestQueueRepository) {
+
+    final var itemsLookup = itemRepository.findByBarcodes(barcodes);
+
+    return tlrSettingsLookup.thenCombine(itemsLookup,
+        (tlrSettingsResult, itemsResult) -> tlrSettingsResult.combine(itemsResult,
+          (tlrSettings, items) -> requestQueueRepository.getQueues(tlrSettings, items.values())
+            .thenApply(mapResult(requestQueues -> new PrefetchedCheckOutLookups(
+              itemRepository, loanRepository, requestQueueRepository, tlrSettings,
+              items, requestQueues)))))
+      .thenCompose(r -> r.after(identity()));
+  }
+
+  CompletableFuture<Result<Item>> findItem(String barcode) {
+    final Item item = itemsByBarcode.get(barcode);
+
+    if (item != null && unusedItems.remove(item.getItemId())) {
+      return itemRepository.fetchItemRelatedRecords(succeeded(item));
+    }
+
+    return itemRepository.fetchByBarcode(barcode);
+  }
+
+  CompletableFuture<Result<RequestQueue>> getRequestQueue(Item item) {
+    final String requestQueueId = requestQueueId(item);
+
+    if (requestQueueId != null && unusedRequestQueues.remove(requestQueueId)) {
+      return completedFuture(succeeded(requestQueues.get(requestQueueId)));
+    }
+
+    return requestQueueRepository.getQueue(tlrSettings, item.getInstanceId(),
+      item.getItemId());
+  }
+
+  /**
+   * @return the open loans (with their items) of the patron, including the
+   * loans created by the check outs made since they were fetched
+   */
+  synchronized CompletableFuture<Result<MultipleRecords<Loan>>> findOpenLoansForPatron(
+    LoanAndRelatedRecords records) {
+
+    if (patronOpenLoansLookup == null) {
+      patronOpenLoansLookup = loanRepository.findOpenLoansByUserIdWithItem(
+        LOANS_PAGE_LIMIT, records);
+    }
+
+    final List<Loan> checkedOutSinceFetched = List.copyOf(loansCheckedOut);
+
+    return patronOpenLoansLookup.thenApply(mapResult(openLoans ->
+      openLoans.combine(new MultipleRecords<>(checkedOutSinceFetched,
+        checkedOutSinceFetched.size()))));
+  }
+
+  /**
+   * Records the loan created by a check out, loans created before the open
+   * loans of the patron are fetched are included when they are fetched
+   */
+  synchronized LoanAndRelatedRecords checkedOut(LoanAndRelatedRecords records) {
+    if (patronOpenLoansLookup != null) {
+      loansCheckedOut.add(records.getLoan().withItem(records.getItem()));
+    }
+
+    return records;
+  }
+
+  private String requestQueueId(Item item) {
+    if (item == null || item.isNotFound()) {
+      return null;
+    }
+
+    final boolean byInstance = tlrSettings != null
+      && tlrSettings.isTitleLevelRequestsFeatureEnabled();
+
+    return byInstance && item.getInstanceId() != null
+      ? item.getInstanceId()
+      : item.getItemId();
+  }
+}
@@ -5,17 +5,26 @@ import static org.folio.circulation.support.http.server.NoContentResponse.noCont
 
 import java.util.Map;
 
+import org.folio.circulation.infrastructure.storage.inventory.LocationCache;
+import org.folio.circulation.rules.cache.CirculationRulesCache;
 import org.folio.circulation.services.PubSubRegistrationService;
+import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.cache.ReferenceDataCache;
 import org.folio.circulation.support.http.server.ServerErrorResponse;
 import org.folio.circulation.support.http.server.WebContext;
 
+import io.vertx.core.http.HttpClient;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 
-public class TenantActivationResource {
+public class TenantActivationResource extends Resource {
+  public TenantActivationResource(HttpClient client) {
+    super(client);
+  }
 
+  @Override
   public void register(Router router) {
     RouteRegistration routeRegistration = new RouteRegistration("/_/tenant", router);
     routeRegistration.create(this::enableModuleForTenant);
@@ -23,12 +32,26 @@ public class TenantActivationResource {
   }
 
   private void enableModuleForTenant(RoutingContext routingContext) {
-    Map<String, String> headers = new WebContext(routingContext).getHeaders();
+    final WebContext context = new WebContext(routingContext);
+    Map<String, String> headers = context.getHeaders();
+    LocationCache.getInstance().invalidate(context.getTenantId());
+    ReferenceDataCache.getInstance().invalidate(context.getTenantId());
     PubSubRegistrationService.registerModule(headers,routingContext.vertx())
+      .thenRun(() -> warmUpCirculationRules(context))
       .thenRun(() -> created(new JsonObject()).writeTo(routingContext.response()))
       .exceptionally(throwable -> {
         ServerErrorResponse.internalError(routingContext.response(), throwable.getLocalizedMessage());
         return null;
       });
   }
+
+  /**
+   * Start loading and compiling the tenant's circulation rules, so that the first
+   * policy lookup doesn't have to wait for it. Activation doesn't wait for this
+   * and doesn't fail if the rules cannot be loaded.
+   */
+  private void warmUpCirculationRules(WebContext context) {
+    CirculationRulesCache.getInstance().warmUp(context.getTenantId(),
+      Clients.create(context, client).circulationRulesStorage());
+  }
 }
@@ -301,7 +301,13 @@ public abstract class RenewalResource extends Resource {
       return completedFuture(succeeded(renewalContext));
     }
 
-    return loanPolicyRepository.lookupLoanPolicy(renewalContext);
+    final Loan loan = renewalContext.getLoan();
+
+    // the rules are evaluated once for all policy types, the later lookups of
+    // the notice policy and of the loan policy for the overdue fine reuse it
+    return loanPolicyRepository.lookupPolicyMatches(loan.getItem(), loan.getUser())
+      .thenCompose(r -> r.after(loanPolicyRepository::lookupPolicy))
+      .thenApply(mapResult(policy -> renewalContext.withLoan(loan.withLoanPolicy(policy))));
   }
 
   private CompletableFuture<Result<RenewalContext>> lookupRequestQueue(
@@ -0,0 +1,20 @@
+package org.folio.circulation.rules;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The policies of all policy types determined by the circulation rule
+ * with the highest priority.
+ */
+@Getter
+@AllArgsConstructor
+public class CirculationRuleMatches {
+  private final CirculationRuleMatch loanPolicyMatch;
+  private final CirculationRuleMatch requestPolicyMatch;
+  private final CirculationRuleMatch noticePolicyMatch;
+  private final CirculationRuleMatch overduePolicyMatch;
+  private final CirculationRuleMatch lostItemPolicyMatch;
+  /** line number of the matching rule, 0 if no rule matched */
+  private final int circulationRuleLine;
+}
@@ -1,16 +1,30 @@
 package org.folio.circulation.rules;
 
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+import static org.folio.circulation.support.fetching.RecordFetching.findWithMultipleCqlIndexValues;
 import static org.folio.circulation.support.results.Result.combined;
 import static org.folio.circulation.support.results.Result.ofAsync;
 import static org.folio.circulation.support.results.Result.succeeded;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
+import org.apache.commons.lang3.tuple.Pair;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.circulation.domain.Location;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.infrastructure.storage.inventory.LocationCache;
 import org.folio.circulation.rules.cache.CirculationRulesCache;
 import org.folio.circulation.storage.mappers.LocationMapper;
 import org.folio.circulation.support.CollectionResourceClient;
@@ -26,6 +40,10 @@ public class CirculationRulesProcessor {
   private final String tenantId;
   private final CollectionResourceClient circulationRulesStorage;
   private final CollectionResourceClient locationStorageClient;
+  /** rules and parameters with location, shared by all policy lookups of an operation */
+  private final Map<RulesExecutionParameters,
+    CompletableFuture<Result<Pair<ExecutableRules, RulesExecutionParameters>>>> preparedRules =
+    new ConcurrentHashMap<>();
 
   public CirculationRulesProcessor(String tenantId, CollectionResourceClient circulationRulesClient,
     CollectionResourceClient locationClient) {
@@ -35,6 +53,17 @@ public class CirculationRulesProcessor {
     this.locationStorageClient = locationClient;
   }
 
+  /**
+   * Determine the policies of all policy types with a single evaluation of the rules.
+   * @param params facts to match
+   * @return the policies of the matching rule
+   */
+  public CompletableFuture<Result<CirculationRuleMatches>> getPoliciesAndMatches(
+    RulesExecutionParameters params) {
+
+    return executeRules(params, ExecutableRules::determinePolicies);
+  }
+
   public CompletableFuture<Result<CirculationRuleMatch>> getLoanPolicyAndMatch(
     RulesExecutionParameters params) {
 
@@ -43,7 +72,7 @@ public class CirculationRulesProcessor {
 
   public CompletableFuture<Result<JsonArray>> getLoanPolicies(RulesExecutionParameters params) {
     return triggerRules(params,
-      (drools, newParams) -> drools.loanPolicies(newParams.toMap(), newParams.getLocation()));
+      (engine, newParams) -> engine.loanPolicies(newParams.toMap(), newParams.getLocation()));
   }
 
   public CompletableFuture<Result<CirculationRuleMatch>> getLostItemPolicyAndMatch(
@@ -54,7 +83,7 @@ public class CirculationRulesProcessor {
 
   public CompletableFuture<Result<JsonArray>> getLostItemPolicies(RulesExecutionParameters params) {
     return triggerRules(params,
-      (drools, newParams) -> drools.lostItemPolicies(newParams.toMap(), newParams.getLocation()));
+      (engine, newParams) -> engine.lostItemPolicies(newParams.toMap(), newParams.getLocation()));
   }
 
   public CompletableFuture<Result<CirculationRuleMatch>> getNoticePolicyAndMatch(
@@ -65,7 +94,7 @@ public class CirculationRulesProcessor {
 
   public CompletableFuture<Result<JsonArray>> getNoticePolicies(RulesExecutionParameters params) {
     return triggerRules(params,
-      (drools, newParams) -> drools.noticePolicies(newParams.toMap(), newParams.getLocation()));
+      (engine, newParams) -> engine.noticePolicies(newParams.toMap(), newParams.getLocation()));
   }
 
   public CompletableFuture<Result<CirculationRuleMatch>> getOverduePolicyAndMatch(
@@ -76,7 +105,7 @@ public class CirculationRulesProcessor {
 
   public CompletableFuture<Result<JsonArray>> getOverduePolicies(RulesExecutionParameters params) {
     return triggerRules(params,
-      (drools, newParams) -> drools.overduePolicies(newParams.toMap(), newParams.getLocation()));
+      (engine, newParams) -> engine.overduePolicies(newParams.toMap(), newParams.getLocation()));
   }
 
   public CompletableFuture<Result<CirculationRuleMatch>> getRequestPolicyAndMatch(
@@ -87,31 +116,96 @@ public class CirculationRulesProcessor {
 
   public CompletableFuture<Result<JsonArray>> getRequestPolicies(RulesExecutionParameters params) {
     return triggerRules(params,
-      (drools, newParams) -> drools.requestPolicies(newParams.toMap(), newParams.getLocation()));
+      (engine, newParams) -> engine.requestPolicies(newParams.toMap(), newParams.getLocation()));
   }
 
+  /**
+   * Determine a policy for each of the parameters using the same version of the rules.
+   * The locations of all parameters are fetched together.
+   * @param params facts to match, one entry for each lookup
+   * @param rulesExecutor determines the policy, for example
+   * {@link ExecutableRules#determineLoanPolicy(RulesExecutionParameters)}
+   * @return the policies in the order of the parameters,
+   * failed if any of the lookups failed
+   */
+  public <T> CompletableFuture<Result<List<T>>> executeRulesForAll(
+    List<RulesExecutionParameters> params,
+    BiFunction<ExecutableRules, RulesExecutionParameters, Result<T>> rulesExecutor) {
+
+    val rulesFuture = CirculationRulesCache.getInstance()
+      .getExecutableRules(tenantId, circulationRulesStorage);
+
+    return fetchLocations(params).thenCombine(rulesFuture, combined(
+      (locations, rules) -> Result.combineAll(params.stream()
+        .map(parameters -> parameters.withLocation(locations.get(parameters.getLocationId())))
+        .map(parameters -> rulesExecutor.apply(rules, parameters))
+        .collect(toList()))));
+  }
+
+  /**
+   * Apply the rules to find all matching rules, this uses the match index of the rules
+   * that finds all of them in a single pass, whichever engine determines single policies.
+   */
   private <T> CompletableFuture<Result<T>> triggerRules(RulesExecutionParameters params,
-    BiFunction<Drools, RulesExecutionParameters, T> droolsFunction) {
+    BiFunction<RulesEngine, RulesExecutionParameters, T> rulesFunction) {
 
     val rulesFuture = CirculationRulesCache.getInstance()
-      .getDrools(tenantId, circulationRulesStorage);
+      .getExecutableRules(tenantId, circulationRulesStorage);
 
     return fetchLocation(params).thenCombine(rulesFuture, combined(
-      (newParams, drools) -> {
+      (newParams, rules) -> {
         log.info("Applying circulation rules with parameters: {}", newParams);
-        return succeeded(droolsFunction.apply(drools, newParams));
+        return succeeded(rulesFunction.apply(rules.getMatchIndex(), newParams));
       }));
   }
 
   private <T> CompletableFuture<Result<T>> executeRules(RulesExecutionParameters params,
     BiFunction<ExecutableRules, RulesExecutionParameters, Result<T>> rulesExecutor) {
 
-    val rulesFuture = CirculationRulesCache.getInstance()
-      .getExecutableRules(tenantId, circulationRulesStorage);
+    return prepareRules(params)
+      .thenApply(r -> r.next(prepared ->
+        rulesExecutor.apply(prepared.getLeft(), prepared.getRight())));
+  }
+
+  /**
+   * Fetch the rules and the location once for all policy lookups with the same parameters,
+   * the policies are then determined by a single evaluation that {@link RuleMatchCache} keeps.
+   * Failures are not kept so that a later lookup tries again.
+   */
+  private CompletableFuture<Result<Pair<ExecutableRules, RulesExecutionParameters>>> prepareRules(
+    RulesExecutionParameters params) {
+
+    final var prepared = preparedRules.computeIfAbsent(params, key -> {
+      val rulesFuture = CirculationRulesCache.getInstance()
+        .getExecutableRules(tenantId, circulationRulesStorage);
+
+      return fetchLocation(params)
+        .thenCombine(rulesFuture, combined((parametersWithLocation, rules) ->
+          succeeded(Pair.of(rules, parametersWithLocation))));
+    });
 
-    return fetchLocation(params)
-      .thenCombine(rulesFuture, combined((parametersWithLocation, rules) ->
-        rulesExecutor.apply(rules, parametersWithLocation)));
+    prepared.whenComplete((r, throwable) -> {
+      if (throwable != null || r.failed()) {
+        preparedRules.remove(params, prepared);
+      }
+    });
+
+    return prepared;
+  }
+
+  private CompletableFuture<Result<Map<String, Location>>> fetchLocations(
+    List<RulesExecutionParameters> params) {
+
+    final var locationIds = params.stream()
+      .map(RulesExecutionParameters::getLocationId)
+      .collect(toSet());
+
+    // like a single lookup, the rules are applied without a location that cannot be fetched
+    return LocationCache.getInstance()
+      .getLocations(tenantId, locationIds, this::fetchLocationsFromStorage)
+      .thenApply(r -> r.map(locations -> locations.stream()
+        .collect(toMap(Location::getId, identity(), (first, second) -> first))))
+      .thenApply(r -> r.mapFailure(failure -> succeeded(Map.of())));
   }
 
   private CompletableFuture<Result<RulesExecutionParameters>> fetchLocation(RulesExecutionParameters params) {
@@ -119,12 +213,26 @@ public class CirculationRulesProcessor {
       return ofAsync(() -> params);
     }
 
+    return LocationCache.getInstance()
+      .getLocation(tenantId, params.getLocationId(), this::fetchLocationFromStorage)
+      .thenApply(r -> r.map(params::withLocation))
+      .thenApply(r -> r.mapFailure(failure -> succeeded(params)));
+  }
+
+  private CompletableFuture<Result<Collection<Location>>> fetchLocationsFromStorage(
+    Set<String> locationIds) {
+
+    return findWithMultipleCqlIndexValues(locationStorageClient, "locations",
+      new LocationMapper()::toDomain)
+      .findByIds(locationIds)
+      .thenApply(r -> r.map(MultipleRecords::getRecords));
+  }
+
+  private CompletableFuture<Result<Location>> fetchLocationFromStorage(String id) {
     return FetchSingleRecord.<Location>forRecord("location")
       .using(locationStorageClient)
       .mapTo(new LocationMapper()::toDomain)
-      .whenNotFound(failedValidation("Cannot find location", "location_id", params.getLocationId()))
-      .fetch(params.getLocationId())
-      .thenApply(r -> r.map(params::withLocation))
-      .thenApply(r -> r.mapFailure(failure -> succeeded(params)));
+      .whenNotFound(failedValidation("Cannot find location", "location_id", id))
+      .fetch(id);
   }
 }
@@ -0,0 +1,49 @@
+package org.folio.circulation.rules;
+
+import java.util.Arrays;
+
+/**
+ * The criterium types of the circulation rules, each matches one fact
+ * that is inserted into the rules engine.
+ */
+public enum CriteriumType {
+  LOAN_TYPE("t", "LoanType"),
+  INSTITUTION("a", "Institution"),
+  CAMPUS("b", "Campus"),
+  LIBRARY("c", "Library"),
+  LOCATION("s", "ItemLocation"),
+  ITEM_TYPE("m", "ItemType"),
+  PATRON_GROUP("g", "PatronGroup");
+
+  private final String letter;
+  private final String className;
+
+  CriteriumType(String letter, String className) {
+    this.letter = letter;
+    this.className = className;
+  }
+
+  public String getLetter() {
+    return letter;
+  }
+
+  /**
+   * @return the simple name of the Drools fact class for this criterium type
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * The criterium type of the letter.
+   * @param letter one of t, a, b, c, s, m, g
+   * @return the criterium type
+   */
+  public static CriteriumType fromLetter(String letter) {
+    return Arrays.stream(values())
+      .filter(type -> type.letter.equals(letter))
+      .findFirst()
+      .orElseThrow(() -> new IllegalArgumentException(
+        "Expected criterium type t, a, b, c, s, m or g but found: " + letter));
+  }
+}
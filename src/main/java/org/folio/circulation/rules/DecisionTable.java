@@ -0,0 +1,235 @@
+package org.folio.circulation.rules;
+
+import static java.util.Comparator.comparingInt;
+import static org.folio.circulation.support.json.JsonPropertyWriter.write;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.folio.circulation.domain.Location;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Evaluates circulation rules without Drools.
+ * <p>
+ * The rule lines are sorted by salience, highest first. For each criterium type
+ * an index maps an id to the lines that can only match facts with that id.
+ * Lines that are not restricted to specific ids (no criterium, "all" or a negation)
+ * are candidates for any id. Intersecting the candidates of all criterium types
+ * leaves few lines that get fully checked, in salience order.
+ */
+public class DecisionTable implements RulesEngine {
+  private static final AppliedRuleConditions NO_RULE_CONDITIONS =
+    new AppliedRuleConditions(false, false, false);
+
+  private final List<RuleLine> lines = new ArrayList<>();
+  private final Map<CriteriumType, Map<String, BitSet>> linesById =
+    new EnumMap<>(CriteriumType.class);
+  private final Map<CriteriumType, BitSet> unrestrictedLines =
+    new EnumMap<>(CriteriumType.class);
+
+  public DecisionTable(List<RuleLine> ruleLines) {
+    lines.addAll(ruleLines);
+    lines.sort(comparingInt(RuleLine::getSalience).reversed());
+
+    for (CriteriumType type : CriteriumType.values()) {
+      linesById.put(type, new HashMap<>());
+      unrestrictedLines.put(type, new BitSet(lines.size()));
+    }
+
+    for (int index = 0; index < lines.size(); index++) {
+      indexLine(index, lines.get(index));
+    }
+  }
+
+  /**
+   * Create the decision table for circulation rules.
+   * @param rulesAsText circulation rules in FOLIO syntax
+   * @return decision table
+   */
+  public static DecisionTable fromText(String rulesAsText) {
+    return new DecisionTable(Text2Drools.convertToRuleLines(rulesAsText));
+  }
+
+  private void indexLine(int index, RuleLine line) {
+    for (CriteriumType type : CriteriumType.values()) {
+      final var restriction = line.getConditions().stream()
+        .filter(condition -> condition.getType() == type)
+        .filter(RuleCondition::isPositive)
+        .findFirst();
+
+      if (restriction.isPresent()) {
+        restriction.get().getIds().forEach(id -> linesById.get(type)
+          .computeIfAbsent(id, key -> new BitSet(lines.size()))
+          .set(index));
+      }
+      else {
+        unrestrictedLines.get(type).set(index);
+      }
+    }
+  }
+
+  private BitSet candidates(RuleFacts facts) {
+    final var candidates = new BitSet(lines.size());
+    candidates.set(0, lines.size());
+
+    for (CriteriumType type : CriteriumType.values()) {
+      final var candidatesForType = (BitSet) unrestrictedLines.get(type).clone();
+      final String id = facts.getId(type);
+
+      if (id != null) {
+        final BitSet linesForId = linesById.get(type).get(id);
+
+        if (linesForId != null) {
+          candidatesForType.or(linesForId);
+        }
+      }
+
+      candidates.and(candidatesForType);
+    }
+
+    return candidates;
+  }
+
+  private RuleLine firstMatch(MultiMap params, Location location) {
+    final var facts = RuleFacts.from(params, location);
+    final var candidates = candidates(facts);
+
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      if (lines.get(i).matches(facts)) {
+        return lines.get(i);
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * All matching lines in salience order, found in a single pass over the candidates.
+   */
+  List<RuleLine> allMatches(MultiMap params, Location location) {
+    final var facts = RuleFacts.from(params, location);
+    final var candidates = candidates(facts);
+    final List<RuleLine> matches = new ArrayList<>();
+
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      if (lines.get(i).matches(facts)) {
+        matches.add(lines.get(i));
+      }
+    }
+
+    return matches;
+  }
+
+  private CirculationRuleMatch policy(MultiMap params, Location location,
+    Function<RuleLine, String> policyId) {
+
+    final RuleLine line = firstMatch(params, location);
+
+    if (line == null) {
+      return new CirculationRuleMatch(null, NO_RULE_CONDITIONS);
+    }
+
+    return new CirculationRuleMatch(policyId.apply(line), NO_RULE_CONDITIONS);
+  }
+
+  private JsonArray policies(MultiMap params, Location location, String propertyName,
+    Function<RuleLine, String> policyId) {
+
+    final var array = new JsonArray();
+
+    for (RuleLine line : allMatches(params, location)) {
+      final var json = new JsonObject();
+
+      write(json, propertyName, policyId.apply(line));
+      write(json, "circulationRuleLine", line.getLineNumber());
+
+      array.add(json);
+    }
+
+    return array;
+  }
+
+  @Override
+  public CirculationRuleMatch loanPolicy(MultiMap params, Location location) {
+    final RuleLine line = firstMatch(params, location);
+
+    if (line == null) {
+      return new CirculationRuleMatch(null, NO_RULE_CONDITIONS);
+    }
+
+    return new CirculationRuleMatch(line.getLoanPolicyId(), line.getAppliedRuleConditions());
+  }
+
+  @Override
+  public JsonArray loanPolicies(MultiMap params, Location location) {
+    return policies(params, location, "loanPolicyId", RuleLine::getLoanPolicyId);
+  }
+
+  @Override
+  public CirculationRuleMatch requestPolicy(MultiMap params, Location location) {
+    return policy(params, location, RuleLine::getRequestPolicyId);
+  }
+
+  @Override
+  public JsonArray requestPolicies(MultiMap params, Location location) {
+    return policies(params, location, "requestPolicyId", RuleLine::getRequestPolicyId);
+  }
+
+  @Override
+  public CirculationRuleMatch noticePolicy(MultiMap params, Location location) {
+    return policy(params, location, RuleLine::getNoticePolicyId);
+  }
+
+  @Override
+  public JsonArray noticePolicies(MultiMap params, Location location) {
+    return policies(params, location, "noticePolicyId", RuleLine::getNoticePolicyId);
+  }
+
+  @Override
+  public CirculationRuleMatch overduePolicy(MultiMap params, Location location) {
+    return policy(params, location, RuleLine::getOverduePolicyId);
+  }
+
+  @Override
+  public JsonArray overduePolicies(MultiMap params, Location location) {
+    return policies(params, location, "overduePolicyId", RuleLine::getOverduePolicyId);
+  }
+
+  @Override
+  public CirculationRuleMatch lostItemPolicy(MultiMap params, Location location) {
+    return policy(params, location, RuleLine::getLostItemPolicyId);
+  }
+
+  @Override
+  public JsonArray lostItemPolicies(MultiMap params, Location location) {
+    return policies(params, location, "lostItemPolicyId", RuleLine::getLostItemPolicyId);
+  }
+
+  @Override
+  public CirculationRuleMatches policyMatches(MultiMap params, Location location) {
+    final RuleLine line = firstMatch(params, location);
+
+    if (line == null) {
+      final var noMatch = new CirculationRuleMatch(null, NO_RULE_CONDITIONS);
+
+      return new CirculationRuleMatches(noMatch, noMatch, noMatch, noMatch, noMatch, 0);
+    }
+
+    return new CirculationRuleMatches(
+      new CirculationRuleMatch(line.getLoanPolicyId(), line.getAppliedRuleConditions()),
+      new CirculationRuleMatch(line.getRequestPolicyId(), NO_RULE_CONDITIONS),
+      new CirculationRuleMatch(line.getNoticePolicyId(), NO_RULE_CONDITIONS),
+      new CirculationRuleMatch(line.getOverduePolicyId(), NO_RULE_CONDITIONS),
+      new CirculationRuleMatch(line.getLostItemPolicyId(), NO_RULE_CONDITIONS),
+      line.getLineNumber());
+  }
+}
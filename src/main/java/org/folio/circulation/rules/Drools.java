@@ -6,19 +6,27 @@ import static org.folio.circulation.resources.AbstractCirculationRulesEngineReso
 import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
 import static org.folio.circulation.support.json.JsonPropertyWriter.write;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.drools.core.common.DroolsObjectInputStream;
+import org.drools.core.common.DroolsObjectOutputStream;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.event.DefaultAgendaEventListener;
 import org.folio.circulation.domain.Location;
+import org.kie.api.KieBase;
 import org.kie.api.KieServices;
 import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
 import org.kie.api.builder.Message.Level;
 import org.kie.api.event.rule.AfterMatchFiredEvent;
-import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
 
 import io.vertx.core.MultiMap;
@@ -28,11 +36,20 @@ import io.vertx.core.json.JsonObject;
 /**
  * Holds a Drools kieSession to calculate a loan policy.
  */
-public class Drools {
+public class Drools implements RulesEngine {
   // https://docs.jboss.org/drools/release/6.2.0.CR1/drools-docs/html/ch19.html
   // http://www.deepakgaikwad.net/index.php/2016/05/16/drools-tutorial-beginners.html
 
-  private final KieContainer kieContainer;
+  /**
+   * Classes a serialized rule base is made of, anything else in the stream is refused
+   * before it is instantiated, so that a tampered file cannot create arbitrary objects
+   */
+  private static final ObjectInputFilter RULE_BASE_CLASSES = ObjectInputFilter.Config.createFilter(
+    "java.lang.*;java.util.*;java.util.concurrent.*;java.util.concurrent.locks.*;"
+      + "org.drools.**;org.kie.**;org.appformer.**;org.mvel2.**;"
+      + "org.folio.circulation.rules.*;circulationrules.*;!*");
+
+  private final KieBase kieBase;
 
   /**
    * Create the Drools kieSession based on a String containing a drools file.
@@ -49,7 +66,41 @@ public class Drools {
     if (kieBuilder.getResults().hasMessages(Level.ERROR)) {
       throw new IllegalArgumentException("Drools build errors:\n" + kieBuilder.getResults().toString());
     }
-    kieContainer = kieServices.newKieContainer(kieServices.getRepository().getDefaultReleaseId());
+    kieBase = kieServices.newKieContainer(kieServices.getRepository().getDefaultReleaseId())
+      .getKieBase();
+  }
+
+  private Drools(KieBase kieBase) {
+    this.kieBase = kieBase;
+  }
+
+  /**
+   * Read a rule base written by {@link #writeTo(OutputStream)}, this is much faster
+   * than building it from the drools file.
+   * @param inputStream the serialized rule base
+   * @return Drools using the rule base
+   * @throws IOException if the rule base cannot be read, for example because it has been
+   * written by a different Drools version or contains classes a rule base is not made of
+   */
+  public static Drools readFrom(InputStream inputStream) throws IOException {
+    try (ObjectInputStream objectInputStream = new DroolsObjectInputStream(inputStream)) {
+      objectInputStream.setObjectInputFilter(RULE_BASE_CLASSES);
+
+      return new Drools((KieBase) objectInputStream.readObject());
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new IOException("Cannot read circulation rules base", e);
+    }
+  }
+
+  /**
+   * Write the compiled rule base.
+   * @param outputStream where to write
+   * @throws IOException on write failure
+   */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    try (ObjectOutputStream objectOutputStream = new DroolsObjectOutputStream(outputStream)) {
+      objectOutputStream.writeObject(kieBase);
+    }
   }
 
   private KieSession createSession(MultiMap params, Location location, Match match) {
@@ -58,7 +109,7 @@ public class Drools {
     String patronGroupId = params.get(PATRON_TYPE_ID_NAME);
     String locationId = params.get(LOCATION_ID_NAME);
 
-    KieSession kieSession = kieContainer.newKieSession();
+    KieSession kieSession = kieBase.newKieSession();
     kieSession.setGlobal("match", match);
     kieSession.insert(new ItemType(itemTypeId));
     kieSession.insert(new LoanType(loanTypeId));
@@ -79,6 +130,7 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return CirculationRuleMatch object with the name of the loan policy and rule conditions
    */
+  @Override
   public CirculationRuleMatch loanPolicy(MultiMap params, Location location) {
     final var match = new Match();
     final KieSession kieSession = createSession(params, location, match);
@@ -103,6 +155,7 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return matches, each match has a loanPolicyId and a circulationRuleLine field
    */
+  @Override
   public JsonArray loanPolicies(MultiMap params, Location location) {
     final var match = new Match();
     final KieSession kieSession = createSession(params, location, match);
@@ -128,6 +181,7 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return CirculationRuleMatch object with the name of the loan policy and rule conditions
    */
+  @Override
   public CirculationRuleMatch requestPolicy(MultiMap params, Location location) {
     final var match = new Match();
     final KieSession kieSession = createSession(params, location, match);
@@ -146,6 +200,7 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return matches, each match has a requestPolicyId and a circulationRuleLine field
    */
+  @Override
   public JsonArray requestPolicies(MultiMap params, Location location) {
     final var match = new Match();
     final KieSession kieSession = createSession(params, location, match);
@@ -172,6 +227,7 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return CirculationRuleMatch object with the name of the loan policy and rule conditions
    */
+  @Override
   public CirculationRuleMatch noticePolicy(MultiMap params, Location location) {
     final var match = new Match();
     final KieSession kieSession = createSession(params, location, match);
@@ -190,6 +246,7 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return matches, each match has a noticePolicyId and a circulationRuleLine field
    */
+  @Override
   public JsonArray noticePolicies(MultiMap params, Location location) {
     final var match = new Match();
     final KieSession kieSession = createSession(params, location, match);
@@ -216,6 +273,7 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return CirculationRuleMatch object with the name of the loan policy and rule conditions
    */
+  @Override
   public CirculationRuleMatch overduePolicy(MultiMap params, Location location) {
     final var match = new Match();
     final KieSession kieSession = createSession(params, location, match);
@@ -234,6 +292,7 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return matches, each match has a overduePolicyId and a circulationRuleLine field
    */
+  @Override
   public JsonArray overduePolicies(MultiMap params, Location location) {
     final var match = new Match();
     final KieSession kieSession = createSession(params, location, match);
@@ -259,6 +318,7 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return CirculationRuleMatch object with the name of the loan policy and rule conditions
    */
+  @Override
   public CirculationRuleMatch lostItemPolicy(MultiMap params, Location location) {
     final var match = new Match();
     final KieSession kieSession = createSession(params, location, match);
@@ -277,6 +337,7 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return matches, each match has a lostItemPolicyId and a circulationRuleLine field
    */
+  @Override
   public JsonArray lostItemPolicies(MultiMap params, Location location) {
     final var match = new Match();
     final KieSession kieSession = createSession(params, location, match);
@@ -296,6 +357,37 @@ public class Drools {
     return array;
   }
 
+  /**
+   * Calculate the policies of all policy types using a single session.
+   * @param params request params
+   * @param location - location with institution, library and campus
+   * @return the policies of the matching rule, the loan policy match has the rule conditions
+   */
+  @Override
+  public CirculationRuleMatches policyMatches(MultiMap params, Location location) {
+    final var match = new Match();
+    final KieSession kieSession = createSession(params, location, match);
+    final RuleEventListener ruleEventListener = new RuleEventListener();
+
+    kieSession.addEventListener(ruleEventListener);
+    kieSession.fireAllRules();
+    kieSession.dispose();
+
+    final Set<String> appliedRuleConditions = ruleEventListener.getRuleConditions();
+    final var noRuleConditions = new AppliedRuleConditions(false, false, false);
+
+    return new CirculationRuleMatches(
+      new CirculationRuleMatch(match.loanPolicyId, new AppliedRuleConditions(
+        isRuleItemTypePresent(appliedRuleConditions),
+        isRuleLoanTypePresent(appliedRuleConditions),
+        isRulePatronGroupPresent(appliedRuleConditions))),
+      new CirculationRuleMatch(match.requestPolicyId, noRuleConditions),
+      new CirculationRuleMatch(match.noticePolicyId, noRuleConditions),
+      new CirculationRuleMatch(match.overduePolicyId, noRuleConditions),
+      new CirculationRuleMatch(match.lostItemPolicyId, noRuleConditions),
+      match.lineNumber);
+  }
+
   // NOTE: methods below used for testing
 
   /**
@@ -5,17 +5,14 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.folio.circulation.support.results.Result.of;
 
 import java.lang.invoke.MethodHandles;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.folio.circulation.domain.Location;
 import org.folio.circulation.support.HttpFailure;
 import org.folio.circulation.support.ServerErrorFailure;
 import org.folio.circulation.support.results.Result;
 
-import io.vertx.core.MultiMap;
 import lombok.Getter;
 
 public class ExecutableRules {
@@ -23,43 +20,71 @@ public class ExecutableRules {
 
   @Getter()
   private final String text;
-  private final Drools drools;
+  @Getter
+  private final RulesEngine rulesEngine;
+  @Getter
+  private final RuleMatchCache matchCache;
+  /** finds all matching rules in a single pass, used for the lookups of all matching policies */
+  @Getter
+  private final DecisionTable matchIndex;
+
+  public ExecutableRules(String text, RulesEngine rulesEngine, RuleMatchCache matchCache,
+    DecisionTable matchIndex) {
 
-  public ExecutableRules(String text, Drools drools) {
     this.text = text;
-    this.drools = drools;
+    this.rulesEngine = rulesEngine;
+    this.matchCache = matchCache;
+    this.matchIndex = matchIndex;
   }
 
   public Result<CirculationRuleMatch> determineLoanPolicy(RulesExecutionParameters parameters) {
-    return determinePolicy(parameters, drools::loanPolicy, "loan policy");
+    return determinePolicy(parameters, CirculationRuleMatches::getLoanPolicyMatch, "loan policy");
   }
 
   public Result<CirculationRuleMatch> determineRequestPolicy(RulesExecutionParameters parameters) {
-    return determinePolicy(parameters, drools::requestPolicy, "request policy");
+    return determinePolicy(parameters, CirculationRuleMatches::getRequestPolicyMatch,
+      "request policy");
   }
 
   public Result<CirculationRuleMatch> determineNoticePolicy(RulesExecutionParameters parameters) {
-    return determinePolicy(parameters, drools::noticePolicy, "notice policy");
+    return determinePolicy(parameters, CirculationRuleMatches::getNoticePolicyMatch,
+      "notice policy");
   }
 
   public Result<CirculationRuleMatch> determineLostItemPolicy(RulesExecutionParameters parameters) {
-    return determinePolicy(parameters, drools::lostItemPolicy, "lost item policy");
+    return determinePolicy(parameters, CirculationRuleMatches::getLostItemPolicyMatch,
+      "lost item policy");
   }
 
   public Result<CirculationRuleMatch> determineOverduePolicy(RulesExecutionParameters parameters) {
-    return determinePolicy(parameters, drools::overduePolicy, "overdude policy");
+    return determinePolicy(parameters, CirculationRuleMatches::getOverduePolicyMatch,
+      "overdude policy");
+  }
+
+  /**
+   * Determine the policies of all policy types with a single evaluation of the rules.
+   * @param parameters facts to match
+   * @return the policies of the matching rule
+   */
+  public Result<CirculationRuleMatches> determinePolicies(RulesExecutionParameters parameters) {
+    return matchCache.getOrEvaluate(parameters, () -> executeRules(parameters));
   }
 
   private Result<CirculationRuleMatch> determinePolicy(RulesExecutionParameters parameters,
-    BiFunction<MultiMap, Location, CirculationRuleMatch> droolsExecutor, String policyType) {
+    Function<CirculationRuleMatches, CirculationRuleMatch> policyMatch, String policyType) {
 
+    return determinePolicies(parameters)
+      .map(policyMatch)
+      .failWhen(this::noMatch, fail(parameters, policyType));
+  }
+
+  private Result<CirculationRuleMatches> executeRules(RulesExecutionParameters parameters) {
     if (log.isInfoEnabled()) {
-      log.info("Executing circulation rules: `{}` with parameters: `{}` to determine {}",
-        text, parameters, policyType);
+      log.info("Executing circulation rules: `{}` with parameters: `{}` to determine policies",
+        text, parameters);
     }
 
-    return of(() -> droolsExecutor.apply(parameters.toMap(), parameters.getLocation()))
-      .failWhen(this::noMatch, fail(parameters, policyType));
+    return of(() -> rulesEngine.policyMatches(parameters.toMap(), parameters.getLocation()));
   }
 
   private Function<CirculationRuleMatch, HttpFailure> fail(
@@ -0,0 +1,80 @@
+package org.folio.circulation.rules;
+
+import static java.util.Collections.emptySet;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * One criterium of a circulation rule, for example {@code m book dvd}, {@code g !visitor}
+ * or {@code t all}.
+ * <p>
+ * Matching follows the semantics of the generated Drools pattern:
+ * the fact must be present, a positive criterium needs the fact's id to be one of the names,
+ * a negated criterium needs it to be none of them (a null id is none of them).
+ */
+public final class RuleCondition {
+  private final CriteriumType type;
+  private final Set<String> ids;
+  private final boolean negated;
+
+  private RuleCondition(CriteriumType type, Set<String> ids, boolean negated) {
+    this.type = type;
+    this.ids = ids;
+    this.negated = negated;
+  }
+
+  public static RuleCondition all(CriteriumType type) {
+    return new RuleCondition(type, emptySet(), false);
+  }
+
+  public static RuleCondition anyOf(CriteriumType type, Set<String> ids) {
+    return new RuleCondition(type, Collections.unmodifiableSet(new LinkedHashSet<>(ids)), false);
+  }
+
+  public static RuleCondition noneOf(CriteriumType type, Set<String> ids) {
+    return new RuleCondition(type, Collections.unmodifiableSet(new LinkedHashSet<>(ids)), true);
+  }
+
+  public CriteriumType getType() {
+    return type;
+  }
+
+  public Set<String> getIds() {
+    return ids;
+  }
+
+  public boolean isNegated() {
+    return negated;
+  }
+
+  public boolean isAll() {
+    return ids.isEmpty();
+  }
+
+  /**
+   * @return whether only facts with one of the ids can match
+   */
+  boolean isPositive() {
+    return !negated && !isAll();
+  }
+
+  boolean matches(RuleFacts facts) {
+    if (!facts.isPresent(type)) {
+      return false;
+    }
+
+    if (isAll()) {
+      return true;
+    }
+
+    final String id = facts.getId(type);
+
+    if (negated) {
+      return id == null || !ids.contains(id);
+    }
+
+    return id != null && ids.contains(id);
+  }
+}
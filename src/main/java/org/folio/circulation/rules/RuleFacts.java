@@ -0,0 +1,58 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+import static org.folio.circulation.rules.CriteriumType.CAMPUS;
+import static org.folio.circulation.rules.CriteriumType.INSTITUTION;
+import static org.folio.circulation.rules.CriteriumType.ITEM_TYPE;
+import static org.folio.circulation.rules.CriteriumType.LIBRARY;
+import static org.folio.circulation.rules.CriteriumType.LOAN_TYPE;
+import static org.folio.circulation.rules.CriteriumType.LOCATION;
+import static org.folio.circulation.rules.CriteriumType.PATRON_GROUP;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.folio.circulation.domain.Location;
+
+import io.vertx.core.MultiMap;
+
+/**
+ * The facts a circulation rule is matched against, the same facts that
+ * {@link Drools} inserts into a session.
+ * <p>
+ * Institution, campus and library are only present when the location is known.
+ * A present fact may have a null id.
+ */
+final class RuleFacts {
+  private final Map<CriteriumType, String> ids = new EnumMap<>(CriteriumType.class);
+
+  private RuleFacts() { }
+
+  static RuleFacts from(MultiMap params, Location location) {
+    final var facts = new RuleFacts();
+
+    facts.ids.put(ITEM_TYPE, params.get(ITEM_TYPE_ID_NAME));
+    facts.ids.put(LOAN_TYPE, params.get(LOAN_TYPE_ID_NAME));
+    facts.ids.put(PATRON_GROUP, params.get(PATRON_TYPE_ID_NAME));
+    facts.ids.put(LOCATION, params.get(LOCATION_ID_NAME));
+
+    if (location != null) {
+      facts.ids.put(INSTITUTION, location.getInstitutionId());
+      facts.ids.put(CAMPUS, location.getCampusId());
+      facts.ids.put(LIBRARY, location.getLibraryId());
+    }
+
+    return facts;
+  }
+
+  boolean isPresent(CriteriumType type) {
+    return ids.containsKey(type);
+  }
+
+  String getId(CriteriumType type) {
+    return ids.get(type);
+  }
+}
@@ -0,0 +1,91 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.rules.CriteriumType.ITEM_TYPE;
+import static org.folio.circulation.rules.CriteriumType.LOAN_TYPE;
+import static org.folio.circulation.rules.CriteriumType.PATRON_GROUP;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A circulation rule that has policies, together with all the criteria
+ * inherited from the lines it is nested in.
+ */
+public final class RuleLine {
+  private final int lineNumber;
+  private final int salience;
+  private final List<RuleCondition> conditions;
+  private final Map<String, String> policyIds;
+  private final AppliedRuleConditions appliedRuleConditions;
+
+  /**
+   * Create a rule line.
+   * @param lineNumber line of the policies in the circulation rules text
+   * @param salience priority of the rule, higher wins
+   * @param conditions all criteria that need to match
+   * @param policyIds maps the policy type (one of l, r, n, o, i) to the policy id
+   */
+  public RuleLine(int lineNumber, int salience, List<RuleCondition> conditions,
+    Map<String, String> policyIds) {
+
+    this.lineNumber = lineNumber;
+    this.salience = salience;
+    this.conditions = Collections.unmodifiableList(conditions);
+    this.policyIds = Collections.unmodifiableMap(policyIds);
+    this.appliedRuleConditions = new AppliedRuleConditions(hasCondition(ITEM_TYPE),
+      hasCondition(LOAN_TYPE), hasCondition(PATRON_GROUP));
+  }
+
+  public int getLineNumber() {
+    return lineNumber;
+  }
+
+  public int getSalience() {
+    return salience;
+  }
+
+  public List<RuleCondition> getConditions() {
+    return conditions;
+  }
+
+  public String getLoanPolicyId() {
+    return policyIds.get("l");
+  }
+
+  public String getRequestPolicyId() {
+    return policyIds.get("r");
+  }
+
+  public String getNoticePolicyId() {
+    return policyIds.get("n");
+  }
+
+  public String getOverduePolicyId() {
+    return policyIds.get("o");
+  }
+
+  public String getLostItemPolicyId() {
+    return policyIds.get("i");
+  }
+
+  /**
+   * @return the criterium types used by this rule, as reported for a loan policy match
+   */
+  public AppliedRuleConditions getAppliedRuleConditions() {
+    return appliedRuleConditions;
+  }
+
+  boolean matches(RuleFacts facts) {
+    for (RuleCondition condition : conditions) {
+      if (!condition.matches(facts)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean hasCondition(CriteriumType type) {
+    return conditions.stream().anyMatch(condition -> condition.getType() == type);
+  }
+}
@@ -0,0 +1,141 @@
+package org.folio.circulation.rules;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.support.results.Result;
+
+import lombok.Value;
+
+/**
+ * Bounded cache of the circulation rule matches of one tenant.
+ * <p>
+ * The policies of all policy types are cached together. A match only depends on
+ * the circulation rules and the facts (item type, loan type, patron group, location and
+ * the location's institution, campus and library), the key contains a hash of the rules
+ * text and these facts. A cache is created for each version of the rules, so that loading
+ * new rules drops all previous matches.
+ * The least recently used matches are evicted when the cache is full.
+ */
+public class RuleMatchCache {
+  private final String rulesHash;
+  private final Map<Key, CirculationRuleMatches> matches;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evaluationNanos = new LongAdder();
+
+  /**
+   * Create an empty cache.
+   * @param rulesAsText circulation rules the matches are determined from
+   * @param maximumSize maximum number of matches to keep, 0 disables caching
+   */
+  public RuleMatchCache(String rulesAsText, int maximumSize) {
+    this.rulesHash = RulesTextHash.of(rulesAsText);
+    this.matches = Collections.synchronizedMap(
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CirculationRuleMatches> eldest) {
+          return size() > maximumSize;
+        }
+      });
+  }
+
+  /**
+   * Get the cached matches, or determine and cache them.
+   * Failed results are not cached.
+   * @param parameters facts to match
+   * @param evaluation executes the circulation rules
+   * @return the cached or evaluated matches
+   */
+  public Result<CirculationRuleMatches> getOrEvaluate(RulesExecutionParameters parameters,
+    Supplier<Result<CirculationRuleMatches>> evaluation) {
+
+    final Key key = Key.of(rulesHash, parameters);
+    final CirculationRuleMatches cachedMatches = matches.get(key);
+
+    if (cachedMatches != null) {
+      hits.increment();
+      return Result.succeeded(cachedMatches);
+    }
+
+    misses.increment();
+
+    final long start = System.nanoTime();
+    final Result<CirculationRuleMatches> result = evaluation.get();
+    evaluationNanos.add(System.nanoTime() - start);
+
+    if (result.succeeded() && result.value() != null) {
+      matches.put(key, result.value());
+    }
+
+    return result;
+  }
+
+  public String getRulesHash() {
+    return rulesHash;
+  }
+
+  public int size() {
+    return matches.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return estimated rules engine time the hits have saved, based on the average time
+   * of the evaluations that were needed for the misses
+   */
+  public long getSavedMillis() {
+    final long missCount = getMisses();
+
+    if (missCount == 0) {
+      return 0;
+    }
+
+    return getHits() * (evaluationNanos.sum() / missCount) / 1_000_000;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d hits, %d misses, %d matches cached, about %d ms saved",
+      getHits(), getMisses(), size(), getSavedMillis());
+  }
+
+  @Value
+  private static class Key {
+    String rulesHash;
+    String materialTypeId;
+    String loanTypeId;
+    String patronGroupId;
+    String locationId;
+    boolean locationPresent;
+    String institutionId;
+    String campusId;
+    String libraryId;
+
+    static Key of(String rulesHash, RulesExecutionParameters parameters) {
+      final Location location = parameters.getLocation();
+
+      if (location == null) {
+        return new Key(rulesHash, parameters.getMaterialTypeId(),
+          parameters.getLoanTypeId(), parameters.getPatronGroupId(),
+          parameters.getLocationId(), false, null, null, null);
+      }
+
+      return new Key(rulesHash, parameters.getMaterialTypeId(),
+        parameters.getLoanTypeId(), parameters.getPatronGroupId(),
+        parameters.getLocationId(), true, location.getInstitutionId(),
+        location.getCampusId(), location.getLibraryId());
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package org.folio.circulation.rules;
+
+import org.folio.circulation.domain.Location;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Evaluates compiled circulation rules to determine the policies that apply.
+ * <p>
+ * The single policy methods return the policy of the matching rule with the highest priority,
+ * the list methods return the policies of all matching rules in priority order.
+ */
+public interface RulesEngine {
+  CirculationRuleMatch loanPolicy(MultiMap params, Location location);
+
+  JsonArray loanPolicies(MultiMap params, Location location);
+
+  CirculationRuleMatch requestPolicy(MultiMap params, Location location);
+
+  JsonArray requestPolicies(MultiMap params, Location location);
+
+  CirculationRuleMatch noticePolicy(MultiMap params, Location location);
+
+  JsonArray noticePolicies(MultiMap params, Location location);
+
+  CirculationRuleMatch overduePolicy(MultiMap params, Location location);
+
+  JsonArray overduePolicies(MultiMap params, Location location);
+
+  CirculationRuleMatch lostItemPolicy(MultiMap params, Location location);
+
+  JsonArray lostItemPolicies(MultiMap params, Location location);
+
+  /**
+   * Determine the loan, request, notice, overdue fine and lost item policies
+   * of the matching rule with the highest priority in a single evaluation.
+   */
+  CirculationRuleMatches policyMatches(MultiMap params, Location location);
+}
@@ -13,12 +13,14 @@ import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.MultiMap;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.With;
 
 @Getter
 @ToString
+@EqualsAndHashCode
 @AllArgsConstructor
 public final class RulesExecutionParameters {
   private final String loanTypeId;
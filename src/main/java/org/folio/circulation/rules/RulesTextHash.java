@@ -0,0 +1,26 @@
+package org.folio.circulation.rules;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Identifies a version of the circulation rules by the SHA-256 hash of the rules text.
+ */
+public final class RulesTextHash {
+  private RulesTextHash() { }
+
+  public static String of(String rulesAsText) {
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256")
+        .digest(rulesAsText.getBytes(UTF_8));
+
+      return String.format("%064x", new BigInteger(1, digest));
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -3,8 +3,10 @@ package org.folio.circulation.rules;
 import static java.util.Collections.emptySet;
 import static org.apache.commons.text.StringEscapeUtils.escapeJava;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -34,7 +36,8 @@ import org.folio.circulation.rules.CirculationRulesParser.ThreePrioritiesContext
 import org.folio.circulation.rules.CirculationRulesParser.TwoPrioritiesContext;
 
 /**
- * Convert a circulation rules text in FOLIO format into a drools rules text.
+ * Convert a circulation rules text in FOLIO format into a drools rules text
+ * or into the rule lines of a {@link DecisionTable}.
  */
 public class Text2Drools extends CirculationRulesBaseListener {
   @SuppressWarnings("squid:CommentedOutCodeLine")  // Example code is allowed
@@ -86,6 +89,7 @@ public class Text2Drools extends CirculationRulesBaseListener {
       "global Match match\n" +
       "\n");
 
+  private final List<RuleLine> ruleLines = new ArrayList<>();
   private final LinkedList<Matcher> stack = new LinkedList<>();
   private final String[] policyTypes = {"l", "r", "n", "o", "i"};
   private final PolicyValidator policyValidator;
@@ -125,7 +129,25 @@ public class Text2Drools extends CirculationRulesBaseListener {
     return getDroolsRepresentation(text, text2drools);
   }
 
+  /**
+   * Convert circulation rules from FOLIO text format into rule lines for a {@link DecisionTable}.
+   * @param text String with a circulation rules file in FOLIO syntax.
+   * @return all rules that have policies, with the criteria of the lines they are nested in
+   */
+  public static List<RuleLine> convertToRuleLines(String text) {
+    Text2Drools text2drools = new Text2Drools((policyType, policies, token) -> {});
+    walk(text, text2drools);
+
+    return text2drools.ruleLines;
+  }
+
   private static String getDroolsRepresentation(String text, Text2Drools text2drools) {
+    walk(text, text2drools);
+
+    return text2drools.drools.toString();
+  }
+
+  private static void walk(String text, Text2Drools text2drools) {
     CharStream input = CharStreams.fromString(text);
     CirculationRulesLexer lexer = new CirculationRulesLexer(input);
     CommonTokenStream tokens = new CommonTokenStream(lexer);
@@ -135,8 +157,6 @@ public class Text2Drools extends CirculationRulesBaseListener {
     CirculationRulesFileContext entryPoint = parser.circulationRulesFile();
     ParseTreeWalker walker = new ParseTreeWalker();
     walker.walk(text2drools, entryPoint);
-
-    return text2drools.drools.toString();
   }
 
   /**
@@ -326,18 +346,28 @@ public class Text2Drools extends CirculationRulesBaseListener {
     }
 
     int line = policies.getStart().getLine();
+    int salience = getSalience(line);
+    List<RuleCondition> conditions = new ArrayList<>();
+    Map<String, String> policyIds = new HashMap<>();
+
     drools.append("rule \"line ").append(line).append("\"\n");
-    drools.append("  salience ").append(getSalience(line)).append("\n");
+    drools.append("  salience ").append(salience).append("\n");
     drools.append("  when\n");
-    stack.descendingIterator().forEachRemaining(matcher -> drools.append(matcher.drools));
+    stack.descendingIterator().forEachRemaining(matcher -> {
+      drools.append(matcher.drools);
+      conditions.addAll(matcher.conditions);
+    });
     drools.append("  then\n");
 
     for (PolicyContext policy : policies.policy()) {
       drools.append(policyMatchString(policy));
       appendQuotedString(drools, policy.NAME().getText());
       drools.append(";\n");
+      policyIds.put(policy.POLICY_TYPE().toString(), policy.NAME().getText());
     }
 
+    ruleLines.add(new RuleLine(line, salience, conditions, policyIds));
+
     drools.append("    match.lineNumber = ").append(line).append(";\n");
     drools.append("    drools.halt();\n");
     drools.append("end\n\n");
@@ -416,8 +446,11 @@ public class Text2Drools extends CirculationRulesBaseListener {
     String field = criteriumTypeClassname(criteriumTypeLetter);
     matcher.drools.append(field);
 
+    CriteriumType type = CriteriumType.fromLetter(criteriumTypeLetter);
+
     if (criteriumContext.all() != null) {
       matcher.drools.append("() // all\n");
+      matcher.conditions.add(RuleCondition.all(type));
       return;
     }
 
@@ -428,6 +461,12 @@ public class Text2Drools extends CirculationRulesBaseListener {
       not = true;
     }
 
+    Set<String> names = new LinkedHashSet<>();
+    criteriumContext.NAME().forEach(name -> names.add(name.getText()));
+    matcher.conditions.add(not
+      ? RuleCondition.noneOf(type, names)
+      : RuleCondition.anyOf(type, names));
+
     if (criteriumContext.NAME().size() == 1) {
       matcher.drools.append(not ? "(id != " : "(id == " );
       appendQuotedString(matcher.drools, criteriumContext.NAME(0).getText());
@@ -484,6 +523,7 @@ public class Text2Drools extends CirculationRulesBaseListener {
     Set<String> criteriaUsed = new HashSet<>(4);
     int maxCriteriumPriority;
     StringBuilder drools;
+    List<RuleCondition> conditions = new ArrayList<>();
 
     public Matcher(int indentation, Set<String> criteriaUsed,
       int maxCriteriumPriority, StringBuilder drools) {
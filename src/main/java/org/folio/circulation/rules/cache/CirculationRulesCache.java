@@ -1,6 +1,7 @@
 package org.folio.circulation.rules.cache;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.folio.circulation.support.results.Result.failed;
 import static org.folio.circulation.support.results.Result.ofAsync;
@@ -10,11 +11,22 @@ import org.apache.logging.log4j.Logger;
 
 import java.lang.invoke.MethodHandles;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.folio.Environment;
+import org.folio.circulation.rules.DecisionTable;
 import org.folio.circulation.rules.Drools;
 import org.folio.circulation.rules.ExecutableRules;
+import org.folio.circulation.rules.RuleMatchCache;
+import org.folio.circulation.rules.RulesEngine;
 import org.folio.circulation.rules.Text2Drools;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.ServerErrorFailure;
@@ -28,12 +40,21 @@ public final class CirculationRulesCache {
 
   private static final CirculationRulesCache instance = new CirculationRulesCache();
   /** after this time the rules get loaded before executing the circulation rules engine */
-  private static final long MAX_AGE_IN_MILLISECONDS = 5000;
+  private static final long MAX_AGE_IN_MILLISECONDS =
+    Math.max(1, Environment.getCirculationRulesMaxAgeSeconds()) * 1000L;
   /** after this time the circulation rules engine is executed first for a fast reply
    * and then the circulation rules get reloaded */
-  private static final long TRIGGER_AGE_IN_MILLISECONDS = 4000;
-  /** rules and Drools for each tenantId */
+  private static final long TRIGGER_AGE_IN_MILLISECONDS = MAX_AGE_IN_MILLISECONDS * 4 / 5;
+  private static final String DECISION_TABLE_ENGINE = "decision-table";
+  /** rules and rules engine for each tenantId */
   private final Map<String, Rules> rulesMap = new ConcurrentHashMap<>();
+  /** compiles the rules so that building a rules engine doesn't block an event loop thread */
+  private final ExecutorService compiler = Executors.newFixedThreadPool(
+    Math.max(1, Environment.getCirculationRulesCompilerThreads()), new CompilerThreadFactory());
+  /** compiled drools rules from previous runs of the module, disabled if no directory is set */
+  private final CompiledRulesStore compiledRulesStore =
+    new CompiledRulesStore(Environment.getCirculationRulesCacheDirectory(),
+      Environment.getCirculationRulesCacheKey());
 
   public static CirculationRulesCache getInstance() {
     return instance;
@@ -50,7 +71,7 @@ public final class CirculationRulesCache {
   }
 
   /**
-   * Enforce reload of the tenant's circulation rules.
+   * Enforce reload of the tenant's circulation rules, called after they have been changed.
    * This doesn't rebuild the drools rules if the circulation rules haven't changed.
    * @param tenantId  id of the tenant
    */
@@ -60,6 +81,10 @@ public final class CirculationRulesCache {
       return;
     }
     rules.reloadTimestamp = 0;
+    // the rules fetched by a reload in flight may predate the change,
+    // don't join it and don't let it mark the rules as current
+    rules.versions.incrementAndGet();
+    rules.reload.set(null);
   }
 
   private boolean isCurrent(Rules rules) {
@@ -76,26 +101,57 @@ public final class CirculationRulesCache {
    * @return whether reload is needed
    */
   private boolean reloadNeeded(Rules rules) {
-    if (rules.reloadInitiated) {
+    if (rules.reload.get() != null) {
       return false;
     }
     return rules.reloadTimestamp + TRIGGER_AGE_IN_MILLISECONDS < System.currentTimeMillis();
   }
 
-  private CompletableFuture<Result<Rules>> reloadRules(Rules rules,
+  /**
+   * Reload the rules, or join the reload that is already in flight for the tenant,
+   * so that concurrent callers cause a single fetch and compilation.
+   * @param rules - rules to reload
+   * @param circulationRulesClient - client to fetch the rules
+   * @return the shared reload
+   */
+  private CompletableFuture<Result<Rules>> reload(Rules rules,
     CollectionResourceClient circulationRulesClient) {
 
-    return circulationRulesClient.get()
-      .thenCompose(r -> r.after(response -> {
-        JsonObject circulationRules = new JsonObject(response.getBody());
+    while (true) {
+      final CompletableFuture<Result<Rules>> inFlight = rules.reload.get();
 
-        rules.reloadTimestamp = System.currentTimeMillis();
-        rules.reloadInitiated = false;
+      if (inFlight != null) {
+        return inFlight;
+      }
 
-        if (log.isInfoEnabled()) {
-          log.info("circulationRules = {}", circulationRules.encodePrettily());
-        }
+      final CompletableFuture<Result<Rules>> reload = new CompletableFuture<>();
 
+      if (rules.reload.compareAndSet(null, reload)) {
+        completedFuture(null)
+          .thenCompose(notUsed -> reloadRules(rules, circulationRulesClient))
+          .whenComplete((result, throwable) -> {
+            rules.reload.compareAndSet(reload, null);
+
+            if (throwable != null) {
+              reload.completeExceptionally(throwable);
+            } else {
+              reload.complete(result);
+            }
+          });
+
+        return reload;
+      }
+    }
+  }
+
+  private CompletableFuture<Result<Rules>> reloadRules(Rules rules,
+    CollectionResourceClient circulationRulesClient) {
+
+    final long version = rules.versions.incrementAndGet();
+
+    return circulationRulesClient.get()
+      .thenCompose(r -> r.after(response -> {
+        JsonObject circulationRules = response.getJson();
         String rulesAsText = circulationRules.getString("rulesAsText");
 
         if (isBlank(rulesAsText)) {
@@ -103,61 +159,215 @@ public final class CirculationRulesCache {
             "Cannot apply blank circulation rules")));
         }
 
-        if (rules.rulesAsText.equals(rulesAsText)) {
+        final ExecutableRules previousRules = rules.executableRules;
+
+        if (previousRules != null && previousRules.getText().equals(rulesAsText)) {
+          log.debug("Circulation rules haven't changed");
+          markLoaded(rules, version);
           return ofAsync(() -> rules);
         }
 
-        rules.rulesAsText = rulesAsText;
-        rules.rulesAsDrools = Text2Drools.convert(rulesAsText);
+        if (log.isInfoEnabled()) {
+          log.info("circulationRules = {}", circulationRules.encodePrettily());
+        }
 
-        log.info("rulesAsDrools = {}", rules.rulesAsDrools);
-        rules.drools = new Drools(rules.rulesAsDrools);
+        final long fetchedAt = System.nanoTime();
 
-        return ofAsync(() -> rules);
+        return supplyAsync(() -> compile(rules, rulesAsText), compiler)
+          .thenApply(compiled -> {
+            swap(rules, version, compiled, previousRules, fetchedAt);
+            markLoaded(rules, version);
+            return succeeded(rules);
+          });
       }));
   }
 
-  public CompletableFuture<Result<ExecutableRules>> getExecutableRules(String tenantId,
-    CollectionResourceClient circulationRulesClient) {
+  /**
+   * Start the max age of the rules, unless the cache has been cleared or another
+   * fetch has started after this one.
+   */
+  private static void markLoaded(Rules rules, long version) {
+    if (version == rules.versions.get()) {
+      rules.reloadTimestamp = System.currentTimeMillis();
+    }
+  }
 
-    return getDrools(tenantId, circulationRulesClient)
-      .thenApply(r -> r.map(drools ->
-        new ExecutableRules(rulesMap.get(tenantId).rulesAsText, drools)));
+  private ExecutableRules compile(Rules rules, String rulesAsText) {
+    final long start = System.nanoTime();
+
+    final RulesEngine rulesEngine = compileRulesEngine(rules.tenantId, rulesAsText);
+    // Drools needs to restart the agenda for each matching rule to find all of them
+    final DecisionTable matchIndex = rulesEngine instanceof DecisionTable
+      ? (DecisionTable) rulesEngine
+      : DecisionTable.fromText(rulesAsText);
+
+    final var executableRules = new ExecutableRules(rulesAsText, rulesEngine,
+      new RuleMatchCache(rulesAsText, Environment.getCirculationRulesMatchCacheSize()),
+      matchIndex);
+
+    rules.metrics.recordCompilation(System.nanoTime() - start);
+
+    return executableRules;
   }
 
-  public CompletableFuture<Result<Drools>> getDrools(String tenantId,
+  /**
+   * Replace the tenant's rules unless a more recently fetched version has already been
+   * swapped in. Until then the previous version keeps serving lookups.
+   */
+  private static void swap(Rules rules, long version, ExecutableRules compiled,
+    ExecutableRules previousRules, long fetchedAt) {
+
+    final long compiledAt = System.nanoTime();
+
+    synchronized (rules) {
+      if (version < rules.version) {
+        log.info("Discarding compiled circulation rules version {}, version {} is newer",
+          version, rules.version);
+        return;
+      }
+
+      rules.version = version;
+      rules.executableRules = compiled;
+    }
+
+    if (previousRules != null) {
+      rules.metrics.recordStaleTime(compiledAt - fetchedAt);
+
+      log.info("Circulation rule match cache for replaced rules {}: {}",
+        previousRules.getMatchCache().getRulesHash(), previousRules.getMatchCache());
+    }
+
+    log.info("Circulation rules version {}: {}", version, rules.metrics);
+  }
+
+  private RulesEngine compileRulesEngine(String tenantId, String rulesAsText) {
+    if (DECISION_TABLE_ENGINE.equalsIgnoreCase(Environment.getCirculationRulesEngine())) {
+      return DecisionTable.fromText(rulesAsText);
+    }
+
+    final Optional<Drools> stored = compiledRulesStore.load(tenantId, rulesAsText);
+
+    if (stored.isPresent()) {
+      log.info("Loaded compiled circulation rules of tenant {} from disk", tenantId);
+      return stored.get();
+    }
+
+    String rulesAsDrools = Text2Drools.convert(rulesAsText);
+    log.info("rulesAsDrools = {}", rulesAsDrools);
+
+    final var drools = new Drools(rulesAsDrools);
+    compiledRulesStore.save(tenantId, rulesAsText, drools);
+
+    return drools;
+  }
+
+  public CompletableFuture<Result<ExecutableRules>> getExecutableRules(String tenantId,
     CollectionResourceClient circulationRulesClient) {
 
-    final CompletableFuture<Result<Drools>> cfDrools = new CompletableFuture<>();
+    final CompletableFuture<Result<ExecutableRules>> cfExecutableRules =
+      new CompletableFuture<>();
     Rules rules = rulesMap.get(tenantId);
 
     if (isCurrent(rules)) {
-      cfDrools.complete(succeeded(rules.drools));
+      cfExecutableRules.complete(succeeded(rules.executableRules));
 
       if (reloadNeeded(rules)) {
-        rules.reloadInitiated = true;
-        reloadRules(rules, circulationRulesClient)
-          .thenCompose(r -> r.after(updatedRules -> ofAsync(() -> updatedRules.drools)));
+        reload(rules, circulationRulesClient);
       }
 
-      return cfDrools;
+      return cfExecutableRules;
     }
 
     if (rules == null) {
-      rules = new Rules();
-      rulesMap.put(tenantId, rules);
+      rules = rulesMap.computeIfAbsent(tenantId, Rules::new);
     }
 
-    return reloadRules(rules, circulationRulesClient)
-      .thenCompose(r -> r.after(updatedRules -> ofAsync(() -> updatedRules.drools)));
+    return reload(rules, circulationRulesClient)
+      .thenCompose(r -> r.after(updatedRules -> ofAsync(() -> updatedRules.executableRules)));
   }
 
-  private class Rules {
-    private volatile String rulesAsText = "";
-    private volatile String rulesAsDrools = "";
-    private volatile Drools drools;
+  /**
+   * Start loading and compiling the tenant's circulation rules, so that the first
+   * policy lookup doesn't have to wait for it. Failures are logged, not reported.
+   * @param tenantId id of the tenant
+   * @param circulationRulesClient client to fetch the rules
+   */
+  public void warmUp(String tenantId, CollectionResourceClient circulationRulesClient) {
+    try {
+      getExecutableRules(tenantId, circulationRulesClient)
+        .whenComplete((result, throwable) -> {
+          if (throwable != null) {
+            log.warn("Cannot warm up circulation rules of tenant {}", tenantId, throwable);
+          } else if (result.failed()) {
+            log.warn("Cannot warm up circulation rules of tenant {}: {}", tenantId,
+              result.cause());
+          }
+        });
+    } catch (Exception e) {
+      log.warn("Cannot warm up circulation rules of tenant {}", tenantId, e);
+    }
+  }
+
+  /**
+   * @param tenantId id of the tenant
+   * @return whether the tenant's rules have been loaded, or are being loaded
+   */
+  public boolean isLoaded(String tenantId) {
+    return rulesMap.containsKey(tenantId);
+  }
+
+  /**
+   * @param tenantId id of the tenant
+   * @return compilation statistics of the tenant's rules, null if never loaded
+   */
+  public RulesCompilationMetrics getCompilationMetrics(String tenantId) {
+    final Rules rules = rulesMap.get(tenantId);
+
+    return rules == null ? null : rules.metrics;
+  }
+
+  /**
+   * @param tenantId id of the tenant
+   * @return rule match cache of the tenant's current rules, null if never loaded
+   */
+  public RuleMatchCache getMatchCache(String tenantId) {
+    final Rules rules = rulesMap.get(tenantId);
+    final ExecutableRules executableRules = rules == null ? null : rules.executableRules;
+
+    return executableRules == null ? null : executableRules.getMatchCache();
+  }
+
+  private static class CompilerThreadFactory implements ThreadFactory {
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      final var thread = new Thread(runnable,
+        "circulation-rules-compiler-" + threadNumber.incrementAndGet());
+
+      thread.setDaemon(true);
+
+      return thread;
+    }
+  }
+
+  private static class Rules {
+    private final String tenantId;
+    /** rules text, rules engine and rule match cache, replaced together when the rules change */
+    private volatile ExecutableRules executableRules;
+    /** version of executableRules, guarded by synchronized (this) */
+    private long version;
+    /** incremented for each fetch of the rules, a later fetch has a higher version */
+    private final AtomicLong versions = new AtomicLong();
+    private final RulesCompilationMetrics metrics = new RulesCompilationMetrics();
     /** System.currentTimeMillis() of the last load/reload of the rules from the storage */
     private volatile long reloadTimestamp;
-    private volatile boolean reloadInitiated = false;
+    /** the reload in flight that concurrent callers share, null if none */
+    private final AtomicReference<CompletableFuture<Result<Rules>>> reload =
+      new AtomicReference<>();
+
+    private Rules(String tenantId) {
+      this.tenantId = tenantId;
+    }
   }
 }
@@ -0,0 +1,244 @@
+package org.folio.circulation.rules.cache;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.circulation.rules.Drools;
+import org.folio.circulation.rules.RulesTextHash;
+
+/**
+ * Compiled circulation rules stored on disk so that a restarted module instance
+ * doesn't need to compile the rules of each tenant again.
+ * <p>
+ * There is a file for each tenant named by the hash of the rules text. Its header
+ * contains the format version, the Drools version and the hash, a file is only used
+ * if all of them match, otherwise it is deleted.
+ * <p>
+ * Reading a file runs the classes Drools generated for the rules, so each file is
+ * signed with a key only the module holds, and a file that isn't signed with the
+ * key is deleted without being read. The directories are created readable and
+ * writable only by the module's user.
+ */
+public class CompiledRulesStore {
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final String MAGIC = "folio-circulation-rules";
+  private static final int FORMAT_VERSION = 2;
+  private static final String SUFFIX = ".kbase";
+  private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+  private final Path directory;
+  private final SecretKeySpec key;
+
+  /**
+   * @param directory where to store the compiled rules, null or blank disables the store
+   * @param key secret the stored files are signed with, null or blank disables the store
+   */
+  public CompiledRulesStore(String directory, String key) {
+    if (!isBlank(directory) && isBlank(key)) {
+      log.warn("Compiled circulation rules are not stored in {} as no key is set",
+        directory);
+    }
+
+    final boolean enabled = !isBlank(directory) && !isBlank(key);
+
+    this.directory = enabled ? Paths.get(directory) : null;
+    this.key = enabled
+      ? new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM)
+      : null;
+  }
+
+  public boolean isEnabled() {
+    return directory != null;
+  }
+
+  /**
+   * Read the compiled rules of the tenant.
+   * @param tenantId id of the tenant
+   * @param rulesAsText the rules text the compiled rules must have been built from
+   * @return the compiled rules, empty if not stored, stored for other rules or unreadable
+   */
+  public Optional<Drools> load(String tenantId, String rulesAsText) {
+    if (!isEnabled()) {
+      return Optional.empty();
+    }
+
+    final String rulesHash = RulesTextHash.of(rulesAsText);
+    final Path file = file(tenantId, rulesHash);
+
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+
+    try {
+      final byte[] contents = Files.readAllBytes(file);
+      final Mac signer = signer(tenantId);
+      final int signedLength = contents.length - signer.getMacLength();
+
+      if (signedLength < 0) {
+        log.warn("Discarding unsigned compiled circulation rules {}", file);
+        delete(file);
+        return Optional.empty();
+      }
+
+      signer.update(contents, 0, signedLength);
+
+      if (!MessageDigest.isEqual(signer.doFinal(),
+        Arrays.copyOfRange(contents, signedLength, contents.length))) {
+
+        log.warn("Discarding compiled circulation rules {} not signed by this module", file);
+        delete(file);
+        return Optional.empty();
+      }
+
+      final var inputStream = new ByteArrayInputStream(contents, 0, signedLength);
+      final var header = new DataInputStream(inputStream);
+
+      if (!MAGIC.equals(header.readUTF())
+        || header.readInt() != FORMAT_VERSION
+        || !droolsVersion().equals(header.readUTF())
+        || !rulesHash.equals(header.readUTF())) {
+
+        log.warn("Discarding incompatible compiled circulation rules {}", file);
+        delete(file);
+        return Optional.empty();
+      }
+
+      return Optional.of(Drools.readFrom(inputStream));
+    } catch (Exception e) {
+      log.warn("Discarding unreadable compiled circulation rules {}", file, e);
+      delete(file);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Store the compiled rules of the tenant, replacing the compiled rules
+   * previously stored for the tenant. Failures are logged and ignored.
+   * @param tenantId id of the tenant
+   * @param rulesAsText the rules text the compiled rules have been built from
+   * @param drools the compiled rules
+   */
+  public void save(String tenantId, String rulesAsText, Drools drools) {
+    if (!isEnabled()) {
+      return;
+    }
+
+    final String rulesHash = RulesTextHash.of(rulesAsText);
+    final Path file = file(tenantId, rulesHash);
+    Path temporaryFile = null;
+
+    try {
+      createOwnerOnlyDirectories(file.getParent());
+      temporaryFile = Files.createTempFile(file.getParent(), rulesHash, ".tmp");
+
+      final var contents = new ByteArrayOutputStream();
+      final var header = new DataOutputStream(contents);
+      header.writeUTF(MAGIC);
+      header.writeInt(FORMAT_VERSION);
+      header.writeUTF(droolsVersion());
+      header.writeUTF(rulesHash);
+      header.flush();
+
+      drools.writeTo(contents);
+
+      final Mac signer = signer(tenantId);
+      signer.update(contents.toByteArray());
+      contents.write(signer.doFinal());
+
+      Files.write(temporaryFile, contents.toByteArray());
+      Files.move(temporaryFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+      deleteOtherFiles(file);
+    } catch (Exception e) {
+      log.warn("Cannot store compiled circulation rules {}", file, e);
+
+      if (temporaryFile != null) {
+        delete(temporaryFile);
+      }
+    }
+  }
+
+  /**
+   * The signature covers the tenant as well, so that a file cannot be moved
+   * to another tenant's directory
+   */
+  private Mac signer(String tenantId) throws GeneralSecurityException {
+    final Mac signer = Mac.getInstance(SIGNATURE_ALGORITHM);
+    signer.init(key);
+    signer.update(tenantId.getBytes(StandardCharsets.UTF_8));
+
+    return signer;
+  }
+
+  private void createOwnerOnlyDirectories(Path tenantDirectory) throws IOException {
+    for (Path created : Arrays.asList(directory, tenantDirectory)) {
+      if (!Files.isDirectory(created)) {
+        Files.createDirectories(created, ownerOnly());
+      }
+    }
+  }
+
+  private static FileAttribute<?>[] ownerOnly() {
+    if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+      return new FileAttribute<?>[0];
+    }
+
+    return new FileAttribute<?>[] {
+      PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"))
+    };
+  }
+
+  private Path file(String tenantId, String rulesHash) {
+    return directory.resolve(tenantId.replaceAll("[^A-Za-z0-9_-]", "_"))
+      .resolve(rulesHash + SUFFIX);
+  }
+
+  private static void deleteOtherFiles(Path file) throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(file.getParent(),
+      "*" + SUFFIX)) {
+
+      for (Path other : files) {
+        if (!other.equals(file)) {
+          delete(other);
+        }
+      }
+    }
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Cannot delete {}", file, e);
+    }
+  }
+
+  private static String droolsVersion() {
+    return String.valueOf(org.drools.core.util.Drools.getFullVersion());
+  }
+}
@@ -0,0 +1,57 @@
+package org.folio.circulation.rules.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compilation statistics of a tenant's circulation rules.
+ * <p>
+ * The stale time is how long the previous version of the rules kept being used
+ * after changed rules had been fetched, until the new version was compiled and swapped in.
+ */
+public class RulesCompilationMetrics {
+  private final LongAdder compilations = new LongAdder();
+  private final LongAdder totalCompileNanos = new LongAdder();
+  private final AtomicLong lastCompileNanos = new AtomicLong();
+  private final AtomicLong lastStaleNanos = new AtomicLong();
+  private final AtomicLong maxStaleNanos = new AtomicLong();
+
+  void recordCompilation(long compileNanos) {
+    compilations.increment();
+    totalCompileNanos.add(compileNanos);
+    lastCompileNanos.set(compileNanos);
+  }
+
+  void recordStaleTime(long staleNanos) {
+    lastStaleNanos.set(staleNanos);
+    maxStaleNanos.accumulateAndGet(staleNanos, Math::max);
+  }
+
+  public long getCompilations() {
+    return compilations.sum();
+  }
+
+  public long getTotalCompileMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(totalCompileNanos.sum());
+  }
+
+  public long getLastCompileMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(lastCompileNanos.get());
+  }
+
+  public long getLastStaleMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(lastStaleNanos.get());
+  }
+
+  public long getMaxStaleMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxStaleNanos.get());
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d compilations, last %d ms, total %d ms, " +
+      "stale rules served for %d ms (max %d ms)", getCompilations(), getLastCompileMillis(),
+      getTotalCompileMillis(), getLastStaleMillis(), getMaxStaleMillis());
+  }
+}
@@ -108,9 +108,9 @@ public class EventPublisher {
 
       runAsync(() -> userRepository.getUser(loanAndRelatedRecords.getLoggedInUserId())
         .thenApplyAsync(r -> r.after(loggedInUser -> CompletableFuture.completedFuture(
-          Result.succeeded(pubSubPublishingService.publishEvent(LOG_RECORD.name(), mapToCheckOutLogEventContent(loanAndRelatedRecords, loggedInUser)))))));
+          Result.succeeded(pubSubPublishingService.publishEventViaOutbox(LOG_RECORD.name(), mapToCheckOutLogEventContent(loanAndRelatedRecords, loggedInUser)))))));
 
-      return pubSubPublishingService.publishEvent(ITEM_CHECKED_OUT.name(), payloadJsonObject.encode())
+      return pubSubPublishingService.publishEventViaOutbox(ITEM_CHECKED_OUT.name(), payloadJsonObject.encode())
         .handle((result, error) -> handlePublishEventError(error, loanAndRelatedRecords));
     }
     else {
@@ -125,7 +125,7 @@ public class EventPublisher {
 
     runAsync(() -> userRepository.getUser(checkInContext.getLoggedInUserId())
       .thenApplyAsync(r -> r.after(loggedInUser -> CompletableFuture.completedFuture(
-        Result.succeeded(pubSubPublishingService.publishEvent(LOG_RECORD.name(), mapToCheckInLogEventContent(checkInContext, loggedInUser)))))));
+        Result.succeeded(pubSubPublishingService.publishEventViaOutbox(LOG_RECORD.name(), mapToCheckInLogEventContent(checkInContext, loggedInUser)))))));
 
     if (checkInContext.getLoan() != null) {
       Loan loan = checkInContext.getLoan();
@@ -135,7 +135,7 @@ public class EventPublisher {
       write(payloadJsonObject, LOAN_ID_FIELD, loan.getId());
       write(payloadJsonObject, RETURN_DATE_FIELD, loan.getReturnDate());
 
-      return pubSubPublishingService.publishEvent(ITEM_CHECKED_IN.name(), payloadJsonObject.encode())
+      return pubSubPublishingService.publishEventViaOutbox(ITEM_CHECKED_IN.name(), payloadJsonObject.encode())
         .handle((result, error) -> handlePublishEventError(error, checkInContext));
     }
     else {
@@ -30,6 +30,7 @@ import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.Environment;
 import org.folio.circulation.domain.Account;
 import org.folio.circulation.domain.CheckInContext;
 import org.folio.circulation.domain.FeeFineAction;
@@ -56,6 +57,8 @@ public class LostItemFeeRefundService {
   private static final Logger log = LogManager.getLogger(LostItemFeeRefundService.class);
   private static final String CANCELLED_PAYMENT_STATUS_PREFIX = "Cancelled";
   public static final int MAX_TIME_DIFFERENCE_FOR_ASSOCIATED_ACCOUNTS = 60;
+  private static final int MAX_CONCURRENT_REFUNDS =
+    Math.max(1, Environment.getLostItemFeeRefundsMaximumConcurrent());
 
   private final LostItemPolicyRepository lostItemPolicyRepository;
   private final FeeFineFacade feeFineFacade;
@@ -130,7 +133,8 @@ public class LostItemFeeRefundService {
     LostItemFeeRefundContext context) {
 
     return succeeded(context.accountRefundCommands())
-      .after(commands -> allOf(commands, command -> refundAndCloseAccount(context, command)))
+      .after(commands -> allOf(commands, MAX_CONCURRENT_REFUNDS,
+        command -> refundAndCloseAccount(context, command)))
       .thenApply(r -> r.map(notUsed -> context));
   }
 
@@ -1,5 +1,7 @@
 package org.folio.circulation.services;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
 import static org.folio.rest.util.OkapiConnectionParams.OKAPI_TENANT_HEADER;
 import static org.folio.rest.util.OkapiConnectionParams.OKAPI_TOKEN_HEADER;
 import static org.folio.rest.util.OkapiConnectionParams.OKAPI_URL_HEADER;
@@ -10,6 +12,7 @@ import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.circulation.services.outbox.OutboxWriter;
 import org.folio.circulation.support.http.server.WebContext;
 import org.folio.rest.jaxrs.model.Event;
 import org.folio.rest.jaxrs.model.EventMetadata;
@@ -25,14 +28,40 @@ public class PubSubPublishingService {
 
   private final Map<String, String> okapiHeaders;
   private final Context vertxContext;
+  private final OutboxWriter outbox;
 
   public PubSubPublishingService(RoutingContext routingContext) {
     this(new WebContext(routingContext));
   }
 
   public PubSubPublishingService(WebContext context) {
-    this.okapiHeaders = context.getHeaders();
-    vertxContext = Vertx.currentContext();
+    this(context, Vertx.currentContext());
+  }
+
+  public PubSubPublishingService(WebContext context, Context vertxContext) {
+    this(context.getHeaders(), vertxContext);
+  }
+
+  public PubSubPublishingService(Map<String, String> okapiHeaders, Context vertxContext) {
+    this.okapiHeaders = okapiHeaders;
+    this.vertxContext = vertxContext;
+    this.outbox = new OutboxWriter(okapiHeaders);
+  }
+
+  /**
+   * Publish a check in or check out event (or its log record), when the outbox is
+   * enabled the event is only added to it and published afterwards
+   */
+  public CompletableFuture<Boolean> publishEventViaOutbox(String eventType, String payload) {
+    if (!outbox.isEnabled()) {
+      return publishEvent(eventType, payload);
+    }
+
+    return outbox.publishEvent(eventType, payload)
+      .thenCompose(r -> r.succeeded()
+        ? completedFuture(true)
+        : failedFuture(new IllegalStateException(String.format(
+          "Failed to add %s event to the outbox: %s", eventType, r.cause()))));
   }
 
   public CompletableFuture<Boolean> publishEvent(String eventType, String payload) {
@@ -34,6 +34,7 @@ import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.Environment;
 import org.folio.circulation.StoreLoanAndItem;
 import org.folio.circulation.domain.FeeFine;
 import org.folio.circulation.domain.FeeFineOwner;
@@ -64,6 +65,10 @@ import lombok.val;
 
 public class ChargeLostFeesWhenAgedToLostService {
   private static final Logger log = LogManager.getLogger(ChargeLostFeesWhenAgedToLostService.class);
+  // Charging fees for a loan makes several requests of its own
+  private static final int MAX_CONCURRENT_LOANS =
+    Math.max(1, Environment.getAgedToLostFeeChargingMaximumConcurrentLoans());
+  private static final int PAGES_TO_PREFETCH = 2;
 
   private final LostItemPolicyRepository lostItemPolicyRepository;
   private final FeeFineOwnerRepository feeFineOwnerRepository;
@@ -91,7 +96,9 @@ public class ChargeLostFeesWhenAgedToLostService {
     this.storeLoanAndItem = new StoreLoanAndItem(loanRepository,
       itemRepository);
     this.eventPublisher = new EventPublisher(clients.pubSubPublishingService());
-    this.loanPageableFetcher = new PageableFetcher<>(loanRepository);
+    this.loanPageableFetcher = new PageableFetcher<>(loanRepository)
+      .withPagesToPrefetch(PAGES_TO_PREFETCH)
+      .withKeysetPagination(Loan::getId);
     this.feeFineScheduledNoticeService = FeeFineScheduledNoticeService.using(clients);
     this.actualCostRecordService = new ActualCostRecordService(new ActualCostRecordRepository(clients),
       LocationRepository.using(clients, new ServicePointRepository(clients)));
@@ -125,7 +132,7 @@ public class ChargeLostFeesWhenAgedToLostService {
     Result<List<LoanToChargeFees>> loansToChargeFeesResult) {
 
     return loansToChargeFeesResult
-      .after(loans -> allOf(loans, this::processLoan))
+      .after(loans -> allOf(loans, MAX_CONCURRENT_LOANS, this::processLoan))
       .thenApply(Result::mapEmpty);
   }
 
@@ -17,6 +17,7 @@ import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.Environment;
 import org.folio.circulation.StoreLoanAndItem;
 import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.MultipleRecords;
@@ -35,6 +36,10 @@ import org.folio.circulation.support.utils.ClockUtil;
 
 public class MarkOverdueLoansAsAgedLostService {
   private static final Logger log = LogManager.getLogger(MarkOverdueLoansAsAgedLostService.class);
+  // Limits the requests made at the same time, so a page of loans does not use most connections
+  private static final int MAX_CONCURRENT_LOANS =
+    Math.max(1, Environment.getAgedToLostMaximumConcurrentLoans());
+  private static final int PAGES_TO_PREFETCH = 2;
 
   private final LostItemPolicyRepository lostItemPolicyRepository;
   private final ItemRepository itemRepository;
@@ -51,7 +56,9 @@ public class MarkOverdueLoansAsAgedLostService {
     this.lostItemPolicyRepository = new LostItemPolicyRepository(clients);
     this.storeLoanAndItem = new StoreLoanAndItem(loanRepository, itemRepository);
     this.eventPublisher = new EventPublisher(clients.pubSubPublishingService());
-    this.loanPageableFetcher = new PageableFetcher<>(loanRepository);
+    this.loanPageableFetcher = new PageableFetcher<>(loanRepository)
+      .withPagesToPrefetch(PAGES_TO_PREFETCH)
+      .withKeysetPagination(Loan::getId);
     this.loanScheduledNoticeService = LoanScheduledNoticeService.using(clients);
     this.userRepository = new UserRepository(clients);
   }
@@ -82,7 +89,8 @@ public class MarkOverdueLoansAsAgedLostService {
   private CompletableFuture<Result<List<Loan>>> publishAgedToLostEvents(
     Result<List<Loan>> allLoansResult) {
 
-    return allLoansResult.after(allLoans -> allOf(allLoans, eventPublisher::publishAgedToLostEvents))
+    return allLoansResult.after(allLoans -> allOf(allLoans, MAX_CONCURRENT_LOANS,
+      eventPublisher::publishAgedToLostEvents))
       .thenApply(r -> r.next(ignored -> allLoansResult));
   }
 
@@ -112,7 +120,8 @@ public class MarkOverdueLoansAsAgedLostService {
 
     return loanRecordsResult
       .map(MultipleRecords::getRecords)
-      .after(loans -> allOf(loans, storeLoanAndItem::updateLoanAndItemInStorage));
+      .after(loans -> allOf(loans, MAX_CONCURRENT_LOANS,
+        storeLoanAndItem::updateLoanAndItemInStorage));
   }
 
   private Result<MultipleRecords<Loan>> getLoansThatHaveToBeAgedToLost(
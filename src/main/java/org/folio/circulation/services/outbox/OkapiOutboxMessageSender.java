@@ -0,0 +1,121 @@
+package org.folio.circulation.services.outbox;
+
+import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.http.OkapiHeader.OKAPI_URL;
+import static org.folio.circulation.support.http.OkapiHeader.REQUEST_ID;
+import static org.folio.circulation.support.http.OkapiHeader.TENANT;
+import static org.folio.circulation.support.http.OkapiHeader.TOKEN;
+import static org.folio.circulation.support.http.OkapiHeader.USER_ID;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.http.ResponseMapping.forwardOnFailure;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.folio.circulation.services.PubSubPublishingService;
+import org.folio.circulation.support.ForwardOnFailure;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.http.client.ResponseInterpreter;
+import org.folio.circulation.support.http.client.VertxWebClientOkapiHttpClient;
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.Context;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Sends outbox messages using the Okapi headers stored with them and the token
+ * the outbox provides, either that of the request the message was added for or
+ * that provided for its tenant. A message that is refused as not authorised
+ * fails with the 401 response, so that the outbox can send it again with another token.
+ */
+class OkapiOutboxMessageSender implements OutboxMessageSender {
+  private static final String PUBSUB_UNAUTHORISED = "Status code: 401";
+
+  private final HttpClient httpClient;
+  private final Context vertxContext;
+
+  OkapiOutboxMessageSender(HttpClient httpClient, Context vertxContext) {
+    this.httpClient = httpClient;
+    this.vertxContext = vertxContext;
+  }
+
+  @Override
+  public CompletableFuture<Result<Void>> send(OutboxMessage message) {
+    switch (message.getType()) {
+      case PUBLISH_EVENT:
+        return publishEvent(message);
+      case CREATE_RECORD:
+        return createRecord(message);
+      default:
+        return completedFuture(failedDueToServerError(
+          format("Unknown outbox message type %s", message.getType())));
+    }
+  }
+
+  private CompletableFuture<Result<Void>> publishEvent(OutboxMessage message) {
+    final Map<String, String> headers = new HashMap<>(message.getOkapiHeaders());
+
+    if (message.getToken() != null) {
+      headers.put(TOKEN.toLowerCase(Locale.ROOT), message.getToken());
+    }
+
+    return new PubSubPublishingService(headers, vertxContext)
+      .publishEvent(message.getTarget(), message.getPayload())
+      .handle((published, throwable) -> {
+        if (throwable != null) {
+          return refusedAsUnauthorised(throwable)
+            ? failed(new ForwardOnFailure(new Response(401,
+              ExceptionUtils.getRootCauseMessage(throwable), "text/plain")))
+            : failedDueToServerError(throwable);
+        }
+
+        return Boolean.TRUE.equals(published)
+          ? succeeded(null)
+          : failedDueToServerError(format("Failed to publish %s event",
+            message.getTarget()));
+      });
+  }
+
+  private CompletableFuture<Result<Void>> createRecord(OutboxMessage message) {
+    final Map<String, String> headers = message.getOkapiHeaders();
+    final URL okapiUrl;
+
+    try {
+      okapiUrl = new URL(header(headers, OKAPI_URL));
+    } catch (MalformedURLException e) {
+      return completedFuture(failedDueToServerError(e));
+    }
+
+    final ResponseInterpreter<Void> interpreter = new ResponseInterpreter<Void>()
+      .on(201, succeeded(null))
+      .otherwise(forwardOnFailure());
+
+    return VertxWebClientOkapiHttpClient.createClientUsing(httpClient, okapiUrl,
+        header(headers, TENANT), message.getToken(), header(headers, USER_ID),
+        header(headers, REQUEST_ID))
+      .post(message.getTarget(), new JsonObject(message.getPayload()))
+      .thenApply(interpreter::flatMap);
+  }
+
+  /**
+   * pubsub only reports the status code of a refused event in the message
+   */
+  private static boolean refusedAsUnauthorised(Throwable throwable) {
+    return ExceptionUtils.getThrowableList(throwable).stream()
+      .anyMatch(cause -> StringUtils.contains(cause.getMessage(), PUBSUB_UNAUTHORISED));
+  }
+
+  private static String header(Map<String, String> headers, String name) {
+    return headers.get(name.toLowerCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,463 @@
+package org.folio.circulation.services.outbox;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.function.Function.identity;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.Environment;
+import org.folio.circulation.support.ForwardOnFailure;
+import org.folio.circulation.support.HttpFailure;
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+
+/**
+ * Changes to make in other modules after the changes to storage of a circulation
+ * action have been made, e.g. publishing events. Once a message has been added
+ * (and stored on disk) the action can respond, the message is sent afterwards
+ * by a background worker. Messages added while the worker is storing others are
+ * stored together, with a single write to disk. Disabled unless a directory is set.
+ * <p>
+ * Messages with the same ordering key (usually the ID of the loan) are sent one
+ * after the other, in the order they were added. A message that could not be sent
+ * is retried with increasing delays, holding back the later messages with the same
+ * key, until it has been tried the maximum number of times. At most a maximum number
+ * of messages (each with a different key) are being sent at the same time, keys
+ * with a message ready to be sent take turns in the order they became ready.
+ * <p>
+ * A message is sent with the token of the request it was added for. A message
+ * without a token (loaded after a restart), or refused as not authorised (its token
+ * has expired), is sent with the token last provided for its tenant by the outbox
+ * timer, which expires after a while. When there is no such token, or it is refused
+ * too, the message waits (holding back the later messages with the same key) until
+ * a new token is provided. A message is never discarded for being refused.
+ */
+public class Outbox {
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final long FIRST_RETRY_DELAY_MILLIS = SECONDS.toMillis(1);
+  private static final long MAXIMUM_RETRY_DELAY_MILLIS = MINUTES.toMillis(5);
+  private static final long METRICS_LOG_INTERVAL_MILLIS = MINUTES.toMillis(5);
+  private static final long TENANT_TOKEN_TIME_TO_LIVE_MILLIS = MINUTES.toMillis(10);
+
+  private static final Outbox instance = new Outbox(
+    new OutboxStore(Environment.getOutboxDirectory()),
+    Math.max(1, Environment.getOutboxMaximumAttempts()),
+    Math.max(1, Environment.getOutboxMaximumInFlight()),
+    Executors.newSingleThreadScheduledExecutor(Outbox::newWorkerThread),
+    System::currentTimeMillis);
+
+  private final OutboxStore store;
+  private final int maximumAttempts;
+  private final int maximumInFlight;
+  /** the only thread storing, sending and forgetting messages, all fields below are only used by it */
+  private final ScheduledExecutorService worker;
+  private final LongSupplier currentTimeMillis;
+  private final OutboxMetrics metrics = new OutboxMetrics();
+  /** messages added but not stored yet, guarded by synchronized (addedMessages) */
+  private final List<AddedMessage> addedMessages = new ArrayList<>();
+  /** messages waiting to be sent for each ordering key, in the order they were added */
+  private final Map<String, Deque<PendingMessage>> queues = new LinkedHashMap<>();
+  /** ordering keys with a message ready to be sent, in the order they became ready */
+  private final Deque<String> ready = new ArrayDeque<>();
+  /** ordering keys with a message being sent */
+  private final Set<String> sending = new HashSet<>();
+  /** tokens provided by the outbox timer, by tenant */
+  private final Map<String, TenantToken> tenantTokens = new HashMap<>();
+  /** ordering keys with a message waiting for a token for its tenant, by tenant */
+  private final Map<String, Deque<String>> awaitingToken = new HashMap<>();
+  private OutboxMessageSender sender;
+  private long sequence;
+  private boolean loaded;
+  private long addedWhenMetricsLogged;
+
+  public static Outbox getInstance() {
+    return instance;
+  }
+
+  Outbox(OutboxStore store, int maximumAttempts, int maximumInFlight,
+    ScheduledExecutorService worker, LongSupplier currentTimeMillis) {
+
+    this.store = store;
+    this.maximumAttempts = maximumAttempts;
+    this.maximumInFlight = maximumInFlight;
+    this.worker = worker;
+    this.currentTimeMillis = currentTimeMillis;
+  }
+
+  public boolean isEnabled() {
+    return store.isEnabled();
+  }
+
+  public OutboxMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Start sending the messages, including those stored before the module was
+   * restarted. Does nothing when the outbox is disabled.
+   */
+  public void start(Vertx vertx, HttpClient httpClient) {
+    if (isEnabled()) {
+      start(new OkapiOutboxMessageSender(httpClient, vertx.getOrCreateContext()));
+    }
+  }
+
+  void start(OutboxMessageSender messageSender) {
+    worker.execute(() -> {
+      final boolean firstStart = sender == null;
+
+      sender = messageSender;
+      loadStoredMessages();
+
+      if (firstStart) {
+        worker.scheduleAtFixedRate(this::logMetrics, METRICS_LOG_INTERVAL_MILLIS,
+          METRICS_LOG_INTERVAL_MILLIS, MILLISECONDS);
+      }
+
+      drain();
+    });
+  }
+
+  /**
+   * Provide the token to send the tenant's messages that have no token, or
+   * whose token has been refused, with
+   */
+  public void provideToken(String tenantId, String token) {
+    if (!isEnabled() || tenantId == null || token == null) {
+      return;
+    }
+
+    worker.execute(() -> {
+      tenantTokens.put(tenantId, new TenantToken(token,
+        now() + TENANT_TOKEN_TIME_TO_LIVE_MILLIS));
+
+      final Deque<String> keys = awaitingToken.remove(tenantId);
+
+      if (keys != null) {
+        ready.addAll(keys);
+      }
+
+      drain();
+    });
+  }
+
+  /**
+   * Store the message to be sent, the result is a failure if it could not be stored
+   */
+  CompletableFuture<Result<Void>> add(OutboxMessage message) {
+    final var added = new AddedMessage(message);
+    final boolean firstAdded;
+
+    synchronized (addedMessages) {
+      firstAdded = addedMessages.isEmpty();
+      addedMessages.add(added);
+    }
+
+    // messages added before the worker stores them are stored together
+    if (firstAdded) {
+      worker.execute(this::storeAddedMessages);
+    }
+
+    // completed on another thread, so that whatever follows doesn't hold up the worker
+    return added.stored.thenApplyAsync(identity());
+  }
+
+  long now() {
+    return currentTimeMillis.getAsLong();
+  }
+
+  private void storeAddedMessages() {
+    final List<AddedMessage> added;
+
+    synchronized (addedMessages) {
+      added = new ArrayList<>(addedMessages);
+      addedMessages.clear();
+    }
+
+    loadStoredMessages();
+
+    final List<OutboxMessage> numberedMessages = new ArrayList<>();
+
+    for (AddedMessage addedMessage : added) {
+      numberedMessages.add(addedMessage.message.withSequence(++sequence));
+    }
+
+    try {
+      store.save(numberedMessages);
+      metrics.recordWrite();
+    } catch (IOException e) {
+      log.error("Cannot store {} outbox messages", numberedMessages.size(), e);
+
+      final Result<Void> failure = failedDueToServerError(format(
+        "Cannot store outbox message: %s", e.getMessage()));
+
+      added.forEach(addedMessage -> addedMessage.stored.complete(failure));
+
+      return;
+    }
+
+    numberedMessages.forEach(message -> {
+      enqueue(message);
+      metrics.recordAdded();
+    });
+
+    added.forEach(addedMessage -> addedMessage.stored.complete(succeeded(null)));
+
+    drain();
+  }
+
+  private void loadStoredMessages() {
+    if (loaded) {
+      return;
+    }
+
+    loaded = true;
+
+    try {
+      final List<OutboxMessage> messages = store.load();
+
+      for (OutboxMessage message : messages) {
+        enqueue(message);
+        sequence = Math.max(sequence, message.getSequence());
+      }
+
+      metrics.recordLoaded(messages.size());
+
+      if (!messages.isEmpty()) {
+        log.info("Loaded {} stored outbox messages", messages.size());
+      }
+    } catch (IOException e) {
+      log.error("Cannot load stored outbox messages", e);
+    }
+  }
+
+  private void enqueue(OutboxMessage message) {
+    final String key = queueKey(message);
+
+    // a key already queued is ready, being sent or waiting to be retried
+    if (!queues.containsKey(key)) {
+      ready.addLast(key);
+    }
+
+    queues.computeIfAbsent(key, notUsed -> new ArrayDeque<>())
+      .addLast(new PendingMessage(message));
+  }
+
+  private void drain() {
+    if (sender == null) {
+      return;
+    }
+
+    while (sending.size() < maximumInFlight && !ready.isEmpty()) {
+      final String key = ready.pollFirst();
+      final PendingMessage pending = queues.get(key).peekFirst();
+      final OutboxMessage message = withToken(pending.message);
+
+      if (message == null) {
+        awaitingToken.computeIfAbsent(pending.message.getTenantId(),
+          notUsed -> new ArrayDeque<>()).addLast(key);
+      }
+      else {
+        sending.add(key);
+        send(key, pending, message);
+      }
+    }
+  }
+
+  /**
+   * @return the message with its own token, or the token of its tenant, null
+   * when there is no token to send it with
+   */
+  private OutboxMessage withToken(OutboxMessage message) {
+    if (message.getToken() != null) {
+      return message;
+    }
+
+    final TenantToken tenantToken = tenantTokens.get(message.getTenantId());
+
+    if (tenantToken == null || tenantToken.expiresAt <= now()) {
+      tenantTokens.remove(message.getTenantId());
+
+      return null;
+    }
+
+    return message.withToken(tenantToken.token);
+  }
+
+  private void send(String key, PendingMessage pending, OutboxMessage message) {
+    CompletableFuture<Result<Void>> sent;
+
+    try {
+      sent = sender.send(message);
+    } catch (Exception e) {
+      sent = CompletableFuture.failedFuture(e);
+    }
+
+    sent.whenCompleteAsync((result, throwable) -> sent(key, pending, message,
+      throwable == null ? result : failedDueToServerError(throwable)), worker);
+  }
+
+  private void sent(String key, PendingMessage pending, OutboxMessage sentMessage,
+    Result<Void> result) {
+
+    final OutboxMessage message = pending.message;
+
+    if (result.succeeded()) {
+      store.delete(message);
+      metrics.recordSent(now() - message.getCreatedAt());
+      removeFirst(key);
+    }
+    else if (refusedAsUnauthorised(result.cause())) {
+      metrics.recordFailedAttempt();
+
+      log.warn("Outbox message {} refused as not authorised, sending it with the token " +
+        "of tenant {} when there is one: {}", message, message.getTenantId(),
+        result.cause());
+
+      // neither the token of the request nor the refused token are used again
+      pending.message = message.withToken(null);
+      forgetTenantToken(message.getTenantId(), sentMessage.getToken());
+
+      sending.remove(key);
+      ready.addLast(key);
+    }
+    else {
+      pending.attempts++;
+      metrics.recordFailedAttempt();
+
+      if (pending.attempts >= maximumAttempts) {
+        log.error("Discarding outbox message {} after {} attempts: {}", message,
+          pending.attempts, result.cause());
+
+        discard(key, message);
+      }
+      else {
+        final long delay = retryDelay(pending.attempts);
+
+        log.warn("Cannot send outbox message {} (attempt {} of {}), retrying in {} ms: {}",
+          message, pending.attempts, maximumAttempts, delay, result.cause());
+
+        sending.remove(key);
+        worker.schedule(() -> {
+          ready.addLast(key);
+          drain();
+        }, delay, MILLISECONDS);
+      }
+    }
+
+    drain();
+  }
+
+  private void forgetTenantToken(String tenantId, String refusedToken) {
+    final TenantToken tenantToken = tenantTokens.get(tenantId);
+
+    if (tenantToken != null && tenantToken.token.equals(refusedToken)) {
+      tenantTokens.remove(tenantId);
+    }
+  }
+
+  private void discard(String key, OutboxMessage message) {
+    store.moveToFailed(message);
+    metrics.recordDiscarded();
+    removeFirst(key);
+  }
+
+  private void removeFirst(String key) {
+    final Deque<PendingMessage> queue = queues.get(key);
+
+    queue.pollFirst();
+
+    if (queue.isEmpty()) {
+      queues.remove(key);
+    }
+    else {
+      ready.addLast(key);
+    }
+
+    sending.remove(key);
+  }
+
+  private void logMetrics() {
+    if (metrics.getDepth() > 0 || metrics.getAdded() != addedWhenMetricsLogged) {
+      addedWhenMetricsLogged = metrics.getAdded();
+
+      log.info("Outbox: {}", metrics);
+    }
+  }
+
+  private static boolean refusedAsUnauthorised(HttpFailure cause) {
+    return cause instanceof ForwardOnFailure
+      && ((ForwardOnFailure) cause).getFailureResponse().getStatusCode() == 401;
+  }
+
+  private static String queueKey(OutboxMessage message) {
+    return message.getOrderingKey() == null
+      ? message.getId()
+      : message.getOrderingKey();
+  }
+
+  private static long retryDelay(int attempts) {
+    return Math.min(MAXIMUM_RETRY_DELAY_MILLIS,
+      FIRST_RETRY_DELAY_MILLIS << Math.min(attempts - 1, 20));
+  }
+
+  private static Thread newWorkerThread(Runnable runnable) {
+    final var thread = new Thread(runnable, "circulation-outbox");
+
+    thread.setDaemon(true);
+
+    return thread;
+  }
+
+  private static class PendingMessage {
+    private OutboxMessage message;
+    private int attempts;
+
+    private PendingMessage(OutboxMessage message) {
+      this.message = message;
+    }
+  }
+
+  private static class AddedMessage {
+    private final OutboxMessage message;
+    private final CompletableFuture<Result<Void>> stored = new CompletableFuture<>();
+
+    private AddedMessage(OutboxMessage message) {
+      this.message = message;
+    }
+  }
+
+  private static class TenantToken {
+    private final String token;
+    private final long expiresAt;
+
+    private TenantToken(String token, long expiresAt) {
+      this.token = token;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
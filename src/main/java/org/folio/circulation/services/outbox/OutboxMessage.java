@@ -0,0 +1,121 @@
+package org.folio.circulation.services.outbox;
+
+import static org.folio.circulation.support.http.OkapiHeader.TENANT;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import io.vertx.core.json.JsonObject;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A change to make in another module after the changes to storage of a
+ * circulation action have been made, with the Okapi headers of the request
+ * the change was made for.
+ * <p>
+ * The Okapi token of the request is only kept in memory, it is not stored
+ * with the message, so a message loaded after a restart has no token and is
+ * sent with the token provided for its tenant by the outbox timer instead.
+ * <p>
+ * Messages with the same ordering key are sent in the order they were added,
+ * a message without an ordering key is sent independently of all others.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class OutboxMessage {
+  private static final String ID = "id";
+  private static final String SEQUENCE = "sequence";
+  private static final String ORDERING_KEY = "orderingKey";
+  private static final String TYPE = "type";
+  private static final String TARGET = "target";
+  private static final String PAYLOAD = "payload";
+  private static final String OKAPI_HEADERS = "okapiHeaders";
+  private static final String CREATED_AT = "createdAt";
+
+  public enum Type {
+    /**
+     * Publish an event (the target is the event type) via pubsub
+     */
+    PUBLISH_EVENT,
+    /**
+     * Create a record (the target is the URL of the collection) in storage
+     */
+    CREATE_RECORD
+  }
+
+  private final String id;
+  private final long sequence;
+  private final String orderingKey;
+  private final Type type;
+  private final String target;
+  private final String payload;
+  private final Map<String, String> okapiHeaders;
+  private final long createdAt;
+  private final String token;
+
+  static OutboxMessage publishEvent(Map<String, String> okapiHeaders,
+    String orderingKey, String eventType, String payload, long createdAt) {
+
+    return new OutboxMessage(UUID.randomUUID().toString(), 0, orderingKey,
+      Type.PUBLISH_EVENT, eventType, payload, Map.copyOf(okapiHeaders), createdAt,
+      null);
+  }
+
+  static OutboxMessage createRecord(Map<String, String> okapiHeaders,
+    String orderingKey, String collectionUrl, JsonObject representation,
+    long createdAt) {
+
+    return new OutboxMessage(UUID.randomUUID().toString(), 0, orderingKey,
+      Type.CREATE_RECORD, collectionUrl, representation.encode(),
+      Map.copyOf(okapiHeaders), createdAt, null);
+  }
+
+  OutboxMessage withSequence(long sequence) {
+    return new OutboxMessage(id, sequence, orderingKey, type, target, payload,
+      okapiHeaders, createdAt, token);
+  }
+
+  OutboxMessage withToken(String token) {
+    return new OutboxMessage(id, sequence, orderingKey, type, target, payload,
+      okapiHeaders, createdAt, token);
+  }
+
+  String getTenantId() {
+    return okapiHeaders.get(TENANT.toLowerCase(Locale.ROOT));
+  }
+
+  JsonObject toJson() {
+    return new JsonObject()
+      .put(ID, id)
+      .put(SEQUENCE, sequence)
+      .put(ORDERING_KEY, orderingKey)
+      .put(TYPE, type.name())
+      .put(TARGET, target)
+      .put(PAYLOAD, payload)
+      .put(OKAPI_HEADERS, new JsonObject(new HashMap<String, Object>(okapiHeaders)))
+      .put(CREATED_AT, createdAt);
+  }
+
+  static OutboxMessage from(JsonObject json) {
+    final Map<String, String> okapiHeaders = json.getJsonObject(OKAPI_HEADERS)
+      .getMap().entrySet().stream()
+      .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey,
+        entry -> String.valueOf(entry.getValue())));
+
+    return new OutboxMessage(json.getString(ID), json.getLong(SEQUENCE),
+      json.getString(ORDERING_KEY), Type.valueOf(json.getString(TYPE)),
+      json.getString(TARGET), json.getString(PAYLOAD), okapiHeaders,
+      json.getLong(CREATED_AT), null);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s %s (ID: %s, ordering key: %s)", type, target, id,
+      orderingKey);
+  }
+}
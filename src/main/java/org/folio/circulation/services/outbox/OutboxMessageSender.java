@@ -0,0 +1,12 @@
+package org.folio.circulation.services.outbox;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.support.results.Result;
+
+/**
+ * Sends an outbox message to the module it is meant for
+ */
+interface OutboxMessageSender {
+  CompletableFuture<Result<Void>> send(OutboxMessage message);
+}
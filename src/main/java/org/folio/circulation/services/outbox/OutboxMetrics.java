@@ -0,0 +1,94 @@
+package org.folio.circulation.services.outbox;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the outbox.
+ * <p>
+ * The depth is the number of messages waiting to be sent. The drain lag is how
+ * long after being added a message was sent, including the time spent waiting
+ * for earlier messages with the same ordering key and for retries. Messages
+ * added at about the same time are stored together, so there are usually fewer
+ * writes to disk than messages added.
+ */
+public class OutboxMetrics {
+  private final AtomicLong depth = new AtomicLong();
+  private final LongAdder added = new LongAdder();
+  private final LongAdder writes = new LongAdder();
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder failedAttempts = new LongAdder();
+  private final LongAdder discarded = new LongAdder();
+  private final AtomicLong lastDrainLagMillis = new AtomicLong();
+  private final AtomicLong maxDrainLagMillis = new AtomicLong();
+
+  void recordAdded() {
+    added.increment();
+    depth.incrementAndGet();
+  }
+
+  void recordWrite() {
+    writes.increment();
+  }
+
+  void recordLoaded(int messages) {
+    depth.addAndGet(messages);
+  }
+
+  void recordSent(long drainLagMillis) {
+    sent.increment();
+    depth.decrementAndGet();
+    lastDrainLagMillis.set(drainLagMillis);
+    maxDrainLagMillis.accumulateAndGet(drainLagMillis, Math::max);
+  }
+
+  void recordFailedAttempt() {
+    failedAttempts.increment();
+  }
+
+  void recordDiscarded() {
+    discarded.increment();
+    depth.decrementAndGet();
+  }
+
+  public long getDepth() {
+    return depth.get();
+  }
+
+  public long getAdded() {
+    return added.sum();
+  }
+
+  public long getWrites() {
+    return writes.sum();
+  }
+
+  public long getSent() {
+    return sent.sum();
+  }
+
+  public long getFailedAttempts() {
+    return failedAttempts.sum();
+  }
+
+  public long getDiscarded() {
+    return discarded.sum();
+  }
+
+  public long getLastDrainLagMillis() {
+    return lastDrainLagMillis.get();
+  }
+
+  public long getMaxDrainLagMillis() {
+    return maxDrainLagMillis.get();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("depth %d, %d added, %d writes, %d sent, %d failed attempts, " +
+      "%d discarded, drain lag %d ms (max %d ms)", getDepth(), getAdded(), getWrites(),
+      getSent(),
+      getFailedAttempts(), getDiscarded(), getLastDrainLagMillis(),
+      getMaxDrainLagMillis());
+  }
+}
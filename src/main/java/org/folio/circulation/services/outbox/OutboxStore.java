@@ -0,0 +1,243 @@
+package org.folio.circulation.services.outbox;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Outbox messages stored on disk until they have been sent, so that they are
+ * still sent after the module instance is restarted.
+ * <p>
+ * Messages added at about the same time are stored together in one file, so
+ * that they are forced to disk at once. A file is named by the sequence number
+ * of its first message, so that listing the files gives the order the messages
+ * were added in. It is written to a temporary file, forced to disk and then
+ * moved into place, and the directory is forced to disk after the move, so a
+ * file with the name of a message is always complete and is still there after
+ * a crash. A file is deleted once all of its messages have been sent or have
+ * failed (so after a restart the messages already sent from a file that was not
+ * deleted yet are sent again), messages that could not be sent are written to
+ * the failed directory.
+ * <p>
+ * Only used by the outbox worker thread.
+ */
+class OutboxStore {
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final String SUFFIX = ".json";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+  private static final String FAILED_DIRECTORY = "failed";
+  private static final String MESSAGES = "messages";
+
+  private final Path directory;
+  /** the file each message that has not been sent or failed yet is stored in, by ID */
+  private final Map<String, Path> messageFiles = new HashMap<>();
+  /** the number of messages in each file that have not been sent or failed yet */
+  private final Map<Path, Integer> unsentMessages = new HashMap<>();
+
+  /**
+   * @param directory where to store the messages, null or blank disables the store
+   */
+  OutboxStore(String directory) {
+    this.directory = isBlank(directory) ? null : Paths.get(directory);
+  }
+
+  boolean isEnabled() {
+    return directory != null;
+  }
+
+  /**
+   * Read all stored messages, unreadable files are moved to the failed
+   * directory and files left over from an interrupted write are deleted
+   * @return the messages in the order they were added
+   */
+  List<OutboxMessage> load() throws IOException {
+    final List<OutboxMessage> messages = new ArrayList<>();
+
+    if (!isEnabled() || !Files.isDirectory(directory)) {
+      return messages;
+    }
+
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+      "*" + TEMPORARY_SUFFIX)) {
+
+      for (Path file : files) {
+        delete(file);
+      }
+    }
+
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+      "*" + SUFFIX)) {
+
+      for (Path file : files) {
+        try {
+          final List<OutboxMessage> stored = read(file);
+
+          stored.forEach(message -> track(file, message));
+          messages.addAll(stored);
+        } catch (Exception e) {
+          log.warn("Cannot read outbox messages {}", file, e);
+          moveToFailed(file);
+        }
+      }
+    }
+
+    messages.sort(Comparator.comparingLong(OutboxMessage::getSequence));
+
+    return messages;
+  }
+
+  /**
+   * Store the messages in one file, they have all been stored once this returns
+   */
+  void save(List<OutboxMessage> messages) throws IOException {
+    Files.createDirectories(directory);
+
+    final Path file = file(messages.get(0));
+
+    write(file, messages);
+    forceDirectory();
+
+    messages.forEach(message -> track(file, message));
+  }
+
+  /**
+   * Forget the message, after it has been sent. Failures are logged and ignored,
+   * a message that could not be deleted is sent again after a restart
+   */
+  void delete(OutboxMessage message) {
+    forget(message);
+  }
+
+  /**
+   * Keep the message in the failed directory, after it could not be sent.
+   * Failures are logged and ignored
+   */
+  void moveToFailed(OutboxMessage message) {
+    final Path failedDirectory = directory.resolve(FAILED_DIRECTORY);
+
+    try {
+      Files.createDirectories(failedDirectory);
+      write(failedDirectory.resolve(file(message).getFileName()), List.of(message));
+    } catch (IOException e) {
+      log.warn("Cannot keep failed outbox message {}", message, e);
+    }
+
+    forget(message);
+  }
+
+  private void forget(OutboxMessage message) {
+    final Path file = messageFiles.remove(message.getId());
+
+    if (file == null) {
+      return;
+    }
+
+    if (unsentMessages.merge(file, -1, Integer::sum) <= 0) {
+      unsentMessages.remove(file);
+      delete(file);
+    }
+  }
+
+  private void track(Path file, OutboxMessage message) {
+    messageFiles.put(message.getId(), file);
+    unsentMessages.merge(file, 1, Integer::sum);
+  }
+
+  private void moveToFailed(Path file) {
+    try {
+      final Path failedDirectory = directory.resolve(FAILED_DIRECTORY);
+
+      Files.createDirectories(failedDirectory);
+      Files.move(file, failedDirectory.resolve(file.getFileName()), REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("Cannot move {} to the failed outbox messages", file, e);
+    }
+  }
+
+  private static List<OutboxMessage> read(Path file) throws IOException {
+    final JsonArray stored = new JsonObject(Files.readString(file, UTF_8))
+      .getJsonArray(MESSAGES);
+
+    final List<OutboxMessage> messages = new ArrayList<>();
+
+    for (int index = 0; index < stored.size(); index++) {
+      messages.add(OutboxMessage.from(stored.getJsonObject(index)));
+    }
+
+    return messages;
+  }
+
+  private static void write(Path file, List<OutboxMessage> messages) throws IOException {
+    final var stored = new JsonArray();
+    messages.forEach(message -> stored.add(message.toJson()));
+
+    // temporary files are only readable and writable by the owner
+    final Path temporaryFile = Files.createTempFile(file.getParent(), "outbox",
+      TEMPORARY_SUFFIX);
+
+    try {
+      try (FileChannel channel = FileChannel.open(temporaryFile, WRITE)) {
+        final ByteBuffer content = ByteBuffer.wrap(new JsonObject()
+          .put(MESSAGES, stored).encode().getBytes(UTF_8));
+
+        while (content.hasRemaining()) {
+          channel.write(content);
+        }
+
+        channel.force(true);
+      }
+
+      Files.move(temporaryFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      delete(temporaryFile);
+      throw e;
+    }
+  }
+
+  /**
+   * A file moved into place might not be there after a crash until the
+   * directory it was moved into has been forced to disk too
+   */
+  private void forceDirectory() throws IOException {
+    try (FileChannel channel = FileChannel.open(directory, READ)) {
+      channel.force(true);
+    }
+  }
+
+  private Path file(OutboxMessage message) {
+    return directory.resolve(String.format("%019d-%s%s", message.getSequence(),
+      message.getId(), SUFFIX));
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Cannot delete {}", file, e);
+    }
+  }
+}
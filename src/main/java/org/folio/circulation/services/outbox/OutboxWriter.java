@@ -0,0 +1,94 @@
+package org.folio.circulation.services.outbox;
+
+import static org.folio.circulation.support.http.OkapiHeader.OKAPI_URL;
+import static org.folio.circulation.support.http.OkapiHeader.REQUEST_ID;
+import static org.folio.circulation.support.http.OkapiHeader.TENANT;
+import static org.folio.circulation.support.http.OkapiHeader.TOKEN;
+import static org.folio.circulation.support.http.OkapiHeader.USER_ID;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Adds messages to the outbox with the Okapi headers of the request being handled,
+ * the token is kept with the message but not stored (messages loaded after a
+ * restart are sent with the token provided for the tenant by the outbox timer)
+ */
+public class OutboxWriter {
+  private static final List<String> STORED_HEADERS = List.of(OKAPI_URL, TENANT,
+    USER_ID, REQUEST_ID);
+  private static final String LOAN_ID = "loanId";
+  private static final String PAYLOAD = "payload";
+
+  private final Outbox outbox;
+  private final Map<String, String> okapiHeaders = new HashMap<>();
+  private String token;
+
+  public OutboxWriter(Map<String, String> okapiHeaders) {
+    this(Outbox.getInstance(), okapiHeaders);
+  }
+
+  OutboxWriter(Outbox outbox, Map<String, String> okapiHeaders) {
+    this.outbox = outbox;
+
+    okapiHeaders.forEach((name, value) -> {
+      final String lowerCaseName = name.toLowerCase(Locale.ROOT);
+
+      if (value != null && STORED_HEADERS.stream().anyMatch(lowerCaseName::equalsIgnoreCase)) {
+        this.okapiHeaders.put(lowerCaseName, value);
+      }
+      else if (value != null && TOKEN.equalsIgnoreCase(lowerCaseName)) {
+        token = value;
+      }
+    });
+  }
+
+  public boolean isEnabled() {
+    return outbox.isEnabled();
+  }
+
+  /**
+   * Events for the same loan (the loanId property of the payload, or of its
+   * payload property for log records) are published in the order they were added
+   */
+  public CompletableFuture<Result<Void>> publishEvent(String eventType, String payload) {
+    return outbox.add(OutboxMessage.publishEvent(okapiHeaders, loanIdOf(payload),
+      eventType, payload, outbox.now()).withToken(token));
+  }
+
+  /**
+   * @param orderingKey the ID of the loan (or item) the record is for
+   */
+  public CompletableFuture<Result<Void>> createRecord(String orderingKey,
+    URL collectionRoot, JsonObject representation) {
+
+    return outbox.add(OutboxMessage.createRecord(okapiHeaders, orderingKey,
+      collectionRoot.toString(), representation, outbox.now()).withToken(token));
+  }
+
+  private static String loanIdOf(String payload) {
+    try {
+      final JsonObject json = new JsonObject(payload);
+
+      if (json.getValue(LOAN_ID) instanceof String) {
+        return json.getString(LOAN_ID);
+      }
+
+      return json.getValue(PAYLOAD) instanceof JsonObject
+        && json.getJsonObject(PAYLOAD).getValue(LOAN_ID) instanceof String
+        ? json.getJsonObject(PAYLOAD).getString(LOAN_ID)
+        : null;
+    } catch (DecodeException | ClassCastException e) {
+      return null;
+    }
+  }
+}
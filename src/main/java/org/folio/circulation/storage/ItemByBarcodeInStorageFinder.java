@@ -2,6 +2,7 @@ package org.folio.circulation.storage;
 
 import static org.folio.circulation.domain.validation.CommonFailures.noItemFoundForBarcodeFailure;
 import static org.folio.circulation.support.results.Result.of;
+import static org.folio.circulation.support.results.Result.succeeded;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -21,6 +22,19 @@ public class ItemByBarcodeInStorageFinder {
       .thenApply(itemResult -> failWhenNoItemFoundForBarcode(itemResult, itemBarcode));
   }
 
+  /**
+   * Uses an item that has already been fetched by barcode (null when none was
+   * found), and only fetches the records related to it
+   */
+  public CompletableFuture<Result<Item>> findItemByBarcode(String itemBarcode,
+    Item fetchedItem) {
+
+    final Item item = fetchedItem == null ? Item.from(null) : fetchedItem;
+
+    return itemRepository.fetchItemRelatedRecords(succeeded(item))
+      .thenApply(itemResult -> failWhenNoItemFoundForBarcode(itemResult, itemBarcode));
+  }
+
   private static Result<Item> failWhenNoItemFoundForBarcode(
     Result<Item> itemResult, String itemBarcode) {
 
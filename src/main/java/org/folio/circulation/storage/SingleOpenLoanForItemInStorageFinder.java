@@ -4,6 +4,7 @@ import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.function.Function.identity;
 import static org.folio.circulation.domain.validation.CommonFailures.moreThanOneOpenLoanFailure;
 import static org.folio.circulation.support.results.Result.of;
+import static org.folio.circulation.support.results.Result.succeeded;
 
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -34,6 +35,16 @@ public class SingleOpenLoanForItemInStorageFinder {
   }
 
   public CompletableFuture<Result<Loan>> findSingleOpenLoan(Item item) {
+    return loanRepository.findOpenLoans(item)
+      .thenCompose(r -> r.after(openLoans -> findSingleOpenLoan(item, openLoans)));
+  }
+
+  /**
+   * Uses the open loans for the item that have already been fetched
+   */
+  public CompletableFuture<Result<Loan>> findSingleOpenLoan(Item item,
+    MultipleRecords<Loan> openLoans) {
+
     //Use same error for no loans and more than one loan to maintain compatibility
     final MoreThanOneLoanValidator moreThanOneLoanValidator
       = new MoreThanOneLoanValidator(moreThanOneOpenLoanFailure(item.getBarcode()));
@@ -41,7 +52,7 @@ public class SingleOpenLoanForItemInStorageFinder {
     final NoLoanValidator noLoanValidator
       = new NoLoanValidator(moreThanOneOpenLoanFailure(item.getBarcode()));
 
-    return loanRepository.findOpenLoans(item)
+    return completedFuture(succeeded(openLoans))
       .thenApply(moreThanOneLoanValidator::failWhenMoreThanOneLoan)
       .thenApply(loanResult -> loanResult.map(this::getFirstLoan))
       .thenApply(checkForNoLoanIfNeeded(noLoanValidator, allowNoLoanToBeFound))
@@ -1,8 +1,11 @@
 package org.folio.circulation.support;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -40,4 +43,146 @@ public class AsyncCoordinationUtil {
       .thenApply(v -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
   }
 
+  /**
+   * Applies {@code asyncAction} to all the elements in {@code collection},
+   * with at most {@code maxConcurrentActions} actions in progress at the same
+   * time, and combines results to list in the order of the elements
+   */
+  public static <T, R> CompletableFuture<Result<List<R>>> allOf(
+    Collection<T> collection, int maxConcurrentActions,
+    Function<T, CompletableFuture<Result<R>>> asyncAction) {
+
+    return allResultsOf(collection, maxConcurrentActions, asyncAction)
+      .thenApply(Result::combineAll);
+  }
+
+  /**
+   * Applies {@code asyncAction} to all the elements in {@code collection},
+   * with at most {@code maxConcurrentActions} actions in progress at the same
+   * time, and returns a CompletableFuture with a list of all results in the
+   * order of the elements
+   */
+  public static <T, R> CompletableFuture<List<Result<R>>> allResultsOf(
+    Collection<T> collection, int maxConcurrentActions,
+    Function<T, CompletableFuture<Result<R>>> asyncAction) {
+
+    if (maxConcurrentActions < 1) {
+      throw new IllegalArgumentException(
+        "Maximum concurrent actions must be at least 1: " + maxConcurrentActions);
+    }
+
+    return new BoundedActions<>(new ArrayList<>(collection), maxConcurrentActions,
+      asyncAction).start();
+  }
+
+  /**
+   * Starts the next action whenever one of those in progress completes
+   */
+  private static class BoundedActions<T, R> {
+    private final List<T> elements;
+    private final int maxConcurrentActions;
+    private final Function<T, CompletableFuture<Result<R>>> asyncAction;
+    private final List<Result<R>> results;
+    private final CompletableFuture<List<Result<R>>> allCompleted =
+      new CompletableFuture<>();
+    private final AtomicInteger startRequests = new AtomicInteger();
+
+    private int nextElement;
+    private int actionsInProgress;
+    private int completedActions;
+    private boolean finished;
+
+    private BoundedActions(List<T> elements, int maxConcurrentActions,
+      Function<T, CompletableFuture<Result<R>>> asyncAction) {
+
+      this.elements = elements;
+      this.maxConcurrentActions = maxConcurrentActions;
+      this.asyncAction = asyncAction;
+      this.results = new ArrayList<>(Collections.nCopies(elements.size(), null));
+    }
+
+    CompletableFuture<List<Result<R>>> start() {
+      if (elements.isEmpty()) {
+        allCompleted.complete(results);
+      }
+      else {
+        startActions();
+      }
+
+      return allCompleted;
+    }
+
+    /**
+     * Actions that complete immediately ask for more to be started while this
+     * is still starting them, so the loop starts those instead of starting
+     * them recursively
+     */
+    private void startActions() {
+      if (startRequests.getAndIncrement() != 0) {
+        return;
+      }
+
+      do {
+        int index;
+
+        while ((index = takeNextElement()) >= 0) {
+          final int elementIndex = index;
+
+          startAction(elements.get(elementIndex))
+            .whenComplete((result, throwable) -> completed(elementIndex, result, throwable));
+        }
+      } while (startRequests.decrementAndGet() != 0);
+    }
+
+    private CompletableFuture<Result<R>> startAction(T element) {
+      try {
+        return asyncAction.apply(element);
+      }
+      catch (Exception e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+
+    private synchronized int takeNextElement() {
+      if (finished || nextElement >= elements.size()
+        || actionsInProgress >= maxConcurrentActions) {
+
+        return -1;
+      }
+
+      actionsInProgress++;
+
+      return nextElement++;
+    }
+
+    private void completed(int index, Result<R> result, Throwable throwable) {
+      final boolean allDone;
+
+      synchronized (this) {
+        actionsInProgress--;
+
+        if (finished) {
+          return;
+        }
+
+        if (throwable == null) {
+          results.set(index, result);
+          completedActions++;
+        }
+
+        allDone = throwable != null || completedActions == elements.size();
+        finished = allDone;
+      }
+
+      if (throwable != null) {
+        allCompleted.completeExceptionally(throwable);
+      }
+      else if (allDone) {
+        allCompleted.complete(results);
+      }
+      else {
+        startActions();
+      }
+    }
+  }
 }
@@ -1,723 +1,355 @@
 package org.folio.circulation.support;
 
-import java.net.MalformedURLException;
-
+import static org.folio.circulation.support.cache.ReferenceDataType.ADDRESS_TYPES;
+import static org.folio.circulation.support.cache.ReferenceDataType.CAMPUSES;
+import static org.folio.circulation.support.cache.ReferenceDataType.CANCELLATION_REASONS;
+import static org.folio.circulation.support.cache.ReferenceDataType.FIXED_DUE_DATE_SCHEDULES;
+import static org.folio.circulation.support.cache.ReferenceDataType.INSTITUTIONS;
+import static org.folio.circulation.support.cache.ReferenceDataType.LIBRARIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.LOAN_POLICIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.LOAN_TYPES;
+import static org.folio.circulation.support.cache.ReferenceDataType.LOCATIONS;
+import static org.folio.circulation.support.cache.ReferenceDataType.LOST_ITEM_POLICIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.MATERIAL_TYPES;
+import static org.folio.circulation.support.cache.ReferenceDataType.OVERDUE_FINE_POLICIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.PATRON_GROUPS;
+import static org.folio.circulation.support.cache.ReferenceDataType.PATRON_NOTICE_POLICIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.REQUEST_POLICIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.SERVICE_POINTS;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.Environment;
 import org.folio.circulation.rules.CirculationRulesProcessor;
 import org.folio.circulation.services.PubSubPublishingService;
+import org.folio.circulation.services.outbox.OutboxWriter;
+import org.folio.circulation.support.cache.ReferenceDataCache;
+import org.folio.circulation.support.cache.ReferenceDataType;
+import org.folio.circulation.support.http.client.CachingOkapiHttpClient;
+import org.folio.circulation.support.http.client.MemoizingOkapiHttpClient;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
 import org.folio.circulation.support.http.server.WebContext;
 
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpClient;
 
 public class Clients {
-  private final CollectionResourceClient requestsStorageClient;
-  private final CollectionResourceClient requestsBatchStorageClient;
-  private final CollectionResourceClient cancellationReasonStorageClient;
-  private final CollectionResourceClient itemsStorageClient;
-  private final CollectionResourceClient holdingsStorageClient;
-  private final CollectionResourceClient instancesStorageClient;
-  private final CollectionResourceClient usersStorageClient;
-  private final CollectionResourceClient addressTypesStorageClient;
-  private final CollectionResourceClient loansStorageClient;
-  private final CollectionResourceClient locationsStorageClient;
-  private final CollectionResourceClient institutionsStorageClient;
-  private final CollectionResourceClient campusesStorageClient;
-  private final CollectionResourceClient librariesStorageClient;
-  private final CollectionResourceClient materialTypesStorageClient;
-  private final CollectionResourceClient loanTypesStorageClient;
-  private final GetManyRecordsClient proxiesForClient;
-  private final CollectionResourceClient loanPoliciesStorageClient;
-  private final CollectionResourceClient overdueFinesPoliciesPoliciesStorageClient;
-  private final CollectionResourceClient lostItemPoliciesStorageClient;
-  private final GetManyRecordsClient fixedDueDateSchedulesStorageClient;
-  private final CirculationRulesClient circulationLoanRulesClient;
-  private final CirculationRulesClient circulationOverdueFinesRulesClient;
-  private final CirculationRulesClient circulationLostItemRulesClient;
-  private final CirculationRulesClient circulationRequestRulesClient;
-  private final CirculationRulesClient circulationNoticeRulesClient;
-  private final CollectionResourceClient circulationRulesStorageClient;
-  private final CollectionResourceClient requestPoliciesStorageClient;
-  private final CollectionResourceClient servicePointsStorageClient;
-  private final CollectionResourceClient calendarStorageClient;
-  private final CollectionResourceClient patronGroupsStorageClient;
-  private final CollectionResourceClient patronNoticePolicesStorageClient;
-  private final CollectionResourceClient patronNoticeClient;
-  private final GetManyRecordsClient configurationStorageClient;
-  private final CollectionResourceClient scheduledNoticesStorageClient;
-  private final CollectionResourceClient accountsStorageClient;
-  private final CollectionResourceClient feeFineActionsStorageClient;
-  private final CollectionResourceClient feeFineOwnerStorageClient;
-  private final CollectionResourceClient feeFineStorageClient;
-  private final CollectionResourceClient anonymizeStorageLoansClient;
-  private final CollectionResourceClient patronActionSessionsStorageClient;
-  private final CollectionResourceClient patronExpiredSessionsStorageClient;
-  private final GetManyRecordsClient userManualBlocksStorageClient;
-  private final CollectionResourceClient noticeTemplatesClient;
-  private final CollectionResourceClient checkInStorageClient;
-  private final CollectionResourceClient automatedPatronBlocksClient;
-  private final CollectionResourceClient notesClient;
-  private final CollectionResourceClient noteTypesClient;
-  private final PubSubPublishingService pubSubPublishingService;
-  private final CirculationRulesProcessor circulationRulesProcessor;
-  private final CollectionResourceClient accountsRefundClient;
-  private final CollectionResourceClient accountsCancelClient;
-  private final CollectionResourceClient actualCostRecordsStorageClient;
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+  private static final boolean GET_DEDUPLICATION_ENABLED =
+    Environment.getHttpClientGetDeduplicationEnabled();
+
+  private final OkapiHttpClient client;
+  private final WebContext context;
+  private final Context vertxContext;
+  private final String tenantId;
+  private final OkapiUrls okapiUrls;
+  private final Map<String, Object> createdClients = new ConcurrentHashMap<>();
+  private PubSubPublishingService pubSubPublishingService;
+  private OutboxWriter outboxWriter;
+  private CirculationRulesProcessor circulationRulesProcessor;
 
   public static Clients create(WebContext context, HttpClient httpClient) {
-    return new Clients(context.createHttpClient(httpClient), context);
-  }
+    final OkapiHttpClient client = context.createHttpClient(httpClient);
 
-  private Clients(OkapiHttpClient client, WebContext context) {
-    try {
-      requestsStorageClient = createRequestsStorageClient(client, context);
-      requestsBatchStorageClient = createRequestsBatchStorageClient(client, context);
-      cancellationReasonStorageClient = createCancellationReasonStorageClient(client, context);
-      itemsStorageClient = createItemsStorageClient(client, context);
-      holdingsStorageClient = createHoldingsStorageClient(client, context);
-      instancesStorageClient = createInstanceStorageClient(client, context);
-      usersStorageClient = createUsersStorageClient(client, context);
-      addressTypesStorageClient = createAddressTypesStorageClient(client, context);
-      loansStorageClient = createLoansStorageClient(client, context);
-      overdueFinesPoliciesPoliciesStorageClient = createOverdueFinesPoliciesStorageClient(client, context);
-      lostItemPoliciesStorageClient = createLostItemPoliciesStorageClient(client, context);
-      locationsStorageClient = createLocationsStorageClient(client, context);
-      anonymizeStorageLoansClient = createAnonymizeStorageLoansClient(client, context);
-      institutionsStorageClient = createInstitutionsStorageClient(client, context);
-      campusesStorageClient = createCampusesStorageClient(client, context);
-      librariesStorageClient = createLibrariesStorageClient(client, context);
-      materialTypesStorageClient = createMaterialTypesStorageClient(client, context);
-      loanTypesStorageClient = createLoanTypesStorageClient(client, context);
-      proxiesForClient = createProxyUsersStorageClient(client, context);
-      circulationLoanRulesClient = createCirculationLoanRulesClient(client, context);
-      circulationRequestRulesClient = createCirculationRequestRulesClient(client, context);
-      circulationNoticeRulesClient = createCirculationNoticeRulesClient(client, context);
-      circulationOverdueFinesRulesClient = createCirculationOverdueFinesRulesClient(client, context);
-      circulationLostItemRulesClient = createCirculationLostItemRulesClient(client, context);
-      circulationRulesStorageClient = createCirculationRulesStorageClient(client, context);
-      loanPoliciesStorageClient = createLoanPoliciesStorageClient(client, context);
-      requestPoliciesStorageClient = createRequestPoliciesStorageClient(client, context);
-      fixedDueDateSchedulesStorageClient = createFixedDueDateSchedulesStorageClient(client, context);
-      servicePointsStorageClient = createServicePointsStorageClient(client, context);
-      patronGroupsStorageClient = createPatronGroupsStorageClient(client, context);
-      calendarStorageClient = createCalendarStorageClient(client, context);
-      patronNoticePolicesStorageClient = createPatronNoticePolicesStorageClient(client, context);
-      patronNoticeClient = createPatronNoticeClient(client, context);
-      configurationStorageClient = createConfigurationStorageClient(client, context);
-      scheduledNoticesStorageClient = createScheduledNoticesStorageClient(client, context);
-      accountsStorageClient = createAccountsStorageClient(client, context);
-      feeFineActionsStorageClient = createFeeFineActionsStorageClient(client,context);
-      feeFineOwnerStorageClient = createFeeFineOwnerStorageClient(client,context);
-      feeFineStorageClient = createFeeFineStorageClient(client,context);
-      patronActionSessionsStorageClient = createPatronActionSessionsStorageClient(client, context);
-      patronExpiredSessionsStorageClient = createPatronExpiredSessionsStorageClient(client, context);
-      userManualBlocksStorageClient = createUserManualBlocksStorageClient(client, context);
-      noticeTemplatesClient = createNoticeTemplatesClient(client, context);
-      checkInStorageClient = createCheckInStorageClient(client, context);
-      automatedPatronBlocksClient = createAutomatedPatronBlocksClient(client, context);
-      notesClient = createNotesClient(client, context);
-      noteTypesClient = createNoteTypesClient(client, context);
-      pubSubPublishingService = createPubSubPublishingService(context);
-      circulationRulesProcessor = new CirculationRulesProcessor(context.getTenantId(),
-        circulationRulesStorageClient, locationsStorageClient);
-      accountsRefundClient = createAccountsRefundClient(client, context);
-      accountsCancelClient = createAccountsCancelClient(client, context);
-      actualCostRecordsStorageClient = createActualCostRecordClient(client, context);
+    if (!GET_DEDUPLICATION_ENABLED) {
+      return new Clients(client, context);
     }
-    catch(MalformedURLException e) {
-      throw new InvalidOkapiLocationException(context.getOkapiLocation(), e);
+
+    final var memoizingClient = new MemoizingOkapiHttpClient(client);
+
+    context.addBodyEndHandler(() -> logSavedGetRequests(context, memoizingClient));
+
+    return new Clients(memoizingClient, context);
+  }
+
+  private static void logSavedGetRequests(WebContext context,
+    MemoizingOkapiHttpClient client) {
+
+    if (client.getSavedGetRequests() > 0) {
+      log.info("Request {}: {} of {} GET requests to other modules were answered " +
+          "by an identical GET request", context.getRequestId(),
+        client.getSavedGetRequests(), client.getGetRequests());
     }
   }
 
+  private Clients(OkapiHttpClient client, WebContext context) {
+    this.client = client;
+    this.context = context;
+    this.vertxContext = Vertx.currentContext();
+    this.tenantId = context.getTenantId();
+    this.okapiUrls = OkapiUrls.forLocation(context.getOkapiLocation());
+  }
+
   public CollectionResourceClient requestsStorage() {
-    return requestsStorageClient;
+    return collectionResourceClient("/request-storage/requests");
   }
 
   public CollectionResourceClient requestsBatchStorage() {
-    return requestsBatchStorageClient;
+    return collectionResourceClient("/request-storage-batch/requests");
   }
 
   public CollectionResourceClient cancellationReasonStorage() {
-    return cancellationReasonStorageClient;
+    return referenceDataClient(
+      "/cancellation-reason-storage/cancellation-reasons", CANCELLATION_REASONS);
   }
 
   public CollectionResourceClient requestPoliciesStorage() {
-    return requestPoliciesStorageClient;
+    return referenceDataClient(
+      "/request-policy-storage/request-policies", REQUEST_POLICIES);
   }
 
   public CollectionResourceClient itemsStorage() {
-    return itemsStorageClient;
+    return collectionResourceClient("/item-storage/items");
   }
 
   public CollectionResourceClient holdingsStorage() {
-    return holdingsStorageClient;
+    return collectionResourceClient("/holdings-storage/holdings");
   }
 
   public CollectionResourceClient instancesStorage() {
-    return instancesStorageClient;
+    return collectionResourceClient("/instance-storage/instances");
   }
 
   public CollectionResourceClient usersStorage() {
-    return usersStorageClient;
+    return collectionResourceClient("/users");
   }
 
   public CollectionResourceClient addressTypesStorage() {
-    return addressTypesStorageClient;
+    return referenceDataClient("/addresstypes", ADDRESS_TYPES);
   }
 
   public CollectionResourceClient loansStorage() {
-    return loansStorageClient;
+    return collectionResourceClient("/loan-storage/loans");
   }
 
   public CollectionResourceClient anonymizeStorageLoansClient() {
-    return anonymizeStorageLoansClient;
+    return collectionResourceClient("/anonymize-storage-loans");
   }
 
   public CollectionResourceClient locationsStorage() {
-    return locationsStorageClient;
+    return referenceDataClient("/locations", LOCATIONS);
   }
 
   public CollectionResourceClient institutionsStorage() {
-    return institutionsStorageClient;
+    return referenceDataClient("/location-units/institutions", INSTITUTIONS);
   }
 
   public CollectionResourceClient campusesStorage() {
-    return campusesStorageClient;
+    return referenceDataClient("/location-units/campuses", CAMPUSES);
   }
 
   public CollectionResourceClient librariesStorage() {
-    return librariesStorageClient;
+    return referenceDataClient("/location-units/libraries", LIBRARIES);
   }
 
   public CollectionResourceClient materialTypesStorage() {
-    return materialTypesStorageClient;
+    return referenceDataClient("/material-types", MATERIAL_TYPES);
   }
 
   public CollectionResourceClient loanTypesStorage() {
-    return loanTypesStorageClient;
+    return referenceDataClient("/loan-types", LOAN_TYPES);
   }
 
   public CollectionResourceClient loanPoliciesStorage() {
-    return loanPoliciesStorageClient;
+    return referenceDataClient("/loan-policy-storage/loan-policies", LOAN_POLICIES);
   }
 
   public CollectionResourceClient overdueFinesPoliciesStorage() {
-    return overdueFinesPoliciesPoliciesStorageClient;
+    return referenceDataClient("/overdue-fines-policies", OVERDUE_FINE_POLICIES);
   }
 
   public CollectionResourceClient lostItemPoliciesStorage() {
-    return lostItemPoliciesStorageClient;
+    return referenceDataClient("/lost-item-fees-policies", LOST_ITEM_POLICIES);
   }
 
   public GetManyRecordsClient fixedDueDateSchedules() {
-    return fixedDueDateSchedulesStorageClient;
+    return referenceDataClient(
+      "/fixed-due-date-schedule-storage/fixed-due-date-schedules", FIXED_DUE_DATE_SCHEDULES);
   }
 
   public CollectionResourceClient servicePointsStorage() {
-    return servicePointsStorageClient;
+    return referenceDataClient("/service-points", SERVICE_POINTS);
   }
 
   public CollectionResourceClient patronGroupsStorage() {
-    return patronGroupsStorageClient;
+    return referenceDataClient("/groups", PATRON_GROUPS);
   }
 
   public CollectionResourceClient actualCostRecordsStorage() {
-    return actualCostRecordsStorageClient;
+    return collectionResourceClient("/actual-cost-record-storage/actual-cost-records");
   }
 
   public CollectionResourceClient calendarStorageClient() {
-    return calendarStorageClient;
+    return collectionResourceClient("/calendar/periods");
   }
 
   public GetManyRecordsClient configurationStorageClient() {
-    return configurationStorageClient;
+    return collectionResourceClient("/configurations/entries");
   }
 
   public GetManyRecordsClient userProxies() {
-    return proxiesForClient;
+    return collectionResourceClient("/proxiesfor");
   }
 
   public CirculationRulesClient circulationLoanRules() {
-    return circulationLoanRulesClient;
+    return circulationRulesClient("/circulation/rules/loan-policy");
   }
 
   public CirculationRulesClient circulationOverdueFineRules() {
-    return circulationOverdueFinesRulesClient;
+    return circulationRulesClient("/circulation/rules/overdue-fine-policy");
   }
 
   public CirculationRulesClient circulationLostItemRules() {
-    return circulationLostItemRulesClient;
+    return circulationRulesClient("/circulation/rules/lost-item-policy");
   }
 
-  public CirculationRulesClient circulationRequestRules(){
-    return circulationRequestRulesClient;
+  public CirculationRulesClient circulationRequestRules() {
+    return circulationRulesClient("/circulation/rules/request-policy");
   }
 
-  public CirculationRulesClient circulationNoticeRules(){
-    return circulationNoticeRulesClient;
+  public CirculationRulesClient circulationNoticeRules() {
+    return circulationRulesClient("/circulation/rules/notice-policy");
   }
 
   public CollectionResourceClient circulationRulesStorage() {
-    return circulationRulesStorageClient;
+    return collectionResourceClient("/circulation-rules-storage");
   }
 
   public CollectionResourceClient patronNoticePolicesStorageClient() {
-    return patronNoticePolicesStorageClient;
+    return referenceDataClient(
+      "/patron-notice-policy-storage/patron-notice-policies", PATRON_NOTICE_POLICIES);
   }
 
   public CollectionResourceClient patronNoticeClient() {
-    return patronNoticeClient;
+    return collectionResourceClient("/patron-notice");
   }
 
   public CollectionResourceClient scheduledNoticesStorageClient() {
-    return scheduledNoticesStorageClient;
+    return collectionResourceClient("/scheduled-notice-storage/scheduled-notices");
   }
 
   public CollectionResourceClient accountsStorageClient() {
-    return accountsStorageClient;
+    return collectionResourceClient("/accounts");
   }
 
   public CollectionResourceClient feeFineActionsStorageClient() {
-    return feeFineActionsStorageClient;
+    return collectionResourceClient("/feefineactions");
   }
 
   public CollectionResourceClient feeFineOwnerStorageClient() {
-    return feeFineOwnerStorageClient;
+    return collectionResourceClient("/owners");
   }
 
   public CollectionResourceClient feeFineStorageClient() {
-    return feeFineStorageClient;
+    return collectionResourceClient("/feefines");
   }
 
   public CollectionResourceClient patronActionSessionsStorageClient() {
-    return patronActionSessionsStorageClient;
+    return collectionResourceClient(
+      "/patron-action-session-storage/patron-action-sessions");
   }
 
   public CollectionResourceClient patronExpiredSessionsStorageClient() {
-    return patronExpiredSessionsStorageClient;
+    return collectionResourceClient("/patron-action-session-storage");
   }
 
   public GetManyRecordsClient userManualBlocksStorageClient() {
-    return userManualBlocksStorageClient;
+    return collectionResourceClient("/manualblocks");
   }
 
   public CollectionResourceClient checkInStorageClient() {
-    return checkInStorageClient;
+    return collectionResourceClient("/check-in-storage/check-ins");
   }
 
   public CollectionResourceClient automatedPatronBlocksClient() {
-    return automatedPatronBlocksClient;
+    return collectionResourceClient("/automated-patron-blocks");
   }
 
   public CollectionResourceClient notesClient() {
-    return notesClient;
+    return collectionResourceClient("/notes");
   }
 
   public CollectionResourceClient noteTypesClient() {
-    return noteTypesClient;
-  }
-
-  public CirculationRulesProcessor circulationRulesProcessor() {
-    return circulationRulesProcessor;
-  }
-
-  public PubSubPublishingService pubSubPublishingService() {
-    return pubSubPublishingService;
-  }
-
-  public CollectionResourceClient accountsRefundClient() {
-    return accountsRefundClient;
-  }
-
-  public CollectionResourceClient accountsCancelClient() {
-    return accountsCancelClient;
+    return collectionResourceClient("/note-types");
   }
 
-  private static CollectionResourceClient getCollectionResourceClient(
-    OkapiHttpClient client, WebContext context,
-    String path)
-    throws MalformedURLException {
-
-    return new CollectionResourceClient(client, context.getOkapiBasedUrl(path));
-  }
-
-  public CollectionResourceClient noticeTemplatesClient() {
-    return noticeTemplatesClient;
-  }
-
-  private static CirculationRulesClient createCirculationLoanRulesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context,
-      "/circulation/rules/loan-policy");
-  }
-
-  private static CirculationRulesClient createCirculationOverdueFinesRulesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context,
-      "/circulation/rules/overdue-fine-policy");
-  }
-
-  private static CirculationRulesClient createCirculationLostItemRulesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context,
-      "/circulation/rules/lost-item-policy");
-  }
-
-  private static CirculationRulesClient createCirculationRequestRulesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context,
-      "/circulation/rules/request-policy");
-  }
-
-  private static CirculationRulesClient createCirculationNoticeRulesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context,
-      "/circulation/rules/notice-policy");
-  }
-
-  private static CollectionResourceClient createRequestsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/request-storage/requests");
-  }
-
-  private static CollectionResourceClient createRequestsBatchStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/request-storage-batch/requests");
-  }
-
-  private static CollectionResourceClient createCancellationReasonStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/cancellation-reason-storage/cancellation-reasons");
-  }
-
-  private static CollectionResourceClient createItemsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/item-storage/items");
-  }
-
-  private static CollectionResourceClient createHoldingsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/holdings-storage/holdings");
-  }
-
-  private static CollectionResourceClient createInstanceStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/instance-storage/instances");
-  }
-
-  private static CollectionResourceClient createUsersStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/users");
-  }
-
-  private static CollectionResourceClient createAddressTypesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/addresstypes");
-  }
-
-  private static CollectionResourceClient createLoansStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/loan-storage/loans");
-  }
-
-  private static CollectionResourceClient createAnonymizeStorageLoansClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/anonymize-storage-loans");
-  }
-
-  private static CollectionResourceClient createLocationsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/locations");
-  }
-
-  private static CollectionResourceClient createInstitutionsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/location-units/institutions");
-  }
-
-  private static CollectionResourceClient createCampusesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/location-units/campuses");
+  public String getTenantId() {
+    return tenantId;
   }
 
-  private static CollectionResourceClient createLibrariesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/location-units/libraries");
-  }
-
-  private GetManyRecordsClient createProxyUsersStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/proxiesfor");
-  }
-
-  private CollectionResourceClient createMaterialTypesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/material-types");
-  }
-
-  private CollectionResourceClient createLoanTypesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/loan-types");
-  }
-
-  private CollectionResourceClient createLoanPoliciesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/loan-policy-storage/loan-policies");
-  }
-
-  private CollectionResourceClient createOverdueFinesPoliciesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-            "/overdue-fines-policies");
-  }
-
-  private CollectionResourceClient createLostItemPoliciesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-            "/lost-item-fees-policies");
-  }
-
-  private CollectionResourceClient createRequestPoliciesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/request-policy-storage/request-policies");
-  }
-
-  private GetManyRecordsClient createFixedDueDateSchedulesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/fixed-due-date-schedule-storage/fixed-due-date-schedules");
-  }
-
-
-  private CollectionResourceClient createCirculationRulesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/circulation-rules-storage");
-  }
-
-  private CollectionResourceClient createServicePointsStorageClient(
-    OkapiHttpClient client, WebContext context)
-      throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/service-points");
-  }
-
-  private CollectionResourceClient createPatronGroupsStorageClient(
-    OkapiHttpClient client, WebContext context)
-      throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/groups");
-  }
-
-  private CollectionResourceClient createCalendarStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/calendar/periods");
-  }
-
-  private CollectionResourceClient createPatronNoticePolicesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/patron-notice-policy-storage/patron-notice-policies");
-  }
-
-  private CollectionResourceClient createPatronNoticeClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/patron-notice");
-  }
-
-  private GetManyRecordsClient createConfigurationStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/configurations/entries");
-  }
-
-  private CollectionResourceClient createScheduledNoticesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/scheduled-notice-storage/scheduled-notices");
-  }
-
-  private CollectionResourceClient createAccountsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/accounts");
-  }
-
-  private CollectionResourceClient createFeeFineActionsStorageClient(
-    OkapiHttpClient client, WebContext context)
-      throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/feefineactions");
-  }
-
-  private CollectionResourceClient createFeeFineOwnerStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/owners");
-  }
-
-  private CollectionResourceClient createFeeFineStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/feefines");
-  }
-
-
-  private CollectionResourceClient createPatronActionSessionsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
+  public synchronized CirculationRulesProcessor circulationRulesProcessor() {
+    if (circulationRulesProcessor == null) {
+      circulationRulesProcessor = new CirculationRulesProcessor(tenantId,
+        circulationRulesStorage(), locationsStorage());
+    }
 
-    return getCollectionResourceClient(client, context,
-      "/patron-action-session-storage/patron-action-sessions");
+    return circulationRulesProcessor;
   }
 
-  private CollectionResourceClient createPatronExpiredSessionsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
+  public synchronized PubSubPublishingService pubSubPublishingService() {
+    if (pubSubPublishingService == null) {
+      pubSubPublishingService = new PubSubPublishingService(context, vertxContext);
+    }
 
-    return getCollectionResourceClient(client, context,
-      "/patron-action-session-storage");
+    return pubSubPublishingService;
   }
 
-  private static GetManyRecordsClient createUserManualBlocksStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
+  public synchronized OutboxWriter outboxWriter() {
+    if (outboxWriter == null) {
+      outboxWriter = new OutboxWriter(context.getHeaders());
+    }
 
-    return getCollectionResourceClient(client, context, "/manualblocks");
+    return outboxWriter;
   }
 
-  private CollectionResourceClient createNoticeTemplatesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/templates");
+  public CollectionResourceClient accountsRefundClient() {
+    return collectionResourceClient("/accounts/%s/refund");
   }
 
-  private CollectionResourceClient createCheckInStorageClient(
-    OkapiHttpClient client, WebContext context) throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/check-in-storage/check-ins");
+  public CollectionResourceClient accountsCancelClient() {
+    return collectionResourceClient("/accounts/%s/cancel");
   }
 
-  private static CollectionResourceClient createAutomatedPatronBlocksClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/automated-patron-blocks");
+  public CollectionResourceClient noticeTemplatesClient() {
+    return collectionResourceClient("/templates");
   }
 
-  private CollectionResourceClient createNotesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/notes");
+  private CollectionResourceClient collectionResourceClient(String path) {
+    return created(path, () -> new CollectionResourceClient(client, okapiUrls.url(path)));
   }
 
-  private CollectionResourceClient createNoteTypesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
+  private CollectionResourceClient referenceDataClient(String path, ReferenceDataType type) {
+    final var cache = ReferenceDataCache.getInstance();
 
-    return getCollectionResourceClient(client, context, "/note-types");
-  }
+    if (!cache.isEnabled(type)) {
+      return collectionResourceClient(path);
+    }
 
-  private PubSubPublishingService createPubSubPublishingService(WebContext context) {
-    return new PubSubPublishingService(context);
+    return created(path, () -> new CollectionResourceClient(
+      new CachingOkapiHttpClient(client, cache, tenantId, type), okapiUrls.url(path)));
   }
 
-  private CollectionResourceClient createAccountsRefundClient(
-    OkapiHttpClient client, WebContext context) throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/accounts/%s/refund");
+  private CirculationRulesClient circulationRulesClient(String path) {
+    return created(path, () -> new CirculationRulesClient(client, okapiUrls.url(path)));
   }
 
-  private CollectionResourceClient createAccountsCancelClient(
-    OkapiHttpClient client, WebContext context) throws MalformedURLException {
+  /**
+   * Clients are created when first used, as a request usually needs only a few of them
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T created(String path, Supplier<T> creator) {
+    final Object existing = createdClients.get(path);
 
-    return getCollectionResourceClient(client, context, "/accounts/%s/cancel");
-  }
-
-  private CollectionResourceClient createActualCostRecordClient(
-    OkapiHttpClient client, WebContext context) throws MalformedURLException {
+    if (existing != null) {
+      return (T) existing;
+    }
 
-    return getCollectionResourceClient(client, context, "/actual-cost-record-storage/actual-cost-records");
+    return (T) createdClients.computeIfAbsent(path, key -> creator.get());
   }
 }
@@ -7,6 +7,7 @@ import static org.folio.circulation.support.http.client.Offset.noOffset;
 import java.net.URL;
 import java.util.concurrent.CompletableFuture;
 
+import org.folio.circulation.support.fetching.QuerySlots;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.http.client.Offset;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
@@ -19,12 +20,22 @@ import io.vertx.core.json.JsonObject;
 public class CollectionResourceClient implements GetManyRecordsClient {
   private final OkapiHttpClient client;
   private final URL collectionRoot;
+  private final QuerySlots querySlots = QuerySlots.withDefaultLimit();
 
   public CollectionResourceClient(OkapiHttpClient client, URL collectionRoot) {
     this.collectionRoot = collectionRoot;
     this.client = client;
   }
 
+  public URL getCollectionRoot() {
+    return collectionRoot;
+  }
+
+  @Override
+  public QuerySlots getQuerySlots() {
+    return querySlots;
+  }
+
   public CompletableFuture<Result<Response>> post(JsonObject representation, Object... pathVariables) {
     final String url = format(collectionRoot.toString(), pathVariables);
     return client.post(url, representation);
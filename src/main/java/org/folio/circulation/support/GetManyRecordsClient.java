@@ -2,6 +2,7 @@ package org.folio.circulation.support;
 
 import java.util.concurrent.CompletableFuture;
 
+import org.folio.circulation.support.fetching.QuerySlots;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.http.client.Offset;
 import org.folio.circulation.support.http.client.PageLimit;
@@ -14,4 +15,12 @@ public interface GetManyRecordsClient {
 
     CompletableFuture<Result<Response>> getMany(CqlQuery cqlQuery,
       PageLimit pageLimit, Offset offset);
+
+    /**
+     * @return limits the queries for many values sent at the same time using this
+     * client, null if the lookups are not limited together
+     */
+    default QuerySlots getQuerySlots() {
+      return null;
+    }
 }
@@ -0,0 +1,64 @@
+package org.folio.circulation.support;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * URLs of the interfaces of other modules made from the Okapi URL of a request.
+ * The Okapi URL is usually the same for all requests of a tenant, so it is only
+ * parsed the first time and the (immutable) URLs are shared by the requests.
+ */
+final class OkapiUrls {
+  private static final int MAXIMUM_OKAPI_LOCATIONS = 100;
+  private static final Map<String, OkapiUrls> okapiLocations = new ConcurrentHashMap<>();
+
+  private final URL okapiUrl;
+  private final Map<String, URL> urls = new ConcurrentHashMap<>();
+
+  private OkapiUrls(URL okapiUrl) {
+    this.okapiUrl = okapiUrl;
+  }
+
+  static OkapiUrls forLocation(String okapiLocation) {
+    final OkapiUrls existing = okapiLocation == null
+      ? null
+      : okapiLocations.get(okapiLocation);
+
+    if (existing != null) {
+      return existing;
+    }
+
+    final OkapiUrls parsed;
+
+    try {
+      parsed = new OkapiUrls(new URL(okapiLocation));
+    }
+    catch (MalformedURLException e) {
+      throw new InvalidOkapiLocationException(okapiLocation, e);
+    }
+
+    // the location comes from a request header, do not keep too many of them
+    if (okapiLocations.size() >= MAXIMUM_OKAPI_LOCATIONS) {
+      okapiLocations.clear();
+    }
+
+    final OkapiUrls raced = okapiLocations.putIfAbsent(okapiLocation, parsed);
+
+    return raced != null ? raced : parsed;
+  }
+
+  URL url(String path) {
+    return urls.computeIfAbsent(path, this::resolve);
+  }
+
+  private URL resolve(String path) {
+    try {
+      return new URL(okapiUrl.getProtocol(), okapiUrl.getHost(), okapiUrl.getPort(), path);
+    }
+    catch (MalformedURLException e) {
+      throw new InvalidOkapiLocationException(okapiUrl.toString(), e);
+    }
+  }
+}
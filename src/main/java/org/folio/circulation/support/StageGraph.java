@@ -0,0 +1,207 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.folio.circulation.support.results.Result;
+
+/**
+ * Runs stages that each use and add to an immutable context, starting each
+ * stage as soon as the stages it depends upon have completed, so that
+ * independent stages run at the same time.
+ * <p>
+ * A stage is given the context once its dependencies have been added, and
+ * must only use what they added. What a stage produces is combined with the
+ * context as it is when the stage completes, so stages that run at the same
+ * time should only change different parts of the context.
+ * <p>
+ * Once a stage fails, only stages declared before it are still started. When
+ * the stages running have completed, the graph fails with the failure of the
+ * stage declared first. This is the failure the stages would have failed with
+ * when run one after the other in the order they are declared, whichever
+ * stage completes first. Stages are only given dependencies declared before
+ * them, so the graph cannot have cycles.
+ */
+public class StageGraph<C> {
+  private final List<Stage<C>> stages = new ArrayList<>();
+
+  /**
+   * Adds a stage that produces a value, which is combined with the context
+   */
+  public <V> Stage<C> stage(String name, List<Stage<C>> dependencies,
+    Function<C, CompletableFuture<Result<V>>> action, BiFunction<C, V, C> combiner) {
+
+    return add(new Stage<>(name, dependencies, context -> action.apply(context)
+      .thenApply(r -> r.map(value -> current -> combiner.apply(current, value)))));
+  }
+
+  /**
+   * Adds a stage that only checks the context, or has side effects, and does not change it
+   */
+  public Stage<C> check(String name, List<Stage<C>> dependencies,
+    Function<C, Result<?>> check) {
+
+    return add(new Stage<>(name, dependencies, context -> completedFuture(
+      check.apply(context).map(notUsed -> UnaryOperator.identity()))));
+  }
+
+  /**
+   * Runs all stages, starting with those without dependencies
+   *
+   * @return the context with what all stages produced, or the failure of the
+   * first stage declared that failed
+   */
+  public CompletableFuture<Result<C>> run(C initialContext) {
+    return new Execution(initialContext).start();
+  }
+
+  private Stage<C> add(Stage<C> stage) {
+    if (!stages.containsAll(stage.dependencies)) {
+      throw new IllegalArgumentException(
+        "Dependencies of stage " + stage.name + " must be added to the graph first");
+    }
+
+    stages.add(stage);
+
+    return stage;
+  }
+
+  public static final class Stage<C> {
+    private final String name;
+    private final List<Stage<C>> dependencies;
+    private final Function<C, CompletableFuture<Result<UnaryOperator<C>>>> action;
+
+    private Stage(String name, List<Stage<C>> dependencies,
+      Function<C, CompletableFuture<Result<UnaryOperator<C>>>> action) {
+
+      this.name = name;
+      this.dependencies = List.copyOf(dependencies);
+      this.action = action;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  private class Execution {
+    private final CompletableFuture<Result<C>> result = new CompletableFuture<>();
+    private final Set<Stage<C>> started = new HashSet<>();
+    private final Set<Stage<C>> completed = new HashSet<>();
+    private C context;
+    private Stage<C> firstFailedStage;
+    private Result<C> failure;
+    private int stagesRunning;
+    private boolean finished;
+
+    private Execution(C initialContext) {
+      this.context = initialContext;
+    }
+
+    CompletableFuture<Result<C>> start() {
+      startReadyStages();
+
+      return result;
+    }
+
+    private void startReadyStages() {
+      final List<Stage<C>> readyStages = new ArrayList<>();
+      final C currentContext;
+      final Result<C> outcome;
+
+      synchronized (this) {
+        if (finished) {
+          return;
+        }
+
+        for (Stage<C> stage : stagesThatCanStillStart()) {
+          if (!started.contains(stage) && completed.containsAll(stage.dependencies)) {
+            started.add(stage);
+            readyStages.add(stage);
+          }
+        }
+
+        stagesRunning += readyStages.size();
+        currentContext = context;
+
+        if (stagesRunning > 0) {
+          outcome = null;
+        }
+        else {
+          outcome = failure != null ? failure : succeeded(context);
+        }
+
+        finished = outcome != null;
+      }
+
+      if (outcome != null) {
+        result.complete(outcome);
+      }
+      else {
+        readyStages.forEach(stage -> runStage(stage, currentContext));
+      }
+    }
+
+    private List<Stage<C>> stagesThatCanStillStart() {
+      return firstFailedStage == null
+        ? stages
+        : stages.subList(0, stages.indexOf(firstFailedStage));
+    }
+
+    private void runStage(Stage<C> stage, C currentContext) {
+      CompletableFuture<Result<UnaryOperator<C>>> running;
+
+      try {
+        running = stage.action.apply(currentContext);
+      }
+      catch (Exception e) {
+        running = CompletableFuture.failedFuture(e);
+      }
+
+      running.whenComplete((stageResult, throwable) ->
+        completed(stage, stageResult, throwable));
+    }
+
+    private void completed(Stage<C> stage, Result<UnaryOperator<C>> stageResult,
+      Throwable throwable) {
+
+      synchronized (this) {
+        stagesRunning--;
+
+        if (throwable != null) {
+          failedAt(stage, failedDueToServerError(throwable));
+        }
+        else if (stageResult.failed()) {
+          failedAt(stage, failed(stageResult.cause()));
+        }
+        else {
+          context = stageResult.value().apply(context);
+          completed.add(stage);
+        }
+      }
+
+      startReadyStages();
+    }
+
+    private void failedAt(Stage<C> stage, Result<C> stageFailure) {
+      if (firstFailedStage == null
+        || stages.indexOf(stage) < stages.indexOf(firstFailedStage)) {
+
+        firstFailedStage = stage;
+        failure = stageFailure;
+      }
+    }
+  }
+}
@@ -0,0 +1,318 @@
+package org.folio.circulation.support.cache;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toCollection;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.Environment;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.results.Result;
+
+import lombok.Value;
+
+/**
+ * Responses of reference data storage shared by all requests of a tenant, so that
+ * material types, loan types, service points, policies and the like don't need
+ * to be fetched from storage for each request.
+ * <p>
+ * Only successful (200) responses are kept, except for collections without any
+ * records, so that records created recently are found. A response is used for
+ * a limited time, after that it is still used for a limited time while it is
+ * refreshed in the background (stale while revalidate). The least recently used
+ * responses are evicted when a tenant has too many.
+ */
+public final class ReferenceDataCache {
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final long STATISTICS_LOG_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+  private static final ReferenceDataCache instance = new ReferenceDataCache(
+    TimeUnit.SECONDS.toMillis(Math.max(0, Environment.getReferenceDataCacheTimeToLiveSeconds())),
+    TimeUnit.SECONDS.toMillis(Math.max(0, Environment.getReferenceDataCacheStaleSeconds())),
+    Environment.getReferenceDataCacheMaximumEntries(),
+    cachedTypes(Environment.getReferenceDataCacheTypes()),
+    System::currentTimeMillis);
+
+  private final Map<String, TenantCache> tenantCaches = new ConcurrentHashMap<>();
+  private final long timeToLiveInMilliseconds;
+  private final long staleInMilliseconds;
+  private final int maximumEntriesPerTenant;
+  private final Set<ReferenceDataType> cachedTypes;
+  private final LongSupplier currentTimeMillis;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong staleHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong refreshes = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong statisticsLoggedAt;
+
+  public static ReferenceDataCache getInstance() {
+    return instance;
+  }
+
+  ReferenceDataCache(long timeToLiveInMilliseconds, long staleInMilliseconds,
+    int maximumEntriesPerTenant, Set<ReferenceDataType> cachedTypes,
+    LongSupplier currentTimeMillis) {
+
+    this.timeToLiveInMilliseconds = timeToLiveInMilliseconds;
+    this.staleInMilliseconds = staleInMilliseconds;
+    this.maximumEntriesPerTenant = maximumEntriesPerTenant;
+    this.cachedTypes = cachedTypes;
+    this.currentTimeMillis = currentTimeMillis;
+    this.statisticsLoggedAt = new AtomicLong(currentTimeMillis.getAsLong());
+  }
+
+  /**
+   * @param type type of reference data
+   * @return whether records of this type are cached
+   */
+  public boolean isEnabled(ReferenceDataType type) {
+    return timeToLiveInMilliseconds > 0 && maximumEntriesPerTenant > 0
+      && cachedTypes.contains(type);
+  }
+
+  /**
+   * Get the response from the cache or fetch it.
+   * @param tenantId id of the tenant, the cache is not used if null
+   * @param type type of reference data requested
+   * @param key identifies the request, usually the URL including the query parameters
+   * @param fetcher makes the request to storage
+   * @return the response
+   */
+  public CompletableFuture<Result<Response>> get(String tenantId, ReferenceDataType type,
+    String key, Supplier<CompletableFuture<Result<Response>>> fetcher) {
+
+    if (tenantId == null || !isEnabled(type)) {
+      return fetcher.get();
+    }
+
+    logStatisticsPeriodically();
+
+    final TenantCache cache = tenantCaches.computeIfAbsent(tenantId,
+      id -> new TenantCache());
+    final String entryKey = type.getName() + "\n" + key;
+    final CachedResponse cached = cache.get(entryKey);
+    final long now = currentTimeMillis.getAsLong();
+
+    // each caller gets its own copy of a cached response, as they may change its JSON
+    if (cached != null && now < cached.fetchedAt + timeToLiveInMilliseconds) {
+      hits.incrementAndGet();
+      return completedFuture(succeeded(cached.response.copy()));
+    }
+
+    if (cached != null
+      && now < cached.fetchedAt + timeToLiveInMilliseconds + staleInMilliseconds) {
+
+      staleHits.incrementAndGet();
+      refresh(cache, entryKey, cached, fetcher);
+      return completedFuture(succeeded(cached.response.copy()));
+    }
+
+    misses.incrementAndGet();
+
+    final long generation = cache.getGeneration();
+
+    return fetcher.get()
+      .thenApply(result -> {
+        cache.put(entryKey, result, generation);
+        return result.map(Response::copy);
+      });
+  }
+
+  /**
+   * Forget the cached responses of this type of reference data for the tenant.
+   * @param tenantId id of the tenant
+   * @param type type of reference data
+   */
+  public void invalidate(String tenantId, ReferenceDataType type) {
+    final TenantCache cache = tenantId == null ? null : tenantCaches.get(tenantId);
+
+    if (cache != null) {
+      cache.removeAll(type.getName() + "\n");
+    }
+  }
+
+  /**
+   * Forget all cached responses of the tenant.
+   * @param tenantId id of the tenant
+   */
+  public void invalidate(String tenantId) {
+    if (tenantId != null) {
+      tenantCaches.remove(tenantId);
+    }
+  }
+
+  /**
+   * Forget the cached responses of all tenants.
+   */
+  public void dropCache() {
+    tenantCaches.clear();
+  }
+
+  public Statistics getStatistics() {
+    return new Statistics(hits.get(), staleHits.get(), misses.get(), refreshes.get(),
+      evictions.get(), tenantCaches.values().stream().mapToInt(TenantCache::size).sum());
+  }
+
+  private void refresh(TenantCache cache, String entryKey, CachedResponse cached,
+    Supplier<CompletableFuture<Result<Response>>> fetcher) {
+
+    if (!cached.refreshing.compareAndSet(false, true)) {
+      return;
+    }
+
+    refreshes.incrementAndGet();
+
+    final long generation = cache.getGeneration();
+
+    fetcher.get().whenComplete((result, throwable) -> {
+      if (throwable != null || !cache.put(entryKey, result, generation)) {
+        cached.refreshing.set(false);
+      }
+    });
+  }
+
+  private void logStatisticsPeriodically() {
+    final long now = currentTimeMillis.getAsLong();
+    final long loggedAt = statisticsLoggedAt.get();
+
+    if (now - loggedAt >= STATISTICS_LOG_INTERVAL
+      && statisticsLoggedAt.compareAndSet(loggedAt, now)) {
+
+      log.info("Reference data cache: {}", getStatistics());
+    }
+  }
+
+  static Set<ReferenceDataType> cachedTypes(String names) {
+    if (isBlank(names)) {
+      return EnumSet.noneOf(ReferenceDataType.class);
+    }
+
+    return Arrays.stream(names.split(","))
+      .map(name -> {
+        final Optional<ReferenceDataType> type = ReferenceDataType.from(name);
+
+        if (type.isEmpty()) {
+          log.warn("Unknown reference data type '{}' is not cached", name);
+        }
+
+        return type;
+      })
+      .flatMap(Optional::stream)
+      .collect(toCollection(() -> EnumSet.noneOf(ReferenceDataType.class)));
+  }
+
+  private static boolean isWorthKeeping(Response response) {
+    if (response == null || response.getStatusCode() != 200) {
+      return false;
+    }
+
+    try {
+      return response.getJson().getInteger("totalRecords", 1) > 0;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  @Value
+  public static class Statistics {
+    long hits;
+    long staleHits;
+    long misses;
+    long refreshes;
+    long evictions;
+    int entries;
+  }
+
+  private static class CachedResponse {
+    private final Response response;
+    private final long fetchedAt;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private CachedResponse(Response response, long fetchedAt) {
+      this.response = response;
+      this.fetchedAt = fetchedAt;
+    }
+  }
+
+  private class TenantCache {
+    private final Map<String, CachedResponse> responses =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+          if (size() > maximumEntriesPerTenant) {
+            evictions.incrementAndGet();
+            return true;
+          }
+
+          return false;
+        }
+      };
+
+    private long generation;
+
+    synchronized CachedResponse get(String key) {
+      return responses.get(key);
+    }
+
+    synchronized long getGeneration() {
+      return generation;
+    }
+
+    /**
+     * Keep the response unless it failed or the cache has been invalidated since
+     * the request was started, a response that is not worth keeping (not found or
+     * an empty collection) removes the response kept before.
+     * @return whether the response has been kept or removed the response kept before
+     */
+    boolean put(String key, Result<Response> result, long startedInGeneration) {
+      if (result == null || result.failed()) {
+        return false;
+      }
+
+      final boolean worthKeeping = isWorthKeeping(result.value());
+
+      synchronized (this) {
+        if (startedInGeneration != generation) {
+          return false;
+        }
+
+        if (worthKeeping) {
+          responses.put(key, new CachedResponse(result.value(), currentTimeMillis.getAsLong()));
+        } else {
+          responses.remove(key);
+        }
+
+        return true;
+      }
+    }
+
+    synchronized void removeAll(String keyPrefix) {
+      generation++;
+      responses.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    synchronized int size() {
+      return responses.size();
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package org.folio.circulation.support.cache;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Types of reference data whose records can be kept in the {@link ReferenceDataCache},
+ * the name is used to choose the cached types in the configuration.
+ */
+@AllArgsConstructor
+public enum ReferenceDataType {
+  MATERIAL_TYPES("material-types"),
+  LOAN_TYPES("loan-types"),
+  LOCATIONS("locations"),
+  LIBRARIES("libraries"),
+  CAMPUSES("campuses"),
+  INSTITUTIONS("institutions"),
+  SERVICE_POINTS("service-points"),
+  PATRON_GROUPS("patron-groups"),
+  ADDRESS_TYPES("address-types"),
+  CANCELLATION_REASONS("cancellation-reasons"),
+  LOAN_POLICIES("loan-policies"),
+  REQUEST_POLICIES("request-policies"),
+  PATRON_NOTICE_POLICIES("patron-notice-policies"),
+  OVERDUE_FINE_POLICIES("overdue-fine-policies"),
+  LOST_ITEM_POLICIES("lost-item-policies"),
+  FIXED_DUE_DATE_SCHEDULES("fixed-due-date-schedules");
+
+  @Getter
+  private final String name;
+
+  public static Optional<ReferenceDataType> from(String name) {
+    return Arrays.stream(values())
+      .filter(type -> type.getName().equalsIgnoreCase(name.trim()))
+      .findFirst();
+  }
+}
@@ -0,0 +1,129 @@
+package org.folio.circulation.support.fetching;
+
+import static org.folio.circulation.support.json.JsonPropertyFetcher.getProperty;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.Environment;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Loads single records by ID for a request. The IDs asked for while the same
+ * event loop task is running are fetched together by ID queries, after that task.
+ * <p>
+ * Each caller gets its own copy of the record, or null when it is not found.
+ * IDs that are not UUIDs, and IDs asked for outside of a Vert.x context,
+ * are fetched on their own.
+ */
+public class BatchingRecordLoader {
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final boolean ENABLED = Environment.getBatchedRecordLookupsEnabled();
+
+  private static final Pattern UUID_PATTERN = Pattern.compile(
+    "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
+  private final String recordType;
+  private final FindWithMultipleCqlIndexValues<JsonObject> finder;
+  private final Function<String, CompletableFuture<Result<JsonObject>>> singleRecordFetcher;
+  private final boolean enabled;
+
+  private Map<String, List<CompletableFuture<Result<JsonObject>>>> pending =
+    new LinkedHashMap<>();
+
+  public BatchingRecordLoader(String recordType,
+    FindWithMultipleCqlIndexValues<JsonObject> finder,
+    Function<String, CompletableFuture<Result<JsonObject>>> singleRecordFetcher) {
+
+    this(recordType, finder, singleRecordFetcher, ENABLED);
+  }
+
+  BatchingRecordLoader(String recordType,
+    FindWithMultipleCqlIndexValues<JsonObject> finder,
+    Function<String, CompletableFuture<Result<JsonObject>>> singleRecordFetcher,
+    boolean enabled) {
+
+    this.recordType = recordType;
+    this.finder = finder;
+    this.singleRecordFetcher = singleRecordFetcher;
+    this.enabled = enabled;
+  }
+
+  public CompletableFuture<Result<JsonObject>> load(String id) {
+    final Context context = Vertx.currentContext();
+
+    if (!enabled || context == null || id == null || !UUID_PATTERN.matcher(id).matches()) {
+      return singleRecordFetcher.apply(id);
+    }
+
+    final var future = new CompletableFuture<Result<JsonObject>>();
+    final boolean firstOfBatch;
+
+    synchronized (this) {
+      firstOfBatch = pending.isEmpty();
+      pending.computeIfAbsent(normalise(id), key -> new ArrayList<>()).add(future);
+    }
+
+    if (firstOfBatch) {
+      context.runOnContext(notUsed -> fetchBatch());
+    }
+
+    return future;
+  }
+
+  private void fetchBatch() {
+    final Map<String, List<CompletableFuture<Result<JsonObject>>>> batch;
+
+    synchronized (this) {
+      batch = pending;
+      pending = new LinkedHashMap<>();
+    }
+
+    log.debug("Fetching {} {} records in one batch", batch.size(), recordType);
+
+    finder.findByIds(batch.keySet())
+      .whenComplete((result, throwable) -> {
+        final Result<Map<String, JsonObject>> recordsById = throwable != null
+          ? failedDueToServerError(throwable)
+          : result.map(this::byId);
+
+        batch.forEach((id, callers) ->
+          complete(callers, recordsById.map(records -> records.get(id))));
+      });
+  }
+
+  private Map<String, JsonObject> byId(MultipleRecords<JsonObject> records) {
+    return records.toMap(record -> normalise(getProperty(record, "id")));
+  }
+
+  private static void complete(List<CompletableFuture<Result<JsonObject>>> callers,
+    Result<JsonObject> result) {
+
+    callers.get(0).complete(result);
+
+    // Other callers need a copy because JsonObject is mutable
+    callers.stream().skip(1).forEach(caller -> caller.complete(
+      result.map(record -> record == null ? null : record.copy())));
+  }
+
+  private static String normalise(String id) {
+    return id == null ? null : id.toLowerCase(Locale.ROOT);
+  }
+}
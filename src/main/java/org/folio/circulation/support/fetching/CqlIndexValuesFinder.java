@@ -1,20 +1,28 @@
 package org.folio.circulation.support.fetching;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.concurrent.CompletableFuture.completedFuture;
-import static java.util.stream.Collectors.collectingAndThen;
-import static org.apache.commons.collections4.ListUtils.partition;
-import static org.folio.circulation.domain.MultipleRecords.empty;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
 import static org.folio.circulation.support.results.Result.of;
+import static org.folio.circulation.support.results.Result.succeeded;
 import static org.folio.circulation.support.fetching.MultipleCqlIndexValuesCriteria.byId;
 import static org.folio.circulation.support.fetching.MultipleCqlIndexValuesCriteria.byIndex;
 import static org.folio.circulation.support.http.client.PageLimit.maximumLimit;
 
+import java.lang.invoke.MethodHandles;
+import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.support.FindWithCqlQuery;
 import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
@@ -23,23 +31,82 @@ import org.folio.circulation.support.http.client.CqlQuery;
 
 import lombok.val;
 
+/**
+ * Finds records by many index values, using several partition queries when
+ * the values do not fit in one query.
+ * <p>
+ * A partition query has at most the maximum number of values and its encoded
+ * length stays below the maximum (estimated, erring on the long side), so that
+ * long values (e.g. barcodes) do not make the URL too long. Only a limited number
+ * of partition queries are sent at the same time, the limit is shared by the
+ * lookups of the finders given the same {@link QuerySlots}. The records found
+ * are combined in the order of the partitions.
+ */
 public class CqlIndexValuesFinder<T> implements FindWithMultipleCqlIndexValues<T> {
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+
   private static final int DEFAULT_MAX_ID_VALUES_PER_CQL_SEARCH_QUERY = 50;
+  private static final int DEFAULT_MAX_ENCODED_QUERY_LENGTH = 3500;
+
+  // Encoded quotes around a value and the longest separator between values (" and ")
+  private static final int ENCODED_VALUE_OVERHEAD = 11;
+  // Encoded operator, parentheses and the " and " before an additional query
+  private static final int ENCODED_QUERY_OVERHEAD = 20;
+
+  private static final CqlIndexValuesFinderMetrics metrics = new CqlIndexValuesFinderMetrics();
 
   private final FindWithCqlQuery<T> cqlFinder;
   private final int maxValuesPerCqlSearchQuery;
+  private final int maxEncodedQueryLength;
+  private final QuerySlots querySlots;
+  private final LongSupplier nanoTime;
 
-  public CqlIndexValuesFinder(FindWithCqlQuery<T> cqlFinder,
-    int maxValuesPerCqlSearchQuery) {
+  CqlIndexValuesFinder(FindWithCqlQuery<T> cqlFinder, int maxValuesPerCqlSearchQuery,
+    int maxEncodedQueryLength, QuerySlots querySlots, LongSupplier nanoTime) {
 
     this.cqlFinder = cqlFinder;
     this.maxValuesPerCqlSearchQuery = maxValuesPerCqlSearchQuery;
+    this.maxEncodedQueryLength = maxEncodedQueryLength;
+    this.querySlots = querySlots == null ? QuerySlots.withDefaultLimit() : querySlots;
+    this.nanoTime = nanoTime;
+  }
+
+  public CqlIndexValuesFinder(FindWithCqlQuery<T> cqlFinder,
+    int maxValuesPerCqlSearchQuery, int maxEncodedQueryLength,
+    int maxConcurrentQueries) {
+
+    this(cqlFinder, maxValuesPerCqlSearchQuery, maxEncodedQueryLength,
+      new QuerySlots(maxConcurrentQueries), System::nanoTime);
+  }
+
+  public CqlIndexValuesFinder(FindWithCqlQuery<T> cqlFinder,
+    int maxValuesPerCqlSearchQuery) {
+
+    this(cqlFinder, maxValuesPerCqlSearchQuery, DEFAULT_MAX_ENCODED_QUERY_LENGTH,
+      QuerySlots.withDefaultLimit(), System::nanoTime);
   }
 
   public CqlIndexValuesFinder(FindWithCqlQuery<T> cqlFinder) {
     this(cqlFinder, DEFAULT_MAX_ID_VALUES_PER_CQL_SEARCH_QUERY);
   }
 
+  /**
+   * @param cqlFinder sends the partition queries
+   * @param querySlots limits the partition queries sent at the same time, shared
+   * with other finders, a limit of its own is used if null
+   */
+  public CqlIndexValuesFinder(FindWithCqlQuery<T> cqlFinder, QuerySlots querySlots) {
+    this(cqlFinder, DEFAULT_MAX_ID_VALUES_PER_CQL_SEARCH_QUERY,
+      DEFAULT_MAX_ENCODED_QUERY_LENGTH, querySlots, System::nanoTime);
+  }
+
+  /**
+   * @return statistics of the lookups of all finders
+   */
+  public static CqlIndexValuesFinderMetrics getMetrics() {
+    return metrics;
+  }
+
   @Override
   public CompletableFuture<Result<MultipleRecords<T>>> findByIds(
     Collection<String> ids) {
@@ -70,40 +137,186 @@ public class CqlIndexValuesFinder<T> implements FindWithMultipleCqlIndexValues<T
   private CompletableFuture<Result<MultipleRecords<T>>> findByBatchQueriesAndQuery(
     List<Result<CqlQuery>> queries, Result<CqlQuery> andQuery) {
 
-    return findByBatchQueries(queries.stream().map(query ->
+    return new PartitionedLookup(queries.stream().map(query ->
       query.combine(andQuery, CqlQuery::and))
-      .collect(Collectors.toList()));
+      .collect(Collectors.toList()))
+      .find();
   }
 
   private List<Result<CqlQuery>> buildBatchQueriesByIndexName(MultipleCqlIndexValuesCriteria criteria) {
     val indexName = criteria.getIndexName();
     val indexOperator = criteria.getIndexOperator();
-    val values = criteria.getValues();
 
-    return partition(new ArrayList<>(values), maxValuesPerCqlSearchQuery)
+    return partition(criteria)
       .stream()
-      .map(partitionedIds -> indexOperator.apply(indexName, partitionedIds))
+      .map(partitionedValues -> indexOperator.apply(indexName, partitionedValues))
       .collect(Collectors.toList());
   }
 
-  private CompletableFuture<Result<MultipleRecords<T>>> findByBatchQueries(
-    List<Result<CqlQuery>> queries) {
+  private List<List<String>> partition(MultipleCqlIndexValuesCriteria criteria) {
+    final int maxValuesLength = maxEncodedQueryLength - ENCODED_QUERY_OVERHEAD
+      - encodedLength(criteria.getIndexName())
+      - criteria.getAndQuery().map(CqlQuery::encodedLength).orElse(0);
 
-    // NOTE: query limit is max value to ensure all records are returned
-    List<CompletableFuture<Result<MultipleRecords<T>>>> results = queries.stream()
-      .map(query -> cqlFinder.findByQuery(query, maximumLimit()))
-      .collect(Collectors.toList());
+    final List<List<String>> partitions = new ArrayList<>();
+    List<String> partition = new ArrayList<>();
+    int partitionLength = 0;
+
+    for (String value : new LinkedHashSet<>(criteria.getValues())) {
+      final int valueLength = encodedLength(value) + ENCODED_VALUE_OVERHEAD;
+
+      if (!partition.isEmpty() && (partition.size() >= maxValuesPerCqlSearchQuery
+        || partitionLength + valueLength > maxValuesLength)) {
+
+        partitions.add(partition);
+        partition = new ArrayList<>();
+        partitionLength = 0;
+      }
 
-    return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
-      .thenApply(notUsed -> results.stream()
-        .map(CompletableFuture::join)
-        .collect(collectingAndThen(Collectors.toList(), this::aggregate)));
+      partition.add(value);
+      partitionLength += valueLength;
+    }
+
+    partitions.add(partition);
+
+    return partitions;
   }
 
-  private Result<MultipleRecords<T>> aggregate(
-    List<Result<MultipleRecords<T>>> results) {
+  private static int encodedLength(String value) {
+    return value == null ? 0 : URLEncoder.encode(value, UTF_8).length();
+  }
+
+  /**
+   * Queues the partition queries of one lookup, stops sending them once one has
+   * failed and combines the records found when all have completed.
+   */
+  private class PartitionedLookup {
+    private final List<Result<CqlQuery>> queries;
+    private final List<MultipleRecords<T>> partitions;
+    private final CompletableFuture<Result<MultipleRecords<T>>> result =
+      new CompletableFuture<>();
+
+    private int completedQueries;
+    private int waitingQueries;
+    private long waitStartedAt;
+    private long slotWaitNanos;
+    private boolean finished;
+
+    private PartitionedLookup(List<Result<CqlQuery>> queries) {
+      this.queries = queries;
+      this.partitions = new ArrayList<>(Collections.nCopies(queries.size(), null));
+    }
+
+    CompletableFuture<Result<MultipleRecords<T>>> find() {
+      metrics.recordLookup(queries.size());
+
+      synchronized (this) {
+        waitingQueries = queries.size();
+        waitStartedAt = nanoTime.getAsLong();
+      }
+
+      for (int index = 0; index < queries.size(); index++) {
+        final int partition = index;
+
+        querySlots.queue(() -> send(partition));
+      }
+
+      return result;
+    }
+
+    private void send(int partition) {
+      if (!started()) {
+        querySlots.release();
+        return;
+      }
+
+      // NOTE: query limit is max value to ensure all records are returned
+      cqlFinder.findByQuery(queries.get(partition), maximumLimit())
+        .whenComplete((records, throwable) -> {
+          completed(partition, records, throwable);
+          querySlots.release();
+        });
+    }
+
+    /**
+     * The slot wait is the time from the start of the lookup until its last query
+     * was sent, so it is the time the lookup was held up by the limit, not the sum
+     * of the time every queued query has been waiting
+     *
+     * @return whether the query should be sent, false once the lookup has failed
+     */
+    private synchronized boolean started() {
+      if (finished) {
+        return false;
+      }
+
+      waitingQueries--;
+
+      if (waitingQueries == 0) {
+        slotWaitNanos = nanoTime.getAsLong() - waitStartedAt;
+        metrics.recordSlotWait(slotWaitNanos);
+      }
+
+      return true;
+    }
 
-    return Result.combineAll(results)
-      .map(records -> records.stream().reduce(empty(), MultipleRecords::combine));
+    private void completed(int partition, Result<MultipleRecords<T>> records,
+      Throwable throwable) {
+
+      final Result<MultipleRecords<T>> outcome;
+
+      synchronized (this) {
+        if (finished) {
+          return;
+        }
+
+        if (throwable != null) {
+          outcome = failedDueToServerError(throwable);
+        }
+        else if (records.failed()) {
+          outcome = records;
+        }
+        else {
+          outcome = combine(partition, records.value());
+        }
+
+        finished = outcome != null;
+      }
+
+      if (outcome != null) {
+        result.complete(outcome);
+      }
+    }
+
+    /**
+     * @return the records of all partitions, in the order of the partitions, once all
+     * have completed, otherwise null
+     */
+    private Result<MultipleRecords<T>> combine(int partition, MultipleRecords<T> records) {
+      partitions.set(partition, records);
+      completedQueries++;
+
+      if (completedQueries < queries.size()) {
+        return null;
+      }
+
+      final List<T> allRecords = new ArrayList<>();
+      int totalRecords = 0;
+
+      for (MultipleRecords<T> partitionRecords : partitions) {
+        allRecords.addAll(partitionRecords.getRecords());
+
+        totalRecords += partitionRecords.getTotalRecords() == null
+          ? partitionRecords.size()
+          : partitionRecords.getTotalRecords();
+      }
+
+      if (queries.size() > 1) {
+        log.info("Found {} records using {} partition queries, waited {} ms for a free slot",
+          allRecords.size(), queries.size(), NANOSECONDS.toMillis(slotWaitNanos));
+      }
+
+      return succeeded(new MultipleRecords<>(allRecords, totalRecords));
+    }
   }
 }
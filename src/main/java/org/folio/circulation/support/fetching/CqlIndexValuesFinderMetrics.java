@@ -0,0 +1,58 @@
+package org.folio.circulation.support.fetching;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of finding records by many index values, which are split into
+ * several partition queries of which only a limited number are sent at the same time.
+ * <p>
+ * The slot wait time is how long a lookup waited until all its partition queries
+ * had been sent, because other queries using the same client were in flight.
+ */
+public class CqlIndexValuesFinderMetrics {
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder partitions = new LongAdder();
+  private final AtomicLong maxPartitions = new AtomicLong();
+  private final LongAdder totalSlotWaitNanos = new LongAdder();
+  private final AtomicLong maxSlotWaitNanos = new AtomicLong();
+
+  void recordLookup(int partitionsOfLookup) {
+    lookups.increment();
+    partitions.add(partitionsOfLookup);
+    maxPartitions.accumulateAndGet(partitionsOfLookup, Math::max);
+  }
+
+  void recordSlotWait(long waitNanos) {
+    totalSlotWaitNanos.add(waitNanos);
+    maxSlotWaitNanos.accumulateAndGet(waitNanos, Math::max);
+  }
+
+  public long getLookups() {
+    return lookups.sum();
+  }
+
+  public long getPartitions() {
+    return partitions.sum();
+  }
+
+  public long getMaxPartitions() {
+    return maxPartitions.get();
+  }
+
+  public long getTotalSlotWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(totalSlotWaitNanos.sum());
+  }
+
+  public long getMaxSlotWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxSlotWaitNanos.get());
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d lookups, %d partition queries (max %d per lookup), " +
+      "waited %d ms for a free slot (max %d ms)", getLookups(), getPartitions(),
+      getMaxPartitions(), getTotalSlotWaitMillis(), getMaxSlotWaitMillis());
+  }
+}
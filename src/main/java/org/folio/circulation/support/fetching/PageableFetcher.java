@@ -1,14 +1,26 @@
 package org.folio.circulation.support.fetching;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.CqlSortBy.ascending;
+import static org.folio.circulation.support.CqlSortBy.none;
+import static org.folio.circulation.support.http.client.CqlQuery.greaterThan;
 import static org.folio.circulation.support.http.client.Offset.zeroOffset;
 import static org.folio.circulation.support.http.client.PageLimit.limit;
 import static org.folio.circulation.support.results.Result.failed;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import static org.folio.circulation.support.results.Result.ofAsync;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.support.ServerErrorFailure;
 import org.folio.circulation.support.http.client.CqlQuery;
@@ -17,7 +29,19 @@ import org.folio.circulation.support.http.client.PageLimit;
 import org.folio.circulation.support.results.Result;
 
 import lombok.AllArgsConstructor;
-
+import lombok.With;
+
+/**
+ * Fetches records page by page and hands each page to a processor, in order.
+ * <p>
+ * By default the next page is fetched once the previous one has been processed.
+ * With pages to prefetch, that many further pages are fetched whilst a page is
+ * being processed (up to the total number of records, when known).
+ * <p>
+ * By default pages are fetched by offset. With keyset pagination records are
+ * sorted by ID and each page asks for the records after the last ID of the
+ * previous page, so storage does not need to skip past earlier records.
+ */
 @AllArgsConstructor
 public final class PageableFetcher<T> {
   private static final Logger log = LogManager.getLogger(PageableFetcher.class);
@@ -25,42 +49,183 @@ public final class PageableFetcher<T> {
   // This limit needed to prevent stack overflow for recursive fetch
   private static final int DEFAULT_MAX_ALLOWED_RECORDS_LIMIT = 1_000_000;
   private static final PageLimit DEFAULT_PAGE_SIZE_LIMIT = limit(500);
+  private static final String ID_INDEX = "id";
 
   private final GetManyRecordsRepository<T> repository;
   private final PageLimit pageSize;
   private final int maxAllowedRecordsToFetchLimit;
+  @With
+  private final int pagesToPrefetch;
+  private final Function<T, String> keysetRecordId;
 
   public PageableFetcher(GetManyRecordsRepository<T> repository) {
     this(repository, DEFAULT_PAGE_SIZE_LIMIT, DEFAULT_MAX_ALLOWED_RECORDS_LIMIT);
   }
 
+  public PageableFetcher(GetManyRecordsRepository<T> repository, PageLimit pageSize,
+    int maxAllowedRecordsToFetchLimit) {
+
+    this(repository, pageSize, maxAllowedRecordsToFetchLimit, 0, null);
+  }
+
+  /**
+   * @param recordId the ID of a record, which must be the value of the ID index
+   * @return a fetcher that uses keyset pagination instead of offsets, any sort
+   * of the query is replaced by sorting by ID
+   */
+  public PageableFetcher<T> withKeysetPagination(Function<T, String> recordId) {
+    return new PageableFetcher<>(repository, pageSize, maxAllowedRecordsToFetchLimit,
+      pagesToPrefetch, recordId);
+  }
+
   public CompletableFuture<Result<Void>> processPages(CqlQuery query, PageProcessor<T> pageProcessor) {
-    return processPagesRecursively(query, pageProcessor, zeroOffset(), 0);
+    return new PagesProcessing(query, pageProcessor, maxAllowedRecordsToFetchLimit,
+      this::itemCountLimitHasBeenReached)
+      .processPagesRecursively(0);
   }
 
-  private CompletableFuture<Result<Void>> processPagesRecursively(CqlQuery query,
-    PageProcessor<T> pageProcessor, Offset currentOffset, int recordsFetchedOnPreviousIteration) {
-
-    return repository.getMany(query, pageSize, currentOffset)
-      .thenCompose(r -> r.after(records -> pageProcessor.processPage(records)
-          .thenCompose(processResult -> processResult.after(unused -> {
-            final int recordsFetchedSoFar = recordsFetchedOnPreviousIteration + records.size();
-
-            if (hasFetchedAllPages(records)) {
-              log.info("All pages have been fetched, total records fetched {}", recordsFetchedSoFar);
-
-              return completedFuture(processResult);
-            } else if (hasReachedRecordsLimit(recordsFetchedSoFar)) {
-              log.warn("Terminating fetching because records limit in {} has been reached",
-                maxAllowedRecordsToFetchLimit);
-
-              return itemCountLimitHasBeenReached();
-            } else {
-              final var nextOffset = currentOffset.nextPage(pageSize);
-              return processPagesRecursively(query, pageProcessor, nextOffset, recordsFetchedSoFar);
-            }
-          }))
-      ));
+  /**
+   * Fetches the records page by page until all have been fetched or there are
+   * at least the maximum number of records, of which only the maximum are returned.
+   * The total number of records is the total of the first page, so it is the number
+   * of records that match the query, even when fewer have been fetched
+   */
+  public CompletableFuture<Result<MultipleRecords<T>>> fetchRecords(CqlQuery query,
+    int maximumRecords) {
+
+    final List<T> records = new ArrayList<>();
+    final AtomicReference<Integer> totalRecords = new AtomicReference<>();
+
+    final PageProcessor<T> collectRecords = page -> {
+      if (records.isEmpty()) {
+        totalRecords.compareAndSet(null, page.getTotalRecords());
+      }
+
+      records.addAll(page.getRecords());
+
+      return ofAsync(() -> null);
+    };
+
+    return new PagesProcessing(query, collectRecords, maximumRecords, () -> ofAsync(() -> null))
+      .processPagesRecursively(0)
+      .thenApply(r -> r.map(notUsed -> {
+        final List<T> fetchedRecords = records.size() > maximumRecords
+          ? records.subList(0, maximumRecords)
+          : records;
+
+        return new MultipleRecords<>(fetchedRecords,
+          Objects.requireNonNullElse(totalRecords.get(), fetchedRecords.size()));
+      }));
+  }
+
+  /**
+   * Pages requested but not yet processed, for one processing of pages
+   */
+  private class PagesProcessing {
+    private final CqlQuery query;
+    private final PageProcessor<T> pageProcessor;
+    private final int recordsLimit;
+    private final Supplier<CompletableFuture<Result<Void>>> onRecordsLimitReached;
+    private final Deque<CompletableFuture<Result<MultipleRecords<T>>>> requestedPages =
+      new ArrayDeque<>();
+    private CompletableFuture<Result<MultipleRecords<T>>> lastRequestedPage;
+    private Offset nextOffset = zeroOffset();
+    private Integer totalRecords;
+
+    private PagesProcessing(CqlQuery query, PageProcessor<T> pageProcessor,
+      int recordsLimit, Supplier<CompletableFuture<Result<Void>>> onRecordsLimitReached) {
+
+      this.query = query;
+      this.pageProcessor = pageProcessor;
+      this.recordsLimit = recordsLimit;
+      this.onRecordsLimitReached = onRecordsLimitReached;
+    }
+
+    private CompletableFuture<Result<Void>> processPagesRecursively(
+      int recordsFetchedOnPreviousIteration) {
+
+      if (requestedPages.isEmpty()) {
+        requestNextPage();
+      }
+
+      return requestedPages.poll()
+        .thenCompose(r -> r.after(records -> {
+          prefetchPages(records);
+
+          return pageProcessor.processPage(records)
+            .thenCompose(processResult -> processResult.after(unused -> {
+              final int recordsFetchedSoFar = recordsFetchedOnPreviousIteration + records.size();
+
+              if (hasFetchedAllPages(records)) {
+                log.info("All pages have been fetched, total records fetched {}", recordsFetchedSoFar);
+
+                return completedFuture(processResult);
+              } else if (recordsFetchedSoFar >= recordsLimit) {
+                log.warn("Terminating fetching because records limit in {} has been reached",
+                  recordsLimit);
+
+                return onRecordsLimitReached.get();
+              } else {
+                return processPagesRecursively(recordsFetchedSoFar);
+              }
+            }));
+        }));
+    }
+
+    private void requestNextPage() {
+      lastRequestedPage = keysetRecordId == null
+        ? repository.getMany(query, pageSize, nextOffset)
+        : requestPageAfter(lastRequestedPage);
+
+      requestedPages.add(lastRequestedPage);
+      nextOffset = nextOffset.nextPage(pageSize);
+    }
+
+    private CompletableFuture<Result<MultipleRecords<T>>> requestPageAfter(
+      CompletableFuture<Result<MultipleRecords<T>>> previousPage) {
+
+      if (previousPage == null) {
+        return repository.getMany(query.sortBy(ascending(ID_INDEX)), pageSize, zeroOffset());
+      }
+
+      return previousPage.thenCompose(r -> r.after(records -> {
+        if (hasFetchedAllPages(records)) {
+          return ofAsync(MultipleRecords::empty);
+        }
+
+        return greaterThan(ID_INDEX, lastRecordId(records))
+          .map(afterLastRecord -> query.sortBy(none())
+            .and(afterLastRecord)
+            .sortBy(ascending(ID_INDEX)))
+          .after(keysetQuery -> repository.getMany(keysetQuery, pageSize, zeroOffset()));
+      }));
+    }
+
+    private String lastRecordId(MultipleRecords<T> records) {
+      return records.getRecords().stream()
+        .reduce((first, second) -> second)
+        .map(keysetRecordId)
+        .orElse(null);
+    }
+
+    private void prefetchPages(MultipleRecords<T> latestPage) {
+      if (hasFetchedAllPages(latestPage)) {
+        return;
+      }
+
+      if (totalRecords == null) {
+        totalRecords = latestPage.getTotalRecords();
+      }
+
+      while (requestedPages.size() < pagesToPrefetch && mayHaveRecordsAt(nextOffset)) {
+        requestNextPage();
+      }
+    }
+
+    private boolean mayHaveRecordsAt(Offset offset) {
+      return offset.getOffset() < recordsLimit
+        && (totalRecords == null || offset.getOffset() < totalRecords);
+    }
   }
 
   private CompletableFuture<Result<Void>> itemCountLimitHasBeenReached() {
@@ -69,10 +234,6 @@ public final class PageableFetcher<T> {
         + " and it has been reached")));
   }
 
-  private boolean hasReachedRecordsLimit(int recordFetchedSoFar) {
-    return recordFetchedSoFar >= maxAllowedRecordsToFetchLimit;
-  }
-
   private boolean hasFetchedAllPages(MultipleRecords<T> latestPage) {
     if (latestPage.isEmpty()) {
       return true;
@@ -0,0 +1,88 @@
+package org.folio.circulation.support.fetching;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.folio.Environment;
+
+/**
+ * Limits the number of queries for many values sent at the same time, shared by
+ * all the lookups that use the same client (usually the client of one storage
+ * module for one inbound request).
+ * <p>
+ * A query that cannot be sent straight away waits until a query in flight
+ * completes, queries are sent in the order they were queued.
+ */
+public class QuerySlots {
+  private static final int DEFAULT_MAX_CONCURRENT_QUERIES =
+    Math.max(1, Environment.getCqlIndexValuesFinderMaximumConcurrentQueries());
+
+  private final int maximumInFlight;
+  private final Deque<Runnable> queued = new ArrayDeque<>();
+  private final AtomicInteger runRequests = new AtomicInteger();
+  private int inFlight;
+
+  public QuerySlots(int maximumInFlight) {
+    this.maximumInFlight = Math.max(1, maximumInFlight);
+  }
+
+  /**
+   * @return slots limited to the configured maximum number of concurrent queries
+   */
+  public static QuerySlots withDefaultLimit() {
+    return new QuerySlots(DEFAULT_MAX_CONCURRENT_QUERIES);
+  }
+
+  /**
+   * Run the query once a slot is free
+   * @param query sends the query, must call {@link #release()} once it has completed
+   */
+  void queue(Runnable query) {
+    synchronized (this) {
+      queued.add(query);
+    }
+
+    runQueued();
+  }
+
+  /**
+   * Free the slot of a query that has completed, so that the next one can be sent
+   */
+  void release() {
+    synchronized (this) {
+      inFlight--;
+    }
+
+    runQueued();
+  }
+
+  /**
+   * Queries that complete immediately release their slot while this is still
+   * running queries, so the loop runs the next ones instead of running them
+   * recursively
+   */
+  private void runQueued() {
+    if (runRequests.getAndIncrement() != 0) {
+      return;
+    }
+
+    do {
+      Runnable query;
+
+      while ((query = takeNext()) != null) {
+        query.run();
+      }
+    } while (runRequests.decrementAndGet() != 0);
+  }
+
+  private synchronized Runnable takeNext() {
+    if (inFlight >= maximumInFlight || queued.isEmpty()) {
+      return null;
+    }
+
+    inFlight++;
+
+    return queued.poll();
+  }
+}
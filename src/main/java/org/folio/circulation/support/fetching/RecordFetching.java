@@ -1,9 +1,13 @@
 package org.folio.circulation.support.fetching;
 
+import static java.util.function.Function.identity;
+
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
 import org.folio.circulation.support.GetManyRecordsClient;
+import org.folio.circulation.support.results.Result;
 
 import io.vertx.core.json.JsonObject;
 
@@ -15,7 +19,8 @@ public class RecordFetching {
       Function<JsonObject, T> recordMapper) {
 
     return new CqlIndexValuesFinder<>(
-      new CqlQueryFinder<>(client, recordsPropertyName, recordMapper));
+      new CqlQueryFinder<>(client, recordsPropertyName, recordMapper),
+      client == null ? null : client.getQuerySlots());
   }
 
   public static <T> CqlQueryFinder<T> findWithCqlQuery(
@@ -24,4 +29,13 @@ public class RecordFetching {
 
     return new CqlQueryFinder<>(client, recordsPropertyName, recordMapper);
   }
+
+  public static BatchingRecordLoader batchingRecordLoader(String recordType,
+    GetManyRecordsClient client, String recordsPropertyName,
+    Function<String, CompletableFuture<Result<JsonObject>>> singleRecordFetcher) {
+
+    return new BatchingRecordLoader(recordType,
+      findWithMultipleCqlIndexValues(client, recordsPropertyName, identity()),
+      singleRecordFetcher);
+  }
 }
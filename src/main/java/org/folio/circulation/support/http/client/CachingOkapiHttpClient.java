@@ -0,0 +1,118 @@
+package org.folio.circulation.support.http.client;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.folio.circulation.support.cache.ReferenceDataCache;
+import org.folio.circulation.support.cache.ReferenceDataType;
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Uses the {@link ReferenceDataCache} for the GET requests of a type of reference data,
+ * any POST, PUT or DELETE forgets the cached responses of that type for the tenant.
+ */
+public class CachingOkapiHttpClient implements OkapiHttpClient {
+  private final OkapiHttpClient client;
+  private final ReferenceDataCache cache;
+  private final String tenantId;
+  private final ReferenceDataType type;
+
+  public CachingOkapiHttpClient(OkapiHttpClient client, ReferenceDataCache cache,
+    String tenantId, ReferenceDataType type) {
+
+    this.client = client;
+    this.cache = cache;
+    this.tenantId = tenantId;
+    this.type = type;
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> post(URL url, JsonObject body) {
+    return write(() -> client.post(url, body));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> post(String url, JsonObject body) {
+    return write(() -> client.post(url, body));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> post(String url, JsonObject body,
+    Duration timeout) {
+
+    return write(() -> client.post(url, body, timeout));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> get(String url, Duration timeout,
+    QueryParameter... queryParameters) {
+
+    return cache.get(tenantId, type, RequestKey.of(url, queryParameters),
+      () -> client.get(url, timeout, queryParameters));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> get(URL url, QueryParameter... queryParameters) {
+    return cache.get(tenantId, type, RequestKey.of(url.toString(), queryParameters),
+      () -> client.get(url, queryParameters));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> get(String url,
+    QueryParameter... queryParameters) {
+
+    return cache.get(tenantId, type, RequestKey.of(url, queryParameters),
+      () -> client.get(url, queryParameters));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> put(URL url, JsonObject body) {
+    return write(() -> client.put(url, body));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> put(String url, JsonObject body) {
+    return write(() -> client.put(url, body));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> put(String url, JsonObject body,
+    Duration timeout) {
+
+    return write(() -> client.put(url, body, timeout));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> delete(URL url,
+    QueryParameter... queryParameters) {
+
+    return write(() -> client.delete(url, queryParameters));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> delete(String url,
+    QueryParameter... queryParameters) {
+
+    return write(() -> client.delete(url, queryParameters));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> delete(String url, Duration timeout,
+    QueryParameter... queryParameters) {
+
+    return write(() -> client.delete(url, timeout, queryParameters));
+  }
+
+  private CompletableFuture<Result<Response>> write(
+    Supplier<CompletableFuture<Result<Response>>> request) {
+
+    cache.invalidate(tenantId, type);
+
+    return request.get()
+      .whenComplete((result, throwable) -> cache.invalidate(tenantId, type));
+  }
+}
@@ -125,6 +125,13 @@ public class CqlQuery implements QueryParameter {
     return of(() -> URLEncoder.encode(sortedQuery, valueOf(UTF_8)));
   }
 
+  /**
+   * @return the length of the query once encoded for a URL
+   */
+  public int encodedLength() {
+    return URLEncoder.encode(asText(), UTF_8).length();
+  }
+
   String asText() {
     return sortBy.applyTo(query);
   }
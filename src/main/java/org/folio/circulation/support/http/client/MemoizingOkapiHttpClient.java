@@ -0,0 +1,201 @@
+package org.folio.circulation.support.http.client;
+
+import static org.folio.circulation.support.results.ResultBinding.mapResult;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Shares the responses of identical GET requests made while handling a single
+ * inbound request, concurrent identical GET requests share the request in flight.
+ * <p>
+ * Only GET requests for a single record (by ID, or with a limit of one) are shared,
+ * so that fetching many pages of records doesn't keep all of them in memory until
+ * the inbound request has been handled.
+ * <p>
+ * Any POST, PUT or DELETE forgets all responses, because a write can change
+ * the records of other paths too, for example a batch update of requests.
+ * Failed GET requests are not shared, so a later GET request tries again.
+ */
+public class MemoizingOkapiHttpClient implements OkapiHttpClient {
+  private final OkapiHttpClient client;
+  private final Map<String, CompletableFuture<Result<Response>>> responses =
+    new ConcurrentHashMap<>();
+  private final AtomicInteger getRequests = new AtomicInteger();
+  private final AtomicInteger savedGetRequests = new AtomicInteger();
+
+  public MemoizingOkapiHttpClient(OkapiHttpClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> post(URL url, JsonObject body) {
+    return write(() -> client.post(url, body));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> post(String url, JsonObject body) {
+    return write(() -> client.post(url, body));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> post(String url, JsonObject body,
+    Duration timeout) {
+
+    return write(() -> client.post(url, body, timeout));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> get(String url, Duration timeout,
+    QueryParameter... queryParameters) {
+
+    return get(url, queryParameters, () -> client.get(url, timeout, queryParameters));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> get(URL url, QueryParameter... queryParameters) {
+    return get(url.toString(), queryParameters, () -> client.get(url, queryParameters));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> get(String url,
+    QueryParameter... queryParameters) {
+
+    return get(url, queryParameters, () -> client.get(url, queryParameters));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> put(URL url, JsonObject body) {
+    return write(() -> client.put(url, body));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> put(String url, JsonObject body) {
+    return write(() -> client.put(url, body));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> put(String url, JsonObject body,
+    Duration timeout) {
+
+    return write(() -> client.put(url, body, timeout));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> delete(URL url,
+    QueryParameter... queryParameters) {
+
+    return write(() -> client.delete(url, queryParameters));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> delete(String url,
+    QueryParameter... queryParameters) {
+
+    return write(() -> client.delete(url, queryParameters));
+  }
+
+  @Override
+  public CompletableFuture<Result<Response>> delete(String url, Duration timeout,
+    QueryParameter... queryParameters) {
+
+    return write(() -> client.delete(url, timeout, queryParameters));
+  }
+
+  /**
+   * @return number of GET requests made using this client
+   */
+  public int getGetRequests() {
+    return getRequests.get();
+  }
+
+  /**
+   * @return number of GET requests that shared the response of an identical GET request
+   */
+  public int getSavedGetRequests() {
+    return savedGetRequests.get();
+  }
+
+  private CompletableFuture<Result<Response>> get(String url,
+    QueryParameter[] queryParameters, Supplier<CompletableFuture<Result<Response>>> request) {
+
+    getRequests.incrementAndGet();
+
+    if (!isForSingleRecord(url, queryParameters)) {
+      return request.get();
+    }
+
+    final String key = RequestKey.of(url, queryParameters);
+    final CompletableFuture<Result<Response>> shared = responses.get(key);
+
+    if (shared != null) {
+      savedGetRequests.incrementAndGet();
+      return forCaller(shared);
+    }
+
+    final CompletableFuture<Result<Response>> response = new CompletableFuture<>();
+    final CompletableFuture<Result<Response>> inFlight = responses.putIfAbsent(key, response);
+
+    if (inFlight != null) {
+      savedGetRequests.incrementAndGet();
+      return forCaller(inFlight);
+    }
+
+    request.get().whenComplete((result, throwable) -> {
+      if (throwable != null || result.failed()) {
+        responses.remove(key, response);
+      }
+
+      if (throwable != null) {
+        response.completeExceptionally(throwable);
+      } else {
+        response.complete(result);
+      }
+    });
+
+    return forCaller(response);
+  }
+
+  /**
+   * Each caller gets its own copy of the shared response, as they may change its JSON
+   */
+  private static CompletableFuture<Result<Response>> forCaller(
+    CompletableFuture<Result<Response>> shared) {
+
+    return shared.thenApply(mapResult(Response::copy));
+  }
+
+  private static boolean isForSingleRecord(String url, QueryParameter... queryParameters) {
+    if (url.contains("?")) {
+      return false;
+    }
+
+    final Map<String, String> parameters = new HashMap<>();
+
+    for (QueryParameter parameter : queryParameters) {
+      parameter.consume(parameters::put);
+    }
+
+    return parameters.isEmpty()
+      || ("1".equals(parameters.get("limit")) && !parameters.containsKey("offset"));
+  }
+
+  private CompletableFuture<Result<Response>> write(
+    Supplier<CompletableFuture<Result<Response>>> request) {
+
+    responses.clear();
+
+    return request.get()
+      .whenComplete((result, throwable) -> responses.clear());
+  }
+}
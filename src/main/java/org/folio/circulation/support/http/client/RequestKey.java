@@ -0,0 +1,19 @@
+package org.folio.circulation.support.http.client;
+
+/**
+ * Identifies a GET request by its URL and query parameters, for sharing or
+ * caching the response.
+ */
+final class RequestKey {
+  private RequestKey() { }
+
+  static String of(String url, QueryParameter... queryParameters) {
+    final var key = new StringBuilder(url);
+
+    for (QueryParameter parameter : queryParameters) {
+      parameter.consume((name, value) -> key.append('\n').append(name).append('=').append(value));
+    }
+
+    return key.toString();
+  }
+}
@@ -2,21 +2,32 @@ package org.folio.circulation.support.http.client;
 
 import static io.vertx.core.MultiMap.caseInsensitiveMultiMap;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.HttpResponse;
-import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.folio.circulation.support.http.ContentType;
 
+/**
+ * Response from another module, the body is kept as received and only decoded
+ * into a string or parsed as JSON when needed, at most once.
+ * <p>
+ * Every reader of a response gets the same JSON, a response that is shared by
+ * several readers is given to each of them as a {@link #copy()}.
+ */
 public class Response {
-  protected final String body;
+  private final Buffer bodyBuffer;
   private final int statusCode;
   private final String contentType;
   private final MultiMap headers;
   private final String fromUrl;
+  /** response this is a copy of, the JSON is copied from it */
+  private final Response source;
+  private volatile String body;
+  private volatile JsonObject json;
 
   public Response(int statusCode, String body, String contentType) {
     this(statusCode, body, contentType, caseInsensitiveMultiMap(), null);
@@ -25,24 +36,49 @@ public class Response {
   public Response(int statusCode, String body, String contentType,
     MultiMap headers, String fromUrl) {
 
+    this(statusCode, null, body, contentType, headers, fromUrl, null);
+  }
+
+  private Response(int statusCode, Buffer bodyBuffer, String body,
+    String contentType, MultiMap headers, String fromUrl, Response source) {
+
     this.statusCode = statusCode;
+    this.bodyBuffer = bodyBuffer;
     this.body = body;
     this.contentType = contentType;
     this.headers = headers;
     this.fromUrl = fromUrl;
+    this.source = source;
   }
 
   static Response responseFrom(String url, HttpResponse<Buffer> response) {
-    val headers = caseInsensitiveMultiMap();
+    return responseFrom(url, response.statusCode(), response.body(),
+      response.headers());
+  }
 
-    headers.addAll(response.headers());
+  static Response responseFrom(String url, int statusCode, Buffer body,
+    MultiMap headers) {
 
-    return new Response(response.statusCode(), response.bodyAsString(),
-      headers.get(ContentType.CONTENT_TYPE), headers, url);
+    // the headers of a received response are already case insensitive and not changed
+    return new Response(statusCode, body, null, headers.get(ContentType.CONTENT_TYPE),
+      headers, url, null);
+  }
+
+  /**
+   * @return the same response for another reader, with its own copy of the JSON,
+   * which is only parsed once for all copies
+   */
+  public Response copy() {
+    return new Response(statusCode, bodyBuffer, body, contentType, headers, fromUrl,
+      source == null ? this : source);
   }
 
   public boolean hasBody() {
-    return StringUtils.isNotBlank(getBody());
+    if (bodyBuffer != null) {
+      return !isBlank(bodyBuffer);
+    }
+
+    return StringUtils.isNotBlank(body);
   }
 
   public int getStatusCode() {
@@ -50,16 +86,42 @@ public class Response {
   }
 
   public String getBody() {
+    if (body == null && bodyBuffer != null) {
+      body = bodyBuffer.toString(UTF_8);
+    }
+
     return body;
   }
 
+  /**
+   * The JSON is parsed directly from the received bytes when first requested,
+   * every caller gets the same JSON
+   *
+   * @return JSON of the body, empty if there is no body
+   */
   public JsonObject getJson() {
-    if(hasBody()) {
-      return new JsonObject(getBody());
+    JsonObject parsed = json;
+
+    if (parsed == null) {
+      synchronized (this) {
+        parsed = json;
+
+        if (parsed == null) {
+          parsed = source == null ? parseJson() : source.getJson().copy();
+          json = parsed;
+        }
+      }
     }
-    else {
-      return new JsonObject();
+
+    return parsed;
+  }
+
+  public Buffer getBodyAsBuffer() {
+    if (bodyBuffer != null) {
+      return bodyBuffer;
     }
+
+    return body == null ? Buffer.buffer() : Buffer.buffer(body, UTF_8.name());
   }
 
   public String getContentType() {
@@ -74,6 +136,26 @@ public class Response {
     return fromUrl;
   }
 
+  private JsonObject parseJson() {
+    if (!hasBody()) {
+      return new JsonObject();
+    }
+
+    return bodyBuffer != null
+      ? new JsonObject(bodyBuffer)
+      : new JsonObject(body);
+  }
+
+  private static boolean isBlank(Buffer buffer) {
+    for (int index = 0; index < buffer.length(); index++) {
+      if (!Character.isWhitespace(buffer.getByte(index))) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
   @Override
   public String toString() {
     return format(
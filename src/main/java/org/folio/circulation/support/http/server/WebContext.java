@@ -90,6 +90,10 @@ public class WebContext {
       getRequestId());
   }
 
+  public void addBodyEndHandler(Runnable handler) {
+    routingContext.addBodyEndHandler(v -> handler.run());
+  }
+
   public void write(HttpResponse response) {
     response.writeTo(routingContext.response());
   }
@@ -0,0 +1,162 @@
+package org.folio.circulation.support.json;
+
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NULL;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.folio.circulation.domain.MultipleRecords;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.JacksonCodec;
+
+/**
+ * Decodes a collection of records (e.g. <code>{"loans": [...], "totalRecords": 10}</code>)
+ * record by record, each record is mapped as soon as it has been parsed, without
+ * building the JSON of the whole collection first.
+ * <p>
+ * The JSON of each record is built the same way as {@link JsonObject} does,
+ * entries that are not objects are skipped, like in
+ * {@link JsonObjectArrayPropertyFetcher}
+ */
+public class JsonRecordsDecoder {
+  private static final String TOTAL_RECORDS_PROPERTY_NAME = "totalRecords";
+
+  private JsonRecordsDecoder() { }
+
+  public static <T> MultipleRecords<T> decode(Buffer body,
+    String recordsPropertyName, Function<JsonObject, T> mapper) {
+
+    try (JsonParser parser = JacksonCodec.createParser(body)) {
+      return decode(parser, recordsPropertyName, mapper);
+    }
+    catch (IOException e) {
+      throw new DecodeException(e.getMessage(), e);
+    }
+  }
+
+  private static <T> MultipleRecords<T> decode(JsonParser parser,
+    String recordsPropertyName, Function<JsonObject, T> mapper) throws IOException {
+
+    final List<T> records = new ArrayList<>();
+    Integer totalRecords = null;
+
+    final JsonToken firstToken = parser.nextToken();
+
+    if (firstToken == null) {
+      return new MultipleRecords<>(records, null);
+    }
+
+    if (firstToken != START_OBJECT) {
+      throw new DecodeException("Collection of records must be a JSON object");
+    }
+
+    String propertyName;
+
+    while ((propertyName = parser.nextFieldName()) != null) {
+      final JsonToken token = parser.nextToken();
+
+      if (token == VALUE_NULL) {
+        continue;
+      }
+
+      if (propertyName.equals(recordsPropertyName)) {
+        if (token != START_ARRAY) {
+          throw new DecodeException(
+            "Property \"" + recordsPropertyName + "\" must be an array");
+        }
+
+        records.clear();
+        decodeRecords(parser, records, mapper);
+      }
+      else if (propertyName.equals(TOTAL_RECORDS_PROPERTY_NAME)) {
+        if (!token.isNumeric()) {
+          throw new DecodeException(
+            "Property \"" + TOTAL_RECORDS_PROPERTY_NAME + "\" must be a number");
+        }
+
+        totalRecords = parser.getNumberValue().intValue();
+      }
+      else {
+        parser.skipChildren();
+      }
+    }
+
+    if (parser.nextToken() != null) {
+      throw new DecodeException("Unexpected trailing token");
+    }
+
+    return new MultipleRecords<>(records, totalRecords);
+  }
+
+  private static <T> void decodeRecords(JsonParser parser, List<T> records,
+    Function<JsonObject, T> mapper) throws IOException {
+
+    JsonToken token;
+
+    while ((token = parser.nextToken()) != END_ARRAY) {
+      if (token == START_OBJECT) {
+        records.add(mapper.apply(new JsonObject(parseObject(parser))));
+      }
+      else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private static Object parseValue(JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case START_OBJECT:
+        return parseObject(parser);
+      case START_ARRAY:
+        return parseArray(parser);
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return parser.getNumberValue();
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      case VALUE_NULL:
+        return null;
+      default:
+        throw new DecodeException("Unexpected token " + parser.currentToken());
+    }
+  }
+
+  private static Map<String, Object> parseObject(JsonParser parser) throws IOException {
+    final Map<String, Object> properties = new LinkedHashMap<>();
+    String propertyName;
+
+    while ((propertyName = parser.nextFieldName()) != null) {
+      parser.nextToken();
+      properties.put(propertyName, parseValue(parser));
+    }
+
+    return properties;
+  }
+
+  private static List<Object> parseArray(JsonParser parser) throws IOException {
+    final List<Object> elements = new ArrayList<>();
+
+    while (parser.nextToken() != END_ARRAY) {
+      elements.add(parseValue(parser));
+    }
+
+    return elements;
+  }
+}
@@ -0,0 +1,72 @@
+package api;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.folio.circulation.services.outbox.Outbox;
+import org.junit.jupiter.api.Test;
+
+import api.support.APITests;
+import io.vertx.core.json.JsonObject;
+
+class CirculationMetricsAPITests extends APITests {
+  @Test
+  void ruleMatchCacheMetricsAreForTheRulesInUse() {
+    checkOutFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(),
+      usersFixture.steve());
+    checkOutFixture.checkOutByBarcode(itemsFixture.basedUponNod(),
+      usersFixture.steve());
+
+    final JsonObject matchCache = circulationMetricsFixture.getMetrics()
+      .getJsonObject("circulationRules").getJsonObject("matchCache");
+
+    assertThat(matchCache.getLong("misses"), is(greaterThan(0L)));
+    assertThat(matchCache.getLong("hits"), is(greaterThan(0L)));
+    assertThat(matchCache.getInteger("entries"), is(greaterThan(0)));
+  }
+
+  @Test
+  void compilationMetricsAreForTheTenantsRules() {
+    checkOutFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(),
+      usersFixture.steve());
+
+    final JsonObject compilation = circulationMetricsFixture.getMetrics()
+      .getJsonObject("circulationRules").getJsonObject("compilation");
+
+    assertThat(compilation.getLong("compilations"), is(greaterThan(0L)));
+    assertThat(compilation.getLong("totalCompileMilliseconds"),
+      is(greaterThanOrEqualTo(compilation.getLong("lastCompileMilliseconds"))));
+  }
+
+  @Test
+  void findByManyValuesMetricsCountLookups() {
+    checkOutFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(),
+      usersFixture.steve());
+
+    final long lookupsBefore = circulationMetricsFixture.getMetrics()
+      .getJsonObject("findByManyValues").getLong("lookups");
+
+    loansFixture.getLoans();
+
+    final JsonObject findByManyValues = circulationMetricsFixture.getMetrics()
+      .getJsonObject("findByManyValues");
+
+    assertThat(findByManyValues.getLong("lookups"), is(greaterThan(lookupsBefore)));
+    assertThat(findByManyValues.getLong("queries"),
+      is(greaterThanOrEqualTo(findByManyValues.getLong("lookups"))));
+  }
+
+  @Test
+  void outboxMetricsAreIncluded() {
+    final JsonObject outbox = circulationMetricsFixture.getMetrics()
+      .getJsonObject("outbox");
+
+    assertThat(outbox.getBoolean("enabled"), is(Outbox.getInstance().isEnabled()));
+    assertThat(outbox.getLong("sent"), is(greaterThanOrEqualTo(0L)));
+    assertThat(outbox.getLong("writes"),
+      is(lessThanOrEqualTo(outbox.getLong("added"))));
+  }
+}
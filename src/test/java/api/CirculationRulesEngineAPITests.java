@@ -290,6 +290,82 @@ class CirculationRulesEngineAPITests extends APITests {
     assertThat(applyRulesForLoanPolicy(m2, t2, g2, s1), is(lp4));
   }
 
+  @Test
+  void batchReturnsPolicyForEachParametersInOrder() {
+    setRules(rulesWithInstitution);
+
+    final JsonArray results = circulationRulesFixture.applyRulesForPolicyBatch("loan",
+      new JsonArray()
+        .add(circulationRulesFixture.batchParameters(m1, t2, g2, s2))
+        .add(circulationRulesFixture.batchParameters(m2, t2, g2, s2))
+        .add(circulationRulesFixture.batchParameters(m1, t2, g2, s1))
+        .add(circulationRulesFixture.batchParameters(m2, t2, g2, s1)));
+
+    assertThat(results.size(), is(4));
+    assertThat(results.getJsonObject(0).getString("loanPolicyId"), is(lp2.id));
+    assertThat(results.getJsonObject(1).getString("loanPolicyId"), is(lp3.id));
+    assertThat(results.getJsonObject(1).getJsonObject("appliedRuleConditions")
+      .getBoolean("materialTypeMatch"), is(true));
+    assertThat(results.getJsonObject(2).getString("loanPolicyId"), is(lp4.id));
+    assertThat(results.getJsonObject(3).getString("loanPolicyId"), is(lp4.id));
+    assertThat(results.getJsonObject(3).getJsonObject("parameters").getString("location_id"),
+      is(s1.id));
+  }
+
+  @Test
+  void batchReturnsPoliciesOfEachPolicyType() {
+    setRules(rulesWithLibrary);
+
+    final JsonArray parameters = new JsonArray()
+      .add(circulationRulesFixture.batchParameters(m1, t2, g2, s2))
+      .add(circulationRulesFixture.batchParameters(m2, t2, g2, s2));
+
+    assertThat(circulationRulesFixture.applyRulesForPolicyBatch("request", parameters)
+      .getJsonObject(1).getString("requestPolicyId"), is(rp2.id));
+    assertThat(circulationRulesFixture.applyRulesForPolicyBatch("notice", parameters)
+      .getJsonObject(0).getString("noticePolicyId"), is(np1.id));
+    assertThat(circulationRulesFixture.applyRulesForPolicyBatch("overdue-fine", parameters)
+      .getJsonObject(1).getString("overdueFinePolicyId"), is(op2.id));
+    assertThat(circulationRulesFixture.applyRulesForPolicyBatch("lost-item", parameters)
+      .getJsonObject(0).getString("lostItemPolicyId"), is(lip1.id));
+  }
+
+  @Test
+  void batchWithInvalidParametersIsRejected() {
+    setRules(rulesFallback);
+
+    final Response response = circulationRulesFixture.attemptToApplyRulesForPolicyBatch("loan",
+      new JsonArray()
+        .add(circulationRulesFixture.batchParameters(m1, t1, g1, s1))
+        .add(circulationRulesFixture.batchParameters(m1, t1, g1, s1).put("loan_type_id", "0")));
+
+    assertThat(response.getStatusCode(), is(400));
+    assertThat(response.getBody(), containsString("parameters[1]"));
+    assertThat(response.getBody(), containsString("loan_type_id"));
+  }
+
+  @Test
+  void batchWithMalformedBodyIsRejected() {
+    setRules(rulesFallback);
+
+    final Response response = circulationRulesFixture.attemptToApplyRulesForPolicyBatch("loan",
+      "{\"parameters\": [");
+
+    assertThat(response.getStatusCode(), is(400));
+    assertThat(response.getBody(), containsString("parameters array"));
+  }
+
+  @Test
+  void batchWithParametersThatAreNotAnArrayIsRejected() {
+    setRules(rulesFallback);
+
+    final Response response = circulationRulesFixture.attemptToApplyRulesForPolicyBatch("loan",
+      new JsonObject().put("parameters", "all").encode());
+
+    assertThat(response.getStatusCode(), is(400));
+    assertThat(response.getBody(), containsString("parameters array"));
+  }
+
   @Test
   void shouldApplyRulesWithLibrary() {
     setRules(rulesWithLibrary);
@@ -0,0 +1,57 @@
+package api;
+
+import static api.support.APITestContext.getOkapiHeadersFromContext;
+import static api.support.APITestContext.getTenantId;
+import static api.support.http.InterfaceUrls.circulationRulesWarmUpUrl;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.folio.circulation.rules.cache.CirculationRulesCache;
+import org.folio.circulation.rules.cache.RulesCompilationMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import api.support.APITests;
+import api.support.http.TimedTaskClient;
+
+class CirculationRulesWarmUpAPITests extends APITests {
+  private final TimedTaskClient timedTaskClient =
+    new TimedTaskClient(getOkapiHeadersFromContext());
+
+  @BeforeEach
+  void dropCirculationRules() {
+    CirculationRulesCache.getInstance().dropCache();
+  }
+
+  @Test
+  void rulesThatHaveNotBeenLoadedAreCompiled() {
+    timedTaskClient.start(circulationRulesWarmUpUrl(), 204, "circulation-rules-warm-up");
+
+    Awaitility.await()
+      .atMost(10, TimeUnit.SECONDS)
+      .until(() -> compilations() == 1);
+  }
+
+  @Test
+  void rulesThatHaveBeenLoadedAreNotCompiledAgain() {
+    timedTaskClient.start(circulationRulesWarmUpUrl(), 204, "circulation-rules-warm-up");
+
+    Awaitility.await()
+      .atMost(10, TimeUnit.SECONDS)
+      .until(() -> compilations() == 1);
+
+    timedTaskClient.start(circulationRulesWarmUpUrl(), 204, "circulation-rules-warm-up");
+
+    assertThat(compilations(), is(1L));
+  }
+
+  private static long compilations() {
+    final RulesCompilationMetrics metrics = CirculationRulesCache.getInstance()
+      .getCompilationMetrics(getTenantId());
+
+    return metrics == null ? 0 : metrics.getCompilations();
+  }
+}
@@ -0,0 +1,25 @@
+package api;
+
+import static api.support.APITestContext.getOkapiHeadersFromContext;
+import static api.support.http.InterfaceUrls.outboxProcessingUrl;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.folio.circulation.services.outbox.Outbox;
+import org.junit.jupiter.api.Test;
+
+import api.support.APITests;
+import api.support.http.TimedTaskClient;
+
+class OutboxProcessingAPITests extends APITests {
+  private final TimedTaskClient timedTaskClient =
+    new TimedTaskClient(getOkapiHeadersFromContext());
+
+  @Test
+  void tokenIsIgnoredWhenOutboxIsDisabled() {
+    timedTaskClient.start(outboxProcessingUrl(), 204, "outbox-processing");
+
+    assertThat(Outbox.getInstance().isEnabled(), is(false));
+    assertThat(Outbox.getInstance().getMetrics().getDepth(), is(0L));
+  }
+}
@@ -0,0 +1,205 @@
+package api.loans;
+
+import static api.support.matchers.ItemMatchers.isAvailable;
+import static api.support.matchers.ItemMatchers.isAwaitingPickup;
+import static api.support.matchers.LoanMatchers.isClosed;
+import static api.support.matchers.RequestMatchers.isOpenAwaitingPickup;
+import static api.support.matchers.ResponseStatusCodeMatcher.hasStatus;
+import static api.support.matchers.ValidationErrorMatchers.hasErrorWith;
+import static api.support.matchers.ValidationErrorMatchers.hasMessage;
+import static java.util.function.Function.identity;
+import static org.folio.HttpStatus.HTTP_UNPROCESSABLE_ENTITY;
+import static org.folio.circulation.domain.representations.BulkCheckInByBarcodeRequest.MAXIMUM_ITEM_BARCODES;
+import static org.folio.circulation.support.json.JsonObjectArrayPropertyFetcher.mapToList;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.folio.circulation.support.http.client.Response;
+import org.junit.jupiter.api.Test;
+
+import api.support.APITests;
+import api.support.builders.CheckInByBarcodeRequestBuilder;
+import api.support.http.IndividualResource;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+class BulkCheckInByBarcodeTests extends APITests {
+  @Test
+  void canCheckInManyItemsAtOnce() {
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource temeraire = itemsFixture.basedUponTemeraire();
+
+    final IndividualResource nodLoan = checkOutFixture.checkOutByBarcode(nod,
+      usersFixture.james());
+    final IndividualResource smallAngryPlanetLoan = checkOutFixture.checkOutByBarcode(
+      smallAngryPlanet, usersFixture.jessica());
+
+    final JsonObject response = checkInFixture.bulkCheckInByBarcode(
+      bulkCheckInRequest(servicePointsFixture.cd1().getId(),
+        barcodeOf(nod), barcodeOf(smallAngryPlanet), barcodeOf(temeraire)));
+
+    assertThat(response.getInteger("totalRecords"), is(3));
+
+    final List<JsonObject> checkIns = checkInsFrom(response);
+
+    assertThat(checkIns.get(0).getString("itemBarcode"), is(barcodeOf(nod)));
+    assertThat(checkIns.get(0).getJsonObject("checkIn").getJsonObject("loan"), isClosed());
+    assertThat(checkIns.get(0).getJsonObject("checkIn").getJsonObject("item"), isAvailable());
+
+    assertThat(checkIns.get(1).getString("itemBarcode"), is(barcodeOf(smallAngryPlanet)));
+    assertThat(checkIns.get(1).getJsonObject("checkIn").getJsonObject("loan"), isClosed());
+
+    assertThat(checkIns.get(2).getString("itemBarcode"), is(barcodeOf(temeraire)));
+    assertThat(checkIns.get(2).getJsonObject("checkIn").getJsonObject("loan"), nullValue());
+    assertThat(checkIns.get(2).getJsonObject("checkIn").getJsonObject("item"), isAvailable());
+
+    assertThat(loansFixture.getLoanById(nodLoan.getId()).getJson(), isClosed());
+    assertThat(loansFixture.getLoanById(smallAngryPlanetLoan.getId()).getJson(), isClosed());
+    assertThat(itemsClient.getById(nod.getId()).getJson(), isAvailable());
+    assertThat(itemsClient.getById(smallAngryPlanet.getId()).getJson(), isAvailable());
+  }
+
+  @Test
+  void itemThatCannotBeFoundDoesNotStopOtherItemsBeingCheckedIn() {
+    final IndividualResource nod = itemsFixture.basedUponNod();
+
+    final IndividualResource loan = checkOutFixture.checkOutByBarcode(nod,
+      usersFixture.james());
+
+    final JsonObject response = checkInFixture.bulkCheckInByBarcode(
+      bulkCheckInRequest(servicePointsFixture.cd1().getId(),
+        "543593485458", barcodeOf(nod)));
+
+    final List<JsonObject> checkIns = checkInsFrom(response);
+
+    assertThat(checkIns.get(0).getString("itemBarcode"), is("543593485458"));
+    assertThat(checkIns.get(0).getJsonObject("checkIn"), nullValue());
+    assertThat(checkIns.get(0), hasErrorWith(hasMessage(
+      "No item with barcode 543593485458 exists")));
+
+    assertThat(checkIns.get(1).getJsonObject("checkIn"), notNullValue());
+    assertThat(loansFixture.getLoanById(loan.getId()).getJson(), isClosed());
+  }
+
+  @Test
+  void canCheckInTheSameItemMoreThanOnce() {
+    final IndividualResource nod = itemsFixture.basedUponNod();
+
+    final IndividualResource loan = checkOutFixture.checkOutByBarcode(nod,
+      usersFixture.james());
+
+    final JsonObject response = checkInFixture.bulkCheckInByBarcode(
+      bulkCheckInRequest(servicePointsFixture.cd1().getId(),
+        barcodeOf(nod), barcodeOf(nod)));
+
+    final List<JsonObject> checkIns = checkInsFrom(response);
+
+    assertThat(checkIns.get(0).getJsonObject("checkIn").getJsonObject("loan"), isClosed());
+    assertThat(checkIns.get(0).getJsonObject("checkIn").getJsonObject("loan")
+      .getString("id"), is(loan.getId().toString()));
+
+    assertThat(checkIns.get(1).getJsonObject("checkIn").getJsonObject("loan"), nullValue());
+    assertThat(checkIns.get(1).getJsonObject("checkIn").getJsonObject("item"), isAvailable());
+  }
+
+  @Test
+  void barcodesAreMatchedIgnoringCase() {
+    final IndividualResource nod = itemsFixture.basedUponNod(
+      item -> item.withBarcode("NOD-0001"));
+
+    final IndividualResource loan = checkOutFixture.checkOutByBarcode(nod,
+      usersFixture.james());
+
+    final JsonObject response = checkInFixture.bulkCheckInByBarcode(
+      bulkCheckInRequest(servicePointsFixture.cd1().getId(), "nod-0001", "Nod-0001"));
+
+    final List<JsonObject> checkIns = checkInsFrom(response);
+
+    assertThat(checkIns.get(0).getJsonObject("checkIn").getJsonObject("loan"), isClosed());
+    assertThat(checkIns.get(0).getJsonObject("checkIn").getJsonObject("loan")
+      .getString("id"), is(loan.getId().toString()));
+
+    assertThat(checkIns.get(1).getJsonObject("checkIn").getJsonObject("loan"), nullValue());
+    assertThat(checkIns.get(1).getJsonObject("checkIn").getJsonObject("item"), isAvailable());
+  }
+
+  @Test
+  void requestedItemIsAwaitingPickupAfterCheckIn() {
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    checkOutFixture.checkOutByBarcode(nod, usersFixture.james());
+    checkOutFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.jessica());
+
+    final IndividualResource request = requestsFixture.placeItemLevelHoldShelfRequest(
+      nod, usersFixture.steve());
+
+    final JsonObject response = checkInFixture.bulkCheckInByBarcode(
+      bulkCheckInRequest(servicePointsFixture.cd1().getId(),
+        barcodeOf(nod), barcodeOf(smallAngryPlanet)));
+
+    final List<JsonObject> checkIns = checkInsFrom(response);
+
+    assertThat(checkIns.get(0).getJsonObject("checkIn").getJsonObject("item"),
+      isAwaitingPickup());
+    assertThat(checkIns.get(1).getJsonObject("checkIn").getJsonObject("item"),
+      isAvailable());
+
+    assertThat(requestsFixture.getById(request.getId()).getJson(), isOpenAwaitingPickup());
+  }
+
+  @Test
+  void cannotBulkCheckInWithoutItemBarcodes() {
+    final JsonObject request = bulkCheckInRequest(servicePointsFixture.cd1().getId());
+
+    request.remove("itemBarcodes");
+
+    final Response response = checkInFixture.attemptBulkCheckInByBarcode(422, request);
+
+    assertThat(response, hasStatus(HTTP_UNPROCESSABLE_ENTITY));
+    assertThat(response.getJson(), hasErrorWith(hasMessage(
+      "Bulk checkin request must have item barcodes")));
+  }
+
+  @Test
+  void cannotBulkCheckInMoreThanTheMaximumNumberOfItems() {
+    final String[] itemBarcodes = IntStream.rangeClosed(0, MAXIMUM_ITEM_BARCODES)
+      .mapToObj(String::valueOf)
+      .toArray(String[]::new);
+
+    final Response response = checkInFixture.attemptBulkCheckInByBarcode(422,
+      bulkCheckInRequest(servicePointsFixture.cd1().getId(), itemBarcodes));
+
+    assertThat(response, hasStatus(HTTP_UNPROCESSABLE_ENTITY));
+    assertThat(response.getJson(), hasErrorWith(hasMessage(
+      "Bulk checkin request must have no more than 1000 item barcodes")));
+  }
+
+  private static JsonObject bulkCheckInRequest(UUID servicePointId,
+    String... itemBarcodes) {
+
+    final JsonObject request = new CheckInByBarcodeRequestBuilder()
+      .at(servicePointId)
+      .create();
+
+    request.remove("itemBarcode");
+    request.put("itemBarcodes", new JsonArray(List.of(itemBarcodes)));
+
+    return request;
+  }
+
+  private static List<JsonObject> checkInsFrom(JsonObject response) {
+    return mapToList(response, "checkIns", identity());
+  }
+
+  private static String barcodeOf(IndividualResource item) {
+    return item.getJson().getString("barcode");
+  }
+}
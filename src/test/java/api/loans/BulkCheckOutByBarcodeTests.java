@@ -0,0 +1,261 @@
+package api.loans;
+
+import static api.support.builders.ItemBuilder.AVAILABLE;
+import static api.support.builders.ItemBuilder.CHECKED_OUT;
+import static api.support.matchers.CheckOutByBarcodeResponseMatchers.hasUserBarcodeParameter;
+import static api.support.matchers.ItemStatusCodeMatcher.hasItemStatus;
+import static api.support.matchers.ResponseStatusCodeMatcher.hasStatus;
+import static api.support.matchers.ValidationErrorMatchers.hasCode;
+import static api.support.matchers.ValidationErrorMatchers.hasErrorWith;
+import static api.support.matchers.ValidationErrorMatchers.hasMessage;
+import static java.util.function.Function.identity;
+import static org.folio.HttpStatus.HTTP_UNPROCESSABLE_ENTITY;
+import static org.folio.circulation.domain.representations.BulkCheckOutByBarcodeRequest.MAXIMUM_ITEM_BARCODES;
+import static org.folio.circulation.domain.policy.Period.months;
+import static org.folio.circulation.support.ErrorCode.ITEM_LIMIT_MATERIAL_TYPE;
+import static org.folio.circulation.support.json.JsonObjectArrayPropertyFetcher.mapToList;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.folio.circulation.support.http.client.Response;
+import org.junit.jupiter.api.Test;
+
+import api.support.APITests;
+import api.support.builders.CheckOutByBarcodeRequestBuilder;
+import api.support.builders.LoanPolicyBuilder;
+import api.support.builders.UserBuilder;
+import api.support.http.IndividualResource;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+class BulkCheckOutByBarcodeTests extends APITests {
+  @Test
+  void canCheckOutManyItemsAtOnce() {
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource steve = usersFixture.steve();
+
+    final JsonObject response = checkOutFixture.bulkCheckOutByBarcode(
+      bulkCheckOutRequest(steve, nod, smallAngryPlanet));
+
+    assertThat(response.getInteger("totalRecords"), is(2));
+
+    final List<JsonObject> checkOuts = checkOutsFrom(response);
+
+    assertThat(checkOuts.get(0).getString("itemBarcode"), is(barcodeOf(nod)));
+    assertThat(checkOuts.get(0).getJsonObject("loan").getString("itemId"),
+      is(nod.getId().toString()));
+    assertThat(checkOuts.get(0).getJsonObject("loan").getString("userId"),
+      is(steve.getId().toString()));
+
+    assertThat(checkOuts.get(1).getString("itemBarcode"), is(barcodeOf(smallAngryPlanet)));
+    assertThat(checkOuts.get(1).getJsonObject("loan").getString("itemId"),
+      is(smallAngryPlanet.getId().toString()));
+
+    assertThat(checkOuts.get(0).getJsonObject("loan").getString("loanDate"),
+      is(checkOuts.get(1).getJsonObject("loan").getString("loanDate")));
+
+    assertThat(itemsClient.get(nod), hasItemStatus(CHECKED_OUT));
+    assertThat(itemsClient.get(smallAngryPlanet), hasItemStatus(CHECKED_OUT));
+  }
+
+  @Test
+  void itemThatCannotBeCheckedOutDoesNotStopOtherItemsBeingCheckedOut() {
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource steve = usersFixture.steve();
+
+    checkOutFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.jessica());
+
+    final JsonObject request = bulkCheckOutRequest(steve, smallAngryPlanet, nod);
+
+    request.getJsonArray("itemBarcodes").add("543593485458");
+
+    final List<JsonObject> checkOuts = checkOutsFrom(
+      checkOutFixture.bulkCheckOutByBarcode(request));
+
+    assertThat(checkOuts.get(0).getJsonObject("loan"), nullValue());
+    assertThat(checkOuts.get(0), hasErrorWith(hasMessage(
+      "Item is already checked out")));
+
+    assertThat(checkOuts.get(1).getJsonObject("loan"), notNullValue());
+
+    assertThat(checkOuts.get(2).getString("itemBarcode"), is("543593485458"));
+    assertThat(checkOuts.get(2), hasErrorWith(hasMessage(
+      "No item with barcode 543593485458 could be found")));
+
+    assertThat(itemsClient.get(nod), hasItemStatus(CHECKED_OUT));
+  }
+
+  @Test
+  void cannotCheckOutTheSameItemMoreThanOnce() {
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource steve = usersFixture.steve();
+
+    final List<JsonObject> checkOuts = checkOutsFrom(checkOutFixture.bulkCheckOutByBarcode(
+      bulkCheckOutRequest(steve, nod, nod)));
+
+    assertThat(checkOuts.get(0).getJsonObject("loan"), notNullValue());
+    assertThat(checkOuts.get(1).getJsonObject("loan"), nullValue());
+    assertThat(checkOuts.get(1), hasErrorWith(hasMessage(
+      "Item is already checked out")));
+  }
+
+  @Test
+  void barcodesAreMatchedIgnoringCase() {
+    final IndividualResource nod = itemsFixture.basedUponNod(
+      item -> item.withBarcode("NOD-0001"));
+    final IndividualResource steve = usersFixture.steve();
+
+    final JsonObject request = bulkCheckOutRequest(steve);
+
+    request.put("itemBarcodes", new JsonArray().add("nod-0001").add("Nod-0001"));
+
+    final List<JsonObject> checkOuts = checkOutsFrom(
+      checkOutFixture.bulkCheckOutByBarcode(request));
+
+    assertThat(checkOuts.get(0).getJsonObject("loan").getString("itemId"),
+      is(nod.getId().toString()));
+    assertThat(checkOuts.get(1).getJsonObject("loan"), nullValue());
+    assertThat(checkOuts.get(1), hasErrorWith(hasMessage(
+      "Item is already checked out")));
+
+    assertThat(itemsClient.get(nod), hasItemStatus(CHECKED_OUT));
+  }
+
+  @Test
+  void itemLimitIncludesItemsCheckedOutEarlierInTheSameRequest() {
+    final UUID book = materialTypesFixture.book().getId();
+
+    circulationRulesFixture.updateCirculationRules(createRules("m " + book));
+
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource dunkirk = itemsFixture.basedUponDunkirk();
+    final IndividualResource steve = usersFixture.steve();
+
+    final List<JsonObject> checkOuts = checkOutsFrom(checkOutFixture.bulkCheckOutByBarcode(
+      bulkCheckOutRequest(steve, nod, smallAngryPlanet, dunkirk)));
+
+    assertThat(checkOuts.get(0).getJsonObject("loan"), notNullValue());
+
+    assertThat(checkOuts.get(1).getJsonObject("loan"), nullValue());
+    assertThat(checkOuts.get(1), hasErrorWith(allOf(
+      hasMessage("Patron has reached maximum limit of 1 items for material type"),
+      hasCode(ITEM_LIMIT_MATERIAL_TYPE))));
+
+    assertThat(checkOuts.get(2).getJsonObject("loan"), notNullValue());
+
+    assertThat(itemsClient.get(nod), hasItemStatus(CHECKED_OUT));
+    assertThat(itemsClient.get(smallAngryPlanet), hasItemStatus(AVAILABLE));
+    assertThat(itemsClient.get(dunkirk), hasItemStatus(CHECKED_OUT));
+  }
+
+  @Test
+  void cannotCheckOutAnyItemWhenLoaneeIsInactive() {
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource steve = usersFixture.steve(UserBuilder::inactive);
+
+    final Response response = checkOutFixture.attemptBulkCheckOutByBarcode(422,
+      bulkCheckOutRequest(steve, nod, smallAngryPlanet));
+
+    assertThat(response, hasStatus(HTTP_UNPROCESSABLE_ENTITY));
+    assertThat(response.getJson(), hasErrorWith(allOf(
+      hasMessage("Cannot check out to inactive user"),
+      hasUserBarcodeParameter(steve))));
+
+    assertThat(itemsClient.get(nod), hasItemStatus(AVAILABLE));
+    assertThat(itemsClient.get(smallAngryPlanet), hasItemStatus(AVAILABLE));
+  }
+
+  @Test
+  void cannotBulkCheckOutWithoutItemBarcodes() {
+    final JsonObject request = bulkCheckOutRequest(usersFixture.steve());
+
+    request.remove("itemBarcodes");
+
+    final Response response = checkOutFixture.attemptBulkCheckOutByBarcode(422, request);
+
+    assertThat(response.getJson(), hasErrorWith(hasMessage(
+      "Bulk check out request must have item barcodes")));
+  }
+
+  @Test
+  void cannotBulkCheckOutMoreThanTheMaximumNumberOfItems() {
+    final JsonObject request = bulkCheckOutRequest(usersFixture.steve());
+
+    request.put("itemBarcodes", new JsonArray(IntStream
+      .rangeClosed(0, MAXIMUM_ITEM_BARCODES)
+      .mapToObj(String::valueOf)
+      .collect(Collectors.toList())));
+
+    final Response response = checkOutFixture.attemptBulkCheckOutByBarcode(422, request);
+
+    assertThat(response, hasStatus(HTTP_UNPROCESSABLE_ENTITY));
+    assertThat(response.getJson(), hasErrorWith(hasMessage(
+      "Bulk check out request must have no more than 100 item barcodes")));
+  }
+
+  private JsonObject bulkCheckOutRequest(IndividualResource to,
+    IndividualResource... items) {
+
+    final JsonObject request = new CheckOutByBarcodeRequestBuilder()
+      .to(to)
+      .at(servicePointsFixture.cd1())
+      .create();
+
+    final JsonArray itemBarcodes = new JsonArray();
+
+    for (IndividualResource item : items) {
+      itemBarcodes.add(barcodeOf(item));
+    }
+
+    request.remove("itemBarcode");
+    request.remove("loanDate");
+    request.put("itemBarcodes", itemBarcodes);
+
+    return request;
+  }
+
+  private static List<JsonObject> checkOutsFrom(JsonObject response) {
+    return mapToList(response, "checkOuts", identity());
+  }
+
+  private static String barcodeOf(IndividualResource item) {
+    return item.getJson().getString("barcode");
+  }
+
+  private String createRules(String ruleCondition) {
+    final String loanPolicyWithItemLimitId = loanPoliciesFixture.create(
+      new LoanPolicyBuilder()
+        .withName("Loan Policy with item limit")
+        .withItemLimit(1)
+        .rolling(months(2))
+        .renewFromCurrentDueDate()).getId().toString();
+
+    final String loanPolicyWithoutItemLimitId = loanPoliciesFixture.create(
+      new LoanPolicyBuilder()
+        .withName("Loan Policy without item limit")
+        .rolling(months(2))
+        .renewFromCurrentDueDate()).getId().toString();
+
+    final String otherPolicies = " r " + requestPoliciesFixture.allowAllRequestPolicy().getId()
+      + " n " + noticePoliciesFixture.activeNotice().getId()
+      + " o " + overdueFinePoliciesFixture.facultyStandard().getId()
+      + " i " + lostItemFeePoliciesFixture.facultyStandard().getId();
+
+    return String.join("\n",
+      "priority: t, s, c, b, a, m, g",
+      "fallback-policy: l " + loanPolicyWithoutItemLimitId + otherPolicies,
+      ruleCondition + " : l " + loanPolicyWithItemLimitId + otherPolicies);
+  }
+}
@@ -82,6 +82,7 @@ import api.support.MultipleJsonRecords;
 import api.support.TlrFeatureStatus;
 import api.support.builders.Address;
 import api.support.builders.CheckInByBarcodeRequestBuilder;
+import api.support.builders.ConfigRecordBuilder;
 import api.support.builders.FeeFineBuilder;
 import api.support.builders.FeeFineOwnerBuilder;
 import api.support.builders.ItemBuilder;
@@ -318,6 +319,22 @@ public void verifyItemEffectiveLocationIdAtCheckOut() {
       "No item with barcode 543593485458 exists")));
   }
 
+  @Test
+  void itemThatCannotBeFoundIsReportedBeforeFailingToLookUpTlrSettings() {
+    configClient.create(new ConfigRecordBuilder("SETTINGS", "TLR", "not json"));
+
+    final Response response = checkInFixture.attemptCheckInByBarcode(
+      new CheckInByBarcodeRequestBuilder()
+        .withItemBarcode("543593485458")
+        .on(ClockUtil.getZonedDateTime())
+        .at(UUID.randomUUID()));
+
+    assertThat(response, hasStatus(HTTP_UNPROCESSABLE_ENTITY));
+
+    assertThat(response.getJson(), hasErrorWith(hasMessage(
+      "No item with barcode 543593485458 exists")));
+  }
+
   @Test
   void checkInFailsWhenEventPublishingFailsWithBadRequestError() {
     ZonedDateTime loanDate = ZonedDateTime.of(2018, 3, 1, 13, 25, 46, 0, UTC);
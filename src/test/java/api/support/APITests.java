@@ -21,6 +21,8 @@ import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 
+import org.folio.circulation.infrastructure.storage.inventory.LocationCache;
+import org.folio.circulation.support.cache.ReferenceDataCache;
 import org.junit.Assert;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -36,6 +38,7 @@ import api.support.fixtures.CancellationReasonsFixture;
 import api.support.fixtures.ChangeDueDateFixture;
 import api.support.fixtures.CheckInFixture;
 import api.support.fixtures.CheckOutFixture;
+import api.support.fixtures.CirculationMetricsFixture;
 import api.support.fixtures.CirculationRulesFixture;
 import api.support.fixtures.ClaimItemReturnedFixture;
 import api.support.fixtures.ConfigurationsFixture;
@@ -266,6 +269,8 @@ public abstract class APITests {
     new AutomatedPatronBlocksFixture();
 
   protected final TenantActivationFixture tenantActivationFixture = new TenantActivationFixture(restAssuredClient);
+  protected final CirculationMetricsFixture circulationMetricsFixture =
+    new CirculationMetricsFixture(restAssuredClient);
   @Delegate
   // The @Delegate annotation will instruct lombok to auto generate delegating methods
   // in this class for all public methods of the PoliciesActivationFixture class
@@ -317,6 +322,9 @@ public abstract class APITests {
     FakeModNotify.clearSentPatronNotices();
     FakeModNotify.setFailPatronNoticesWithBadRequest(false);
     FakeStorageModule.cleanUpRequestMappings();
+
+    ReferenceDataCache.getInstance().dropCache();
+    LocationCache.getInstance().dropCache();
   }
 
   @AfterEach
@@ -79,7 +79,7 @@ public final class CqlPredicate implements Predicate<JsonObject> {
 
   private static Map<String, CqlBinaryOperator> initBinaryOperators() {
     return Map.of(
-      "==", operator(Objects::equals),
+      "==", operator((expected, actual) -> actual.equalsIgnoreCase(expected)),
       "=", operator((expected, actual) -> actual.contains(expected)),
       "<>", operator((expected, actual) -> !actual.contains(expected)),
       ">", operator((expected, actual) -> actual.compareTo(expected) > 0),
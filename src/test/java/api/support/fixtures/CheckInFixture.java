@@ -1,6 +1,7 @@
 package api.support.fixtures;
 
 import static api.support.APITestContext.getOkapiHeadersFromContext;
+import static api.support.http.InterfaceUrls.bulkCheckInByBarcodeUrl;
 import static api.support.http.InterfaceUrls.checkInByBarcodeUrl;
 
 import java.time.ZonedDateTime;
@@ -88,6 +89,18 @@ public class CheckInFixture {
       expectedStatusCode, "check-in-by-barcode-request");
   }
 
+  public JsonObject bulkCheckInByBarcode(JsonObject representation) {
+    return restAssuredClient.post(representation, bulkCheckInByBarcodeUrl(), 200,
+      "bulk-check-in-by-barcode-request").getJson();
+  }
+
+  public Response attemptBulkCheckInByBarcode(int expectedStatusCode,
+    JsonObject representation) {
+
+    return restAssuredClient.post(representation, bulkCheckInByBarcodeUrl(),
+      expectedStatusCode, "bulk-check-in-by-barcode-request");
+  }
+
   private IndividualResource defaultServicePoint() {
     return servicePointsFixture.cd1();
   }
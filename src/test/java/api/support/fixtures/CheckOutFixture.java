@@ -1,6 +1,7 @@
 package api.support.fixtures;
 
 import static api.support.APITestContext.getOkapiHeadersFromContext;
+import static api.support.http.InterfaceUrls.bulkCheckOutByBarcodeUrl;
 import static api.support.http.InterfaceUrls.checkOutByBarcodeUrl;
 
 import java.time.ZonedDateTime;
@@ -94,6 +95,18 @@ public class CheckOutFixture {
       expectedStatusCode, headers);
   }
 
+  public JsonObject bulkCheckOutByBarcode(JsonObject representation) {
+    return restAssuredClient.post(representation, bulkCheckOutByBarcodeUrl(), 200,
+      "bulk-check-out-by-barcode-request").getJson();
+  }
+
+  public Response attemptBulkCheckOutByBarcode(int expectedStatusCode,
+    JsonObject representation) {
+
+    return restAssuredClient.post(representation, bulkCheckOutByBarcodeUrl(),
+      expectedStatusCode, "bulk-check-out-by-barcode-request");
+  }
+
   private IndividualResource defaultServicePoint() {
     return servicePointsFixture.cd1();
   }
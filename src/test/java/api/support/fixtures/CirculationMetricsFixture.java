@@ -0,0 +1,19 @@
+package api.support.fixtures;
+
+import static api.support.APITestContext.circulationModuleUrl;
+
+import api.support.RestAssuredClient;
+import io.vertx.core.json.JsonObject;
+
+public class CirculationMetricsFixture {
+  private final RestAssuredClient restAssuredClient;
+
+  public CirculationMetricsFixture(RestAssuredClient restAssuredClient) {
+    this.restAssuredClient = restAssuredClient;
+  }
+
+  public JsonObject getMetrics() {
+    return restAssuredClient.get(circulationModuleUrl("/circulation/metrics"), 200,
+      "get-circulation-metrics").getJson();
+  }
+}
@@ -206,6 +206,35 @@ public class CirculationRulesFixture {
       requestId);
   }
 
+  public JsonArray applyRulesForPolicyBatch(String type, JsonArray parameters) {
+    final Response response = attemptToApplyRulesForPolicyBatch(type, parameters);
+
+    assertThat(String.format("Failed to apply circulation rules: %s", response.getBody()),
+      response.getStatusCode(), is(200));
+
+    return response.getJson().getJsonArray("results");
+  }
+
+  public Response attemptToApplyRulesForPolicyBatch(String type, JsonArray parameters) {
+    return attemptToApplyRulesForPolicyBatch(type,
+      new JsonObject().put("parameters", parameters).encode());
+  }
+
+  public Response attemptToApplyRulesForPolicyBatch(String type, String body) {
+    return restAssuredClient.post(body, circulationRulesUrl("/" + type + "-policy-batch"),
+      "apply-rules-to-get-" + type + "-policy-batch");
+  }
+
+  public JsonObject batchParameters(ItemType itemType, LoanType loanType,
+    PatronGroup patronGroup, ItemLocation location) {
+
+    return new JsonObject()
+      .put("item_type_id", itemType.id)
+      .put("loan_type_id", loanType.id)
+      .put("patron_type_id", patronGroup.id)
+      .put("location_id", location.id);
+  }
+
   public Response attemptToApplyRulesWithNoParameters(String path) {
     return restAssuredClient.get(circulationRulesUrl(path), 400,
       "apply-rules-with-no-parameters");
@@ -137,10 +137,18 @@ public class InterfaceUrls {
     return circulationModuleUrl("/circulation/check-out-by-barcode");
   }
 
+  public static URL bulkCheckOutByBarcodeUrl() {
+    return circulationModuleUrl("/circulation/bulk-check-out-by-barcode");
+  }
+
   public static URL checkInByBarcodeUrl() {
     return circulationModuleUrl("/circulation/check-in-by-barcode");
   }
 
+  public static URL bulkCheckInByBarcodeUrl() {
+    return circulationModuleUrl("/circulation/bulk-check-in-by-barcode");
+  }
+
   public static URL renewByBarcodeUrl() {
     return circulationModuleUrl("/circulation/renew-by-barcode");
   }
@@ -289,6 +297,14 @@ public class InterfaceUrls {
     return APITestContext.viaOkapiModuleUrl("/_/tenant");
   }
 
+  public static URL circulationRulesWarmUpUrl() {
+    return circulationModuleUrl("/circulation/rules-warm-up");
+  }
+
+  public static URL outboxProcessingUrl() {
+    return circulationModuleUrl("/circulation/outbox-processing");
+  }
+
   public static URL scheduledAgeToLostUrl() {
     return circulationModuleUrl("/circulation/scheduled-age-to-lost");
   }
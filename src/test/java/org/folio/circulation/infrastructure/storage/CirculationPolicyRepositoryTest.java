@@ -60,4 +60,13 @@ class CirculationPolicyRepositoryTest {
 
     assertEquals("Server error failure, reason: Unable to apply circulation rules to an item with null value as materialTypeId", result.cause().toString());
   }
+
+  @Test
+  void lookupPolicyMatchesShouldFailWhenPatronGroupIdIsNullForTheUser() throws ExecutionException, InterruptedException {
+    when(item.isNotFound()).thenReturn(false);
+    when(user.getPatronGroupId()).thenReturn(null);
+    var result = repository.lookupPolicyMatches(item, user).get();
+
+    assertEquals("Server error failure, reason: Unable to apply circulation rules to a user with null value as patronGroupId", result.cause().toString());
+  }
 }
@@ -2,6 +2,7 @@ package org.folio.circulation.infrastructure.storage.inventory;
 
 import static api.support.matchers.FailureMatcher.isErrorFailureContaining;
 import static api.support.matchers.ResultMatchers.succeeded;
+import static org.folio.circulation.support.results.Result.failed;
 import static org.folio.circulation.support.results.Result.ofAsync;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -25,6 +26,7 @@ import org.folio.circulation.domain.LoanType;
 import org.folio.circulation.domain.Location;
 import org.folio.circulation.domain.MaterialType;
 import org.folio.circulation.support.CollectionResourceClient;
+import org.folio.circulation.support.ServerErrorFailure;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.results.Result;
 import org.junit.jupiter.api.Test;
@@ -72,6 +74,33 @@ class ItemRepositoryTests {
       "Cannot update item when original representation is not available in identity map"));
   }
 
+  @Test
+  void itemThatIsNotFoundIsNull() {
+    final var itemsClient = mock(CollectionResourceClient.class);
+    final var repository = createRepository(itemsClient);
+
+    when(itemsClient.get(anyString())).thenReturn(ofAsync(
+      () -> new Response(404, "Not found", "text/plain")));
+
+    final var fetchResult = get(repository.fetchItemAsJson(UUID.randomUUID().toString()));
+
+    assertThat(fetchResult, succeeded());
+    assertThat(fetchResult.value(), is(nullValue()));
+  }
+
+  @Test
+  void failureToFetchAnItemIsNotTreatedAsNotFound() {
+    final var itemsClient = mock(CollectionResourceClient.class);
+    final var repository = createRepository(itemsClient);
+
+    when(itemsClient.get(anyString())).thenReturn(CompletableFuture.completedFuture(
+      failed(new ServerErrorFailure("Connection refused"))));
+
+    final var fetchResult = get(repository.fetchItemAsJson(UUID.randomUUID().toString()));
+
+    assertThat(fetchResult, isErrorFailureContaining("Connection refused"));
+  }
+
   @Test
   void nullItemIsNotUpdated() {
     final var repository = createRepository(null);
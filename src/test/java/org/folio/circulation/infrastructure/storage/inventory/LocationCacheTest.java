@@ -0,0 +1,148 @@
+package org.folio.circulation.infrastructure.storage.inventory;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.junit.jupiter.api.Test;
+
+class LocationCacheTest {
+  private static final String TENANT_ID = "test_tenant";
+
+  private final AtomicLong now = new AtomicLong(1000);
+  private final LocationCache cache = new LocationCache(60000, 3, now::get);
+  private final List<String> fetchedIds = new ArrayList<>();
+
+  @Test
+  void locationIsOnlyFetchedOnceWithinTimeToLive() {
+    assertThat(getLocation("main").getId(), is("main"));
+    now.addAndGet(59999);
+    assertThat(getLocation("main").getId(), is("main"));
+
+    assertThat(fetchedIds, is(List.of("main")));
+  }
+
+  @Test
+  void locationIsFetchedAgainAfterTimeToLive() {
+    getLocation("main");
+    now.addAndGet(60000);
+    getLocation("main");
+
+    assertThat(fetchedIds, is(List.of("main", "main")));
+  }
+
+  @Test
+  void leastRecentlyUsedLocationIsEvicted() {
+    getLocation("main");
+    getLocation("annex");
+    getLocation("branch");
+    getLocation("main");
+    getLocation("online");
+    getLocation("main");
+    getLocation("annex");
+
+    assertThat(fetchedIds, is(List.of("main", "annex", "branch", "online", "annex")));
+    assertThat(cache.size(TENANT_ID), is(3));
+  }
+
+  @Test
+  void locationIsFetchedAgainAfterInvalidation() {
+    getLocation("main");
+    cache.invalidate(TENANT_ID);
+    getLocation("main");
+
+    assertThat(fetchedIds, is(List.of("main", "main")));
+  }
+
+  @Test
+  void locationsAreCachedForEachTenant() {
+    getLocation("main");
+    cache.getLocation("other_tenant", "main", this::fetch).join();
+
+    assertThat(fetchedIds, is(List.of("main", "main")));
+  }
+
+  @Test
+  void locationsNotFoundAndFailuresAreNotCached() {
+    cache.getLocation(TENANT_ID, "missing", id -> completedFuture(succeeded(null))).join();
+    cache.getLocation(TENANT_ID, "main",
+      id -> completedFuture(failed(new ServerErrorFailure("storage down")))).join();
+
+    assertThat(getLocation("missing").getId(), is("missing"));
+    assertThat(getLocation("main").getId(), is("main"));
+    assertThat(fetchedIds, is(List.of("missing", "main")));
+  }
+
+  @Test
+  void onlyMissingLocationsAreFetched() {
+    getLocation("main");
+
+    final Collection<Location> locations = cache.getLocations(TENANT_ID,
+      Set.of("main", "annex", "branch"), this::fetchAll).join().value();
+
+    assertThat(locations.stream().map(Location::getId).collect(toList()),
+      containsInAnyOrder("main", "annex", "branch"));
+    assertThat(fetchedIds, containsInAnyOrder("main", "annex", "branch"));
+
+    cache.getLocations(TENANT_ID, Set.of("main", "annex"), this::fetchAll).join();
+
+    assertThat(fetchedIds.size(), is(3));
+  }
+
+  @Test
+  void cacheIsNotUsedWithoutTenant() {
+    cache.getLocation(null, "main", this::fetch).join();
+    cache.getLocation(null, "main", this::fetch).join();
+
+    assertThat(fetchedIds, is(List.of("main", "main")));
+  }
+
+  @Test
+  void timeToLiveOfZeroDisablesCache() {
+    final var disabledCache = new LocationCache(0, 3, now::get);
+
+    disabledCache.getLocation(TENANT_ID, "main", this::fetch).join();
+    disabledCache.getLocation(TENANT_ID, "main", this::fetch).join();
+
+    assertThat(fetchedIds, is(List.of("main", "main")));
+  }
+
+  @Test
+  void unknownIdIsNotCached() {
+    assertThat(cache.getLocation(TENANT_ID, null,
+      id -> completedFuture(succeeded(Location.unknown()))).join().value().getId(),
+      is(nullValue()));
+  }
+
+  private Location getLocation(String id) {
+    return cache.getLocation(TENANT_ID, id, this::fetch).join().value();
+  }
+
+  private CompletableFuture<Result<Location>> fetch(String id) {
+    fetchedIds.add(id);
+
+    return completedFuture(succeeded(Location.unknown(id)));
+  }
+
+  private CompletableFuture<Result<Collection<Location>>> fetchAll(Set<String> ids) {
+    fetchedIds.addAll(ids);
+
+    return completedFuture(succeeded(ids.stream().map(Location::unknown).collect(toSet())));
+  }
+}
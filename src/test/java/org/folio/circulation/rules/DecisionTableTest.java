@@ -0,0 +1,248 @@
+package org.folio.circulation.rules;
+
+import static java.util.Collections.emptyList;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.folio.circulation.domain.Campus;
+import org.folio.circulation.domain.Institution;
+import org.folio.circulation.domain.Library;
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.domain.ServicePoint;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.vertx.core.MultiMap;
+
+class DecisionTableTest {
+  private static final String FIRST_INSTITUTION_ID = "3d22d91c-cf1d-11e9-bb65-2a2ae2dbcce4";
+  private static final String SECOND_INSTITUTION_ID = "3d22d91c-cf1d-11e9-bb65-2a2ae2dbcce5";
+  private static final String FIRST_LIBRARY_ID = "aa59f830-cfea-11e9-bb65-2a2ae2dbcce4";
+  private static final String SECOND_LIBRARY_ID = "2125c4ea-9c9a-462e-84d2-90e3fcdbf1eb";
+  private static final String FIRST_CAMPUS_ID = "692dbd8c-9804-4281-9fd1-8ce601d7c6a3";
+  private static final String SECOND_CAMPUS_ID = "04163907-8f63-41f3-888d-f2d2888a4dd0";
+  private static final String POLICIES = "$POLICIES";
+
+  private static final String[] ITEM_TYPES = { "book", "dvd", "music", "newspaper", "map", null };
+  private static final String[] LOAN_TYPES = { "regular", "special-items", null };
+  private static final String[] PATRON_GROUPS = { "undergrad", "visitor", "alumni", "student", null };
+  private static final String[] LOCATIONS = { "shelf", "new", "stacks", null };
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "priority: t, s, c, b, a, m, g\n" +
+    "fallback-policy" + POLICIES + "\n" +
+    "m book cd dvd" + POLICIES + "\n" +
+    "m newspaper + g all" + POLICIES + "\n" +
+    "m streaming-subscription" + POLICIES + "\n" +
+    "    g visitor" + POLICIES + "\n" +
+    "    g undergrad" + POLICIES + "\n" +
+    "m book cd dvd + t special-items" + POLICIES + "\n" +
+    "t special-items" + POLICIES + "\n" +
+    "    g visitor alumni" + POLICIES + "\n" +
+    "a " + FIRST_INSTITUTION_ID + POLICIES,
+
+    "priority: first-line\n" +
+    "g visitor\n" +
+    "  t special-items" + POLICIES + "\n" +
+    "m book" + POLICIES + "\n" +
+    "fallback-policy" + POLICIES + "\n",
+
+    "priority: number-of-criteria, first-line\n" +
+    "fallback-policy" + POLICIES + "\n" +
+    "m book" + POLICIES + "\n" +
+    "g student" + POLICIES + "\n" +
+    "m dvd" + POLICIES + "\n" +
+    "     g visitor" + POLICIES,
+
+    "priority: criterium(t, s, c, b, a, m, g), number-of-criteria, first-line\n" +
+    "fallback-policy" + POLICIES + "\n" +
+    "m book" + POLICIES + "\n" +
+    "g student" + POLICIES + "\n" +
+    "m dvd" + POLICIES + "\n" +
+    "     g visitor" + POLICIES,
+
+    "priority: last-line\n" +
+    "fallback-policy" + POLICIES + "\n" +
+    "m !dvd !music" + POLICIES + "\n" +
+    "g !visitor" + POLICIES + "\n" +
+    "    t all" + POLICIES + "\n" +
+    "c all + s !new" + POLICIES,
+
+    "priority: last-line\n" +
+    "fallback-policy" + POLICIES + "\n" +
+    "s new" + POLICIES + "\n" +
+    "m book" + POLICIES + "\n" +
+    "a " + FIRST_INSTITUTION_ID + POLICIES + "\n" +
+    "b new" + POLICIES + "\n" +
+    "c " + FIRST_LIBRARY_ID + POLICIES + "\n" +
+    "b " + FIRST_CAMPUS_ID + POLICIES,
+
+    "priority: t, s, c, b, a, m, g\n" +
+    "fallback-policy" + POLICIES + "\n" +
+    "s new" + POLICIES + "\n" +
+    "t special-items" + POLICIES + "\n" +
+    "m book" + POLICIES + "\n" +
+    "s stacks" + POLICIES + "\n" +
+    "a " + FIRST_INSTITUTION_ID + POLICIES + "\n" +
+    "c " + FIRST_LIBRARY_ID + POLICIES + "\n" +
+    "b " + FIRST_CAMPUS_ID + POLICIES
+  })
+  void producesSameResultsAsDrools(String rules) {
+    final String rulesAsText = withDistinctPolicies(rules);
+    final var drools = new Drools(Text2Drools.convert(rulesAsText));
+    final var decisionTable = DecisionTable.fromText(rulesAsText);
+
+    for (MultiMap params : allParams()) {
+      for (Location location : allLocations()) {
+        final String description = params + " " + describe(location);
+
+        assertSameMatch(description, drools.loanPolicy(params, location),
+          decisionTable.loanPolicy(params, location));
+        assertSameMatch(description, drools.requestPolicy(params, location),
+          decisionTable.requestPolicy(params, location));
+        assertSameMatch(description, drools.noticePolicy(params, location),
+          decisionTable.noticePolicy(params, location));
+        assertSameMatch(description, drools.overduePolicy(params, location),
+          decisionTable.overduePolicy(params, location));
+        assertSameMatch(description, drools.lostItemPolicy(params, location),
+          decisionTable.lostItemPolicy(params, location));
+
+        assertSameMatches(description, drools, decisionTable, params, location);
+
+        assertThat(description, decisionTable.loanPolicies(params, location).encode(),
+          is(drools.loanPolicies(params, location).encode()));
+        assertThat(description, decisionTable.requestPolicies(params, location).encode(),
+          is(drools.requestPolicies(params, location).encode()));
+        assertThat(description, decisionTable.noticePolicies(params, location).encode(),
+          is(drools.noticePolicies(params, location).encode()));
+        assertThat(description, decisionTable.overduePolicies(params, location).encode(),
+          is(drools.overduePolicies(params, location).encode()));
+        assertThat(description, decisionTable.lostItemPolicies(params, location).encode(),
+          is(drools.lostItemPolicies(params, location).encode()));
+      }
+    }
+  }
+
+  private String withDistinctPolicies(String rules) {
+    final var rulesAsText = new StringBuilder();
+    int n = 0;
+    int start = 0;
+    int end;
+
+    while ((end = rules.indexOf(POLICIES, start)) >= 0) {
+      rulesAsText.append(rules, start, end).append(String.format(
+        ": l loan-%1$d r request-%1$d n notice-%1$d o overdue-%1$d i lost-item-%1$d", n++));
+      start = end + POLICIES.length();
+    }
+
+    return rulesAsText.append(rules.substring(start)).toString();
+  }
+
+  private void assertSameMatches(String description, Drools drools,
+    DecisionTable decisionTable, MultiMap params, Location location) {
+
+    final var expected = drools.policyMatches(params, location);
+    final var actual = decisionTable.policyMatches(params, location);
+
+    assertSameMatch(description, expected.getLoanPolicyMatch(), actual.getLoanPolicyMatch());
+    assertSameMatch(description, expected.getRequestPolicyMatch(),
+      actual.getRequestPolicyMatch());
+    assertSameMatch(description, expected.getNoticePolicyMatch(), actual.getNoticePolicyMatch());
+    assertSameMatch(description, expected.getOverduePolicyMatch(),
+      actual.getOverduePolicyMatch());
+    assertSameMatch(description, expected.getLostItemPolicyMatch(),
+      actual.getLostItemPolicyMatch());
+    assertThat(description, actual.getCirculationRuleLine(),
+      is(expected.getCirculationRuleLine()));
+
+    assertSameMatch(description, drools.loanPolicy(params, location),
+      actual.getLoanPolicyMatch());
+    assertSameMatch(description, drools.lostItemPolicy(params, location),
+      actual.getLostItemPolicyMatch());
+  }
+
+  private void assertSameMatch(String description, CirculationRuleMatch expected,
+    CirculationRuleMatch actual) {
+
+    assertThat(description, actual.getPolicyId(), is(expected.getPolicyId()));
+
+    final var expectedConditions = expected.getAppliedRuleConditions();
+    final var actualConditions = actual.getAppliedRuleConditions();
+
+    assertThat(description, actualConditions.isItemTypePresent(),
+      is(expectedConditions.isItemTypePresent()));
+    assertThat(description, actualConditions.isLoanTypePresent(),
+      is(expectedConditions.isLoanTypePresent()));
+    assertThat(description, actualConditions.isPatronGroupPresent(),
+      is(expectedConditions.isPatronGroupPresent()));
+  }
+
+  private List<MultiMap> allParams() {
+    final List<MultiMap> allParams = new ArrayList<>();
+
+    for (String itemType : ITEM_TYPES) {
+      for (String loanType : LOAN_TYPES) {
+        for (String patronGroup : PATRON_GROUPS) {
+          for (String location : LOCATIONS) {
+            allParams.add(params(itemType, loanType, patronGroup, location));
+          }
+        }
+      }
+    }
+
+    return allParams;
+  }
+
+  private List<Location> allLocations() {
+    final List<Location> locations = new ArrayList<>();
+
+    locations.add(null);
+    locations.add(createLocation(FIRST_INSTITUTION_ID, FIRST_LIBRARY_ID, FIRST_CAMPUS_ID));
+    locations.add(createLocation(FIRST_INSTITUTION_ID, SECOND_LIBRARY_ID, SECOND_CAMPUS_ID));
+    locations.add(createLocation(SECOND_INSTITUTION_ID, FIRST_LIBRARY_ID, SECOND_CAMPUS_ID));
+    locations.add(createLocation(SECOND_INSTITUTION_ID, SECOND_LIBRARY_ID, FIRST_CAMPUS_ID));
+    locations.add(createLocation(null, null, null));
+
+    return locations;
+  }
+
+  private String describe(Location location) {
+    if (location == null) {
+      return "no location";
+    }
+
+    return String.join(" ", location.getInstitutionId(), location.getCampusId(),
+      location.getLibraryId());
+  }
+
+  private MultiMap params(String itId, String ltId, String ptId, String lId) {
+    MultiMap params = MultiMap.caseInsensitiveMultiMap();
+
+    addIfPresent(params, ITEM_TYPE_ID_NAME, itId);
+    addIfPresent(params, LOAN_TYPE_ID_NAME, ltId);
+    addIfPresent(params, PATRON_TYPE_ID_NAME, ptId);
+    addIfPresent(params, LOCATION_ID_NAME, lId);
+
+    return params;
+  }
+
+  private void addIfPresent(MultiMap params, String name, String value) {
+    if (value != null) {
+      params.add(name, value);
+    }
+  }
+
+  private Location createLocation(String institutionId, String libraryId, String campusId) {
+    return new Location(null, null, null, emptyList(), null,
+      Institution.unknown(institutionId), Campus.unknown(campusId), Library.unknown(libraryId),
+      ServicePoint.unknown());
+  }
+}
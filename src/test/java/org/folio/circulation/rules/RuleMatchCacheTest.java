@@ -0,0 +1,111 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.junit.jupiter.api.Test;
+
+class RuleMatchCacheTest {
+  private static final AppliedRuleConditions NO_CONDITIONS =
+    new AppliedRuleConditions(false, false, false);
+
+  private final AtomicInteger evaluations = new AtomicInteger();
+
+  @Test
+  void repeatedFactsAreOnlyEvaluatedOnce() {
+    final var cache = new RuleMatchCache("rules", 10);
+    final var parameters = parameters("book");
+
+    cache.getOrEvaluate(parameters, match("loan-1"));
+    final var result = cache.getOrEvaluate(parameters, match("loan-2"));
+
+    assertThat(result.value().getLoanPolicyMatch().getPolicyId(), is("loan-1"));
+    assertThat(evaluations.get(), is(1));
+    assertThat(cache.getHits(), is(1L));
+    assertThat(cache.getMisses(), is(1L));
+  }
+
+  @Test
+  void differentFactsAreCachedSeparately() {
+    final var cache = new RuleMatchCache("rules", 10);
+
+    cache.getOrEvaluate(parameters("book"), match("loan-1"));
+    cache.getOrEvaluate(parameters("dvd"), match("loan-2"));
+    cache.getOrEvaluate(parameters("book").withLocation(Location.unknown()), match("loan-3"));
+
+    assertThat(evaluations.get(), is(3));
+    assertThat(cache.getHits(), is(0L));
+    assertThat(cache.size(), is(3));
+  }
+
+  @Test
+  void failuresAreNotCached() {
+    final var cache = new RuleMatchCache("rules", 10);
+    final var parameters = parameters("book");
+
+    cache.getOrEvaluate(parameters, () -> failed(new ServerErrorFailure("no match")));
+    final var result = cache.getOrEvaluate(parameters, match("loan-1"));
+
+    assertThat(result.value().getLoanPolicyMatch().getPolicyId(), is("loan-1"));
+    assertThat(cache.getMisses(), is(2L));
+  }
+
+  @Test
+  void leastRecentlyUsedMatchIsEvicted() {
+    final var cache = new RuleMatchCache("rules", 2);
+
+    cache.getOrEvaluate(parameters("book"), match("loan-1"));
+    cache.getOrEvaluate(parameters("dvd"), match("loan-2"));
+    cache.getOrEvaluate(parameters("book"), match("loan-1"));
+    cache.getOrEvaluate(parameters("map"), match("loan-3"));
+    cache.getOrEvaluate(parameters("book"), match("loan-1"));
+    cache.getOrEvaluate(parameters("dvd"), match("loan-2"));
+
+    assertThat(cache.size(), is(2));
+    assertThat(cache.getHits(), is(2L));
+    assertThat(cache.getMisses(), is(4L));
+  }
+
+  @Test
+  void sizeZeroDisablesCaching() {
+    final var cache = new RuleMatchCache("rules", 0);
+
+    cache.getOrEvaluate(parameters("book"), match("loan-1"));
+    cache.getOrEvaluate(parameters("book"), match("loan-1"));
+
+    assertThat(cache.size(), is(0));
+    assertThat(evaluations.get(), is(2));
+  }
+
+  @Test
+  void hashDependsOnRulesText() {
+    assertThat(new RuleMatchCache("m book: l loan-1", 1).getRulesHash(),
+      is(new RuleMatchCache("m book: l loan-1", 1).getRulesHash()));
+    assertThat(new RuleMatchCache("m book: l loan-1", 1).getRulesHash(),
+      is(not(new RuleMatchCache("m book: l loan-2", 1).getRulesHash())));
+  }
+
+  private Supplier<Result<CirculationRuleMatches>> match(String loanPolicyId) {
+    return () -> {
+      evaluations.incrementAndGet();
+      final var otherPolicy = new CirculationRuleMatch("other", NO_CONDITIONS);
+
+      return succeeded(new CirculationRuleMatches(
+        new CirculationRuleMatch(loanPolicyId, NO_CONDITIONS),
+        otherPolicy, otherPolicy, otherPolicy, otherPolicy, 1));
+    };
+  }
+
+  private RulesExecutionParameters parameters(String materialTypeId) {
+    return new RulesExecutionParameters("regular", "shelf", materialTypeId, "staff", null);
+  }
+}
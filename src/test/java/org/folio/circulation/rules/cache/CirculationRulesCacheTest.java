@@ -0,0 +1,155 @@
+package org.folio.circulation.rules.cache;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.folio.circulation.rules.ExecutableRules;
+import org.folio.circulation.support.CollectionResourceClient;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.results.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.json.JsonObject;
+
+class CirculationRulesCacheTest {
+  private static final int THREADS = 16;
+  private static final int CALLS_PER_THREAD = 50;
+
+  private final CirculationRulesCache cache = CirculationRulesCache.getInstance();
+  private final CollectionResourceClient client = mock(CollectionResourceClient.class);
+  private final String tenantId = UUID.randomUUID().toString();
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+    cache.dropCache();
+  }
+
+  @Test
+  void concurrentCallersShareASingleReload() throws Exception {
+    final var response = new CompletableFuture<Result<Response>>();
+    when(client.get()).thenReturn(response);
+
+    final List<CompletableFuture<Result<ExecutableRules>>> results = callConcurrently();
+
+    response.complete(rules("loan-1"));
+
+    final ExecutableRules first = results.get(0).get(10, SECONDS).value();
+
+    for (CompletableFuture<Result<ExecutableRules>> result : results) {
+      assertThat(result.get(10, SECONDS).value(), sameInstance(first));
+    }
+
+    verify(client, times(1)).get();
+    assertThat(cache.getCompilationMetrics(tenantId).getCompilations(), is(1L));
+  }
+
+  @Test
+  void reloadAfterClearingDoesNotJoinReloadInFlight() throws Exception {
+    final var staleResponse = new CompletableFuture<Result<Response>>();
+    when(client.get())
+      .thenReturn(completedFuture(rules("loan-1")))
+      .thenReturn(staleResponse)
+      .thenReturn(completedFuture(rules("loan-2")));
+
+    cache.getExecutableRules(tenantId, client).get(10, SECONDS);
+    cache.clearCache(tenantId);
+    final var staleReload = cache.getExecutableRules(tenantId, client);
+    cache.clearCache(tenantId);
+
+    final var reload = cache.getExecutableRules(tenantId, client).get(10, SECONDS);
+
+    staleResponse.complete(rules("loan-0"));
+    staleReload.get(10, SECONDS);
+
+    assertThat(reload.value().getText(), is(rulesText("loan-2")));
+    assertThat(cache.getExecutableRules(tenantId, client).get(10, SECONDS).value().getText(),
+      is(rulesText("loan-2")));
+    verify(client, times(3)).get();
+  }
+
+  @Test
+  void failedReloadIsNotShared() throws Exception {
+    when(client.get())
+      .thenReturn(completedFuture(Result.failed(new ServerErrorFailure("storage down"))))
+      .thenReturn(completedFuture(rules("loan-1")));
+
+    assertThat(cache.getExecutableRules(tenantId, client).get(10, SECONDS).failed(), is(true));
+
+    final var result = cache.getExecutableRules(tenantId, client).get(10, SECONDS);
+
+    assertThat(result.value().getText(), is(rulesText("loan-1")));
+    verify(client, times(2)).get();
+  }
+
+  private List<CompletableFuture<Result<ExecutableRules>>> callConcurrently()
+    throws InterruptedException {
+
+    final var start = new CountDownLatch(1);
+    final var submitted = new CountDownLatch(THREADS);
+    final List<CompletableFuture<Result<ExecutableRules>>> results = new ArrayList<>();
+
+    for (int thread = 0; thread < THREADS; thread++) {
+      executor.submit(() -> {
+        try {
+          start.await();
+
+          for (int call = 0; call < CALLS_PER_THREAD; call++) {
+            final var result = cache.getExecutableRules(tenantId, client);
+
+            synchronized (results) {
+              results.add(result);
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          submitted.countDown();
+        }
+      });
+    }
+
+    start.countDown();
+    submitted.await(10, SECONDS);
+
+    synchronized (results) {
+      assertThat(results.size(), is(THREADS * CALLS_PER_THREAD));
+      return new ArrayList<>(results);
+    }
+  }
+
+  private static Result<Response> rules(String loanPolicy) {
+    final var body = new JsonObject().put("rulesAsText", rulesText(loanPolicy));
+
+    return Result.succeeded(new Response(200, body.encode(), "application/json"));
+  }
+
+  private static String rulesText(String loanPolicy) {
+    return "priority: t, s, c, b, a, m, g\n" +
+      "fallback-policy: l " + loanPolicy + " r request n notice o overdue i lost-item\n";
+  }
+}
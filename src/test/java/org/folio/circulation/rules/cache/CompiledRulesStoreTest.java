@@ -0,0 +1,192 @@
+package org.folio.circulation.rules.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.rules.Drools;
+import org.folio.circulation.rules.Text2Drools;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.vertx.core.MultiMap;
+
+class CompiledRulesStoreTest {
+  private static final String TENANT_ID = "test_tenant";
+  private static final String KEY = "secret";
+  private static final String RULES = "priority: t, s, c, b, a, m, g\n" +
+    "fallback-policy: l lp-fallback r rp n np o op i ip\n" +
+    "m book: l lp-book r rp n np o op i ip\n";
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void storedRulesMatchTheSamePolicies() {
+    final var store = new CompiledRulesStore(directory.toString(), KEY);
+    store.save(TENANT_ID, RULES, new Drools(Text2Drools.convert(RULES)));
+
+    final Drools drools = store.load(TENANT_ID, RULES).orElseThrow();
+
+    assertThat(drools.policyMatches(params("book"), Location.unknown())
+      .getLoanPolicyMatch().getPolicyId(), is("lp-book"));
+    assertThat(drools.policyMatches(params("dvd"), Location.unknown())
+      .getLoanPolicyMatch().getPolicyId(), is("lp-fallback"));
+  }
+
+  @Test
+  void rulesStoredForOtherRulesTextAreNotUsed() throws IOException {
+    final var store = new CompiledRulesStore(directory.toString(), KEY);
+    store.save(TENANT_ID, RULES, new Drools(Text2Drools.convert(RULES)));
+
+    assertThat(store.load(TENANT_ID, RULES + "m dvd: l lp-dvd r rp n np o op i ip\n")
+      .isPresent(), is(false));
+    assertThat(store.load("other_tenant", RULES).isPresent(), is(false));
+    assertThat(storedFiles(), is(1L));
+  }
+
+  @Test
+  void onlyLatestRulesAreKeptForATenant() throws IOException {
+    final var store = new CompiledRulesStore(directory.toString(), KEY);
+    final String changedRules = RULES + "m dvd: l lp-dvd r rp n np o op i ip\n";
+
+    store.save(TENANT_ID, RULES, new Drools(Text2Drools.convert(RULES)));
+    store.save(TENANT_ID, changedRules, new Drools(Text2Drools.convert(changedRules)));
+
+    assertThat(storedFiles(), is(1L));
+    assertThat(store.load(TENANT_ID, changedRules).isPresent(), is(true));
+  }
+
+  @Test
+  void corruptFileIsDiscarded() throws IOException {
+    final var store = new CompiledRulesStore(directory.toString(), KEY);
+    store.save(TENANT_ID, RULES, new Drools(Text2Drools.convert(RULES)));
+
+    try (Stream<Path> files = Files.walk(directory)) {
+      final Path file = files.filter(Files::isRegularFile).findFirst().orElseThrow();
+      final byte[] bytes = Files.readAllBytes(file);
+      Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+    }
+
+    assertThat(store.load(TENANT_ID, RULES).isPresent(), is(false));
+    assertThat(storedFiles(), is(0L));
+  }
+
+  @Test
+  void fileNotSignedWithTheKeyIsDiscarded() throws IOException {
+    new CompiledRulesStore(directory.toString(), "other secret")
+      .save(TENANT_ID, RULES, new Drools(Text2Drools.convert(RULES)));
+
+    final var store = new CompiledRulesStore(directory.toString(), KEY);
+
+    assertThat(store.load(TENANT_ID, RULES).isPresent(), is(false));
+    assertThat(storedFiles(), is(0L));
+  }
+
+  @Test
+  void fileContainingOtherClassesIsDiscarded() throws Exception {
+    final var store = new CompiledRulesStore(directory.toString(), KEY);
+    store.save(TENANT_ID, RULES, new Drools(Text2Drools.convert(RULES)));
+
+    try (Stream<Path> files = Files.walk(directory)) {
+      final Path file = files.filter(Files::isRegularFile).findFirst().orElseThrow();
+      final byte[] bytes = Files.readAllBytes(file);
+      final var header = new DataInputStream(new ByteArrayInputStream(bytes));
+
+      header.readUTF();
+      header.readInt();
+      header.readUTF();
+      header.readUTF();
+
+      final var tampered = new ByteArrayOutputStream();
+      tampered.write(bytes, 0, bytes.length - header.available());
+
+      try (var objectOutputStream = new ObjectOutputStream(tampered)) {
+        objectOutputStream.writeObject(new HashMap<>(Map.of(
+          new URL("http://localhost"), "not a rule base")));
+      }
+
+      // signed with the key, so that only the classes allowed stop it being read
+      Files.write(file, signed(tampered.toByteArray()));
+    }
+
+    assertThat(store.load(TENANT_ID, RULES).isPresent(), is(false));
+    assertThat(storedFiles(), is(0L));
+  }
+
+  @Test
+  void directoriesAreOnlyAccessibleByTheModule() throws IOException {
+    final Path storeDirectory = directory.resolve("rules");
+    final var store = new CompiledRulesStore(storeDirectory.toString(), KEY);
+
+    store.save(TENANT_ID, RULES, new Drools(Text2Drools.convert(RULES)));
+
+    assertThat(Files.getPosixFilePermissions(storeDirectory),
+      is(PosixFilePermissions.fromString("rwx------")));
+    assertThat(Files.getPosixFilePermissions(storeDirectory.resolve(TENANT_ID)),
+      is(PosixFilePermissions.fromString("rwx------")));
+  }
+
+  @Test
+  void storeIsDisabledWithoutDirectory() {
+    final var store = new CompiledRulesStore(" ", KEY);
+    store.save(TENANT_ID, RULES, new Drools(Text2Drools.convert(RULES)));
+
+    assertThat(store.isEnabled(), is(false));
+    assertThat(store.load(TENANT_ID, RULES).isPresent(), is(false));
+  }
+
+  @Test
+  void storeIsDisabledWithoutKey() throws IOException {
+    final var store = new CompiledRulesStore(directory.toString(), null);
+    store.save(TENANT_ID, RULES, new Drools(Text2Drools.convert(RULES)));
+
+    assertThat(store.isEnabled(), is(false));
+    assertThat(storedFiles(), is(0L));
+  }
+
+  private long storedFiles() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files.filter(Files::isRegularFile).count();
+    }
+  }
+
+  private static byte[] signed(byte[] contents) throws Exception {
+    final Mac signer = Mac.getInstance("HmacSHA256");
+    signer.init(new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    signer.update(TENANT_ID.getBytes(StandardCharsets.UTF_8));
+    signer.update(contents);
+
+    final var signed = new ByteArrayOutputStream();
+    signed.write(contents);
+    signed.write(signer.doFinal());
+
+    return signed.toByteArray();
+  }
+
+  private static MultiMap params(String itemTypeId) {
+    return MultiMap.caseInsensitiveMultiMap()
+      .add("item_type_id", itemTypeId)
+      .add("loan_type_id", "regular")
+      .add("patron_type_id", "staff")
+      .add("location_id", "shelf");
+  }
+}
@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -13,6 +14,7 @@ import org.folio.circulation.domain.CheckInContext;
 import org.folio.circulation.domain.Item;
 import org.folio.circulation.domain.RequestQueue;
 import org.folio.circulation.domain.representations.CheckInByBarcodeRequest;
+import org.folio.circulation.services.outbox.OutboxWriter;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.ServerErrorFailure;
@@ -38,6 +40,8 @@ class LogCheckInServiceTest {
   public void setUp() {
     when(clients.checkInStorageClient())
       .thenReturn(checkInStorageClient);
+    when(clients.outboxWriter())
+      .thenReturn(new OutboxWriter(Map.of()));
     logCheckInService = new LogCheckInService(clients);
   }
 
@@ -0,0 +1,166 @@
+package org.folio.circulation.services.outbox;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.vertx.core.json.JsonObject;
+
+class OutboxStoreTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  void storedMessagesAreLoadedInTheOrderTheyWereAdded() throws IOException {
+    final var store = new OutboxStore(directory.toString());
+
+    store.save(List.of(event("ITEM_CHECKED_IN", 11)));
+    store.save(List.of(event("ITEM_CHECKED_OUT", 2)));
+    store.save(List.of(event("LOAN_CLOSED", 10)));
+
+    assertThat(targets(store.load()), contains("ITEM_CHECKED_OUT", "LOAN_CLOSED",
+      "ITEM_CHECKED_IN"));
+  }
+
+  @Test
+  void storedMessageIsTheSameWhenLoaded() throws IOException {
+    final var store = new OutboxStore(directory.toString());
+
+    final OutboxMessage message = OutboxMessage.createRecord(
+      Map.of("x-okapi-tenant", "test_tenant"), "loan-id",
+      "http://localhost:9130/check-in-storage/check-ins",
+      new JsonObject().put("itemId", "item-id"), 1234L).withSequence(1);
+
+    store.save(List.of(message));
+
+    final OutboxMessage loaded = new OutboxStore(directory.toString()).load().get(0);
+
+    assertThat(loaded.getId(), is(message.getId()));
+    assertThat(loaded.getType(), is(OutboxMessage.Type.CREATE_RECORD));
+    assertThat(loaded.getOrderingKey(), is("loan-id"));
+    assertThat(loaded.getTarget(), is(message.getTarget()));
+    assertThat(new JsonObject(loaded.getPayload()).getString("itemId"), is("item-id"));
+    assertThat(loaded.getOkapiHeaders(), is(Map.of("x-okapi-tenant", "test_tenant")));
+    assertThat(loaded.getCreatedAt(), is(1234L));
+  }
+
+  @Test
+  void tokenIsNotStored() throws IOException {
+    final var store = new OutboxStore(directory.toString());
+
+    store.save(List.of(event("ITEM_CHECKED_OUT", 1).withToken("token")));
+
+    final OutboxMessage loaded = new OutboxStore(directory.toString()).load().get(0);
+
+    assertThat(loaded.getToken(), is(nullValue()));
+
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files.filter(Files::isRegularFile)
+        .map(OutboxStoreTest::contentOf)
+        .noneMatch(content -> content.contains("token")), is(true));
+    }
+  }
+
+  @Test
+  void deletedAndFailedMessagesAreNotLoaded() throws IOException {
+    final var store = new OutboxStore(directory.toString());
+    final OutboxMessage sent = event("ITEM_CHECKED_OUT", 1);
+    final OutboxMessage failed = event("ITEM_CHECKED_IN", 2);
+
+    store.save(List.of(sent));
+    store.save(List.of(failed));
+    store.save(List.of(event("LOAN_CLOSED", 3)));
+
+    store.delete(sent);
+    store.moveToFailed(failed);
+
+    assertThat(targets(store.load()), contains("LOAN_CLOSED"));
+    assertThat(files(directory.resolve("failed")), is(1L));
+  }
+
+  @Test
+  void messagesSavedTogetherAreStoredInOneFileUntilAllAreSentOrFailed()
+    throws IOException {
+
+    final var store = new OutboxStore(directory.toString());
+    final OutboxMessage sent = event("ITEM_CHECKED_OUT", 1);
+    final OutboxMessage failed = event("ITEM_CHECKED_IN", 2);
+    final OutboxMessage unsent = event("LOAN_CLOSED", 3);
+
+    store.save(List.of(sent, failed, unsent));
+
+    assertThat(files(directory), is(1L));
+
+    store.delete(sent);
+    store.moveToFailed(failed);
+
+    assertThat(files(directory), is(1L));
+    assertThat(targets(new OutboxStore(directory.toString()).load()),
+      contains("ITEM_CHECKED_OUT", "ITEM_CHECKED_IN", "LOAN_CLOSED"));
+
+    store.delete(unsent);
+
+    assertThat(files(directory), is(0L));
+    assertThat(files(directory.resolve("failed")), is(1L));
+  }
+
+  @Test
+  void unreadableAndPartiallyWrittenFilesAreNotLoaded() throws IOException {
+    final var store = new OutboxStore(directory.toString());
+
+    store.save(List.of(event("ITEM_CHECKED_OUT", 1)));
+    Files.writeString(directory.resolve("0000000000000000002-unreadable.json"), "{");
+    Files.writeString(directory.resolve("outbox123.tmp"), "{\"id\"");
+
+    assertThat(targets(store.load()), contains("ITEM_CHECKED_OUT"));
+    assertThat(files(directory), is(1L));
+    assertThat(files(directory.resolve("failed")), is(1L));
+  }
+
+  @Test
+  void disabledStoreHasNoMessages() throws IOException {
+    final var store = new OutboxStore(" ");
+
+    assertThat(store.isEnabled(), is(false));
+    assertThat(store.load(), is(empty()));
+  }
+
+  private static OutboxMessage event(String eventType, long sequence) {
+    return OutboxMessage.publishEvent(Map.of(), null, eventType, "{}", 0L)
+      .withSequence(sequence);
+  }
+
+  private static List<String> targets(List<OutboxMessage> messages) {
+    return messages.stream()
+      .map(OutboxMessage::getTarget)
+      .collect(Collectors.toList());
+  }
+
+  private static String contentOf(Path file) {
+    try {
+      return Files.readString(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static long files(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(Files::isRegularFile).count();
+    }
+  }
+}
@@ -0,0 +1,420 @@
+package org.folio.circulation.services.outbox;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.awaitility.Awaitility;
+import org.folio.circulation.support.ForwardOnFailure;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.results.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.vertx.core.json.JsonObject;
+
+class OutboxTest {
+  private static final Map<String, String> HEADERS = Map.of(
+    "X-Okapi-Tenant", "test_tenant", "X-Okapi-Token", "token",
+    "Content-Type", "application/json");
+
+  @TempDir
+  Path directory;
+
+  private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor();
+  private final AtomicLong currentTime = new AtomicLong(1000);
+
+  @AfterEach
+  void shutDownWorker() {
+    worker.shutdownNow();
+  }
+
+  @Test
+  void messageIsSentAndForgottenAfterBeingAdded() throws IOException {
+    final var outbox = outbox(10);
+    final var sender = new FakeSender();
+
+    outbox.start(sender);
+
+    final Result<Void> added = writer(outbox)
+      .publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-1")).join();
+
+    assertThat(added.succeeded(), is(true));
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> outbox.getMetrics().getSent(), is(1L));
+
+    final OutboxMessage sent = sender.sent().get(0);
+
+    assertThat(sent.getTarget(), is("ITEM_CHECKED_OUT"));
+    assertThat(sent.getOrderingKey(), is("loan-1"));
+    assertThat(sent.getOkapiHeaders(), is(Map.of("x-okapi-tenant", "test_tenant")));
+    assertThat(sent.getToken(), is("token"));
+    assertThat(outbox.getMetrics().getDepth(), is(0L));
+    assertThat(storedFiles(), is(0L));
+  }
+
+  @Test
+  void messagesWithTheSameOrderingKeyAreSentOneAfterTheOther() {
+    final var outbox = outbox(10);
+    final var sender = new FakeSender().waitingForCompletion();
+
+    outbox.start(sender);
+
+    final var writer = writer(outbox);
+
+    writer.publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-1")).join();
+    writer.publishEvent("ITEM_CHECKED_IN", loanEvent("loan-1")).join();
+    writer.publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-2")).join();
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> sender.sentTargets().size(), is(2));
+
+    assertThat(sender.sentTargets(), contains("ITEM_CHECKED_OUT", "ITEM_CHECKED_OUT"));
+    assertThat(outbox.getMetrics().getDepth(), is(3L));
+
+    currentTime.addAndGet(250);
+    sender.complete(sender.sent().get(0), succeeded(null));
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> sender.sentTargets().size(), is(3));
+
+    assertThat(sender.sent().get(2).getTarget(), is("ITEM_CHECKED_IN"));
+    assertThat(sender.sent().get(2).getOrderingKey(), is("loan-1"));
+    assertThat(outbox.getMetrics().getDepth(), is(2L));
+    assertThat(outbox.getMetrics().getLastDrainLagMillis(), is(250L));
+  }
+
+  @Test
+  void failedMessageIsSentAgainBeforeLaterMessagesWithTheSameOrderingKey() {
+    final var outbox = new Outbox(new OutboxStore(directory.toString()), 10, 10,
+      worker, System::currentTimeMillis);
+    final var sender = new FakeSender().failingFirstAttempts(1);
+
+    outbox.start(sender);
+
+    final var writer = writer(outbox);
+
+    writer.createRecord("loan-1", url("/patron-action-session-storage/patron-action-sessions"),
+      new JsonObject()).join();
+    writer.publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-1")).join();
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> outbox.getMetrics().getSent(), is(2L));
+
+    assertThat(sender.sentTargets(), contains(
+      "http://localhost:9130/patron-action-session-storage/patron-action-sessions",
+      "http://localhost:9130/patron-action-session-storage/patron-action-sessions",
+      "ITEM_CHECKED_OUT"));
+    assertThat(outbox.getMetrics().getFailedAttempts(), is(1L));
+  }
+
+  @Test
+  void noMoreThanTheMaximumNumberOfMessagesAreSentAtTheSameTime() {
+    final var outbox = outbox(10, 2);
+    final var sender = new FakeSender().waitingForCompletion();
+
+    outbox.start(sender);
+
+    final var writer = writer(outbox);
+
+    writer.publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-1")).join();
+    writer.publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-2")).join();
+    writer.publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-3")).join();
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> sender.sentTargets().size(), is(2));
+
+    assertThat(sender.sent().get(0).getOrderingKey(), is("loan-1"));
+    assertThat(sender.sent().get(1).getOrderingKey(), is("loan-2"));
+
+    sender.complete(sender.sent().get(1), succeeded(null));
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> sender.sentTargets().size(), is(3));
+
+    assertThat(sender.sent().get(2).getOrderingKey(), is("loan-3"));
+    assertThat(outbox.getMetrics().getDepth(), is(2L));
+  }
+
+  @Test
+  void messageIsDiscardedAfterMaximumAttempts() throws IOException {
+    final var outbox = outbox(1);
+    final var sender = new FakeSender().failingFirstAttempts(1);
+
+    outbox.start(sender);
+
+    final var writer = writer(outbox);
+
+    writer.publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-1")).join();
+    writer.publishEvent("ITEM_CHECKED_IN", loanEvent("loan-1")).join();
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> outbox.getMetrics().getSent(), is(1L));
+
+    assertThat(sender.sentTargets(), contains("ITEM_CHECKED_OUT", "ITEM_CHECKED_IN"));
+    assertThat(outbox.getMetrics().getDiscarded(), is(1L));
+    assertThat(outbox.getMetrics().getDepth(), is(0L));
+    assertThat(storedFiles(), is(0L));
+
+    try (Stream<Path> failed = Files.list(directory.resolve("failed"))) {
+      assertThat(failed.count(), is(1L));
+    }
+  }
+
+  @Test
+  void messageRefusedAsUnauthorisedIsSentAgainWithTheTokenProvidedForItsTenant() {
+    final var outbox = outbox(1);
+    final var sender = new FakeSender().refusingToken("token");
+
+    outbox.start(sender);
+
+    writer(outbox).publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-1")).join();
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> outbox.getMetrics().getFailedAttempts(), is(1L));
+
+    waitForWorker();
+
+    assertThat(sender.sent().size(), is(1));
+    assertThat(outbox.getMetrics().getDiscarded(), is(0L));
+    assertThat(outbox.getMetrics().getDepth(), is(1L));
+
+    outbox.provideToken("test_tenant", "timer-token");
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> outbox.getMetrics().getSent(), is(1L));
+
+    assertThat(sender.sentTokens(), contains("token", "timer-token"));
+    assertThat(outbox.getMetrics().getDepth(), is(0L));
+  }
+
+  @Test
+  void storedMessagesAreSentAfterRestartWithTheTokenProvidedForTheirTenant() {
+    final var stopped = outbox(10);
+
+    writer(stopped).publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-1")).join();
+    writer(stopped).publishEvent("ITEM_CHECKED_IN", loanEvent("loan-1")).join();
+
+    final var restarted = outbox(10);
+    final var sender = new FakeSender();
+
+    restarted.start(sender);
+    writer(restarted).publishEvent("LOAN_CLOSED", loanEvent("loan-1")).join();
+
+    waitForWorker();
+
+    assertThat(sender.sent(), is(empty()));
+    assertThat(restarted.getMetrics().getDepth(), is(3L));
+
+    restarted.provideToken("test_tenant", "timer-token");
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> restarted.getMetrics().getSent(), is(3L));
+
+    assertThat(sender.sentTargets(), contains("ITEM_CHECKED_OUT", "ITEM_CHECKED_IN",
+      "LOAN_CLOSED"));
+    assertThat(sender.sentTokens(), contains("timer-token", "timer-token", "token"));
+  }
+
+  @Test
+  void expiredTokenProvidedForTenantIsNotUsed() {
+    final var stopped = outbox(10);
+
+    writer(stopped).publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-1")).join();
+
+    final var restarted = outbox(10);
+    final var sender = new FakeSender();
+
+    restarted.provideToken("test_tenant", "timer-token");
+    waitForWorker();
+    currentTime.addAndGet(MINUTES.toMillis(11));
+    restarted.start(sender);
+
+    waitForWorker();
+
+    assertThat(sender.sent(), is(empty()));
+    assertThat(restarted.getMetrics().getDepth(), is(1L));
+  }
+
+  @Test
+  void messagesAddedWhileOthersAreBeingStoredAreStoredTogether() throws Exception {
+    final var outbox = outbox(10);
+    final var storing = new CountDownLatch(1);
+
+    worker.execute(() -> awaitQuietly(storing));
+
+    final var writer = writer(outbox);
+
+    final List<CompletableFuture<Result<Void>>> added = List.of(
+      writer.publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-1")),
+      writer.publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-2")),
+      writer.publishEvent("ITEM_CHECKED_OUT", loanEvent("loan-3")));
+
+    storing.countDown();
+
+    for (CompletableFuture<Result<Void>> result : added) {
+      assertThat(result.get(5, SECONDS).succeeded(), is(true));
+    }
+
+    assertThat(outbox.getMetrics().getAdded(), is(3L));
+    assertThat(outbox.getMetrics().getWrites(), is(1L));
+    assertThat(storedFiles(), is(1L));
+  }
+
+  @Test
+  void logRecordIsOrderedByTheLoanOfItsPayload() {
+    final var outbox = outbox(10);
+    final var sender = new FakeSender();
+
+    outbox.start(sender);
+
+    writer(outbox).publishEvent("LOG_RECORD", new JsonObject()
+      .put("logEventType", "LOAN")
+      .put("payload", new JsonObject().put("loanId", "loan-1"))
+      .encode()).join();
+
+    writer(outbox).publishEvent("LOG_RECORD", "{}").join();
+
+    Awaitility.await().atMost(5, SECONDS)
+      .until(() -> outbox.getMetrics().getSent(), is(2L));
+
+    assertThat(sender.sent().get(0).getOrderingKey(), is("loan-1"));
+    assertThat(sender.sent().get(1).getOrderingKey(), is((String) null));
+  }
+
+  private Outbox outbox(int maximumAttempts) {
+    return outbox(maximumAttempts, 10);
+  }
+
+  private Outbox outbox(int maximumAttempts, int maximumInFlight) {
+    return new Outbox(new OutboxStore(directory.toString()), maximumAttempts,
+      maximumInFlight, worker, currentTime::get);
+  }
+
+  private static OutboxWriter writer(Outbox outbox) {
+    return new OutboxWriter(outbox, HEADERS);
+  }
+
+  private static String loanEvent(String loanId) {
+    return new JsonObject().put("loanId", loanId).encode();
+  }
+
+  private static URL url(String path) {
+    try {
+      return new URL("http://localhost:9130" + path);
+    } catch (MalformedURLException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  private void waitForWorker() {
+    try {
+      worker.submit(() -> { }).get(5, SECONDS);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private long storedFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(Files::isRegularFile).count();
+    }
+  }
+
+  private static class FakeSender implements OutboxMessageSender {
+    private final List<OutboxMessage> sent = new ArrayList<>();
+    private final Map<String, CompletableFuture<Result<Void>>> waiting = new ConcurrentHashMap<>();
+    private boolean waitForCompletion;
+    private String refusedToken;
+    private int attemptsToFail;
+
+    FakeSender waitingForCompletion() {
+      waitForCompletion = true;
+      return this;
+    }
+
+    FakeSender refusingToken(String token) {
+      refusedToken = token;
+      return this;
+    }
+
+    FakeSender failingFirstAttempts(int attempts) {
+      attemptsToFail = attempts;
+      return this;
+    }
+
+    @Override
+    public synchronized CompletableFuture<Result<Void>> send(OutboxMessage message) {
+      sent.add(message);
+
+      if (refusedToken != null && refusedToken.equals(message.getToken())) {
+        return CompletableFuture.completedFuture(failed(new ForwardOnFailure(
+          new Response(401, "Invalid token", "text/plain"))));
+      }
+
+      if (attemptsToFail > 0) {
+        attemptsToFail--;
+        return CompletableFuture.completedFuture(failedDueToServerError("Not available"));
+      }
+
+      if (waitForCompletion) {
+        return waiting.computeIfAbsent(message.getId(), id -> new CompletableFuture<>());
+      }
+
+      return CompletableFuture.completedFuture(succeeded(null));
+    }
+
+    void complete(OutboxMessage message, Result<Void> result) {
+      waiting.get(message.getId()).complete(result);
+    }
+
+    synchronized List<OutboxMessage> sent() {
+      return new ArrayList<>(sent);
+    }
+
+    List<String> sentTargets() {
+      return sent().stream()
+        .map(OutboxMessage::getTarget)
+        .collect(Collectors.toList());
+    }
+
+    List<String> sentTokens() {
+      return sent().stream()
+        .map(OutboxMessage::getToken)
+        .collect(Collectors.toList());
+    }
+  }
+}
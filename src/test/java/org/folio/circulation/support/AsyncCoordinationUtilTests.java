@@ -0,0 +1,95 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allResultsOf;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.folio.circulation.support.results.Result;
+import org.junit.jupiter.api.Test;
+
+class AsyncCoordinationUtilTests {
+  @Test
+  void limitsActionsInProgressAndKeepsOrderOfResults() {
+    final List<CompletableFuture<Result<Integer>>> started = new ArrayList<>();
+
+    final CompletableFuture<Result<List<Integer>>> all = allOf(List.of(1, 2, 3, 4), 2,
+      element -> {
+        final CompletableFuture<Result<Integer>> action = new CompletableFuture<>();
+        started.add(action);
+        return action;
+      });
+
+    assertThat(started.size(), is(2));
+
+    started.get(1).complete(succeeded(20));
+
+    assertThat(started.size(), is(3));
+
+    started.get(2).complete(succeeded(30));
+    started.get(3).complete(succeeded(40));
+
+    assertThat(all.isDone(), is(false));
+
+    started.get(0).complete(succeeded(10));
+
+    assertThat(all.join().value(), is(List.of(10, 20, 30, 40)));
+  }
+
+  @Test
+  void actionsThatCompleteImmediatelyDoNotStartOthersRecursively() {
+    final List<Integer> elements = IntStream.range(0, 50_000).boxed()
+      .collect(Collectors.toList());
+
+    final List<Result<Integer>> results = allResultsOf(elements, 3,
+      element -> completedFuture(succeeded(element))).join();
+
+    assertThat(results.size(), is(elements.size()));
+    assertThat(results.get(49_999).value(), is(49_999));
+  }
+
+  @Test
+  void allResultsAreReturnedWhenSomeActionsFail() {
+    final List<Result<Integer>> results = allResultsOf(List.of(1, 2, 3), 1,
+      element -> completedFuture(element == 2
+        ? failed(new ServerErrorFailure("Failed"))
+        : succeeded(element))).join();
+
+    assertThat(results.get(0).value(), is(1));
+    assertThat(results.get(1).failed(), is(true));
+    assertThat(results.get(2).value(), is(3));
+  }
+
+  @Test
+  void failsWhenAnActionCompletesExceptionally() {
+    final List<Integer> actionsStarted = new ArrayList<>();
+
+    final CompletableFuture<List<Result<Integer>>> all = allResultsOf(List.of(1, 2, 3), 1,
+      element -> {
+        actionsStarted.add(element);
+        return element == 1
+          ? CompletableFuture.failedFuture(new RuntimeException("Failed"))
+          : completedFuture(succeeded(element));
+      });
+
+    assertThrows(CompletionException.class, all::join);
+    assertThat(actionsStarted, is(List.of(1)));
+  }
+
+  @Test
+  void emptyCollectionGivesNoResults() {
+    assertThat(allOf(List.<Integer>of(), 5, element -> completedFuture(succeeded(element)))
+      .join().value().isEmpty(), is(true));
+  }
+}
@@ -0,0 +1,67 @@
+package org.folio.circulation.support;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Measures the bytes allocated and the time taken by an operation on the current
+ * thread, for comparing implementations in a unit test without a benchmark harness.
+ */
+public class Benchmark {
+  private static final ThreadMXBean threads =
+    (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private Benchmark() { }
+
+  public static boolean isSupported() {
+    return threads.isThreadAllocatedMemorySupported();
+  }
+
+  /**
+   * Run the operation the given number of times to warm up, then measure running it
+   * the same number of times.
+   */
+  public static Measurement measure(int iterations, Runnable operation) {
+    for (int iteration = 0; iteration < iterations; iteration++) {
+      operation.run();
+    }
+
+    final long threadId = Thread.currentThread().getId();
+    final long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+    final long nanosBefore = System.nanoTime();
+
+    for (int iteration = 0; iteration < iterations; iteration++) {
+      operation.run();
+    }
+
+    final long nanos = System.nanoTime() - nanosBefore;
+    final long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+    return new Measurement(bytes / iterations, nanos / iterations);
+  }
+
+  public static class Measurement {
+    private final long bytesPerOperation;
+    private final long nanosPerOperation;
+
+    private Measurement(long bytesPerOperation, long nanosPerOperation) {
+      this.bytesPerOperation = bytesPerOperation;
+      this.nanosPerOperation = nanosPerOperation;
+    }
+
+    public long getBytesPerOperation() {
+      return bytesPerOperation;
+    }
+
+    public long getNanosPerOperation() {
+      return nanosPerOperation;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d bytes and %d ns per operation", bytesPerOperation,
+        nanosPerOperation);
+    }
+  }
+}
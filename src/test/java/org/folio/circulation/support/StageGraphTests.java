@@ -0,0 +1,152 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.support.results.Result;
+import org.junit.jupiter.api.Test;
+
+class StageGraphTests {
+  private final Map<String, CompletableFuture<Result<String>>> running = new HashMap<>();
+  private final List<String> started = new ArrayList<>();
+
+  @Test
+  void stagesStartAsSoonAsTheirDependenciesHaveCompleted() {
+    final var graph = new StageGraph<Map<String, String>>();
+
+    final var first = graph.stage("first", List.of(), context -> start("first"), this::put);
+    final var second = graph.stage("second", List.of(), context -> start("second"), this::put);
+    graph.stage("after first", List.of(first), context -> start("after first"), this::put);
+    graph.stage("after both", List.of(first, second), context -> start("after both"),
+      this::put);
+
+    final var result = graph.run(Map.of());
+
+    assertThat(started, is(List.of("first", "second")));
+
+    complete("first");
+
+    assertThat(started, is(List.of("first", "second", "after first")));
+
+    complete("second");
+
+    assertThat(started, is(List.of("first", "second", "after first", "after both")));
+
+    complete("after both");
+
+    assertThat(result.isDone(), is(false));
+
+    complete("after first");
+
+    assertThat(result.join().value(), is(Map.of("first", "first", "second", "second",
+      "after first", "after first", "after both", "after both")));
+  }
+
+  @Test
+  void stagesAreGivenWhatTheirDependenciesProduced() {
+    final var graph = new StageGraph<Map<String, String>>();
+
+    final var first = graph.stage("first", List.of(),
+      context -> completedFuture(succeeded("value")), this::put);
+
+    graph.stage("second", List.of(first),
+      context -> completedFuture(succeeded(context.get("value") + " used")), this::put);
+
+    assertThat(graph.run(Map.of()).join().value().get("value used"), is("value used"));
+  }
+
+  @Test
+  void firstFailureFailsTheGraphAndStopsFurtherStages() {
+    final var graph = new StageGraph<Map<String, String>>();
+
+    final var check = graph.check("check", List.of(),
+      context -> failed(new ServerErrorFailure("Check failed")));
+
+    graph.stage("after check", List.of(check), context -> start("after check"), this::put);
+
+    final var result = graph.run(Map.of()).join();
+
+    assertThat(result.failed(), is(true));
+    assertThat(started.isEmpty(), is(true));
+  }
+
+  @Test
+  void failureOfTheStageDeclaredFirstIsReportedWhicheverFailsFirst() {
+    final var graph = new StageGraph<Map<String, String>>();
+
+    final var find = graph.stage("find", List.of(), context -> start("find"), this::put);
+    final var validate = graph.check("validate", List.of(find),
+      context -> failed(new ServerErrorFailure("Validation failed")));
+    graph.stage("look up", List.of(), context -> start("look up"), this::put);
+    graph.stage("after find", List.of(find), context -> start("after find"), this::put);
+    graph.stage("after validate", List.of(validate), context -> start("after validate"),
+      this::put);
+
+    final var result = graph.run(Map.of());
+
+    fail("look up");
+
+    assertThat(result.isDone(), is(false));
+
+    complete("find");
+
+    assertThat(started, is(List.of("find", "look up")));
+    assertThat(((ServerErrorFailure) result.join().cause()).getReason(),
+      is("Validation failed"));
+  }
+
+  @Test
+  void stageThatThrowsFailsTheGraph() {
+    final var graph = new StageGraph<Map<String, String>>();
+
+    graph.stage("throws", List.of(), context -> {
+      throw new IllegalStateException("Stage failed");
+    }, this::put);
+
+    assertThat(graph.run(Map.of()).join().failed(), is(true));
+  }
+
+  @Test
+  void dependenciesMustBeAddedFirst() {
+    final var graph = new StageGraph<Map<String, String>>();
+    final var otherGraph = new StageGraph<Map<String, String>>();
+
+    final var notInGraph = otherGraph.check("other", List.of(), context -> succeeded(null));
+
+    assertThrows(IllegalArgumentException.class,
+      () -> graph.check("check", List.of(notInGraph), context -> succeeded(null)));
+  }
+
+  private CompletableFuture<Result<String>> start(String name) {
+    final var stage = new CompletableFuture<Result<String>>();
+
+    started.add(name);
+    running.put(name, stage);
+
+    return stage;
+  }
+
+  private void complete(String name) {
+    running.get(name).complete(succeeded(name));
+  }
+
+  private void fail(String name) {
+    running.get(name).complete(failed(new ServerErrorFailure(name + " failed")));
+  }
+
+  private Map<String, String> put(Map<String, String> context, String value) {
+    final var updated = new HashMap<>(context);
+    updated.put(value, value);
+    return updated;
+  }
+}
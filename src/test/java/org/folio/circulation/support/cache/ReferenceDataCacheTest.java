@@ -0,0 +1,182 @@
+package org.folio.circulation.support.cache;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.cache.ReferenceDataType.LOAN_POLICIES;
+import static org.folio.circulation.support.cache.ReferenceDataType.LOAN_TYPES;
+import static org.folio.circulation.support.cache.ReferenceDataType.MATERIAL_TYPES;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.results.Result;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+class ReferenceDataCacheTest {
+  private static final String TENANT_ID = "test_tenant";
+  private static final String KEY = "/material-types/book";
+
+  private final AtomicLong now = new AtomicLong(1000);
+  private final ReferenceDataCache cache = new ReferenceDataCache(60000, 30000, 2,
+    EnumSet.of(MATERIAL_TYPES, LOAN_TYPES), now::get);
+  private final List<String> fetchedKeys = new ArrayList<>();
+
+  @Test
+  void responseIsOnlyFetchedOnceWithinTimeToLive() {
+    get(KEY);
+    now.addAndGet(59999);
+    get(KEY);
+
+    assertThat(fetchedKeys, is(List.of(KEY)));
+    assertThat(cache.getStatistics().getHits(), is(1L));
+    assertThat(cache.getStatistics().getMisses(), is(1L));
+  }
+
+  @Test
+  void staleResponseIsUsedWhileItIsRefreshed() {
+    final CompletableFuture<Result<Response>> refresh = new CompletableFuture<>();
+
+    final Response first = get(KEY);
+    now.addAndGet(60000);
+
+    final Response stale = cache.get(TENANT_ID, MATERIAL_TYPES, KEY, () -> {
+      fetchedKeys.add(KEY);
+      return refresh;
+    }).join().value();
+
+    assertThat(stale.getJson(), is(first.getJson()));
+
+    refresh.complete(succeeded(record("refreshed")));
+
+    assertThat(get(KEY).getJson().getString("name"), is("refreshed"));
+    assertThat(fetchedKeys, is(List.of(KEY, KEY)));
+    assertThat(cache.getStatistics().getStaleHits(), is(1L));
+    assertThat(cache.getStatistics().getRefreshes(), is(1L));
+  }
+
+  @Test
+  void responseIsFetchedAgainWhenTooStale() {
+    get(KEY);
+    now.addAndGet(90000);
+    get(KEY);
+
+    assertThat(fetchedKeys, is(List.of(KEY, KEY)));
+    assertThat(cache.getStatistics().getStaleHits(), is(0L));
+  }
+
+  @Test
+  void leastRecentlyUsedResponseIsEvicted() {
+    get("/material-types/1");
+    get("/material-types/2");
+    get("/material-types/1");
+    get("/material-types/3");
+    get("/material-types/1");
+    get("/material-types/2");
+
+    assertThat(fetchedKeys, is(List.of("/material-types/1", "/material-types/2",
+      "/material-types/3", "/material-types/2")));
+    assertThat(cache.getStatistics().getEvictions(), is(2L));
+    assertThat(cache.getStatistics().getEntries(), is(2));
+  }
+
+  @Test
+  void responsesOfTypeAreFetchedAgainAfterInvalidation() {
+    get(KEY);
+    cache.get(TENANT_ID, LOAN_TYPES, "/loan-types/regular", () -> fetch("/loan-types/regular"))
+      .join();
+
+    cache.invalidate(TENANT_ID, MATERIAL_TYPES);
+
+    get(KEY);
+    cache.get(TENANT_ID, LOAN_TYPES, "/loan-types/regular", () -> fetch("/loan-types/regular"))
+      .join();
+
+    assertThat(fetchedKeys, is(List.of(KEY, "/loan-types/regular", KEY)));
+  }
+
+  @Test
+  void responseFetchedBeforeInvalidationIsNotKept() {
+    final CompletableFuture<Result<Response>> inFlight = new CompletableFuture<>();
+
+    final var response = cache.get(TENANT_ID, MATERIAL_TYPES, KEY, () -> inFlight);
+    cache.invalidate(TENANT_ID, MATERIAL_TYPES);
+    inFlight.complete(succeeded(record("book")));
+    response.join();
+
+    get(KEY);
+
+    assertThat(fetchedKeys, is(List.of(KEY)));
+  }
+
+  @Test
+  void failuresNotFoundAndEmptyCollectionsAreNotKept() {
+    cache.get(TENANT_ID, MATERIAL_TYPES, "/failed",
+      () -> completedFuture(failed(new ServerErrorFailure("storage down")))).join();
+    cache.get(TENANT_ID, MATERIAL_TYPES, "/missing",
+      () -> completedFuture(succeeded(new Response(404, "Not found", "text/plain")))).join();
+    cache.get(TENANT_ID, MATERIAL_TYPES, "/empty",
+      () -> completedFuture(succeeded(new Response(200, new JsonObject()
+        .put("mtypes", new JsonArray()).put("totalRecords", 0).encode(),
+        "application/json")))).join();
+
+    get("/failed");
+    get("/missing");
+    get("/empty");
+
+    assertThat(fetchedKeys, containsInAnyOrder("/failed", "/missing", "/empty"));
+  }
+
+  @Test
+  void responsesAreCachedForEachTenant() {
+    get(KEY);
+    cache.get("other_tenant", MATERIAL_TYPES, KEY, () -> fetch(KEY)).join();
+
+    assertThat(fetchedKeys, is(List.of(KEY, KEY)));
+  }
+
+  @Test
+  void typesNotChosenAreNotCached() {
+    cache.get(TENANT_ID, LOAN_POLICIES, KEY, () -> fetch(KEY)).join();
+    cache.get(TENANT_ID, LOAN_POLICIES, KEY, () -> fetch(KEY)).join();
+
+    assertThat(cache.isEnabled(LOAN_POLICIES), is(false));
+    assertThat(fetchedKeys, is(List.of(KEY, KEY)));
+  }
+
+  @Test
+  void cachedTypesAreChosenByName() {
+    assertThat(ReferenceDataCache.cachedTypes(null),
+      is(EnumSet.noneOf(ReferenceDataType.class)));
+    assertThat(ReferenceDataCache.cachedTypes(" "),
+      is(EnumSet.noneOf(ReferenceDataType.class)));
+    assertThat(ReferenceDataCache.cachedTypes("material-types, LOAN-POLICIES,unknown"),
+      is(EnumSet.of(MATERIAL_TYPES, LOAN_POLICIES)));
+  }
+
+  private Response get(String key) {
+    return cache.get(TENANT_ID, MATERIAL_TYPES, key, () -> fetch(key)).join().value();
+  }
+
+  private CompletableFuture<Result<Response>> fetch(String key) {
+    fetchedKeys.add(key);
+
+    return completedFuture(succeeded(record(key)));
+  }
+
+  private static Response record(String name) {
+    return new Response(200, new JsonObject().put("name", name).encode(),
+      "application/json");
+  }
+}
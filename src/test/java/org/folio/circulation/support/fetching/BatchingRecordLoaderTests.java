@@ -0,0 +1,172 @@
+package org.folio.circulation.support.fetching;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import lombok.SneakyThrows;
+
+class BatchingRecordLoaderTests {
+  private final Vertx vertx = Vertx.vertx();
+
+  @SuppressWarnings("unchecked")
+  private final FindWithMultipleCqlIndexValues<JsonObject> finder =
+    mock(FindWithMultipleCqlIndexValues.class);
+
+  private final List<String> singleRecordsFetched = new ArrayList<>();
+
+  private final BatchingRecordLoader loader = new BatchingRecordLoader("item", finder,
+    this::fetchSingleRecord, true);
+
+  @AfterEach
+  void closeVertx() {
+    vertx.close();
+  }
+
+  @Test
+  void recordsLoadedAtTheSameTimeAreFetchedTogether() {
+    final var firstId = UUID.randomUUID().toString();
+    final var secondId = UUID.randomUUID().toString();
+    final var missingId = UUID.randomUUID().toString();
+
+    findsRecords(firstId, secondId);
+
+    final var loaded = loadOnContext(firstId, secondId, missingId);
+
+    assertThat(loaded.get(0).value().getString("id"), is(firstId));
+    assertThat(loaded.get(1).value().getString("id"), is(secondId));
+    assertThat(loaded.get(2).value(), is(nullValue()));
+
+    assertThat(idsFetchedTogether(), containsInAnyOrder(firstId, secondId, missingId));
+    assertThat(singleRecordsFetched.isEmpty(), is(true));
+  }
+
+  @Test
+  void eachCallerGetsItsOwnCopyOfTheSameRecord() {
+    final var id = UUID.randomUUID().toString();
+
+    findsRecords(id);
+
+    final var loaded = loadOnContext(id, id.toUpperCase());
+
+    assertThat(loaded.get(0).value(), is(loaded.get(1).value()));
+    assertThat(loaded.get(0).value(), not(sameInstance(loaded.get(1).value())));
+    assertThat(idsFetchedTogether(), containsInAnyOrder(id));
+  }
+
+  @Test
+  void allCallersGetTheFailureOfTheBatch() {
+    when(finder.findByIds(any())).thenReturn(completedFuture(
+      failed(new ServerErrorFailure("Storage is not available"))));
+
+    final var loaded = loadOnContext(UUID.randomUUID().toString(),
+      UUID.randomUUID().toString());
+
+    assertThat(loaded.get(0).failed(), is(true));
+    assertThat(loaded.get(1).failed(), is(true));
+  }
+
+  @Test
+  void recordsLoadedOutsideOfAContextOrNotByUuidAreFetchedOnTheirOwn() {
+    final var id = UUID.randomUUID().toString();
+
+    loader.load(id).join();
+    loadOnContext("not-a-uuid");
+
+    assertThat(singleRecordsFetched, is(List.of(id, "not-a-uuid")));
+    verify(finder, never()).findByIds(any());
+  }
+
+  @Test
+  void recordsAreFetchedOnTheirOwnWhenBatchingIsDisabled() {
+    final var disabledLoader = new BatchingRecordLoader("item", finder,
+      this::fetchSingleRecord, false);
+
+    final var id = UUID.randomUUID().toString();
+
+    loadOnContext(disabledLoader, id);
+
+    assertThat(singleRecordsFetched, is(List.of(id)));
+    verify(finder, never()).findByIds(any());
+  }
+
+  private void findsRecords(String... ids) {
+    final List<JsonObject> records = new ArrayList<>();
+
+    for (String id : ids) {
+      records.add(new JsonObject().put("id", id));
+    }
+
+    when(finder.findByIds(any())).thenReturn(completedFuture(
+      succeeded(new MultipleRecords<>(records, records.size()))));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Collection<String> idsFetchedTogether() {
+    final ArgumentCaptor<Collection<String>> ids = ArgumentCaptor.forClass(Collection.class);
+
+    verify(finder, times(1)).findByIds(ids.capture());
+
+    return ids.getValue();
+  }
+
+  private List<Result<JsonObject>> loadOnContext(String... ids) {
+    return loadOnContext(loader, ids);
+  }
+
+  @SneakyThrows
+  private List<Result<JsonObject>> loadOnContext(BatchingRecordLoader recordLoader,
+    String... ids) {
+
+    final var loading = new CompletableFuture<List<CompletableFuture<Result<JsonObject>>>>();
+
+    vertx.runOnContext(notUsed -> loading.complete(Stream.of(ids)
+      .map(recordLoader::load)
+      .collect(Collectors.toList())));
+
+    final List<Result<JsonObject>> loaded = new ArrayList<>();
+
+    for (CompletableFuture<Result<JsonObject>> future : loading.get(5, SECONDS)) {
+      loaded.add(future.get(5, SECONDS));
+    }
+
+    return loaded;
+  }
+
+  private CompletableFuture<Result<JsonObject>> fetchSingleRecord(String id) {
+    singleRecordsFetched.add(id);
+
+    return completedFuture(succeeded(new JsonObject().put("id", id)));
+  }
+}
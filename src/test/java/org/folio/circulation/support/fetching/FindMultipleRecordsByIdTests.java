@@ -1,11 +1,13 @@
 package org.folio.circulation.support.fetching;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatchAny;
 import static org.folio.circulation.support.http.client.PageLimit.maximumLimit;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -14,16 +16,19 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.support.FindWithCqlQuery;
 import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
+import org.folio.circulation.support.ServerErrorFailure;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.results.Result;
 import org.junit.Rule;
@@ -140,6 +145,183 @@ class FindMultipleRecordsByIdTests {
     verify(queryFinder, times(0)).findByQuery(any(), any());
   }
 
+  @Test
+  void shouldKeepQueriesForLongValuesShortEnoughForUrl() {
+    when(queryFinder.findByQuery(any(), any())).thenReturn(
+      CompletableFuture.completedFuture(Result.succeeded(MultipleRecords.empty())));
+
+    final int maximumEncodedQueryLength = 1000;
+
+    final FindWithMultipleCqlIndexValues<JsonObject> fetcher
+      = new CqlIndexValuesFinder<>(queryFinder, 50, maximumEncodedQueryLength, 10);
+
+    final List<String> barcodes = Stream.generate(() -> "barcode-" + "0".repeat(100))
+      .limit(20)
+      .map(barcode -> barcode + UUID.randomUUID())
+      .collect(Collectors.toList());
+
+    fetcher.findByIdIndexAndQuery(barcodes, "barcode", exactMatch("status", "Open"));
+
+    verify(queryFinder, times(4))
+      .findByQuery(generatedCqlQueries.capture(), eq(maximumLimit()));
+
+    generatedCqlQueries.getAllValues().forEach(query -> assertThat(
+      query.value().encodedLength(), lessThanOrEqualTo(maximumEncodedQueryLength)));
+  }
+
+  @Test
+  void shouldLimitQueriesSentAtTheSameTime() {
+    final List<CompletableFuture<Result<MultipleRecords<JsonObject>>>> sentQueries =
+      sendQueriesWhenAsked();
+
+    final FindWithMultipleCqlIndexValues<JsonObject> fetcher
+      = new CqlIndexValuesFinder<>(queryFinder, 1, 3500, 2);
+
+    final CompletableFuture<Result<MultipleRecords<JsonObject>>> futureResult
+      = fetcher.findByIds(generateIds(5));
+
+    assertThat(sentQueries.size(), is(2));
+
+    sentQueries.get(1).complete(foundRecords(1));
+
+    assertThat(sentQueries.size(), is(3));
+
+    sentQueries.get(0).complete(foundRecords(1));
+    sentQueries.get(2).complete(foundRecords(1));
+    sentQueries.get(3).complete(foundRecords(1));
+
+    assertThat(futureResult.isDone(), is(false));
+
+    sentQueries.get(4).complete(foundRecords(1));
+
+    assertThat(futureResult.join().value().size(), is(5));
+    assertThat(futureResult.join().value().getTotalRecords(), is(5));
+  }
+
+  @Test
+  void slotWaitIsTheTimeTheLookupWasHeldUp() {
+    final List<CompletableFuture<Result<MultipleRecords<JsonObject>>>> sentQueries =
+      sendQueriesWhenAsked();
+    final AtomicLong now = new AtomicLong(MILLISECONDS.toNanos(1000));
+
+    final FindWithMultipleCqlIndexValues<JsonObject> fetcher
+      = new CqlIndexValuesFinder<>(queryFinder, 1, 3500, new QuerySlots(1), now::get);
+
+    final long slotWaitBefore = CqlIndexValuesFinder.getMetrics().getTotalSlotWaitMillis();
+
+    final CompletableFuture<Result<MultipleRecords<JsonObject>>> futureResult
+      = fetcher.findByIds(generateIds(5));
+
+    for (int query = 0; query < 4; query++) {
+      now.addAndGet(MILLISECONDS.toNanos(50));
+      sentQueries.get(query).complete(foundRecords(1));
+    }
+
+    now.addAndGet(MILLISECONDS.toNanos(300));
+    sentQueries.get(4).complete(foundRecords(1));
+
+    final long slotWait = CqlIndexValuesFinder.getMetrics().getTotalSlotWaitMillis()
+      - slotWaitBefore;
+
+    assertThat(futureResult.join().value().size(), is(5));
+    assertThat(slotWait, is(200L));
+  }
+
+  @Test
+  void recordsAreCombinedInTheOrderOfThePartitions() {
+    final List<CompletableFuture<Result<MultipleRecords<JsonObject>>>> sentQueries =
+      sendQueriesWhenAsked();
+
+    final FindWithMultipleCqlIndexValues<JsonObject> fetcher
+      = new CqlIndexValuesFinder<>(queryFinder, 1, 3500, 3);
+
+    final CompletableFuture<Result<MultipleRecords<JsonObject>>> futureResult
+      = fetcher.findByIds(generateIds(3));
+
+    sentQueries.get(2).complete(foundRecord("third"));
+    sentQueries.get(0).complete(foundRecord("first"));
+    sentQueries.get(1).complete(foundRecord("second"));
+
+    assertThat(futureResult.join().value().getRecords().stream()
+        .map(record -> record.getString("name"))
+        .collect(Collectors.toList()),
+      is(List.of("first", "second", "third")));
+  }
+
+  @Test
+  void lookupsSharingSlotsAreLimitedTogether() {
+    final List<CompletableFuture<Result<MultipleRecords<JsonObject>>>> sentQueries =
+      sendQueriesWhenAsked();
+    final QuerySlots querySlots = new QuerySlots(2);
+
+    final FindWithMultipleCqlIndexValues<JsonObject> firstFetcher
+      = new CqlIndexValuesFinder<>(queryFinder, 1, 3500, querySlots, System::nanoTime);
+    final FindWithMultipleCqlIndexValues<JsonObject> secondFetcher
+      = new CqlIndexValuesFinder<>(queryFinder, 1, 3500, querySlots, System::nanoTime);
+
+    final CompletableFuture<Result<MultipleRecords<JsonObject>>> firstResult
+      = firstFetcher.findByIds(generateIds(2));
+    final CompletableFuture<Result<MultipleRecords<JsonObject>>> secondResult
+      = secondFetcher.findByIds(generateIds(2));
+
+    assertThat(sentQueries.size(), is(2));
+
+    sentQueries.get(0).complete(foundRecords(1));
+    sentQueries.get(1).complete(foundRecords(1));
+
+    assertThat(firstResult.join().value().size(), is(2));
+    assertThat(sentQueries.size(), is(4));
+
+    sentQueries.get(2).complete(foundRecords(1));
+    sentQueries.get(3).complete(foundRecords(1));
+
+    assertThat(secondResult.join().value().size(), is(2));
+  }
+
+  @Test
+  void shouldStopSendingQueriesWhenOneFails() {
+    when(queryFinder.findByQuery(any(), any())).thenReturn(
+      CompletableFuture.completedFuture(Result.failed(
+        new ServerErrorFailure("Storage is not available"))));
+
+    final FindWithMultipleCqlIndexValues<JsonObject> fetcher
+      = new CqlIndexValuesFinder<>(queryFinder, 1, 3500, 1);
+
+    final CompletableFuture<Result<MultipleRecords<JsonObject>>> futureResult
+      = fetcher.findByIds(generateIds(3));
+
+    assertThat(futureResult.join().failed(), is(true));
+
+    verify(queryFinder, times(1)).findByQuery(any(), any());
+  }
+
+  private List<CompletableFuture<Result<MultipleRecords<JsonObject>>>> sendQueriesWhenAsked() {
+    final List<CompletableFuture<Result<MultipleRecords<JsonObject>>>> sentQueries =
+      new ArrayList<>();
+
+    when(queryFinder.findByQuery(any(), any())).thenAnswer(invocation -> {
+      final CompletableFuture<Result<MultipleRecords<JsonObject>>> query =
+        new CompletableFuture<>();
+
+      sentQueries.add(query);
+
+      return query;
+    });
+
+    return sentQueries;
+  }
+
+  private Result<MultipleRecords<JsonObject>> foundRecord(String name) {
+    return Result.succeeded(new MultipleRecords<>(
+      List.of(new JsonObject().put("name", name)), 1));
+  }
+
+  private Result<MultipleRecords<JsonObject>> foundRecords(int numberOfRecords) {
+    return Result.succeeded(new MultipleRecords<>(
+      Stream.generate(JsonObject::new).limit(numberOfRecords).collect(Collectors.toList()),
+      numberOfRecords));
+  }
+
   private Collection<String> generateIds(int size) {
     return Stream.generate(UUID::randomUUID)
       .map(UUID::toString)
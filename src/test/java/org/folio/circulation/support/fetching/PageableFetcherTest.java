@@ -4,6 +4,9 @@ import static java.lang.Math.min;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.IntStream.range;
+import static org.folio.circulation.support.CqlSortBy.ascending;
+import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
+import static org.folio.circulation.support.http.client.CqlQuery.greaterThan;
 import static org.folio.circulation.support.http.client.CqlQuery.noQuery;
 import static org.folio.circulation.support.http.client.PageLimit.limit;
 import static org.folio.circulation.support.results.Result.failed;
@@ -19,7 +22,10 @@ import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.noInteractions;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.support.ServerErrorFailure;
@@ -111,6 +117,133 @@ class PageableFetcherTest {
     verify(pageProcessor, times(10)).processPage(any());
   }
 
+  @Test
+  void shouldFetchPagesWhilstProcessingPreviousPageWhenPrefetching() {
+    final var pageSize = limit(10);
+    final var requestedOffsets = new ArrayList<Integer>();
+    final var processedPages = new ArrayList<List<Integer>>();
+    final var processing = new ArrayList<CompletableFuture<Result<Void>>>();
+
+    final GetManyRecordsRepository<Integer> repository = (query, pageLimit, offset) -> {
+      requestedOffsets.add(offset.getOffset());
+      return repository(35).getMany(query, pageLimit, offset);
+    };
+
+    final PageProcessor<Integer> pageProcessor = records -> {
+      processedPages.add(records.getRecords().stream().collect(toList()));
+      final var pageProcessing = new CompletableFuture<Result<Void>>();
+      processing.add(pageProcessing);
+      return pageProcessing;
+    };
+
+    final var voidResult = new PageableFetcher<>(repository, pageSize, 1000)
+      .withPagesToPrefetch(2)
+      .processPages(noQuery().value(), pageProcessor);
+
+    assertThat(requestedOffsets, is(List.of(0, 10, 20)));
+
+    processing.get(0).complete(Result.succeeded(null));
+
+    assertThat(requestedOffsets, is(List.of(0, 10, 20, 30)));
+
+    processing.get(1).complete(Result.succeeded(null));
+    processing.get(2).complete(Result.succeeded(null));
+
+    // No page is requested beyond the total number of records
+    assertThat(requestedOffsets, is(List.of(0, 10, 20, 30)));
+
+    processing.get(3).complete(Result.succeeded(null));
+
+    assertThat(voidResult.getNow(failed(new ServerErrorFailure("Time out"))).succeeded(),
+      is(true));
+    assertThat(processedPages.stream().map(page -> page.get(0)).collect(toList()),
+      is(List.of(0, 10, 20, 30)));
+  }
+
+  @Test
+  void shouldProcessSamePagesWhenPrefetching() {
+    final var pageSize = limit(10);
+    final var pageProcessor = spy(dummyProcessor());
+
+    final var voidResult = new PageableFetcher<>(repository(100), pageSize, 1000)
+      .withPagesToPrefetch(3)
+      .processPages(noQuery().value(), pageProcessor)
+      .getNow(Result.failed(new ServerErrorFailure("Time out")));
+
+    assertThat(voidResult.succeeded(), is(true));
+    verify(pageProcessor, times(11)).processPage(any());
+  }
+
+  @Test
+  void shouldFetchRecordsAfterLastIdOfPreviousPageWhenUsingKeysetPagination() {
+    final var ids = range(0, 25).mapToObj(index -> String.format("id-%03d", index))
+      .collect(toList());
+
+    final var requestedQueries = new ArrayList<CqlQuery>();
+    final var lastIdReturned = new AtomicReference<>("");
+
+    final GetManyRecordsRepository<String> repository = (query, pageLimit, offset) -> {
+      requestedQueries.add(query);
+
+      final var page = ids.stream()
+        .filter(id -> id.compareTo(lastIdReturned.get()) > 0)
+        .limit(pageLimit.getLimit())
+        .collect(toList());
+
+      lastIdReturned.set(page.get(page.size() - 1));
+
+      return ofAsync(() -> new MultipleRecords<>(page, ids.size()));
+    };
+
+    final var processedRecords = new ArrayList<String>();
+
+    final var voidResult = new PageableFetcher<>(repository, limit(10), 1000)
+      .withKeysetPagination(id -> id)
+      .processPages(exactMatch("status", "Open").value().sortBy(ascending("dueDate")),
+        page -> {
+          processedRecords.addAll(page.getRecords());
+          return ofAsync(() -> null);
+        })
+      .getNow(failed(new ServerErrorFailure("Time out")));
+
+    assertThat(voidResult.succeeded(), is(true));
+    assertThat(processedRecords, is(ids));
+
+    assertThat(requestedQueries, is(List.of(
+      exactMatch("status", "Open").value().sortBy(ascending("id")),
+      keysetQuery("id-009"),
+      keysetQuery("id-019"))));
+  }
+
+  @Test
+  void shouldFetchNoMoreThanMaximumNumberOfRecords() {
+    final var records = new PageableFetcher<>(repository(100), limit(30), 1000)
+      .fetchRecords(noQuery().value(), 45)
+      .getNow(failed(new ServerErrorFailure("Time out")));
+
+    assertThat(records.value().size(), is(45));
+    assertThat(records.value().getRecords(),
+      is(range(0, 45).boxed().collect(toList())));
+    assertThat(records.value().getTotalRecords(), is(100));
+  }
+
+  @Test
+  void shouldFetchAllRecordsWhenFewerThanMaximumNumber() {
+    final var records = new PageableFetcher<>(repository(25), limit(10), 1000)
+      .fetchRecords(noQuery().value(), 100)
+      .getNow(failed(new ServerErrorFailure("Time out")));
+
+    assertThat(records.value().size(), is(25));
+    assertThat(records.value().getTotalRecords(), is(25));
+  }
+
+  private CqlQuery keysetQuery(String lastId) {
+    return exactMatch("status", "Open")
+      .combine(greaterThan("id", lastId), CqlQuery::and)
+      .value()
+      .sortBy(ascending("id"));
+  }
+
   private <T> Result<Void> processPages(GetManyRecordsRepository<T> repository,
     PageLimit pageLimit, PageProcessor<T> processor) {
 
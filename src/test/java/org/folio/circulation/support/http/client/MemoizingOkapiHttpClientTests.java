@@ -0,0 +1,128 @@
+package org.folio.circulation.support.http.client;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
+import static org.folio.circulation.support.http.client.Offset.offset;
+import static org.folio.circulation.support.http.client.PageLimit.limit;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+
+import io.vertx.core.json.JsonObject;
+
+class MemoizingOkapiHttpClientTests {
+  private static final String URL = "/item-storage/items";
+
+  private final OkapiHttpClient delegate = mock(OkapiHttpClient.class);
+  private final MemoizingOkapiHttpClient client = new MemoizingOkapiHttpClient(delegate);
+
+  @Test
+  void identicalGetRequestsShareTheResponse() {
+    when(delegate.get(anyString(), ArgumentMatchers.<QueryParameter>any()))
+      .thenAnswer(invocation -> completedFuture(succeeded(response())));
+
+    final Response first = client.get(URL, exactMatch("barcode", "123").value(),
+      limit(1)).join().value();
+    final Response second = client.get(URL, exactMatch("barcode", "123").value(),
+      limit(1)).join().value();
+
+    assertThat(second.getJson(), is(first.getJson()));
+    assertThat(second.getJson(), is(not(sameInstance(first.getJson()))));
+    verify(delegate, times(1)).get(anyString(), ArgumentMatchers.<QueryParameter>any());
+    assertThat(client.getGetRequests(), is(2));
+    assertThat(client.getSavedGetRequests(), is(1));
+  }
+
+  @Test
+  void concurrentIdenticalGetRequestsShareTheRequestInFlight() {
+    final CompletableFuture<Result<Response>> inFlight = new CompletableFuture<>();
+
+    when(delegate.get(anyString(), ArgumentMatchers.<QueryParameter>any())).thenReturn(inFlight);
+
+    final var first = client.get(URL);
+    final var second = client.get(URL);
+
+    inFlight.complete(succeeded(response()));
+
+    assertThat(second.join().value().getJson(), is(first.join().value().getJson()));
+    verify(delegate, times(1)).get(anyString(), ArgumentMatchers.<QueryParameter>any());
+  }
+
+  @Test
+  void getRequestsWithDifferentQueryParametersAreNotShared() {
+    when(delegate.get(anyString(), ArgumentMatchers.<QueryParameter>any()))
+      .thenAnswer(invocation -> completedFuture(succeeded(response())));
+
+    client.get(URL, exactMatch("barcode", "123").value()).join();
+    client.get(URL, exactMatch("barcode", "456").value()).join();
+    client.get(URL, exactMatch("barcode", "123").value(), limit(1)).join();
+
+    verify(delegate, times(3)).get(anyString(), ArgumentMatchers.<QueryParameter>any());
+    assertThat(client.getSavedGetRequests(), is(0));
+  }
+
+  @Test
+  void getRequestsForManyRecordsAreNotShared() {
+    when(delegate.get(anyString(), ArgumentMatchers.<QueryParameter>any()))
+      .thenAnswer(invocation -> completedFuture(succeeded(response())));
+
+    client.get(URL, exactMatch("status", "Available").value(), limit(100)).join();
+    client.get(URL, exactMatch("status", "Available").value(), limit(100)).join();
+    client.get(URL, exactMatch("barcode", "123").value(), limit(1), offset(1)).join();
+    client.get(URL, exactMatch("barcode", "123").value(), limit(1), offset(1)).join();
+    client.get(URL + "?limit=1").join();
+    client.get(URL + "?limit=1").join();
+
+    verify(delegate, times(6)).get(anyString(), ArgumentMatchers.<QueryParameter>any());
+    assertThat(client.getGetRequests(), is(6));
+    assertThat(client.getSavedGetRequests(), is(0));
+  }
+
+  @Test
+  void failedGetRequestsAreNotShared() {
+    when(delegate.get(anyString(), ArgumentMatchers.<QueryParameter>any()))
+      .thenReturn(completedFuture(failed(new ServerErrorFailure("storage down"))))
+      .thenAnswer(invocation -> completedFuture(succeeded(response())));
+
+    assertThat(client.get(URL).join().failed(), is(true));
+    assertThat(client.get(URL).join().succeeded(), is(true));
+
+    verify(delegate, times(2)).get(anyString(), ArgumentMatchers.<QueryParameter>any());
+  }
+
+  @Test
+  void writesForgetSharedResponses() {
+    when(delegate.get(anyString(), ArgumentMatchers.<QueryParameter>any()))
+      .thenAnswer(invocation -> completedFuture(succeeded(response())));
+    when(delegate.put(anyString(), any(JsonObject.class)))
+      .thenReturn(completedFuture(succeeded(new Response(204, "", null))));
+
+    client.get(URL).join();
+    client.put(URL + "/123", new JsonObject()).join();
+    client.get(URL).join();
+
+    verify(delegate, times(2)).get(anyString(), ArgumentMatchers.<QueryParameter>any());
+    assertThat(client.getSavedGetRequests(), is(0));
+  }
+
+  private static Response response() {
+    return new Response(200, new JsonObject().put("totalRecords", 0).encode(),
+      "application/json");
+  }
+}
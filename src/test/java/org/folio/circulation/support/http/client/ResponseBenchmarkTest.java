@@ -0,0 +1,113 @@
+package org.folio.circulation.support.http.client;
+
+import static io.vertx.core.MultiMap.caseInsensitiveMultiMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.invoke.MethodHandles;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.circulation.support.Benchmark;
+import org.folio.circulation.support.Benchmark.Measurement;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compares the allocations and time of handling a page of 1000 records with how it was
+ * handled before the response kept the received body, both for a response that is only
+ * read once and for one shared by several requests (by identical GET requests or the
+ * reference data cache), each of which reads the JSON of its own copy.
+ */
+class ResponseBenchmarkTest {
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int ITERATIONS = 20;
+  private static final int READS = 4;
+
+  private final Buffer body = pageOfLoans(1000);
+  private final MultiMap headers = caseInsensitiveMultiMap()
+    .add("content-type", "application/json")
+    .add("content-length", String.valueOf(body.length()));
+
+  @Test
+  void parsingReceivedBodyAllocatesLessWhenResponseIsReadOnce() {
+    assumeTrue(Benchmark.isSupported());
+
+    final Measurement before = Benchmark.measure(ITERATIONS, () -> {
+      final MultiMap copiedHeaders = caseInsensitiveMultiMap().addAll(headers);
+
+      copiedHeaders.get("content-type");
+
+      new JsonObject(body.toString());
+    });
+
+    final Measurement after = Benchmark.measure(ITERATIONS, () ->
+      Response.responseFrom("/loan-storage/loans", 200, body, headers).getJson());
+
+    log.info("Before, decoding and parsing a single read: {}", before);
+    log.info("After, parsing the received body of a single read: {}", after);
+
+    assertThat(after.getBytesPerOperation(), lessThan(before.getBytesPerOperation()));
+  }
+
+  @Test
+  void parsingReceivedBodyOnceAllocatesLessWhenResponseIsShared() {
+    assumeTrue(Benchmark.isSupported());
+
+    final Measurement before = Benchmark.measure(ITERATIONS, () -> {
+      final MultiMap copiedHeaders = caseInsensitiveMultiMap().addAll(headers);
+      final String bodyAsString = body.toString();
+
+      copiedHeaders.get("content-type");
+
+      for (int read = 0; read < READS; read++) {
+        new JsonObject(bodyAsString);
+      }
+    });
+
+    final Measurement after = Benchmark.measure(ITERATIONS, () -> {
+      final Response response = Response.responseFrom("/loan-storage/loans", 200,
+        body, headers);
+
+      for (int read = 0; read < READS; read++) {
+        response.copy().getJson();
+      }
+    });
+
+    log.info("Before, decoding and parsing each time: {}", before);
+    log.info("After, parsing the received body once: {}", after);
+
+    assertThat(after.getBytesPerOperation(), lessThan(before.getBytesPerOperation()));
+  }
+
+  private static Buffer pageOfLoans(int numberOfLoans) {
+    final JsonArray loans = new JsonArray();
+
+    IntStream.range(0, numberOfLoans).forEach(index -> loans.add(new JsonObject()
+      .put("id", UUID.randomUUID().toString())
+      .put("userId", UUID.randomUUID().toString())
+      .put("itemId", UUID.randomUUID().toString())
+      .put("status", new JsonObject().put("name", "Open"))
+      .put("action", "checkedout")
+      .put("loanDate", "2020-01-01T10:00:00.000Z")
+      .put("dueDate", "2020-01-15T23:59:59.000Z")
+      .put("loanPolicyId", UUID.randomUUID().toString())
+      .put("checkoutServicePointId", UUID.randomUUID().toString())
+      .put("metadata", new JsonObject()
+        .put("createdDate", "2020-01-01T10:00:00.000Z")
+        .put("createdByUserId", UUID.randomUUID().toString()))));
+
+    return new JsonObject()
+      .put("loans", loans)
+      .put("totalRecords", numberOfLoans)
+      .toBuffer();
+  }
+}
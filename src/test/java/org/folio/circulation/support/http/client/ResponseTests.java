@@ -0,0 +1,62 @@
+package org.folio.circulation.support.http.client;
+
+import static io.vertx.core.MultiMap.caseInsensitiveMultiMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+class ResponseTests {
+  @Test
+  void jsonIsParsedFromReceivedBody() {
+    final Response response = received("{\"name\": \"café\"}");
+
+    assertThat(response.hasBody(), is(true));
+    assertThat(response.getJson().getString("name"), is("café"));
+    assertThat(response.getBody(), is("{\"name\": \"café\"}"));
+    assertThat(response.getContentType(), is("application/json"));
+    assertThat(response.getHeader("Content-Type"), is("application/json"));
+  }
+
+  @Test
+  void jsonIsOnlyParsedOnce() {
+    final Response response = received("{\"name\": \"book\"}");
+
+    assertThat(response.getJson(), is(sameInstance(response.getJson())));
+  }
+
+  @Test
+  void changingJsonOfACopyDoesNotChangeResponse() {
+    final Response response = received("{\"name\": \"book\"}");
+
+    final JsonObject json = response.copy().getJson();
+    json.put("name", "changed");
+
+    assertThat(response.getJson().getString("name"), is("book"));
+    assertThat(response.copy().getJson().getString("name"), is("book"));
+    assertThat(response.copy().getBody(), is("{\"name\": \"book\"}"));
+  }
+
+  @Test
+  void blankOrMissingBodyIsEmptyJson() {
+    assertThat(received(" \n").hasBody(), is(false));
+    assertThat(received(" \n").getJson(), is(new JsonObject()));
+
+    final Response withoutBody = Response.responseFrom("/items", 204, null,
+      caseInsensitiveMultiMap());
+
+    assertThat(withoutBody.hasBody(), is(false));
+    assertThat(withoutBody.getBody(), is(nullValue()));
+    assertThat(withoutBody.getJson(), is(new JsonObject()));
+  }
+
+  private static Response received(String body) {
+    return Response.responseFrom("/items", 200, Buffer.buffer(body),
+      caseInsensitiveMultiMap().add("content-type", "application/json"));
+  }
+}
@@ -0,0 +1,133 @@
+package org.folio.circulation.support.json;
+
+import static org.folio.circulation.support.json.JsonRecordsDecoder.decode;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.http.client.Response;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+class JsonRecordsDecoderTests {
+  @Test
+  void recordsAreMappedAndTotalRecordsIsDecoded() {
+    final var records = decodeNames(new JsonObject()
+      .put("totalRecords", 3)
+      .put("items", new JsonArray()
+        .add(named("Foo"))
+        .add(named("Bar"))
+        .add(named("Lorem"))));
+
+    assertThat(records.getRecords(), contains("Foo", "Bar", "Lorem"));
+    assertThat(records.getTotalRecords(), is(3));
+  }
+
+  @Test
+  void totalRecordsCanFollowTheRecords() {
+    final var records = decodeNames(new JsonObject()
+      .put("items", new JsonArray().add(named("Foo")))
+      .put("totalRecords", 15));
+
+    assertThat(records.getTotalRecords(), is(15));
+  }
+
+  @Test
+  void otherPropertiesAndEntriesThatAreNotObjectsAreSkipped() {
+    final var records = decodeNames(new JsonObject()
+      .put("resultInfo", new JsonObject()
+        .put("facets", new JsonArray().add(new JsonObject().put("name", "Ignored"))))
+      .put("items", new JsonArray()
+        .add("Bar")
+        .add(named("Foo"))
+        .addNull()
+        .add(new JsonArray().add(named("Nested")))
+        .add(named("Ipsum"))));
+
+    assertThat(records.getRecords(), contains("Foo", "Ipsum"));
+    assertThat(records.getTotalRecords(), is(nullValue()));
+  }
+
+  @Test
+  void recordIsTheSameAsWhenParsedAsAWhole() {
+    final var record = new JsonObject()
+      .put("id", "4ea8f5b4-f2d6-4dfa-a10e-5e1b64b0d1b8")
+      .put("count", 12)
+      .put("large", 12345678901L)
+      .put("amount", 10.5)
+      .put("active", true)
+      .put("missing", (Object) null)
+      .put("status", new JsonObject().put("name", "Open"))
+      .put("tags", new JsonArray().add("a").add(new JsonObject().put("b", 1)));
+
+    final var body = new JsonObject()
+      .put("items", new JsonArray().add(record))
+      .toBuffer();
+
+    final List<JsonObject> decoded = new ArrayList<>(
+      decode(body, "items", Function.identity()).getRecords());
+
+    assertThat(decoded, contains(new JsonObject(body).getJsonArray("items")
+      .getJsonObject(0)));
+  }
+
+  @Test
+  void emptyBodyHasNoRecords() {
+    final var records = decode(Buffer.buffer(" "), "items", Function.identity());
+
+    assertThat(records.getRecords(), is(empty()));
+    assertThat(records.getTotalRecords(), is(nullValue()));
+  }
+
+  @Test
+  void missingRecordsPropertyHasNoRecords() {
+    final var records = decodeNames(new JsonObject().put("totalRecords", 0));
+
+    assertThat(records.getRecords(), is(empty()));
+    assertThat(records.getTotalRecords(), is(0));
+  }
+
+  @Test
+  void invalidJsonCannotBeDecoded() {
+    final var body = Buffer.buffer("{\"items\": [{\"name\": \"Foo\"}");
+
+    assertThrows(DecodeException.class,
+      () -> decode(body, "items", Function.identity()));
+  }
+
+  @Test
+  void recordsThatAreNotAnArrayCannotBeDecoded() {
+    final var body = new JsonObject().put("items", "Foo").toBuffer();
+
+    assertThrows(DecodeException.class,
+      () -> decode(body, "items", Function.identity()));
+  }
+
+  @Test
+  void responseThatCannotBeDecodedIsAFailure() {
+    final var response = new Response(200, "[]", "application/json");
+
+    assertThat(MultipleRecords.from(response, Function.identity(), "items")
+      .failed(), is(true));
+  }
+
+  private static MultipleRecords<String> decodeNames(JsonObject collection) {
+    return decode(collection.toBuffer(), "items", json -> json.getString("name"));
+  }
+
+  private static JsonObject named(String name) {
+    return new JsonObject().put("name", name);
+  }
+}